@@ -31,7 +31,7 @@ import java.util.stream.IntStream;
 import org.chocosolver.samples.AbstractProblem;
 import org.chocosolver.solver.ResolutionPolicy;
 import org.chocosolver.solver.Solver;
-import org.chocosolver.solver.constraints.nary.mean.Mean;
+import org.chocosolver.solver.constraints.SyatConstraintFactory;
 import org.chocosolver.solver.constraints.real.Ibex;
 import org.chocosolver.solver.constraints.real.RealConstraint;
 import org.chocosolver.solver.constraints.statistical.chisquare.ChiSquareFitPoisson;
@@ -130,12 +130,12 @@ public class Newsvendor extends AbstractProblem {
         
         if(type == ModelType.CI_UPPER_BOUND_A) {
            mean = VariableFactory.real("sampleMeanVar", Integer.MIN_VALUE, Integer.MAX_VALUE, precision, solver);
-           Mean.decompose("sampleMeanCon", randomVariates, mean, precision);
+           solver.post(SyatConstraintFactory.mean(randomVariates, mean));
            solver.post(new RealConstraint("mean", "{0}>={1}", Ibex.HC4_NEWTON, new RealVar[] {lambda,mean}));
         }
         else if(type == ModelType.CI_UPPER_BOUND_B) {
            mean = VariableFactory.real("sampleMeanVar", Integer.MIN_VALUE, Integer.MAX_VALUE, precision, solver);
-           Mean.decompose("sampleMeanCon", randomVariates, mean, precision);
+           solver.post(SyatConstraintFactory.mean(randomVariates, mean));
            solver.post(new RealConstraint("mean", "{0}<={1}", Ibex.HC4_NEWTON, new RealVar[] {lambda,mean}));
         }
         
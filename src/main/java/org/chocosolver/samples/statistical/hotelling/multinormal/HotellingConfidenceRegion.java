@@ -54,7 +54,6 @@ import org.chocosolver.util.ESat;
 
 public class HotellingConfidenceRegion extends AbstractProblem {
    public RealVar[] muVariable;
-   public RealVar[][] observationVariable;
    public RealVar statisticVariable;
 
    double[][] muDomains;
@@ -84,13 +83,6 @@ public class HotellingConfidenceRegion extends AbstractProblem {
       for(int i = 0; i < this.muVariable.length; i++)
          muVariable[i] = VariableFactory.real("Mu "+(i+1), muDomains[i][0], muDomains[i][1], precision, solver);
 
-      observationVariable = new RealVar[this.observations.length][this.observations[0].length];
-      for(int i = 0; i < this.observations.length; i++){
-         for(int j = 0; j < this.observations[i].length; j++){
-            observationVariable[i][j] = VariableFactory.real("Obs_"+(i+1)+"_"+(j+1), observations[i][j], observations[i][j], precision, solver);
-         }
-      }
-      
       /**
        * Additional constraints as discussed in the research paper. Uncomment to post.
        */
@@ -111,25 +103,15 @@ public class HotellingConfidenceRegion extends AbstractProblem {
       
       statisticVariable = VF.real("T2", statistic[0], statistic[1], precision, solver);
 
-      tSquareStatistic.decompose("scoreConstraint", muVariable, observationVariable, statisticVariable, precision);
+      // observations are known, the confidence ellipsoid is projected without Ibex
+      tSquareStatistic.decompose("scoreConstraint", muVariable, observations, statisticVariable, precision);
    }
 
    @Override
    public void configureSearch() {
       RealStrategy strat1 = new RealStrategy(muVariable, new Cyclic(), new RealDomainMiddle());
-      RealStrategy strat2 = new RealStrategy(flatten(observationVariable), new Cyclic(), new RealDomainMiddle());
-      RealStrategy strat3 = new RealStrategy(new RealVar[]{statisticVariable}, new Cyclic(), new RealDomainMiddle());
-      solver.set(strat1, strat2, strat3);
-   }
-
-   private RealVar[] flatten(RealVar[][] matrix){
-      RealVar[] array = new RealVar[matrix.length*matrix[0].length];
-      for(int i = 0; i < matrix.length; i++){
-         for(int j = 0; j < matrix[i].length; j++){
-            array[i*matrix[i].length+j] = matrix[i][j];
-         }
-      }
-      return array;
+      RealStrategy strat2 = new RealStrategy(new RealVar[]{statisticVariable}, new Cyclic(), new RealDomainMiddle());
+      solver.set(strat1, strat2);
    }
 
    @Override
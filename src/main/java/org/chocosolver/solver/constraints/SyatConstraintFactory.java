@@ -29,6 +29,12 @@ package org.chocosolver.solver.constraints;
 import org.chocosolver.solver.constraints.nary.contingency.ContingencyDecompositions;
 import org.chocosolver.solver.constraints.nary.bincounts.BincountsDecompositionType;
 import org.chocosolver.solver.constraints.nary.bincounts.BincountsDecompositions;
+import org.chocosolver.solver.constraints.nary.deviation.DeviationConstraint;
+import org.chocosolver.solver.constraints.nary.deviation.DeviationType;
+import org.chocosolver.solver.constraints.nary.matrix.DotProductConstraint;
+import org.chocosolver.solver.constraints.nary.matrix.MatrixInversionConstraint;
+import org.chocosolver.solver.constraints.nary.mean.MeanConstraint;
+import org.chocosolver.solver.constraints.statistical.hotelling.tSquareConstraint;
 import org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov.KolmogorovSmirnov;
 import org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov.distributions.DistributionVar;
 import org.chocosolver.solver.variables.IntVar;
@@ -59,6 +65,44 @@ public class SyatConstraintFactory extends IntConstraintFactory {
       Operator op1 = Operator.get(op);
       return new KolmogorovSmirnov(observationsA, observationsB, op1, confidence);
    }
+   
+   /**
+    * Two-sample Kolmogorov-Smirnov statistical constraint, which filters large samples in parallel: 
+    * under operators {@code >=} and {@code <=}, the new bounds of a sample are computed concurrently 
+    * on the common fork-join pool, and then applied sequentially.
+    * 
+    * @param observationsA first list of observations
+    * @param observationsB second list of observations
+    * @param op operator that defines the comparison to be performed between the two distributions {@link org.chocosolver.solver.constraints.Operator
+}
+    * @param confidence test confidence level
+    * @param parallelThreshold smallest size of a sample for which its bounds are computed in parallel
+    * @return the Kolmogorov-Smirnov statistical constraint instance
+    */
+   public static KolmogorovSmirnov kolmogorov_smirnov(IntVar[] observationsA, IntVar[] observationsB, String op, double confidence, int parallelThreshold) {
+      Operator op1 = Operator.get(op);
+      return new KolmogorovSmirnov(observationsA, observationsB, op1, confidence, parallelThreshold);
+   }
+   
+   /**
+    * Two-sample Kolmogorov-Smirnov statistical constraint for large samples: bounds are filtered in parallel 
+    * as in {@link #kolmogorov_smirnov(IntVar[], IntVar[], String, double, int)}, and critical values are 
+    * computed on the Kolmogorov limiting distribution with Stephens' correction, see 
+    * {@link org.syat.statistics.KolmogorovSmirnovCriticalValues#accuracyReport(int[], double[], org.syat.statistics.KolmogorovSmirnovCriticalValues.Tail)}.
+    * 
+    * @param observationsA first list of observations
+    * @param observationsB second list of observations
+    * @param op operator that defines the comparison to be performed between the two distributions {@link org.chocosolver.solver.constraints.Operator
+}
+    * @param confidence test confidence level
+    * @param parallelThreshold smallest size of a sample for which its bounds are computed in parallel
+    * @param asymptoticThreshold smallest effective sample size nm/(n+m) for which the asymptotic distribution is used
+    * @return the Kolmogorov-Smirnov statistical constraint instance
+    */
+   public static KolmogorovSmirnov kolmogorov_smirnov(IntVar[] observationsA, IntVar[] observationsB, String op, double confidence, int parallelThreshold, int asymptoticThreshold) {
+      Operator op1 = Operator.get(op);
+      return new KolmogorovSmirnov(observationsA, observationsB, op1, confidence, parallelThreshold, asymptoticThreshold);
+   }
 
    /**
     * One sample Kolmogorov-Smirnov statistical constraint.
@@ -74,6 +118,76 @@ public class SyatConstraintFactory extends IntConstraintFactory {
       Operator op1 = Operator.get(op);
       return new KolmogorovSmirnov(observations, distribution, op1, confidence);
    }
+   
+   /**
+    * One sample Kolmogorov-Smirnov statistical constraint, which filters large samples in parallel: 
+    * under operators {@code >=} and {@code <=}, the new bounds of the observations are computed 
+    * concurrently on the common fork-join pool, and then applied sequentially.
+    * 
+    * @param observations list of observations
+    * @param distribution target distribution, whose cdf must be safe for concurrent calls
+    * @param op operator that defines the comparison to be performed between the two distributions {@link org.chocosolver.solver.constraints.Operator
+}
+    * @param confidence test confidence level
+    * @param parallelThreshold smallest number of observations for which bounds are computed in parallel
+    * @return the Kolmogorov-Smirnov statistical constraint instance
+    */
+   public static KolmogorovSmirnov kolmogorov_smirnov(IntVar[] observations, Distribution distribution, String op, double confidence, int parallelThreshold) {
+      Operator op1 = Operator.get(op);
+      return new KolmogorovSmirnov(observations, distribution, op1, confidence, parallelThreshold);
+   }
+   
+   /**
+    * One sample Kolmogorov-Smirnov statistical constraint for large samples: bounds are filtered in parallel 
+    * as in {@link #kolmogorov_smirnov(IntVar[], Distribution, String, double, int)}, and critical values are 
+    * computed on the Kolmogorov limiting distribution with Stephens' correction, see 
+    * {@link org.syat.statistics.KolmogorovSmirnovCriticalValues#accuracyReport(int[], double[], org.syat.statistics.KolmogorovSmirnovCriticalValues.Tail)}.
+    * 
+    * @param observations list of observations
+    * @param distribution target distribution, whose cdf must be safe for concurrent calls
+    * @param op operator that defines the comparison to be performed between the two distributions {@link org.chocosolver.solver.constraints.Operator
+}
+    * @param confidence test confidence level
+    * @param parallelThreshold smallest number of observations for which bounds are computed in parallel
+    * @param asymptoticThreshold smallest number of observations for which the asymptotic distribution is used
+    * @return the Kolmogorov-Smirnov statistical constraint instance
+    */
+   public static KolmogorovSmirnov kolmogorov_smirnov(IntVar[] observations, Distribution distribution, String op, double confidence, int parallelThreshold, int asymptoticThreshold) {
+      Operator op1 = Operator.get(op);
+      return new KolmogorovSmirnov(observations, distribution, op1, confidence, parallelThreshold, asymptoticThreshold);
+   }
+
+   /**
+    * Two-sample Kolmogorov-Smirnov statistical constraint with real valued observations, 
+    * propagated on their bounds without Ibex.
+    * 
+    * @param observationsA first list of observations
+    * @param observationsB second list of observations
+    * @param op operator that defines the comparison to be performed between the two distributions {@link org.chocosolver.solver.constraints.Operator
+}
+    * @param confidence test confidence level
+    * @return the Kolmogorov-Smirnov statistical constraint instance
+    */
+   public static KolmogorovSmirnov kolmogorov_smirnov(RealVar[] observationsA, RealVar[] observationsB, String op, double confidence) {
+      Operator op1 = Operator.get(op);
+      return new KolmogorovSmirnov(observationsA, observationsB, op1, confidence);
+   }
+   
+   /**
+    * One sample Kolmogorov-Smirnov statistical constraint with real valued observations, 
+    * propagated on their bounds without Ibex.
+    * 
+    * @param observations list of observations
+    * @param distribution target distribution
+    * @param op operator that defines the comparison to be performed between the two distributions {@link org.chocosolver.solver.constraints.Operator
+}
+    * @param confidence test confidence level
+    * @return the Kolmogorov-Smirnov statistical constraint instance
+    */
+   public static KolmogorovSmirnov kolmogorov_smirnov(RealVar[] observations, Distribution distribution, String op, double confidence) {
+      Operator op1 = Operator.get(op);
+      return new KolmogorovSmirnov(observations, distribution, op1, confidence);
+   }
 
    /**
     * One sample Kolmogorov-Smirnov statistical constraint with parameterised target distribution.
@@ -90,6 +204,127 @@ public class SyatConstraintFactory extends IntConstraintFactory {
       return new KolmogorovSmirnov(observations, distribution, op1, confidence);
    }
    
+   /**
+    * {@code MEAN} constraint with integer valued observations.
+    * 
+    * @param observations observations
+    * @param mean mean value
+    * @return the {@code MEAN} constraint instance
+    */
+   public static MeanConstraint mean(IntVar[] observations, RealVar mean){
+      return new MeanConstraint(observations, mean);
+   }
+   
+   /**
+    * {@code MEAN} constraint with real valued observations.
+    * 
+    * @param observations observations
+    * @param mean mean value
+    * @return the {@code MEAN} constraint instance
+    */
+   public static MeanConstraint mean(RealVar[] observations, RealVar mean){
+      return new MeanConstraint(observations, mean);
+   }
+   
+   /**
+    * {@code VARIANCE}, {@code STANDARD_DEVIATION} or {@code STANDARD_ERROR} constraint with integer valued observations.
+    * 
+    * @param observations observations
+    * @param statistic statistic
+    * @param type statistic type {@link org.chocosolver.solver.constraints.nary.deviation.DeviationType}
+    * @return the constraint instance
+    */
+   public static DeviationConstraint deviation(IntVar[] observations, RealVar statistic, DeviationType type){
+      return new DeviationConstraint(observations, statistic, type);
+   }
+   
+   /**
+    * {@code VARIANCE}, {@code STANDARD_DEVIATION} or {@code STANDARD_ERROR} constraint with real valued observations.
+    * 
+    * @param observations observations
+    * @param statistic statistic
+    * @param type statistic type {@link org.chocosolver.solver.constraints.nary.deviation.DeviationType}
+    * @return the constraint instance
+    */
+   public static DeviationConstraint deviation(RealVar[] observations, RealVar statistic, DeviationType type){
+      return new DeviationConstraint(observations, statistic, type);
+   }
+   
+   /**
+    * {@code POOLED_VARIANCE} or {@code POOLED_STANDARD_DEVIATION} constraint with integer valued observations.
+    * 
+    * @param observationsA population A observations
+    * @param observationsB population B observations
+    * @param statistic statistic
+    * @param type statistic type {@link org.chocosolver.solver.constraints.nary.deviation.DeviationType}
+    * @return the constraint instance
+    */
+   public static DeviationConstraint deviation(IntVar[] observationsA, IntVar[] observationsB, RealVar statistic, DeviationType type){
+      return new DeviationConstraint(observationsA, observationsB, statistic, type);
+   }
+   
+   /**
+    * {@code POOLED_VARIANCE} or {@code POOLED_STANDARD_DEVIATION} constraint with real valued observations.
+    * 
+    * @param observationsA population A observations
+    * @param observationsB population B observations
+    * @param statistic statistic
+    * @param type statistic type {@link org.chocosolver.solver.constraints.nary.deviation.DeviationType}
+    * @return the constraint instance
+    */
+   public static DeviationConstraint deviation(RealVar[] observationsA, RealVar[] observationsB, RealVar statistic, DeviationType type){
+      return new DeviationConstraint(observationsA, observationsB, statistic, type);
+   }
+   
+   /**
+    * {@code MATRIX_INVERSION} constraint: {@code inverse} is the inverse matrix of {@code matrix}.
+    * 
+    * @param matrix square matrix
+    * @param inverse inverse matrix
+    * @return the {@code MATRIX_INVERSION} constraint instance
+    */
+   public static MatrixInversionConstraint matrixInversion(RealVar[][] matrix, RealVar[][] inverse){
+      return new MatrixInversionConstraint(matrix, inverse);
+   }
+   
+   /**
+    * {@code DOT_PRODUCT} constraint: {@code C = A.B}.
+    * 
+    * @param A a matrix A
+    * @param B a matrix B
+    * @param C a matrix C such that C = A.B
+    * @return the {@code DOT_PRODUCT} constraint instance
+    */
+   public static DotProductConstraint dotProduct(RealVar[][] A, RealVar[][] B, RealVar[][] C){
+      return new DotProductConstraint(A, B, C);
+   }
+   
+   /**
+    * Hotelling t squared statistical constraint with scalar observations and known variance-covariance matrix.
+    * 
+    * @param mu mean array [nbFactors]
+    * @param sigma variance-covariance matrix [nbFactors][nbFactors]
+    * @param observations observations matrix [nbObservations][nbFactors]
+    * @param statistic t squared statistic
+    * @return the Hotelling t squared statistical constraint instance
+    */
+   public static tSquareConstraint tSquare(RealVar[] mu, double[][] sigma, double[][] observations, RealVar statistic){
+      return new tSquareConstraint(mu, sigma, observations, statistic);
+   }
+   
+   /**
+    * Hotelling t squared statistical constraint with scalar observations, from which the 
+    * variance-covariance matrix is estimated.
+    * 
+    * @param mu mean array [nbFactors]
+    * @param observations observations matrix [nbObservations][nbFactors]
+    * @param statistic t squared statistic
+    * @return the Hotelling t squared statistical constraint instance
+    */
+   public static tSquareConstraint tSquare(RealVar[] mu, double[][] observations, RealVar statistic){
+      return new tSquareConstraint(mu, observations, statistic);
+   }
+   
    /**
     * Decomposition of the {@code BINCOUNTS} global constraint with integer valued observations.
     * 
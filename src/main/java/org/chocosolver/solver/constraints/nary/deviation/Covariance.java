@@ -26,16 +26,12 @@
 
 package org.chocosolver.solver.constraints.nary.deviation;
 
-import java.util.Arrays;
-
 import org.chocosolver.solver.Solver;
-import org.chocosolver.solver.constraints.nary.mean.Mean;
+import org.chocosolver.solver.constraints.nary.mean.SharedExpressions;
 import org.chocosolver.solver.constraints.real.Ibex;
 import org.chocosolver.solver.constraints.real.RealConstraint;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.RealVar;
-import org.chocosolver.solver.variables.VF;
-import org.chocosolver.solver.variables.VariableFactory;
 
 /**
  * Decompositions of the {@code COVARIANCE} constraint
@@ -62,17 +58,8 @@ public class Covariance {
                                 double precision){
       Solver solver = covariance.getSolver();
 
-      int minA = Arrays.stream(observationsA).mapToInt(o -> o.getLB()).min().getAsInt();
-      int maxA = Arrays.stream(observationsA).mapToInt(o -> o.getUB()).max().getAsInt();
-
-      RealVar meanA = VariableFactory.real("Mean A", minA, maxA, precision, solver);
-      Mean.decompose("MeanConstraint A", observationsA, meanA, precision);
-
-      int minB = Arrays.stream(observationsB).mapToInt(o -> o.getLB()).min().getAsInt();
-      int maxB = Arrays.stream(observationsB).mapToInt(o -> o.getUB()).max().getAsInt();
-
-      RealVar meanB = VariableFactory.real("Mean B", minB, maxB, precision, solver);
-      Mean.decompose("MeanConstraint B", observationsB, meanB, precision);
+      RealVar meanA = SharedExpressions.mean(observationsA, precision);
+      RealVar meanB = SharedExpressions.mean(observationsB, precision);
 
       String exp = "(";
       for(int i = 0; i < observationsA.length; i++){
@@ -83,8 +70,8 @@ public class Covariance {
       }
 
       RealVar[] allRealVariables = new RealVar[observationsA.length + observationsB.length + 3];
-      RealVar[] realObservationsA = VF.real(observationsA, precision);
-      RealVar[] realObservationsB = VF.real(observationsB, precision);
+      RealVar[] realObservationsA = SharedExpressions.real(observationsA, precision);
+      RealVar[] realObservationsB = SharedExpressions.real(observationsB, precision);
       System.arraycopy(realObservationsA, 0, allRealVariables, 0, observationsA.length);
       System.arraycopy(realObservationsB, 0, allRealVariables, observationsA.length, observationsB.length);
       allRealVariables[observationsA.length + observationsB.length] = covariance;
@@ -111,17 +98,8 @@ public class Covariance {
                                 double precision){
       Solver solver = covariance.getSolver();
 
-      double minA = Arrays.stream(observationsA).mapToDouble(o -> o.getLB()).min().getAsDouble();
-      double maxA = Arrays.stream(observationsA).mapToDouble(o -> o.getUB()).max().getAsDouble();
-
-      RealVar meanA = VariableFactory.real("Mean A", minA, maxA, precision, solver);
-      Mean.decompose("MeanConstraint A", observationsA, meanA, precision);
-
-      double minB = Arrays.stream(observationsB).mapToDouble(o -> o.getLB()).min().getAsDouble();
-      double maxB = Arrays.stream(observationsB).mapToDouble(o -> o.getUB()).max().getAsDouble();
-
-      RealVar meanB = VariableFactory.real("Mean B", minB, maxB, precision, solver);
-      Mean.decompose("MeanConstraint B", observationsB, meanB, precision);
+      RealVar meanA = SharedExpressions.mean(observationsA, precision);
+      RealVar meanB = SharedExpressions.mean(observationsB, precision);
 
       String exp = "(";
       for(int i = 0; i < observationsA.length; i++){
@@ -140,4 +118,96 @@ public class Covariance {
 
       solver.post(new RealConstraint(name, exp, Ibex.HC4_NEWTON, allRealVariables));
    }
+   
+   /**
+    * {@code COVARIANCE} constraint decomposition for integer valued observations based on the 
+    * sufficient statistics {@code sum x_i}, {@code sum y_i} and {@code sum x_i*y_i}, see 
+    * {@link #decomposeSufficient(String, RealVar[], RealVar[], RealVar, double)}
+    * 
+    * @param name constraint name
+    * @param observationsA population A observations
+    * @param observationsB population B observations
+    * @param covariance covariance
+    * @param precision Ibex precision
+    */
+   
+   public static void decomposeSufficient(String name,
+                                          IntVar[] observationsA,
+                                          IntVar[] observationsB,
+                                          RealVar covariance,
+                                          double precision){
+      decomposeSufficient(name, SharedExpressions.real(observationsA, precision), SharedExpressions.real(observationsB, precision), covariance, precision);
+   }
+   
+   /**
+    * {@code COVARIANCE} constraint decomposition for real valued observations based on the 
+    * sufficient statistics {@code sum x_i}, {@code sum y_i} and {@code sum x_i*y_i}: the covariance 
+    * is channelled by {@code (sum x_i*y_i - sum x_i*sum y_i/n)/(n-1)}, a constraint with a constant 
+    * number of terms, instead of a sum of products that all reference both means
+    * 
+    * @param name constraint name
+    * @param observationsA population A observations
+    * @param observationsB population B observations
+    * @param covariance covariance
+    * @param precision Ibex precision
+    */
+   
+   public static void decomposeSufficient(String name,
+                                          RealVar[] observationsA,
+                                          RealVar[] observationsB,
+                                          RealVar covariance,
+                                          double precision){
+      Solver solver = covariance.getSolver();
+      int n = observationsA.length;
+      
+      RealVar sumA = SufficientStatistics.sum(name+"_A", observationsA, precision);
+      RealVar sumB = SufficientStatistics.sum(name+"_B", observationsB, precision);
+      RealVar sumOfProducts = SufficientStatistics.sumOfProducts(name, observationsA, observationsB, precision);
+      
+      String exp = "({0}-{1}*{2}/"+n+")/"+(n-1)+"={3}";
+      
+      solver.post(new RealConstraint(name, exp, Ibex.HC4_NEWTON, new RealVar[]{sumOfProducts, sumA, sumB, covariance}));
+   }
+   
+   /**
+    * {@code COVARIANCE} matrix decomposition for real valued observations. Only the upper triangle 
+    * is decomposed: each cell is channelled by {@code (sum x_i*y_i - n*mean_x*mean_y)/(n-1)} over the 
+    * shared column means, and each diagonal cell by the sum of squared deviations of its column. 
+    * A lower triangle cell that is not the same variable as its transpose is constrained to be equal to it.
+    * 
+    * @param name constraint name
+    * @param observations observations matrix [nbObservations][nbFactors]
+    * @param matrix variance-covariance matrix [nbFactors][nbFactors]
+    * @param precision Ibex precision
+    */
+   
+   public static void decomposeMatrix(String name,
+                                      RealVar[][] observations,
+                                      RealVar[][] matrix,
+                                      double precision){
+      Solver solver = matrix[0][0].getSolver();
+      int n = observations.length;
+      
+      RealVar[][] columns = new RealVar[matrix.length][n];
+      RealVar[] means = new RealVar[matrix.length];
+      for(int i = 0; i < matrix.length; i++){
+         for(int k = 0; k < n; k++){
+            columns[i][k] = observations[k][i];
+         }
+         means[i] = SharedExpressions.mean(columns[i], precision);
+      }
+      
+      for(int i = 0; i < matrix.length; i++){
+         RealVar deviations = SufficientStatistics.sumOfSquaredDeviations(name+"_"+i, columns[i], precision);
+         solver.post(new RealConstraint(name+"_"+i+"_"+i, "{0}/"+(n-1)+"={1}", Ibex.HC4_NEWTON, new RealVar[]{deviations, matrix[i][i]}));
+         
+         for(int j = i + 1; j < matrix.length; j++){
+            RealVar sumOfProducts = SufficientStatistics.sumOfProducts(name+"_"+i+"_"+j, columns[i], columns[j], precision);
+            String exp = "({0}-"+n+"*{1}*{2})/"+(n-1)+"={3}";
+            solver.post(new RealConstraint(name+"_"+i+"_"+j, exp, Ibex.HC4_NEWTON, new RealVar[]{sumOfProducts, means[i], means[j], matrix[i][j]}));
+            if(matrix[j][i] != matrix[i][j])
+               solver.post(new RealConstraint(name+"_"+j+"_"+i, "{0}={1}", Ibex.HC4_NEWTON, new RealVar[]{matrix[i][j], matrix[j][i]}));
+         }
+      }
+   }
 }
@@ -0,0 +1,149 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.nary.deviation;
+
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.real.Ibex;
+import org.chocosolver.solver.constraints.real.RealPropagator;
+import org.chocosolver.solver.constraints.nary.mean.SharedExpressions;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.RealVar;
+
+/**
+ * {@code VARIANCE}, {@code STANDARD_DEVIATION}, {@code STANDARD_ERROR} and pooled variants, 
+ * filtered by a dedicated propagator rather than by the Ibex decompositions; when an observation 
+ * has infinite bounds the constraint is filtered by an Ibex expression of the statistic instead
+ * 
+ * @author Roberto Rossi
+ * @see <a href="https://en.wikipedia.org/wiki/Variance">Variance</a>
+ */
+
+@SuppressWarnings("serial")
+public class DeviationConstraint extends Constraint {
+   
+   /**
+    * Single sample statistic for integer valued observations; observations are 
+    * seen through real views with the precision of {@code statistic}
+    * 
+    * @param observations observations
+    * @param statistic statistic
+    * @param type {@code VARIANCE}, {@code STANDARD_DEVIATION} or {@code STANDARD_ERROR}
+    */
+   public DeviationConstraint(IntVar[] observations, RealVar statistic, DeviationType type){
+      this(SharedExpressions.real(observations, statistic.getPrecision()), statistic, type);
+   }
+   
+   /**
+    * Single sample statistic for real valued observations
+    * 
+    * @param observations observations
+    * @param statistic statistic
+    * @param type {@code VARIANCE}, {@code STANDARD_DEVIATION} or {@code STANDARD_ERROR}
+    */
+   public DeviationConstraint(RealVar[] observations, RealVar statistic, DeviationType type){
+      super(type.name(), createProp(new RealVar[][]{observations}, statistic, type));
+   }
+   
+   /**
+    * Pooled statistic for integer valued observations; observations are 
+    * seen through real views with the precision of {@code statistic}
+    * 
+    * @param observationsA population A observations
+    * @param observationsB population B observations
+    * @param statistic statistic
+    * @param type {@code POOLED_VARIANCE} or {@code POOLED_STANDARD_DEVIATION}
+    */
+   public DeviationConstraint(IntVar[] observationsA, IntVar[] observationsB, RealVar statistic, DeviationType type){
+      this(SharedExpressions.real(observationsA, statistic.getPrecision()), SharedExpressions.real(observationsB, statistic.getPrecision()), statistic, type);
+   }
+   
+   /**
+    * Pooled statistic for real valued observations
+    * 
+    * @param observationsA population A observations
+    * @param observationsB population B observations
+    * @param statistic statistic
+    * @param type {@code POOLED_VARIANCE} or {@code POOLED_STANDARD_DEVIATION}
+    */
+   public DeviationConstraint(RealVar[] observationsA, RealVar[] observationsB, RealVar statistic, DeviationType type){
+      super(type.name(), createProp(new RealVar[][]{observationsA, observationsB}, statistic, type));
+   }
+   
+   private static Propagator<RealVar> createProp(RealVar[][] samples, RealVar statistic, DeviationType type){
+      boolean pooled = type == DeviationType.POOLED_VARIANCE || type == DeviationType.POOLED_STANDARD_DEVIATION;
+      if(pooled != (samples.length == 2))
+         throw new SolverException(type+" is not defined on "+samples.length+" sample(s)");
+      int n = samples[0].length;
+      switch(type){
+      case VARIANCE:
+         return createProp(samples, statistic, n - 1, false);
+      case STANDARD_DEVIATION:
+         return createProp(samples, statistic, n - 1, true);
+      case STANDARD_ERROR:
+         return createProp(samples, statistic, (n - 1)*n, true);
+      case POOLED_VARIANCE:
+         return createProp(samples, statistic, n + samples[1].length - 2, false);
+      case POOLED_STANDARD_DEVIATION:
+         return createProp(samples, statistic, n + samples[1].length - 2, true);
+      default:
+         throw new NullPointerException();
+      }
+   }
+   
+   private static Propagator<RealVar> createProp(RealVar[][] samples, RealVar statistic, double denominator, boolean squareRoot){
+      boolean bounded = true;
+      int size = 1;
+      for(RealVar[] sample : samples){
+         for(RealVar o : sample)
+            bounded &= !Double.isInfinite(o.getLB()) && !Double.isInfinite(o.getUB());
+         size += sample.length;
+      }
+      if(bounded)
+         return new PropVariance(samples, statistic, denominator, squareRoot);
+      
+      // sum over the samples of sum x_i^2 - (sum x_i)^2/n, which needs no auxiliary mean variable
+      RealVar[] allRealVariables = new RealVar[size];
+      String exp = "(";
+      int k = 0;
+      for(RealVar[] sample : samples){
+         String sum = "";
+         String squares = "";
+         for(int i = 0; i < sample.length; i++, k++){
+            allRealVariables[k] = sample[i];
+            sum += (i > 0 ? "+" : "")+"{"+k+"}";
+            squares += (i > 0 ? "+" : "")+"{"+k+"}^2";
+         }
+         exp += (k > sample.length ? "+" : "")+"("+squares+"-("+sum+")^2/"+sample.length+")";
+      }
+      exp += ")/"+denominator;
+      allRealVariables[k] = statistic;
+      exp = (squareRoot ? "sqrt("+exp+")" : exp)+"={"+k+"}";
+      return new RealPropagator(exp, allRealVariables, Ibex.HC4_NEWTON);
+   }
+}
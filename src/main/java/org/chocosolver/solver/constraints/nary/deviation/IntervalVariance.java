@@ -0,0 +1,237 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.nary.deviation;
+
+import java.util.Arrays;
+
+/**
+ * Bounds on the sum of squared deviations from the mean {@code S(x) = sum (x_i - mean(x))^2} 
+ * of a sample whose observations range over the intervals {@code [l_i, u_i]}.
+ * 
+ * Since {@code S(x) = min_c sum (x_i - c)^2}, the minimum over the box is 
+ * {@code min_c sum dist(c, [l_i, u_i])^2}, a convex piecewise quadratic function of {@code c} 
+ * with breakpoints at the interval bounds; it is minimised exactly by a sweep over the sorted bounds 
+ * in O(n log n) (Ferson et al. 2002). 
+ * 
+ * Computing the maximum is NP-hard in general; swapping min and max gives the upper bound 
+ * {@code min_c sum (|c - m_i| + r_i)^2}, where {@code m_i} and {@code r_i} are midpoint and radius 
+ * of the intervals, which is minimised by a sweep over the sorted midpoints in O(n log n); when 
+ * a single interval differs from the ones last sorted, the sorted order is repaired in O(n). 
+ * 
+ * @author Roberto Rossi
+ */
+class IntervalVariance {
+   
+   private final int n;
+   private final double[] sortedL;
+   private final double[] sortedU;
+   
+   /**
+    * Sums {@code l_i + u_i} of the bounds last sorted, and permutation that sorts them
+    */
+   private final double[] keys;
+   private final int[] order;
+   private final int[] scratch;
+   
+   /**
+    * Centre {@code c} that attains the last bound computed
+    */
+   double center;
+   
+   IntervalVariance(int n){
+      this.n = n;
+      this.sortedL = new double[n];
+      this.sortedU = new double[n];
+      this.keys = new double[n];
+      this.order = new int[n];
+      this.scratch = new int[n];
+   }
+   
+   /**
+    * Exact minimum of {@code S(x)} over the box; the minimiser is {@code x_i = clamp(center, l_i, u_i)}.
+    * 
+    * @param l lower bounds
+    * @param u upper bounds
+    * @return the minimum sum of squared deviations
+    */
+   double minimum(double[] l, double[] u){
+      double shift = shift(l, u);
+      for(int i = 0; i < n; i++){
+         sortedL[i] = l[i] - shift;
+         sortedU[i] = u[i] - shift;
+      }
+      Arrays.sort(sortedL);
+      Arrays.sort(sortedU);
+      
+      // observations above c contribute (l_i - c)^2, observations below c contribute (c - u_i)^2
+      double aboveSum = 0, aboveSquares = 0;
+      for(int i = 0; i < n; i++){
+         aboveSum += sortedL[i];
+         aboveSquares += sortedL[i]*sortedL[i];
+      }
+      double belowSum = 0, belowSquares = 0;
+      int above = 0;  // index of the first lower bound greater than the current breakpoint
+      int below = 0;  // number of upper bounds not greater than the current breakpoint
+      
+      double best = Double.POSITIVE_INFINITY;
+      double breakpoint = Math.min(sortedL[0], sortedU[0]);
+      while(true){
+         while(above < n && sortedL[above] <= breakpoint){
+            aboveSum -= sortedL[above];
+            aboveSquares -= sortedL[above]*sortedL[above];
+            above++;
+         }
+         while(below < n && sortedU[below] <= breakpoint){
+            belowSum += sortedU[below];
+            belowSquares += sortedU[below]*sortedU[below];
+            below++;
+         }
+         double next = Math.min(above < n ? sortedL[above] : Double.POSITIVE_INFINITY, 
+                                below < n ? sortedU[below] : Double.POSITIVE_INFINITY);
+         
+         // within [breakpoint, next] the function is a quadratic in c, minimised at the mean of the contributions
+         int count = n - above + below;
+         double sum = aboveSum + belowSum;
+         double c = count == 0 ? breakpoint : Math.max(breakpoint, Math.min(next, sum/count));
+         double value = aboveSquares + belowSquares - 2*c*sum + count*c*c;
+         if(value < best){
+            best = value;
+            center = c + shift;
+         }
+         if(next == Double.POSITIVE_INFINITY)
+            break;
+         breakpoint = next;
+      }
+      return Math.max(0, best);
+   }
+   
+   /**
+    * Upper bound on the maximum of {@code S(x)} over the box; the vertex that sets 
+    * observations with midpoint not above {@code center} at their lower bound, 
+    * and the others at their upper bound, is a candidate maximiser.
+    * 
+    * @param l lower bounds
+    * @param u upper bounds
+    * @return an upper bound on the maximum sum of squared deviations
+    */
+   double maximum(double[] l, double[] u){
+      for(int i = 0; i < n; i++){
+         keys[i] = l[i] + u[i];
+         order[i] = i;
+      }
+      sort(0, n);
+      return sweep(l, u, order);
+   }
+   
+   /**
+    * Upper bound on the maximum of {@code S(x)} over a box that differs from the one last 
+    * passed to {@link #maximum(double[], double[])} only in the bounds of observation {@code i}.
+    * 
+    * @param l lower bounds
+    * @param u upper bounds
+    * @param i observation whose bounds changed
+    * @return an upper bound on the maximum sum of squared deviations
+    */
+   double maximum(double[] l, double[] u, int i){
+      // the order last sorted, with observation i moved to the position of its new key
+      double key = l[i] + u[i];
+      boolean inserted = false;
+      int k = 0;
+      for(int j : order){
+         if(j == i)
+            continue;
+         if(!inserted && key < keys[j]){
+            scratch[k++] = i;
+            inserted = true;
+         }
+         scratch[k++] = j;
+      }
+      if(!inserted)
+         scratch[k] = i;
+      return sweep(l, u, scratch);
+   }
+   
+   private double sweep(double[] l, double[] u, int[] sorted){
+      // observations with midpoint not above c contribute (c - l_i)^2, the others (u_i - c)^2
+      double shift = shift(l, u);
+      double sum = 0, squares = 0;
+      for(int i = 0; i < n; i++){
+         sum += u[i] - shift;
+         squares += (u[i] - shift)*(u[i] - shift);
+      }
+      double best = Double.POSITIVE_INFINITY;
+      for(int k = 0; k <= n; k++){
+         if(k > 0){
+            int j = sorted[k-1];
+            sum += l[j] - u[j];
+            squares += (l[j] - shift)*(l[j] - shift) - (u[j] - shift)*(u[j] - shift);
+         }
+         double from = k > 0 ? (l[sorted[k-1]] + u[sorted[k-1]])/2 - shift : Double.NEGATIVE_INFINITY;
+         double to = k < n ? (l[sorted[k]] + u[sorted[k]])/2 - shift : Double.POSITIVE_INFINITY;
+         double c = Math.max(from, Math.min(to, sum/n));
+         double value = squares - 2*c*sum + n*c*c;
+         if(value < best){
+            best = value;
+            center = c + shift;
+         }
+      }
+      return Math.max(0, best);
+   }
+   
+   /**
+    * Sorts {@code order[from..to)} by increasing {@code keys}, merging through {@code scratch}
+    */
+   private void sort(int from, int to){
+      if(to - from < 2)
+         return;
+      int mid = (from + to) >>> 1;
+      sort(from, mid);
+      sort(mid, to);
+      if(keys[order[mid-1]] <= keys[order[mid]])
+         return;
+      System.arraycopy(order, from, scratch, from, to - from);
+      for(int k = from, a = from, b = mid; k < to; k++){
+         if(b == to || (a < mid && keys[scratch[a]] <= keys[scratch[b]]))
+            order[k] = scratch[a++];
+         else
+            order[k] = scratch[b++];
+      }
+   }
+   
+   /**
+    * Centre of the box, subtracted from the bounds to limit cancellation in the sums of squares
+    */
+   private double shift(double[] l, double[] u){
+      double min = Double.POSITIVE_INFINITY;
+      double max = Double.NEGATIVE_INFINITY;
+      for(int i = 0; i < n; i++){
+         min = Math.min(min, l[i]);
+         max = Math.max(max, u[i]);
+      }
+      return (min + max)/2;
+   }
+}
@@ -26,14 +26,12 @@
 
 package org.chocosolver.solver.constraints.nary.deviation;
 
-import java.util.Arrays;
-
 import org.chocosolver.solver.Solver;
-import org.chocosolver.solver.constraints.nary.mean.Mean;
+import org.chocosolver.solver.constraints.nary.mean.SharedExpressions;
+import org.chocosolver.solver.constraints.real.Ibex;
 import org.chocosolver.solver.constraints.real.RealConstraint;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.RealVar;
-import org.chocosolver.solver.variables.VariableFactory;
 
 /**
  * Decompositions of the {@code POOLED_STANDARD_DEVIATION} constraint
@@ -62,17 +60,8 @@ public class PooledStandardDeviation {
       
       Solver solver = pooledStandardDeviation.getSolver();
 
-      int minA = Arrays.stream(observationsA).mapToInt(o -> o.getLB()).min().getAsInt();
-      int maxA = Arrays.stream(observationsA).mapToInt(o -> o.getUB()).max().getAsInt();
-
-      RealVar meanA = VariableFactory.real("MeanB", minA, maxA, precision, solver);
-      Mean.decompose("MeanConstraintA", observationsA, meanA, precision);
-      
-      int minB = Arrays.stream(observationsB).mapToInt(o -> o.getLB()).min().getAsInt();
-      int maxB = Arrays.stream(observationsB).mapToInt(o -> o.getUB()).max().getAsInt();
-      
-      RealVar meanB = VariableFactory.real("MeanB", minB, maxB, precision, solver);
-      Mean.decompose("MeanConstraintB", observationsB, meanB, precision);
+      RealVar meanA = SharedExpressions.mean(observationsA, precision);
+      RealVar meanB = SharedExpressions.mean(observationsB, precision);
 
       String exp = "sqrt((";
       for(int i = 0; i < observationsA.length + observationsB.length; i++){
@@ -85,8 +74,8 @@ public class PooledStandardDeviation {
       }
 
       RealVar[] allRealVariables = new RealVar[observationsA.length + observationsB.length + 3];
-      RealVar[] realObservationsA = VariableFactory.real(observationsA, precision);
-      RealVar[] realObservationsB = VariableFactory.real(observationsB, precision);
+      RealVar[] realObservationsA = SharedExpressions.real(observationsA, precision);
+      RealVar[] realObservationsB = SharedExpressions.real(observationsB, precision);
       System.arraycopy(realObservationsA, 0, allRealVariables, 0, observationsA.length);
       System.arraycopy(realObservationsB, 0, allRealVariables, observationsA.length, observationsB.length);
       allRealVariables[observationsA.length + observationsB.length] = pooledStandardDeviation;
@@ -114,17 +103,8 @@ public class PooledStandardDeviation {
       
       Solver solver = pooledStandardDeviation.getSolver();
       
-      double minA = Arrays.stream(observationsA).mapToDouble(o -> o.getLB()).min().getAsDouble();
-      double maxA = Arrays.stream(observationsA).mapToDouble(o -> o.getUB()).max().getAsDouble();
-
-      RealVar meanA = VariableFactory.real("MeanB", minA, maxA, precision, solver);
-      Mean.decompose("MeanConstraintA", observationsA, meanA, precision);
-      
-      double minB = Arrays.stream(observationsB).mapToDouble(o -> o.getLB()).min().getAsDouble();
-      double maxB = Arrays.stream(observationsB).mapToDouble(o -> o.getUB()).max().getAsDouble();
-      
-      RealVar meanB = VariableFactory.real("MeanB", minB, maxB, precision, solver);
-      Mean.decompose("MeanConstraintB", observationsB, meanB, precision);
+      RealVar meanA = SharedExpressions.mean(observationsA, precision);
+      RealVar meanB = SharedExpressions.mean(observationsB, precision);
 
       String exp = "sqrt((";
       for(int i = 0; i < observationsA.length + observationsB.length; i++){
@@ -145,4 +125,55 @@ public class PooledStandardDeviation {
 
       solver.post(new RealConstraint(exp, allRealVariables));
    }
+   
+   /**
+    * {@code POOLED_STANDARD_DEVIATION} constraint decomposition for integer valued observations based on the 
+    * sufficient statistics of each population, see 
+    * {@link #decomposeSufficient(String, RealVar[], RealVar[], RealVar, double)}
+    * 
+    * @param name constraint name
+    * @param observationsA population A observations
+    * @param observationsB population B observations
+    * @param pooledStandardDeviation pooled standard deviation
+    * @param precision Ibex precision
+    */
+   
+   public static void decomposeSufficient(String name,
+                                          IntVar[] observationsA,
+                                          IntVar[] observationsB,
+                                          RealVar pooledStandardDeviation,
+                                          double precision){
+      decomposeSufficient(name, SharedExpressions.real(observationsA, precision), SharedExpressions.real(observationsB, precision), pooledStandardDeviation, precision);
+   }
+   
+   /**
+    * {@code POOLED_STANDARD_DEVIATION} constraint decomposition for real valued observations based on the 
+    * sufficient statistics {@code sum x_i} and {@code sum x_i^2} of each population: the sum of 
+    * squared deviations of a population is {@code sum x_i^2 - (sum x_i)^2/n}, and the two sums are 
+    * pooled by a constraint with a constant number of terms
+    * 
+    * @param name constraint name
+    * @param observationsA population A observations
+    * @param observationsB population B observations
+    * @param pooledStandardDeviation pooled standard deviation
+    * @param precision Ibex precision
+    */
+   
+   public static void decomposeSufficient(String name,
+                                          RealVar[] observationsA,
+                                          RealVar[] observationsB,
+                                          RealVar pooledStandardDeviation,
+                                          double precision){
+      
+      Solver solver = pooledStandardDeviation.getSolver();
+      int nA = observationsA.length;
+      int nB = observationsB.length;
+      
+      RealVar deviationsA = SufficientStatistics.sumOfSquaredDeviations(name+"_A", observationsA, precision);
+      RealVar deviationsB = SufficientStatistics.sumOfSquaredDeviations(name+"_B", observationsB, precision);
+      
+      String exp = "sqrt(({0}+{1})/"+(nA+nB-2)+")={2}";
+      
+      solver.post(new RealConstraint(name, exp, Ibex.HC4_NEWTON, new RealVar[]{deviationsA, deviationsB, pooledStandardDeviation}));
+   }
 }
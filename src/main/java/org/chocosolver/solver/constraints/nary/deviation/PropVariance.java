@@ -0,0 +1,342 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.nary.deviation;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.RealVar;
+import org.chocosolver.util.ESat;
+
+/**
+ * Propagator for a statistic of the form {@code (S/d)} or {@code sqrt(S/d)}, where {@code S} is 
+ * the sum over one or more samples of the squared deviations from the sample mean, and {@code d} 
+ * a constant denominator; the last variable is the statistic.
+ * 
+ * The statistic is bounded by the exact minimum and by an upper bound on the maximum of {@code S} 
+ * over the observation bounds (see {@link IntervalVariance}). The bounds of each observation are 
+ * then shrunk by bisection, as the minimum and the upper bound on the maximum of {@code S} are 
+ * convex in the value of a single observation.
+ * 
+ * @author Roberto Rossi
+ */
+@SuppressWarnings("serial")
+class PropVariance extends Propagator<RealVar> {
+	
+	/**
+	 * Relative slack by which the bounds on {@code S} are relaxed, so that rounding errors 
+	 * never remove a valid value.
+	 */
+	private static final double TOLERANCE = 1e-9;
+	
+	private final RealVar[][] samples;
+	private final RealVar statistic;
+	private final double denominator;
+	private final boolean squareRoot;
+	
+	private final IntervalVariance[] intervals;
+	private final double[][] lb;
+	private final double[][] ub;
+	private final double[][] scratchLB;
+	private final double[][] scratchUB;
+	private final double[] minimum;
+	private final double[] maximum;
+	private final double[] minimumCenter;
+	private final double[] maximumCenter;
+	
+	/**
+	 * Sums and sums of squares of the deviations from the centre of the minimiser, and of 
+	 * the candidate maximiser, of each sample
+	 */
+	private final double[] minimizerSum;
+	private final double[] minimizerSquares;
+	private final double[] maximizerSum;
+	private final double[] maximizerSquares;
+	
+	private static RealVar[] mergeArrays(RealVar[][] samples, RealVar statistic){
+		int size = 1;
+		for(RealVar[] sample : samples)
+			size += sample.length;
+		RealVar[] vars = new RealVar[size];
+		int k = 0;
+		for(RealVar[] sample : samples){
+			System.arraycopy(sample, 0, vars, k, sample.length);
+			k += sample.length;
+		}
+		vars[k] = statistic;
+		return vars;
+	}
+	
+	/**
+	 * @param samples samples whose squared deviations are summed
+	 * @param statistic statistic
+	 * @param denominator constant by which the sum of squared deviations is divided
+	 * @param squareRoot whether the statistic is the square root of the ratio
+	 */
+    public PropVariance(RealVar[][] samples, RealVar statistic, double denominator, boolean squareRoot) {
+        super(mergeArrays(samples, statistic), PropagatorPriority.LINEAR, false);
+        for(RealVar[] sample : samples){
+        	if(sample.length < 2)
+        		throw new SolverException("Cannot compute deviations on single observations");
+        }
+        for(RealVar[] sample : samples){
+        	for(RealVar v : sample){
+        		if(Double.isInfinite(v.getLB()) || Double.isInfinite(v.getUB()))
+        			throw new SolverException("Observation "+v.getName()+" should have finite bounds");
+        	}
+        }
+        this.samples = samples;
+        this.statistic = statistic;
+        this.denominator = denominator;
+        this.squareRoot = squareRoot;
+        this.intervals = new IntervalVariance[samples.length];
+        this.lb = new double[samples.length][];
+        this.ub = new double[samples.length][];
+        this.scratchLB = new double[samples.length][];
+        this.scratchUB = new double[samples.length][];
+        for(int g = 0; g < samples.length; g++){
+        	int n = samples[g].length;
+        	this.intervals[g] = new IntervalVariance(n);
+        	this.lb[g] = new double[n];
+        	this.ub[g] = new double[n];
+        	this.scratchLB[g] = new double[n];
+        	this.scratchUB[g] = new double[n];
+        }
+        this.minimum = new double[samples.length];
+        this.maximum = new double[samples.length];
+        this.minimumCenter = new double[samples.length];
+        this.maximumCenter = new double[samples.length];
+        this.minimizerSum = new double[samples.length];
+        this.minimizerSquares = new double[samples.length];
+        this.maximizerSum = new double[samples.length];
+        this.maximizerSquares = new double[samples.length];
+    }
+    
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+    	for(int g = 0; g < samples.length; g++){
+    		for(int i = 0; i < samples[g].length; i++){
+    			lb[g][i] = samples[g][i].getLB();
+    			ub[g][i] = samples[g][i].getUB();
+    		}
+    	}
+    	boolean changed;
+    	do{
+    		double sumMinimum = 0;
+    		double sumMaximum = 0;
+    		for(int g = 0; g < samples.length; g++){
+    			minimum[g] = intervals[g].minimum(lb[g], ub[g]);
+    			minimumCenter[g] = intervals[g].center;
+    			maximum[g] = intervals[g].maximum(lb[g], ub[g]);
+    			maximumCenter[g] = intervals[g].center;
+    			sumMinimum += minimum[g];
+    			sumMaximum += maximum[g];
+    			minimizerSum[g] = minimizerSquares[g] = maximizerSum[g] = maximizerSquares[g] = 0;
+    			for(int i = 0; i < samples[g].length; i++){
+    				double y = minimizer(g, i) - minimumCenter[g];
+    				minimizerSum[g] += y;
+    				minimizerSquares[g] += y*y;
+    				y = maximizer(g, i) - maximumCenter[g];
+    				maximizerSum[g] += y;
+    				maximizerSquares[g] += y*y;
+    			}
+    		}
+    		double slack = TOLERANCE*Math.max(1, sumMaximum);
+    		statistic.updateBounds(statistic(Math.max(0, sumMinimum - slack)), statistic(sumMaximum + slack), this);
+    		double lowerS = deviations(statistic.getLB());
+    		double upperS = deviations(statistic.getUB());
+    		
+    		// observations are filtered against the bounds at the start of the pass
+    		for(int g = 0; g < samples.length; g++){
+    			// what the other samples leave to this one
+    			double budget = upperS - (sumMinimum - minimum[g]) + slack;
+    			double need = lowerS - (sumMaximum - maximum[g]) - slack;
+    			for(int i = 0; i < samples[g].length; i++)
+    				filter(g, i, budget, need);
+    		}
+    		changed = false;
+    		for(int g = 0; g < samples.length; g++){
+    			for(int i = 0; i < samples[g].length; i++){
+    				RealVar x = samples[g][i];
+    				if(x.getLB() - lb[g][i] > x.getPrecision() || ub[g][i] - x.getUB() > x.getPrecision())
+    					changed = true;
+    				lb[g][i] = x.getLB();
+    				ub[g][i] = x.getUB();
+    			}
+    		}
+    	}while(changed);
+    }
+    
+    /**
+     * Shrinks the bounds of observation {@code i} of sample {@code g} to values for which 
+     * the minimum of {@code S} is within {@code budget}, and the upper bound on the maximum 
+     * of {@code S} reaches {@code need}
+     */
+    private void filter(int g, int i, double budget, double need) throws ContradictionException {
+    	RealVar x = samples[g][i];
+    	double precision = x.getPrecision();
+    	
+    	// the minimum is convex in x and attained at the clamped centre
+    	double argmin = minimizer(g, i);
+    	if(!withinBudget(g, i, x.getLB(), budget)){
+    		double lo = x.getLB();
+    		double hi = argmin;
+    		while(hi - lo > precision){
+    			double mid = (lo + hi)/2;
+    			if(withinBudget(g, i, mid, budget)) hi = mid; else lo = mid;
+    		}
+    		x.updateLowerBound(lo, this);
+    	}
+    	if(!withinBudget(g, i, x.getUB(), budget)){
+    		double lo = argmin;
+    		double hi = x.getUB();
+    		while(hi - lo > precision){
+    			double mid = (lo + hi)/2;
+    			if(withinBudget(g, i, mid, budget)) lo = mid; else hi = mid;
+    		}
+    		x.updateUpperBound(hi, this);
+    	}
+    	
+    	// the upper bound on the maximum is convex in x, values that fall short of need form an interval
+    	if(need <= 0)
+    		return;
+    	if(!reaches(g, i, x.getLB(), need)){
+    		if(!reaches(g, i, x.getUB(), need))
+    			this.contradiction(x, "variance cannot be attained");
+    		double lo = x.getLB();
+    		double hi = x.getUB();
+    		while(hi - lo > precision){
+    			double mid = (lo + hi)/2;
+    			if(reaches(g, i, mid, need)) hi = mid; else lo = mid;
+    		}
+    		x.updateLowerBound(lo, this);
+    	}
+    	if(!reaches(g, i, x.getUB(), need)){
+    		double lo = x.getLB();
+    		double hi = x.getUB();
+    		while(hi - lo > precision){
+    			double mid = (lo + hi)/2;
+    			if(reaches(g, i, mid, need)) lo = mid; else hi = mid;
+    		}
+    		x.updateUpperBound(hi, this);
+    	}
+    }
+    
+    /**
+     * Checks whether the minimum of {@code S} over sample {@code g}, with observation {@code i} 
+     * set to {@code value}, is within {@code budget}. The minimiser over the current bounds, 
+     * with observation {@code i} moved to {@code value}, is tried first.
+     */
+    private boolean withinBudget(int g, int i, double value, double budget){
+    	if(moved(minimizerSum[g], minimizerSquares[g], minimizer(g, i) - minimumCenter[g], value - minimumCenter[g], samples[g].length) <= budget)
+    		return true;
+    	return fixed(g, i, value, true) <= budget;
+    }
+    
+    /**
+     * Checks whether the upper bound on the maximum of {@code S} over sample {@code g}, with 
+     * observation {@code i} set to {@code value}, reaches {@code need}. The candidate maximiser 
+     * over the current bounds, with observation {@code i} moved to {@code value}, is tried first.
+     */
+    private boolean reaches(int g, int i, double value, double need){
+    	if(moved(maximizerSum[g], maximizerSquares[g], maximizer(g, i) - maximumCenter[g], value - maximumCenter[g], samples[g].length) >= need)
+    		return true;
+    	return fixed(g, i, value, false) >= need;
+    }
+    
+    /**
+     * Value of observation {@code i} in the minimiser of sample {@code g}
+     */
+    private double minimizer(int g, int i){
+    	return Math.max(lb[g][i], Math.min(ub[g][i], minimumCenter[g]));
+    }
+    
+    /**
+     * Value of observation {@code i} in the candidate maximiser of sample {@code g}
+     */
+    private double maximizer(int g, int i){
+    	return (lb[g][i] + ub[g][i])/2 <= maximumCenter[g] ? lb[g][i] : ub[g][i];
+    }
+    
+    /**
+     * Sum of squared deviations from the mean of a sample of size {@code n}, given the sum and the sum 
+     * of squares of its values, after one value is moved from {@code from} to {@code to}
+     */
+    private static double moved(double sum, double squares, double from, double to, int n){
+    	sum += to - from;
+    	squares += to*to - from*from;
+    	return squares - sum*sum/n;
+    }
+    
+    /**
+     * Minimum, or upper bound on the maximum, of {@code S} over sample {@code g} with observation 
+     * {@code i} set to {@code value}
+     */
+    private double fixed(int g, int i, double value, boolean min){
+    	System.arraycopy(lb[g], 0, scratchLB[g], 0, lb[g].length);
+    	System.arraycopy(ub[g], 0, scratchUB[g], 0, ub[g].length);
+    	scratchLB[g][i] = value;
+    	scratchUB[g][i] = value;
+    	return min ? intervals[g].minimum(scratchLB[g], scratchUB[g]) : intervals[g].maximum(scratchLB[g], scratchUB[g], i);
+    }
+    
+    private double statistic(double deviations){
+    	return squareRoot ? Math.sqrt(deviations/denominator) : deviations/denominator;
+    }
+    
+    private double deviations(double statistic){
+    	if(statistic <= 0)
+    		return 0;
+    	return squareRoot ? statistic*statistic*denominator : statistic*denominator;
+    }
+    
+    @Override
+    public ESat isEntailed() {
+    	double sumMinimum = 0;
+    	double sumMaximum = 0;
+    	for(int g = 0; g < samples.length; g++){
+    		for(int i = 0; i < samples[g].length; i++){
+    			scratchLB[g][i] = samples[g][i].getLB();
+    			scratchUB[g][i] = samples[g][i].getUB();
+    		}
+    		sumMinimum += intervals[g].minimum(scratchLB[g], scratchUB[g]);
+    		sumMaximum += intervals[g].maximum(scratchLB[g], scratchUB[g]);
+    	}
+    	double slack = TOLERANCE*Math.max(1, sumMaximum);
+    	if(statistic(sumMaximum + slack) < statistic.getLB() || statistic(Math.max(0, sumMinimum - slack)) > statistic.getUB())
+    		return ESat.FALSE;
+    	if(isCompletelyInstantiated())
+    		return ESat.TRUE;
+    	return ESat.UNDEFINED;
+    }
+    
+    @Override
+    public String toString() {
+        return "deviation(" + vars[0].getName() + ",...) = " + statistic.getName();
+    }
+}
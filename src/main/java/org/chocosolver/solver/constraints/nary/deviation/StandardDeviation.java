@@ -26,16 +26,13 @@
 
 package org.chocosolver.solver.constraints.nary.deviation;
 
-import java.util.Arrays;
-
 import org.chocosolver.solver.Solver;
-import org.chocosolver.solver.constraints.nary.mean.Mean;
+import org.chocosolver.solver.constraints.nary.mean.IntegerMoments;
+import org.chocosolver.solver.constraints.nary.mean.SharedExpressions;
 import org.chocosolver.solver.constraints.real.Ibex;
 import org.chocosolver.solver.constraints.real.RealConstraint;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.RealVar;
-import org.chocosolver.solver.variables.VF;
-import org.chocosolver.solver.variables.VariableFactory;
 
 /**
  * Decompositions of the {@code STANDARD_DEVIATION} constraint
@@ -61,11 +58,7 @@ public class StandardDeviation {
                                 double precision){
       Solver solver = standardDeviation.getSolver();
 
-      int min = Arrays.stream(observations).mapToInt(o -> o.getLB()).min().getAsInt();
-      int max = Arrays.stream(observations).mapToInt(o -> o.getUB()).max().getAsInt();
-
-      RealVar mean = VariableFactory.real("Mean", min, max, precision, solver);
-      Mean.decompose("MeanConstraint", observations, mean, precision);
+      RealVar mean = SharedExpressions.mean(observations, precision);
       
       String exp = "sqrt((";
       for(int i = 0; i < observations.length; i++){
@@ -76,7 +69,7 @@ public class StandardDeviation {
       }
 
       RealVar[] allRealVariables = new RealVar[observations.length + 2];
-      RealVar[] realObservations = VF.real(observations, precision);
+      RealVar[] realObservations = SharedExpressions.real(observations, precision);
       System.arraycopy(realObservations, 0, allRealVariables, 0, observations.length);
       allRealVariables[observations.length] = standardDeviation;
       allRealVariables[observations.length+1] = mean;
@@ -99,11 +92,7 @@ public class StandardDeviation {
                                 double precision){
       Solver solver = standardDeviation.getSolver();
 
-      double min = Arrays.stream(observations).mapToDouble(o -> o.getLB()).min().getAsDouble();
-      double max = Arrays.stream(observations).mapToDouble(o -> o.getUB()).max().getAsDouble();
-
-      RealVar mean = VariableFactory.real("Mean", min, max, precision, solver);
-      Mean.decompose("MeanConstraint", observations, mean, precision);
+      RealVar mean = SharedExpressions.mean(observations, precision);
 
       String exp = "sqrt((";
       for(int i = 0; i < observations.length; i++){
@@ -120,4 +109,30 @@ public class StandardDeviation {
 
       solver.post(new RealConstraint(name, exp, Ibex.HC4_NEWTON, allRealVariables));
    }
+   
+   /**
+    * {@code STANDARD_DEVIATION} constraint integer decomposition for integer valued observations: 
+    * {@code n*(n-1)} times the variance is propagated by the integer engine, and channelled to 
+    * the standard deviation by a single real constraint
+    * 
+    * @param name constraint name
+    * @param observations observations
+    * @param standardDeviation standard deviation
+    * @param precision Ibex precision
+    */
+   
+   public static void decomposeInteger(String name,
+                                       IntVar[] observations,
+                                       RealVar standardDeviation,
+                                       double precision){
+      Solver solver = standardDeviation.getSolver();
+      int n = observations.length;
+      
+      IntVar sum = IntegerMoments.sum(name, observations);
+      IntVar scaledVariance = IntegerMoments.scaledVariance(name, observations, sum);
+      
+      String exp = "sqrt({1}/"+((long)n*(n-1))+")={0}";
+      
+      solver.post(new RealConstraint(name, exp, Ibex.HC4_NEWTON, new RealVar[]{standardDeviation, SharedExpressions.real(scaledVariance, precision)}));
+   }
 }
@@ -26,16 +26,12 @@
 
 package org.chocosolver.solver.constraints.nary.deviation;
 
-import java.util.Arrays;
-
 import org.chocosolver.solver.Solver;
-import org.chocosolver.solver.constraints.nary.mean.Mean;
+import org.chocosolver.solver.constraints.nary.mean.SharedExpressions;
 import org.chocosolver.solver.constraints.real.Ibex;
 import org.chocosolver.solver.constraints.real.RealConstraint;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.RealVar;
-import org.chocosolver.solver.variables.VF;
-import org.chocosolver.solver.variables.VariableFactory;
 
 /**
  * Decompositions of the {@code STANDARD_ERROR} constraint
@@ -61,11 +57,7 @@ public class StandardError {
                                 double precision){
       Solver solver = standardError.getSolver();
 
-      int min = Arrays.stream(observations).mapToInt(o -> o.getLB()).min().getAsInt();
-      int max = Arrays.stream(observations).mapToInt(o -> o.getUB()).max().getAsInt();
-
-      RealVar mean = VariableFactory.real("Mean", min, max, precision, solver);
-      Mean.decompose("MeanConstraint", observations, mean, precision);
+      RealVar mean = SharedExpressions.mean(observations, precision);
       
       String exp = "(1/sqrt("+observations.length+"))*sqrt((";
       for(int i = 0; i < observations.length; i++){
@@ -76,7 +68,7 @@ public class StandardError {
       }
 
       RealVar[] allRealVariables = new RealVar[observations.length + 2];
-      RealVar[] realObservations = VF.real(observations, precision);
+      RealVar[] realObservations = SharedExpressions.real(observations, precision);
       System.arraycopy(realObservations, 0, allRealVariables, 0, observations.length);
       allRealVariables[observations.length] = standardError;
       allRealVariables[observations.length+1] = mean;
@@ -99,11 +91,7 @@ public class StandardError {
                                 double precision){
       Solver solver = standardError.getSolver();
 
-      double min = Arrays.stream(observations).mapToDouble(o -> o.getLB()).min().getAsDouble();
-      double max = Arrays.stream(observations).mapToDouble(o -> o.getUB()).max().getAsDouble();
-
-      RealVar mean = VariableFactory.real("Mean", min, max, precision, solver);
-      Mean.decompose("MeanConstraint", observations, mean, precision);
+      RealVar mean = SharedExpressions.mean(observations, precision);
 
       String exp = "(1/sqrt("+observations.length+"))*sqrt((";
       for(int i = 0; i < observations.length; i++){
@@ -0,0 +1,196 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.nary.deviation;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.nary.mean.SharedExpressions;
+import org.chocosolver.solver.constraints.real.Ibex;
+import org.chocosolver.solver.constraints.real.RealConstraint;
+import org.chocosolver.solver.variables.RealVar;
+import org.chocosolver.solver.variables.VariableFactory;
+
+/**
+ * Sufficient statistics of real valued observations, that is {@code sum x_i}, {@code sum x_i^2} 
+ * and {@code sum x_i*y_i}, posted as auxiliary variables. Each auxiliary is defined by a single 
+ * real constraint in which every observation appears once, so that statistics built on top of 
+ * them only need a constraint with a constant number of terms. The auxiliaries are shared through 
+ * {@link SharedExpressions}.
+ * 
+ * @author Roberto Rossi
+ */
+
+class SufficientStatistics {
+   
+   /**
+    * Posts {@code sum x_i}
+    * 
+    * @param name name of the auxiliary variable
+    * @param observations observations
+    * @param precision Ibex precision
+    * @return the sum of the observations
+    */
+   static RealVar sum(String name, RealVar[] observations, double precision){
+      Solver solver = observations[0].getSolver();
+      return SharedExpressions.of(solver).get("sum", observations, precision, () -> {
+         int n = observations.length;
+         double lb = 0;
+         double ub = 0;
+         String exp = "";
+         for(int i = 0; i < n; i++){
+            lb += observations[i].getLB();
+            ub += observations[i].getUB();
+            exp += (i > 0 ? "+" : "")+"{"+i+"}";
+         }
+         exp += "={"+n+"}";
+      
+         RealVar sum = VariableFactory.real(name+"_sum", lb, ub, precision, solver);
+         solver.post(new RealConstraint(name+"_sum", exp, Ibex.HC4_NEWTON, append(observations, sum)));
+         return sum;
+      });
+   }
+   
+   /**
+    * Posts {@code sum x_i^2}
+    * 
+    * @param name name of the auxiliary variable
+    * @param observations observations
+    * @param precision Ibex precision
+    * @return the sum of squares of the observations
+    */
+   static RealVar sumOfSquares(String name, RealVar[] observations, double precision){
+      Solver solver = observations[0].getSolver();
+      return SharedExpressions.of(solver).get("sumOfSquares", observations, precision, () -> {
+         int n = observations.length;
+         double lb = 0;
+         double ub = 0;
+         String exp = "";
+         for(int i = 0; i < n; i++){
+            double l = observations[i].getLB();
+            double u = observations[i].getUB();
+            lb += l <= 0 && u >= 0 ? 0 : Math.min(l*l, u*u);
+            ub += Math.max(l*l, u*u);
+            exp += (i > 0 ? "+" : "")+"{"+i+"}^2";
+         }
+         exp += "={"+n+"}";
+      
+         RealVar sumOfSquares = VariableFactory.real(name+"_sumOfSquares", lb, ub, precision, solver);
+         solver.post(new RealConstraint(name+"_sumOfSquares", exp, Ibex.HC4_NEWTON, append(observations, sumOfSquares)));
+         return sumOfSquares;
+      });
+   }
+   
+   /**
+    * Posts {@code sum x_i*y_i}
+    * 
+    * @param name name of the auxiliary variable
+    * @param observationsA observations x
+    * @param observationsB observations y, paired with x
+    * @param precision Ibex precision
+    * @return the sum of products of the paired observations
+    */
+   static RealVar sumOfProducts(String name, RealVar[] observationsA, RealVar[] observationsB, double precision){
+      Solver solver = observationsA[0].getSolver();
+      return SharedExpressions.of(solver).get("sumOfProducts", append(observationsA, observationsB), precision, () -> {
+         int n = observationsA.length;
+         double lb = 0;
+         double ub = 0;
+         String exp = "";
+         for(int i = 0; i < n; i++){
+            double[] products = {
+                  product(observationsA[i].getLB(), observationsB[i].getLB()),
+                  product(observationsA[i].getLB(), observationsB[i].getUB()),
+                  product(observationsA[i].getUB(), observationsB[i].getLB()),
+                  product(observationsA[i].getUB(), observationsB[i].getUB())
+            };
+            double min = products[0];
+            double max = products[0];
+            for(double p : products){
+               min = Math.min(min, p);
+               max = Math.max(max, p);
+            }
+            lb += min;
+            ub += max;
+            exp += (i > 0 ? "+" : "")+"{"+i+"}*{"+(n+i)+"}";
+         }
+         exp += "={"+(2*n)+"}";
+      
+         RealVar sumOfProducts = VariableFactory.real(name+"_sumOfProducts", lb, ub, precision, solver);
+         RealVar[] allRealVariables = new RealVar[2*n+1];
+         System.arraycopy(observationsA, 0, allRealVariables, 0, n);
+         System.arraycopy(observationsB, 0, allRealVariables, n, n);
+         allRealVariables[2*n] = sumOfProducts;
+         solver.post(new RealConstraint(name+"_sumOfProducts", exp, Ibex.HC4_NEWTON, allRealVariables));
+         return sumOfProducts;
+      });
+   }
+   
+   /**
+    * Posts the sum of squared deviations from the sample mean {@code sum x_i^2 - (sum x_i)^2/n}. 
+    * The auxiliary is non negative by the Cauchy-Schwarz inequality, which interval arithmetic 
+    * alone would not detect on the difference.
+    * 
+    * @param name name of the auxiliary variable
+    * @param observations observations
+    * @param precision Ibex precision
+    * @return the sum of squared deviations of the observations
+    */
+   static RealVar sumOfSquaredDeviations(String name, RealVar[] observations, double precision){
+      Solver solver = observations[0].getSolver();
+      return SharedExpressions.of(solver).get("sumOfSquaredDeviations", observations, precision, () -> {
+         int n = observations.length;
+      
+         RealVar sum = sum(name, observations, precision);
+         RealVar sumOfSquares = sumOfSquares(name, observations, precision);
+      
+         RealVar deviations = VariableFactory.real(name+"_sumOfSquaredDeviations", 0, sumOfSquares.getUB(), precision, solver);
+         String exp = "{0}-{1}^2/"+n+"={2}";
+         solver.post(new RealConstraint(name+"_sumOfSquaredDeviations", exp, Ibex.HC4_NEWTON, new RealVar[]{sumOfSquares, sum, deviations}));
+         return deviations;
+      });
+   }
+   
+   /**
+    * Bound product, with {@code 0*inf = 0}
+    */
+   private static double product(double a, double b){
+      return a == 0 || b == 0 ? 0 : a*b;
+   }
+   
+   private static RealVar[] append(RealVar[] observationsA, RealVar[] observationsB){
+      RealVar[] allRealVariables = new RealVar[observationsA.length + observationsB.length];
+      System.arraycopy(observationsA, 0, allRealVariables, 0, observationsA.length);
+      System.arraycopy(observationsB, 0, allRealVariables, observationsA.length, observationsB.length);
+      return allRealVariables;
+   }
+   
+   private static RealVar[] append(RealVar[] observations, RealVar var){
+      RealVar[] allRealVariables = new RealVar[observations.length + 1];
+      System.arraycopy(observations, 0, allRealVariables, 0, observations.length);
+      allRealVariables[observations.length] = var;
+      return allRealVariables;
+   }
+}
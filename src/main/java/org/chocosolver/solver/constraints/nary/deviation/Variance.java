@@ -26,16 +26,13 @@
 
 package org.chocosolver.solver.constraints.nary.deviation;
 
-import java.util.Arrays;
-
 import org.chocosolver.solver.Solver;
-import org.chocosolver.solver.constraints.nary.mean.Mean;
+import org.chocosolver.solver.constraints.nary.mean.IntegerMoments;
+import org.chocosolver.solver.constraints.nary.mean.SharedExpressions;
 import org.chocosolver.solver.constraints.real.Ibex;
 import org.chocosolver.solver.constraints.real.RealConstraint;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.RealVar;
-import org.chocosolver.solver.variables.VF;
-import org.chocosolver.solver.variables.VariableFactory;
 
 /**
  * Decompositions of the {@code VARIANCE} constraint
@@ -62,11 +59,7 @@ public class Variance {
       
       Solver solver = variance.getSolver();
 
-      int min = Arrays.stream(observations).mapToInt(o -> o.getLB()).min().getAsInt();
-      int max = Arrays.stream(observations).mapToInt(o -> o.getUB()).max().getAsInt();
-      
-      RealVar mean = VariableFactory.real("Mean", min, max, precision, solver);
-      Mean.decompose("MeanConstraint", observations, mean, precision);
+      RealVar mean = SharedExpressions.mean(observations, precision);
       
       String exp = "(";
       for(int i = 0; i < observations.length; i++){
@@ -77,7 +70,7 @@ public class Variance {
       }
 
       RealVar[] allRealVariables = new RealVar[observations.length + 2];
-      RealVar[] realObservations = VF.real(observations, precision);
+      RealVar[] realObservations = SharedExpressions.real(observations, precision);
       System.arraycopy(realObservations, 0, allRealVariables, 0, observations.length);
       allRealVariables[observations.length] = variance;
       allRealVariables[observations.length+1] = mean;
@@ -101,11 +94,7 @@ public class Variance {
       
       Solver solver = variance.getSolver();
 
-      double min = Arrays.stream(observations).mapToDouble(o -> o.getLB()).min().getAsDouble();
-      double max = Arrays.stream(observations).mapToDouble(o -> o.getUB()).max().getAsDouble();
-      
-      RealVar mean = VariableFactory.real("Mean", min, max, precision, solver);
-      Mean.decompose("MeanConstraint", observations, mean, precision);
+      RealVar mean = SharedExpressions.mean(observations, precision);
       
       String exp = "(";
       for(int i = 0; i < observations.length; i++){
@@ -122,4 +111,31 @@ public class Variance {
 
       solver.post(new RealConstraint(name, exp, Ibex.HC4_NEWTON, allRealVariables));
    }
+   
+   /**
+    * {@code VARIANCE} constraint integer decomposition for integer valued observations: 
+    * {@code n*(n-1)} times the variance is propagated by the integer engine, and channelled to 
+    * the variance by a single real constraint
+    * 
+    * @param name constraint name
+    * @param observations observations
+    * @param variance variance
+    * @param precision Ibex precision
+    */
+   
+   public static void decomposeInteger(String name,
+                                       IntVar[] observations,
+                                       RealVar variance,
+                                       double precision){
+      
+      Solver solver = variance.getSolver();
+      int n = observations.length;
+      
+      IntVar sum = IntegerMoments.sum(name, observations);
+      IntVar scaledVariance = IntegerMoments.scaledVariance(name, observations, sum);
+      
+      String exp = "{0}*"+((long)n*(n-1))+"={1}";
+      
+      solver.post(new RealConstraint(name, exp, Ibex.HC4_NEWTON, new RealVar[]{variance, SharedExpressions.real(scaledVariance, precision)}));
+   }
 }
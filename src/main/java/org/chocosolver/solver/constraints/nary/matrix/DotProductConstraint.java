@@ -0,0 +1,91 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.nary.matrix;
+
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.RealVar;
+
+/**
+ * {@code DOT_PRODUCT} constraint {@code C = A.B}, filtered by one bilinear sum propagator 
+ * per entry of {@code C}
+ * 
+ * @author Roberto Rossi
+ * @see <a href="https://en.wikipedia.org/wiki/Matrix_multiplication">Matrix multiplication</a>
+ */
+
+@SuppressWarnings("serial")
+public class DotProductConstraint extends Constraint {
+   
+   /**
+    * {@code C = A.B}
+    * 
+    * @param A a matrix A
+    * @param B a matrix B
+    * @param C a matrix C such that C = A.B
+    */
+   public DotProductConstraint(RealVar[][] A, RealVar[][] B, RealVar[][] C){
+      this("DotProduct", A, B, C);
+   }
+   
+   /**
+    * {@code C = A.B}
+    * 
+    * @param name constraint name
+    * @param A a matrix A
+    * @param B a matrix B
+    * @param C a matrix C such that C = A.B
+    */
+   public DotProductConstraint(String name, RealVar[][] A, RealVar[][] B, RealVar[][] C){
+      super(name, createPropagators(A, B, C));
+   }
+   
+   @SuppressWarnings("unchecked")
+   private static Propagator<RealVar>[] createPropagators(RealVar[][] A, RealVar[][] B, RealVar[][] C){
+      if(A[0].length != B.length)
+         throw new SolverException("Matrix A columns should be equal to matrix B rows");
+      
+      if(A.length != C.length)
+         throw new SolverException("Matrix A rows should be equal to matrix C rows");
+      
+      if(B[0].length != C[0].length)
+         throw new SolverException("Matrix B columns should be equal to matrix C columns");
+      
+      Propagator<RealVar>[] propagators = new Propagator[C.length*C[0].length];
+      for(int j = 0; j < C[0].length; j++){
+         RealVar[] column = new RealVar[B.length];
+         for(int k = 0; k < B.length; k++){
+            column[k] = B[k][j];
+         }
+         for(int i = 0; i < C.length; i++){
+            propagators[i*C[0].length + j] = new PropBilinearSum(A[i], column, C[i][j]);
+         }
+      }
+      return propagators;
+   }
+}
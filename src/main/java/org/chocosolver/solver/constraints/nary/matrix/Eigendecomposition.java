@@ -3,7 +3,8 @@ package org.chocosolver.solver.constraints.nary.matrix;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.real.Ibex;
 import org.chocosolver.solver.constraints.real.RealConstraint;
-import org.chocosolver.solver.variables.RealVar;;
+import org.chocosolver.solver.variables.RealVar;
+import org.chocosolver.solver.variables.VariableFactory;
 
 /**
  * This class implements a matrix eigendecomposition constraint.
@@ -35,34 +36,23 @@ public class Eigendecomposition {
     */
    public static void decompose(String name, RealVar[][] A, RealVar[][] QTransposed, RealVar[][] Lambda, RealVar[][] Q, RealVar zeroReal, Solver solver) {
       
-      int n = Q.length;
-      String rhsTemplate[] = new String[Lambda.length];
+      /**
+       * Lambda.Q is a matrix of auxiliary variables, its rows are those of Q scaled by the eigenvalues; 
+       * each row is posted as a single product of the row, seen as a column, by its eigenvalue
+       */
+      RealVar[][] LambdaQ = new RealVar[Lambda.length][Q[0].length];
       for(int j = 0; j < Lambda.length; j++) {
-         rhsTemplate[j] = "";
-         for(int i = 0; i < Q.length; i++) {
-            if(i == j)
-               rhsTemplate[j] += "{"+((j+1)*n+i)+"}*{"+i+"}";
-            //rhsTemplate[j] += "{"+((j+1)*n+i)+"}*{"+i+"}"+((i < n - 1) ? "+" : "");
+         RealVar[][] row = new RealVar[Q[j].length][1];
+         RealVar[][] scaledRow = new RealVar[Q[j].length][1];
+         for(int k = 0; k < Q[j].length; k++) {
+            LambdaQ[j][k] = VariableFactory.real(name+"_LambdaQ_"+(j+1)+"_"+(k+1), -Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, A[0][0].getPrecision(), solver);
+            row[k][0] = Q[j][k];
+            scaledRow[k][0] = LambdaQ[j][k];
          }
+         DotProduct.decompose(name+"_LambdaQ_"+(j+1), row, new RealVar[][] {{Lambda[j][j]}}, scaledRow);
       }
       
-      int m = Lambda.length;
-      String lhsTemplate = "";
-      for(int j = 0; j < Lambda.length; j++) {
-         lhsTemplate += "{"+(j+n+Lambda.length*Lambda[0].length)+"}*("+rhsTemplate[j]+")"+((j < m - 1) ? "+" : "");
-      }
-      
-      for(int i = 0; i < QTransposed.length; i++) {
-         for(int j = 0; j < Q[i].length; j++) {
-            RealVar[] variables = new RealVar[n+m*n+m+1];
-            System.arraycopy(extractColumnAsRow(Q,j), 0, variables, 0, Q.length);
-            for(int k = 0; k < Lambda.length; k++)
-               System.arraycopy(Lambda[k], 0, variables, Q.length+Lambda[k].length*k, Lambda[k].length);
-            System.arraycopy(QTransposed[i], 0, variables, Q.length+Lambda[0].length*Lambda.length, QTransposed[i].length);
-            variables[n+m*n+m] = A[i][j];
-            solver.post(new RealConstraint(name, lhsTemplate+"={"+(n+m*n+m)+"}", Ibex.HC4_NEWTON, variables));
-         }
-      }
+      DotProduct.decompose(name, QTransposed, LambdaQ, A);
       
       /***TRACE****/
       RealVar[] traceVariables = new RealVar[A.length + Lambda.length];
@@ -127,14 +117,6 @@ public class Eigendecomposition {
       
    }
    
-   private static RealVar[] extractColumnAsRow(RealVar[][] matrix, int j) {
-      RealVar[] column = new RealVar[matrix.length];
-      for(int i = 0; i < matrix.length; i++) {
-         column[i] = matrix[i][j];
-      }
-      return column;
-   }
-   
    @SuppressWarnings("unused")
    private static RealVar[][] extractColumnAsColumn(RealVar[][] matrix, int j) {
       RealVar[][] column = new RealVar[matrix.length][1];
@@ -32,7 +32,9 @@ import org.chocosolver.solver.constraints.real.RealConstraint;
 import org.chocosolver.solver.variables.RealVar;
 
 /**
- * Decomposition of the {@code MATRIX_INVERSION} constraint
+ * Decomposition of the {@code MATRIX_INVERSION} constraint. Gauss-Jordan elimination is carried out 
+ * symbolically, hence the size of the expressions grows exponentially with the size of the matrix; 
+ * see {@link MatrixInversionConstraint} for larger matrices.
  * 
  * @author Roberto Rossi
  * @see <a href="https://en.wikipedia.org/wiki/Gaussian_elimination">Gaussian elimination</a>
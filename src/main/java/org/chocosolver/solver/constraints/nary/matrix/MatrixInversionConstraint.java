@@ -0,0 +1,65 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.nary.matrix;
+
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.variables.RealVar;
+
+/**
+ * {@code MATRIX_INVERSION} constraint, filtered by a dedicated propagator rather than by the 
+ * symbolic decomposition {@link MatrixInversion}, whose expressions grow exponentially with the 
+ * size of the matrix
+ * 
+ * @author Roberto Rossi
+ * @see <a href="https://en.wikipedia.org/wiki/Invertible_matrix">Invertible matrix</a>
+ */
+
+@SuppressWarnings("serial")
+public class MatrixInversionConstraint extends Constraint {
+   
+   /**
+    * {@code inverse} is the inverse matrix of {@code matrix}; the constraint is also 
+    * propagated by preconditioned interval Gauss-Seidel
+    * 
+    * @param matrix square matrix
+    * @param inverse inverse matrix
+    */
+   public MatrixInversionConstraint(RealVar[][] matrix, RealVar[][] inverse){
+      this(matrix, inverse, true);
+   }
+   
+   /**
+    * {@code inverse} is the inverse matrix of {@code matrix}
+    * 
+    * @param matrix square matrix
+    * @param inverse inverse matrix
+    * @param gaussSeidel whether the constraint is also propagated by preconditioned interval Gauss-Seidel
+    */
+   public MatrixInversionConstraint(RealVar[][] matrix, RealVar[][] inverse, boolean gaussSeidel){
+      super("MatrixInversion", new PropMatrixInversion(matrix, inverse, gaussSeidel));
+   }
+}
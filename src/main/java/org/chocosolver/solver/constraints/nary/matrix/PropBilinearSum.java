@@ -0,0 +1,305 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.nary.matrix;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateDouble;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.RealVar;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.solver.variables.events.RealEventType;
+import org.chocosolver.util.ESat;
+
+/**
+ * Propagator for {@code x_1*y_1+...+x_n*y_n = z}; the last variable is {@code z}.
+ * 
+ * The bounds of each term are the interval product of its factors. The sums of the lower and 
+ * upper bounds of the terms are backtrackable and are adjusted in constant time on each bound 
+ * event, against the term bounds last seen; infinite term bounds are counted rather than summed. 
+ * The sums are recomputed after {@code n} adjustments, which bounds their rounding errors. 
+ * A term is bounded by {@code z} minus the bounds on the sum of the other terms, and its factors 
+ * by the bounds on the term divided by the other factor, when the latter does not contain zero.
+ * 
+ * @author Roberto Rossi
+ * @see <a href="https://en.wikipedia.org/wiki/Interval_arithmetic">Interval arithmetic</a>
+ */
+@SuppressWarnings("serial")
+class PropBilinearSum extends Propagator<RealVar> {
+	
+	/**
+	 * Relative slack by which the computed bounds are relaxed, so that rounding errors 
+	 * never remove a valid value.
+	 */
+	private static final double TOLERANCE = 1e-9;
+	
+	/**
+	 * Smallest relative shrink of a domain that triggers another pass
+	 */
+	private static final double RATIO = 1e-3;
+	
+	private final int n;
+	private final RealVar[] x;
+	private final RealVar[] y;
+	private final RealVar z;
+	
+	/**
+	 * Sums of the finite term bounds and number of infinite term bounds
+	 */
+	private final IStateDouble sumLB;
+	private final IStateDouble sumUB;
+	private final IStateInt infiniteLB;
+	private final IStateInt infiniteUB;
+	
+	/**
+	 * Sum of the absolute values of the finite term bounds added since the sums were last 
+	 * recomputed, which scales their rounding errors, and number of adjustments since then
+	 */
+	private final IStateDouble magnitude;
+	private final IStateInt updates;
+	private final IStateDouble[] seenLB;
+	private final IStateDouble[] seenUB;
+	
+	/**
+	 * Bounds of the last interval product or quotient
+	 */
+	private double lo;
+	private double hi;
+	
+	private static RealVar[] mergeArrays(RealVar[] x, RealVar[] y, RealVar z){
+		RealVar[] vars = new RealVar[x.length + y.length + 1];
+		System.arraycopy(x, 0, vars, 0, x.length);
+		System.arraycopy(y, 0, vars, x.length, y.length);
+		vars[x.length + y.length] = z;
+		return vars;
+	}
+	
+	/**
+	 * @param x first factors
+	 * @param y second factors
+	 * @param z sum of the products
+	 */
+    public PropBilinearSum(RealVar[] x, RealVar[] y, RealVar z) {
+        super(mergeArrays(x, y, z), PropagatorPriority.LINEAR, true);
+        if(x.length != y.length)
+        	throw new SolverException("Factor arrays should have the same length");
+        if(x.length == 0)
+        	throw new SolverException("The sum should have at least one term");
+        this.n = x.length;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        IEnvironment environment = z.getSolver().getEnvironment();
+        this.sumLB = environment.makeFloat(0);
+        this.sumUB = environment.makeFloat(0);
+        this.infiniteLB = environment.makeInt(0);
+        this.infiniteUB = environment.makeInt(0);
+        this.magnitude = environment.makeFloat(0);
+        this.updates = environment.makeInt(0);
+        this.seenLB = new IStateDouble[n];
+        this.seenUB = new IStateDouble[n];
+        for(int j = 0; j < n; j++){
+        	this.seenLB[j] = environment.makeFloat(0);
+        	this.seenUB[j] = environment.makeFloat(0);
+        }
+    }
+    
+    @Override
+    public int getPropagationConditions(int vIdx) {
+    	return RealEventType.BOUND.getMask();
+    }
+    
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+    	if(PropagatorEventType.isFullPropagation(evtmask) || updates.get() > n){
+    		sumLB.set(0);
+    		sumUB.set(0);
+    		infiniteLB.set(0);
+    		infiniteUB.set(0);
+    		magnitude.set(0);
+    		for(int j = 0; j < n; j++){
+    			seenLB[j].set(0);
+    			seenUB[j].set(0);
+    			update(j);
+    		}
+    		updates.set(0);
+    	}
+    	boolean changed;
+    	do{
+    		double slack = TOLERANCE*(magnitude.get() + finiteMagnitude(z.getLB(), z.getUB()));
+    		changed = narrow(z, 
+    		                 infiniteLB.get() > 0 ? Double.NEGATIVE_INFINITY : sumLB.get() - slack, 
+    		                 infiniteUB.get() > 0 ? Double.POSITIVE_INFINITY : sumUB.get() + slack);
+    		for(int j = 0; j < n; j++){
+    			// bounds of the sum of the other terms; lower sums never hold +inf, upper sums never hold -inf
+    			double othersLB = infiniteLB.get() > (seenLB[j].get() == Double.NEGATIVE_INFINITY ? 1 : 0) ? 
+    					Double.NEGATIVE_INFINITY : sumLB.get() - finite(seenLB[j].get());
+    			double othersUB = infiniteUB.get() > (seenUB[j].get() == Double.POSITIVE_INFINITY ? 1 : 0) ? 
+    					Double.POSITIVE_INFINITY : sumUB.get() - finite(seenUB[j].get());
+    			double termLo = z.getLB() - othersUB - slack;
+    			double termHi = z.getUB() - othersLB + slack;
+    			if(y[j].getLB() > 0 || y[j].getUB() < 0){
+    				divide(termLo, termHi, y[j].getLB(), y[j].getUB());
+    				changed |= narrow(x[j], lo, hi);
+    			}
+    			if(x[j].getLB() > 0 || x[j].getUB() < 0){
+    				divide(termLo, termHi, x[j].getLB(), x[j].getUB());
+    				changed |= narrow(y[j], lo, hi);
+    			}
+    			// the propagator is not notified of its own bound changes
+    			update(j);
+    		}
+    	}while(changed);
+    }
+    
+    /**
+     * Adjusts the sums to the current bounds of term {@code j}
+     * 
+     * @return true if a bound of the term changed since it was last seen
+     */
+    private boolean update(int j){
+    	times(x[j].getLB(), x[j].getUB(), y[j].getLB(), y[j].getUB());
+    	boolean changed = false;
+    	if(lo != seenLB[j].get()){
+    		add(seenLB[j].get(), sumLB, infiniteLB, -1);
+    		add(lo, sumLB, infiniteLB, 1);
+    		seenLB[j].set(lo);
+    		changed = true;
+    	}
+    	if(hi != seenUB[j].get()){
+    		add(seenUB[j].get(), sumUB, infiniteUB, -1);
+    		add(hi, sumUB, infiniteUB, 1);
+    		seenUB[j].set(hi);
+    		changed = true;
+    	}
+    	if(changed)
+    		updates.add(1);
+    	return changed;
+    }
+    
+    private void add(double bound, IStateDouble sum, IStateInt infinite, int sign){
+    	if(Double.isInfinite(bound)){
+    		infinite.add(sign);
+    	}else if(bound != 0){
+    		sum.add(sign*bound);
+    		// removed bounds still weigh on the rounding errors
+    		magnitude.add(Math.abs(bound));
+    	}
+    }
+    
+    /**
+     * Intersects the bounds of {@code var} with {@code [l, u]}, relaxed by the relative tolerance
+     * 
+     * @return whether a bound moved enough to trigger another pass
+     */
+    private boolean narrow(RealVar var, double l, double u) throws ContradictionException {
+    	l -= TOLERANCE*Math.abs(l);
+    	u += TOLERANCE*Math.abs(u);
+    	double lb = var.getLB();
+    	double ub = var.getUB();
+    	if(l > ub || u < lb)
+    		this.contradiction(var, "no term values within the bounds");
+    	boolean changed = false;
+    	if(l > lb)
+    		changed |= progress(l - lb, ub - lb, var);
+    	if(u < ub)
+    		changed |= progress(ub - u, ub - lb, var);
+    	var.updateBounds(Math.max(l, lb), Math.min(u, ub), this);
+    	return changed;
+    }
+    
+    /**
+     * A shrink is worth another pass if it exceeds the precision of the variable and a fixed 
+     * ratio of its width, as bilinear equations may otherwise converge very slowly
+     */
+    private static boolean progress(double shrink, double width, RealVar var){
+    	return shrink > var.getPrecision() && (Double.isInfinite(shrink) || shrink > RATIO*width);
+    }
+    
+    /**
+     * Interval product, with {@code 0*inf = 0}
+     */
+    private void times(double al, double au, double bl, double bu){
+    	double p1 = product(al, bl);
+    	double p2 = product(al, bu);
+    	double p3 = product(au, bl);
+    	double p4 = product(au, bu);
+    	lo = Math.min(Math.min(p1, p2), Math.min(p3, p4));
+    	hi = Math.max(Math.max(p1, p2), Math.max(p3, p4));
+    }
+    
+    /**
+     * Interval quotient, by an interval that does not contain zero
+     */
+    private void divide(double al, double au, double bl, double bu){
+    	times(al, au, 1/bu, 1/bl);
+    }
+    
+    private static double product(double a, double b){
+    	return a == 0 || b == 0 ? 0 : a*b;
+    }
+    
+    private static double finite(double value){
+    	return Double.isInfinite(value) ? 0 : value;
+    }
+    
+    private static double finiteMagnitude(double l, double u){
+    	return Math.abs(finite(l)) + Math.abs(finite(u));
+    }
+    
+    @Override
+    public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+    	int j = idxVarInProp < n ? idxVarInProp : idxVarInProp - n;
+    	if(idxVarInProp == 2*n || update(j))
+    		forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+    }
+    
+    @Override
+    public ESat isEntailed() {
+    	double lb = 0;
+    	double ub = 0;
+    	double magnitude = finiteMagnitude(z.getLB(), z.getUB());
+    	for(int j = 0; j < n; j++){
+    		times(x[j].getLB(), x[j].getUB(), y[j].getLB(), y[j].getUB());
+    		lb += lo;
+    		ub += hi;
+    		magnitude += finiteMagnitude(lo, hi);
+    	}
+    	double slack = TOLERANCE*magnitude;
+    	if(lb - slack > z.getUB() || ub + slack < z.getLB())
+    		return ESat.FALSE;
+    	return isCompletelyInstantiated() ? ESat.TRUE : ESat.UNDEFINED;
+    }
+    
+    @Override
+    public String toString() {
+        return x[0].getName() + "*" + y[0].getName() + "+... = " + z.getName();
+    }
+}
@@ -0,0 +1,426 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.nary.matrix;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.RealVar;
+import org.chocosolver.util.ESat;
+
+/**
+ * Propagator for {@code A*B = I} and {@code B*A = I}, where {@code A} and {@code B} are square 
+ * matrices of real variables.
+ * 
+ * Each of the {@code 2n^2} bilinear equations {@code sum_j x_j*y_j = c} is projected on its 
+ * terms by interval arithmetic: a term is bounded by {@code c} minus the bounds on the sum of 
+ * the other terms, and its factors by the bounds on the term divided by the other factor, when 
+ * the latter does not contain zero. Optionally, each matrix is also contracted from the other 
+ * by interval Gauss-Seidel on the system preconditioned by the inverse of the midpoint matrix, 
+ * which is effective when the entries contain zero. A pass takes {@code O(n^3)} operations.
+ * 
+ * @author Roberto Rossi
+ * @see <a href="https://en.wikipedia.org/wiki/Interval_arithmetic">Interval arithmetic</a>
+ */
+@SuppressWarnings("serial")
+class PropMatrixInversion extends Propagator<RealVar> {
+	
+	/**
+	 * Relative slack by which the computed bounds are relaxed, so that rounding errors 
+	 * never remove a valid value.
+	 */
+	private static final double TOLERANCE = 1e-9;
+	
+	/**
+	 * Smallest relative shrink of a domain that triggers another pass
+	 */
+	private static final double RATIO = 1e-3;
+	
+	private final int n;
+	private final RealVar[][] matrix;
+	private final RealVar[][] inverse;
+	private final boolean gaussSeidel;
+	
+	/**
+	 * Bounds of {@code A} and {@code B} during a propagation
+	 */
+	private final double[][] matrixLB;
+	private final double[][] matrixUB;
+	private final double[][] inverseLB;
+	private final double[][] inverseUB;
+	
+	private final double[] termLB;
+	private final double[] termUB;
+	private final double[] suffixLB;
+	private final double[] suffixUB;
+	private final double[][] midpoint;
+	private final double[][] preconditioner;
+	private final double[][] preconditionedLB;
+	private final double[][] preconditionedUB;
+	
+	/**
+	 * Bounds of the last interval product or quotient
+	 */
+	private double lo;
+	private double hi;
+	
+	private static RealVar[] mergeArrays(RealVar[][] matrix, RealVar[][] inverse){
+		int n = matrix.length;
+		RealVar[] vars = new RealVar[2*n*n];
+		for(int i = 0; i < n; i++){
+			System.arraycopy(matrix[i], 0, vars, i*n, n);
+			System.arraycopy(inverse[i], 0, vars, n*n + i*n, n);
+		}
+		return vars;
+	}
+	
+	/**
+	 * @param matrix square matrix {@code A}
+	 * @param inverse inverse matrix {@code B}
+	 * @param gaussSeidel whether to contract by preconditioned interval Gauss-Seidel
+	 */
+    public PropMatrixInversion(RealVar[][] matrix, RealVar[][] inverse, boolean gaussSeidel) {
+        super(mergeArrays(matrix, inverse), PropagatorPriority.CUBIC, false);
+        int n = matrix.length;
+        if(inverse.length != n)
+        	throw new SolverException("Matrix and inverse should have the same size");
+        for(int i = 0; i < n; i++){
+        	if(matrix[i].length != n || inverse[i].length != n)
+        		throw new SolverException("Matrix and inverse should be square");
+        }
+        this.n = n;
+        this.matrix = matrix;
+        this.inverse = inverse;
+        this.gaussSeidel = gaussSeidel;
+        this.matrixLB = new double[n][n];
+        this.matrixUB = new double[n][n];
+        this.inverseLB = new double[n][n];
+        this.inverseUB = new double[n][n];
+        this.termLB = new double[n];
+        this.termUB = new double[n];
+        this.suffixLB = new double[n+1];
+        this.suffixUB = new double[n+1];
+        this.midpoint = new double[n][n];
+        this.preconditioner = new double[n][n];
+        this.preconditionedLB = new double[n][n];
+        this.preconditionedUB = new double[n][n];
+    }
+    
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+    	load(matrix, matrixLB, matrixUB);
+    	load(inverse, inverseLB, inverseUB);
+    	boolean changed;
+    	do{
+    		changed = false;
+    		for(int i = 0; i < n; i++){
+    			for(int k = 0; k < n; k++){
+    				changed |= project(i, k, matrix, matrixLB, matrixUB, inverse, inverseLB, inverseUB);
+    				changed |= project(i, k, inverse, inverseLB, inverseUB, matrix, matrixLB, matrixUB);
+    			}
+    		}
+    		if(gaussSeidel){
+    			changed |= gaussSeidel(matrixLB, matrixUB, inverse, inverseLB, inverseUB);
+    			changed |= gaussSeidel(inverseLB, inverseUB, matrix, matrixLB, matrixUB);
+    		}
+    	}while(changed);
+    	store(matrix, matrixLB, matrixUB);
+    	store(inverse, inverseLB, inverseUB);
+    }
+    
+    private static void load(RealVar[][] vars, double[][] lb, double[][] ub){
+    	for(int i = 0; i < vars.length; i++){
+    		for(int j = 0; j < vars.length; j++){
+    			lb[i][j] = vars[i][j].getLB();
+    			ub[i][j] = vars[i][j].getUB();
+    		}
+    	}
+    }
+    
+    private void store(RealVar[][] vars, double[][] lb, double[][] ub) throws ContradictionException {
+    	for(int i = 0; i < vars.length; i++){
+    		for(int j = 0; j < vars.length; j++){
+    			vars[i][j].updateBounds(lb[i][j], ub[i][j], this);
+    		}
+    	}
+    }
+    
+    /**
+     * Projects {@code sum_j X[i][j]*Y[j][k] = (i == k ? 1 : 0)} on its terms
+     * 
+     * @return whether a bound moved enough to trigger another pass
+     */
+    private boolean project(int i, int k, 
+    		                RealVar[][] x, double[][] xLB, double[][] xUB, 
+    		                RealVar[][] y, double[][] yLB, double[][] yUB) throws ContradictionException {
+    	double c = i == k ? 1 : 0;
+    	double magnitude = Math.abs(c);
+    	for(int j = 0; j < n; j++){
+    		times(xLB[i][j], xUB[i][j], yLB[j][k], yUB[j][k]);
+    		termLB[j] = lo;
+    		termUB[j] = hi;
+    		magnitude += finiteMagnitude(lo, hi);
+    	}
+    	suffixLB[n] = suffixUB[n] = 0;
+    	for(int j = n - 1; j >= 0; j--){
+    		suffixLB[j] = suffixLB[j+1] + termLB[j];
+    		suffixUB[j] = suffixUB[j+1] + termUB[j];
+    	}
+    	double slack = TOLERANCE*magnitude;
+    	
+    	boolean changed = false;
+    	double prefixLB = 0;
+    	double prefixUB = 0;
+    	for(int j = 0; j < n; j++){
+    		// bounds of the sum of the other terms; lower sums never hold +inf, upper sums never hold -inf
+    		double termLo = c - (prefixUB + suffixUB[j+1]) - slack;
+    		double termHi = c - (prefixLB + suffixLB[j+1]) + slack;
+    		prefixLB += termLB[j];
+    		prefixUB += termUB[j];
+    		if(yLB[j][k] > 0 || yUB[j][k] < 0){
+    			divide(termLo, termHi, yLB[j][k], yUB[j][k]);
+    			changed |= narrow(x[i][j], xLB, xUB, i, j, lo, hi);
+    		}
+    		if(xLB[i][j] > 0 || xUB[i][j] < 0){
+    			divide(termLo, termHi, xLB[i][j], xUB[i][j]);
+    			changed |= narrow(y[j][k], yLB, yUB, j, k, lo, hi);
+    		}
+    	}
+    	return changed;
+    }
+    
+    /**
+     * Contracts {@code Y} from {@code X*Y = I}. With {@code P} the inverse of the midpoint of {@code X}, 
+     * each column {@code y} of {@code Y} solves {@code M*y = r}, where {@code M = P*X} and {@code r} is 
+     * the corresponding column of {@code P}. If {@code |I - M|} has norm {@code beta < 1}, then 
+     * {@code |y| <= |r|/(1 - beta)}; the entries of {@code y} are then refined by a Gauss-Seidel sweep.
+     * 
+     * @return whether a bound moved enough to trigger another pass
+     */
+    private boolean gaussSeidel(double[][] xLB, double[][] xUB, 
+    		                    RealVar[][] y, double[][] yLB, double[][] yUB) throws ContradictionException {
+    	for(int i = 0; i < n; i++){
+    		for(int j = 0; j < n; j++){
+    			if(Double.isInfinite(xLB[i][j]) || Double.isInfinite(xUB[i][j]))
+    				return false;
+    			midpoint[i][j] = (xLB[i][j] + xUB[i][j])/2;
+    		}
+    	}
+    	if(!invert(midpoint, preconditioner))
+    		return false;
+    	
+    	double beta = 0;
+    	for(int i = 0; i < n; i++){
+    		double row = 0;
+    		for(int j = 0; j < n; j++){
+    			double l = 0;
+    			double u = 0;
+    			double magnitude = 0;
+    			for(int m = 0; m < n; m++){
+    				double p = preconditioner[i][m];
+    				l += p >= 0 ? p*xLB[m][j] : p*xUB[m][j];
+    				u += p >= 0 ? p*xUB[m][j] : p*xLB[m][j];
+    				magnitude += Math.abs(p)*Math.max(Math.abs(xLB[m][j]), Math.abs(xUB[m][j]));
+    			}
+    			preconditionedLB[i][j] = l - TOLERANCE*magnitude;
+    			preconditionedUB[i][j] = u + TOLERANCE*magnitude;
+    			double d = i == j ? 1 : 0;
+    			row += Math.max(Math.abs(d - preconditionedLB[i][j]), Math.abs(d - preconditionedUB[i][j]));
+    		}
+    		beta = Math.max(beta, row);
+    	}
+    	
+    	boolean changed = false;
+    	for(int k = 0; k < n; k++){
+    		if(beta < 1){
+    			double norm = 0;
+    			for(int i = 0; i < n; i++)
+    				norm = Math.max(norm, Math.abs(preconditioner[i][k]));
+    			double bound = norm/(1 - beta)*(1 + TOLERANCE);
+    			for(int j = 0; j < n; j++)
+    				changed |= narrow(y[j][k], yLB, yUB, j, k, -bound, bound);
+    		}
+    		for(int j = 0; j < n; j++){
+    			if(preconditionedLB[j][j] <= 0 && preconditionedUB[j][j] >= 0)
+    				continue;
+    			double sumLB = 0;
+    			double sumUB = 0;
+    			double magnitude = Math.abs(preconditioner[j][k]);
+    			for(int m = 0; m < n; m++){
+    				if(m == j)
+    					continue;
+    				times(preconditionedLB[j][m], preconditionedUB[j][m], yLB[m][k], yUB[m][k]);
+    				sumLB += lo;
+    				sumUB += hi;
+    				magnitude += finiteMagnitude(lo, hi);
+    			}
+    			double slack = TOLERANCE*magnitude;
+    			divide(preconditioner[j][k] - sumUB - slack, preconditioner[j][k] - sumLB + slack, preconditionedLB[j][j], preconditionedUB[j][j]);
+    			changed |= narrow(y[j][k], yLB, yUB, j, k, lo, hi);
+    		}
+    	}
+    	return changed;
+    }
+    
+    /**
+     * Gauss-Jordan elimination with partial pivoting
+     * 
+     * @return false if {@code a} is numerically singular
+     */
+    private static boolean invert(double[][] a, double[][] inverse){
+    	int n = a.length;
+    	for(int i = 0; i < n; i++){
+    		for(int j = 0; j < n; j++)
+    			inverse[i][j] = i == j ? 1 : 0;
+    	}
+    	for(int c = 0; c < n; c++){
+    		int pivot = c;
+    		for(int r = c + 1; r < n; r++){
+    			if(Math.abs(a[r][c]) > Math.abs(a[pivot][c]))
+    				pivot = r;
+    		}
+    		if(!(Math.abs(a[pivot][c]) > Double.MIN_NORMAL))
+    			return false;
+    		double[] swap = a[c]; a[c] = a[pivot]; a[pivot] = swap;
+    		swap = inverse[c]; inverse[c] = inverse[pivot]; inverse[pivot] = swap;
+    		double p = a[c][c];
+    		for(int j = 0; j < n; j++){
+    			a[c][j] /= p;
+    			inverse[c][j] /= p;
+    		}
+    		for(int r = 0; r < n; r++){
+    			double f = a[r][c];
+    			if(r == c || f == 0)
+    				continue;
+    			for(int j = 0; j < n; j++){
+    				a[r][j] -= f*a[c][j];
+    				inverse[r][j] -= f*inverse[c][j];
+    			}
+    		}
+    	}
+    	for(int i = 0; i < n; i++){
+    		for(int j = 0; j < n; j++){
+    			if(!Double.isFinite(inverse[i][j]))
+    				return false;
+    		}
+    	}
+    	return true;
+    }
+    
+    /**
+     * Intersects the bounds of entry {@code (i,j)} with {@code [l, u]}, relaxed by the relative tolerance
+     * 
+     * @return whether a bound moved enough to trigger another pass
+     */
+    private boolean narrow(RealVar var, double[][] lb, double[][] ub, int i, int j, double l, double u) throws ContradictionException {
+    	l -= TOLERANCE*Math.abs(l);
+    	u += TOLERANCE*Math.abs(u);
+    	double width = ub[i][j] - lb[i][j];
+    	boolean changed = false;
+    	if(l > lb[i][j]){
+    		changed |= progress(l - lb[i][j], width, var);
+    		lb[i][j] = l;
+    	}
+    	if(u < ub[i][j]){
+    		changed |= progress(ub[i][j] - u, width, var);
+    		ub[i][j] = u;
+    	}
+    	if(lb[i][j] > ub[i][j])
+    		this.contradiction(var, "no inverse within the bounds");
+    	return changed;
+    }
+    
+    /**
+     * A shrink is worth another pass if it exceeds the precision of the variable and a fixed 
+     * ratio of its width, as bilinear systems may otherwise converge very slowly
+     */
+    private static boolean progress(double shrink, double width, RealVar var){
+    	return shrink > var.getPrecision() && (Double.isInfinite(shrink) || shrink > RATIO*width);
+    }
+    
+    /**
+     * Interval product, with {@code 0*inf = 0}
+     */
+    private void times(double al, double au, double bl, double bu){
+    	double p1 = product(al, bl);
+    	double p2 = product(al, bu);
+    	double p3 = product(au, bl);
+    	double p4 = product(au, bu);
+    	lo = Math.min(Math.min(p1, p2), Math.min(p3, p4));
+    	hi = Math.max(Math.max(p1, p2), Math.max(p3, p4));
+    }
+    
+    /**
+     * Interval quotient, by an interval that does not contain zero
+     */
+    private void divide(double al, double au, double bl, double bu){
+    	times(al, au, 1/bu, 1/bl);
+    }
+    
+    private static double product(double a, double b){
+    	return a == 0 || b == 0 ? 0 : a*b;
+    }
+    
+    private static double finiteMagnitude(double l, double u){
+    	double m = Math.max(Math.abs(l), Math.abs(u));
+    	return Double.isInfinite(m) ? 0 : m;
+    }
+    
+    @Override
+    public ESat isEntailed() {
+    	load(matrix, matrixLB, matrixUB);
+    	load(inverse, inverseLB, inverseUB);
+    	for(int i = 0; i < n; i++){
+    		for(int k = 0; k < n; k++){
+    			if(violated(i, k, matrixLB, matrixUB, inverseLB, inverseUB) || violated(i, k, inverseLB, inverseUB, matrixLB, matrixUB))
+    				return ESat.FALSE;
+    		}
+    	}
+    	return isCompletelyInstantiated() ? ESat.TRUE : ESat.UNDEFINED;
+    }
+    
+    private boolean violated(int i, int k, double[][] xLB, double[][] xUB, double[][] yLB, double[][] yUB){
+    	double c = i == k ? 1 : 0;
+    	double sumLB = 0;
+    	double sumUB = 0;
+    	double magnitude = Math.abs(c);
+    	for(int j = 0; j < n; j++){
+    		times(xLB[i][j], xUB[i][j], yLB[j][k], yUB[j][k]);
+    		sumLB += lo;
+    		sumUB += hi;
+    		magnitude += finiteMagnitude(lo, hi);
+    	}
+    	double slack = TOLERANCE*magnitude;
+    	return sumLB - slack > c || sumUB + slack < c;
+    }
+    
+    @Override
+    public String toString() {
+        return "MatrixInversion("+matrix[0][0].getName()+", "+inverse[0][0].getName()+", ...)";
+    }
+}
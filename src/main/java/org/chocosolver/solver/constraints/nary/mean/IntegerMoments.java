@@ -0,0 +1,123 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.nary.mean;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.SyatConstraintFactory;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.VariableFactory;
+
+/**
+ * Integer decompositions of the sample moments of integer valued observations, based on the identities 
+ * {@code n*mean = sum x_i} and {@code n*(n-1)*s^2 = n*sum x_i^2 - (sum x_i)^2}; the scaled moments 
+ * are integral, and are propagated by the integer engine. Only the final channel to the real 
+ * valued statistic requires Ibex. The auxiliaries are shared through {@link SharedExpressions}.
+ * 
+ * @author Roberto Rossi
+ */
+
+public class IntegerMoments {
+   
+   /**
+    * Posts {@code sum x_i} over integer auxiliaries
+    * 
+    * @param name name of the auxiliary variables
+    * @param observations observations
+    * @return the sum of the observations
+    */
+   public static IntVar sum(String name, IntVar[] observations){
+      Solver solver = observations[0].getSolver();
+      return SharedExpressions.of(solver).get("integerSum", observations, 0, () -> {
+         long lb = 0;
+         long ub = 0;
+         for(IntVar o : observations){
+            lb += o.getLB();
+            ub += o.getUB();
+         }
+         checkBounds(lb, ub);
+         IntVar sum = VariableFactory.bounded(name+"_sum", (int) lb, (int) ub, solver);
+         solver.post(SyatConstraintFactory.sum(observations, sum));
+         return sum;
+      });
+   }
+   
+   /**
+    * Posts {@code n*sum x_i^2 - (sum x_i)^2}, that is {@code n*(n-1)} times the sample variance, 
+    * over integer auxiliaries
+    * 
+    * @param name name of the auxiliary variables
+    * @param observations observations
+    * @param sum the sum of the observations, see {@link #sum(String, IntVar[])}
+    * @return the scaled sample variance
+    */
+   public static IntVar scaledVariance(String name, IntVar[] observations, IntVar sum){
+      Solver solver = sum.getSolver();
+      return SharedExpressions.of(solver).get("integerScaledVariance", append(observations, sum), 0, () -> {
+         int n = observations.length;
+      
+         IntVar[] squares = new IntVar[n];
+         long squaresUB = 0;
+         for(int i = 0; i < n; i++){
+            long lb = observations[i].getLB();
+            long ub = observations[i].getUB();
+            long min = lb <= 0 && ub >= 0 ? 0 : Math.min(lb*lb, ub*ub);
+            long max = Math.max(lb*lb, ub*ub);
+            checkBounds(min, max);
+            squares[i] = VariableFactory.bounded(name+"_square_"+i, (int) min, (int) max, solver);
+            solver.post(SyatConstraintFactory.square(squares[i], observations[i]));
+            squaresUB += max;
+         }
+         checkBounds(0, n*squaresUB);
+         IntVar sumOfSquares = VariableFactory.bounded(name+"_sumOfSquares", 0, (int) squaresUB, solver);
+         solver.post(SyatConstraintFactory.sum(squares, sumOfSquares));
+      
+         long sumMax = Math.max((long) sum.getLB()*sum.getLB(), (long) sum.getUB()*sum.getUB());
+         checkBounds(0, sumMax);
+         IntVar squaredSum = VariableFactory.bounded(name+"_squaredSum", 0, (int) sumMax, solver);
+         solver.post(SyatConstraintFactory.square(squaredSum, sum));
+      
+         // the scaled variance is non negative by the Cauchy-Schwarz inequality
+         IntVar scaledVariance = VariableFactory.bounded(name+"_scaledVariance", 0, (int) (n*squaresUB), solver);
+         solver.post(SyatConstraintFactory.scalar(new IntVar[]{sumOfSquares, squaredSum}, new int[]{n, -1}, scaledVariance));
+         return scaledVariance;
+      });
+   }
+   
+   private static Variable[] append(IntVar[] observations, IntVar var){
+      Variable[] allVariables = new Variable[observations.length + 1];
+      System.arraycopy(observations, 0, allVariables, 0, observations.length);
+      allVariables[observations.length] = var;
+      return allVariables;
+   }
+   
+   private static void checkBounds(long lb, long ub){
+      if(lb < VariableFactory.MIN_INT_BOUND || ub > VariableFactory.MAX_INT_BOUND)
+         throw new SolverException("Integer decomposition overflows the integer domains, use the real decomposition");
+   }
+}
@@ -31,7 +31,6 @@ import org.chocosolver.solver.constraints.real.Ibex;
 import org.chocosolver.solver.constraints.real.RealConstraint;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.RealVar;
-import org.chocosolver.solver.variables.VF;
 
 /**
  * Decompositions of the {@code MEAN} constraint
@@ -58,16 +57,10 @@ public class Mean {
       
       Solver solver = mean.getSolver();
       
-      String exp = "(";
-      for(int i = 0; i < observations.length; i++){
-         if(i < observations.length - 1)
-            exp += "{"+i+"}+";
-         else
-            exp += "{"+i+"})/"+observations.length+"={"+(i+1)+"}";
-      }
+      String exp = expression(observations.length);
       
       RealVar[] allRealVariables = new RealVar[observations.length + 1];
-      RealVar[] realObservations = VF.real(observations, precision);
+      RealVar[] realObservations = SharedExpressions.real(observations, precision);
       System.arraycopy(realObservations, 0, allRealVariables, 0, observations.length);
       allRealVariables[realObservations.length] = mean;
       
@@ -90,13 +83,7 @@ public class Mean {
       
       Solver solver = mean.getSolver();
       
-      String exp = "(";
-      for(int i = 0; i < observations.length; i++){
-         if(i < observations.length - 1)
-            exp += "{"+i+"}+";
-         else
-            exp += "{"+i+"})/"+observations.length+"={"+(i+1)+"}";
-      }
+      String exp = expression(observations.length);
       
       RealVar[] allRealVariables = new RealVar[observations.length + 1];
       System.arraycopy(observations, 0, allRealVariables, 0, observations.length);
@@ -104,4 +91,47 @@ public class Mean {
       
       solver.post(new RealConstraint(name, exp, Ibex.HC4_NEWTON, allRealVariables));
    }
+   
+   /**
+    * Ibex expression of the {@code MEAN} constraint over {@code n} observations followed by their mean
+    * 
+    * @param n number of observations
+    * @return the Ibex expression
+    */
+   
+   static String expression(int n){
+      String exp = "(";
+      for(int i = 0; i < n; i++){
+         if(i < n - 1)
+            exp += "{"+i+"}+";
+         else
+            exp += "{"+i+"})/"+n+"={"+(i+1)+"}";
+      }
+      return exp;
+   }
+   
+   /**
+    * {@code MEAN} constraint integer decomposition for integer valued observations: 
+    * the sum of the observations is propagated by the integer engine, and channelled to 
+    * the mean by a single real constraint
+    * 
+    * @param name constraint name
+    * @param observations observations
+    * @param mean mean value
+    * @param precision Ibex precision
+    */
+   
+   public static void decomposeInteger(String name,
+                                       IntVar[] observations,
+                                       RealVar mean,
+                                       double precision){
+      
+      Solver solver = mean.getSolver();
+      
+      IntVar sum = IntegerMoments.sum(name, observations);
+      
+      String exp = "{0}*"+observations.length+"={1}";
+      
+      solver.post(new RealConstraint(name, exp, Ibex.HC4_NEWTON, new RealVar[]{mean, SharedExpressions.real(sum, precision)}));
+   }
 }
@@ -0,0 +1,82 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.nary.mean;
+
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.real.Ibex;
+import org.chocosolver.solver.constraints.real.RealPropagator;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.RealVar;
+
+/**
+ * {@code MEAN} constraint filtered by a bounds consistent propagator, 
+ * an alternative to the Ibex decompositions in {@link Mean}; when a variable 
+ * has infinite bounds the constraint is filtered by the Ibex expression of 
+ * {@link Mean#decompose(String, RealVar[], RealVar, double)} instead
+ * 
+ * @author Roberto Rossi
+ * @see <a href="https://en.wikipedia.org/wiki/Mean">Mean</a>
+ */
+
+@SuppressWarnings("serial")
+public class MeanConstraint extends Constraint {
+   
+   /**
+    * {@code MEAN} constraint for integer valued observations; observations are 
+    * seen through real views with the precision of {@code mean}
+    * 
+    * @param observations observations
+    * @param mean mean value
+    */
+   public MeanConstraint(IntVar[] observations, RealVar mean){
+      this(SharedExpressions.real(observations, mean.getPrecision()), mean);
+   }
+   
+   /**
+    * {@code MEAN} constraint for real valued observations
+    * 
+    * @param observations observations
+    * @param mean mean value
+    */
+   public MeanConstraint(RealVar[] observations, RealVar mean){
+      super("Mean", propagator(observations, mean));
+   }
+   
+   private static Propagator<RealVar> propagator(RealVar[] observations, RealVar mean){
+      boolean bounded = !Double.isInfinite(mean.getLB()) && !Double.isInfinite(mean.getUB());
+      for(RealVar o : observations)
+         bounded &= !Double.isInfinite(o.getLB()) && !Double.isInfinite(o.getUB());
+      if(bounded)
+         return new PropMean(observations, mean);
+      
+      RealVar[] allRealVariables = new RealVar[observations.length + 1];
+      System.arraycopy(observations, 0, allRealVariables, 0, observations.length);
+      allRealVariables[observations.length] = mean;
+      return new RealPropagator(Mean.expression(observations.length), allRealVariables, Ibex.HC4_NEWTON);
+   }
+}
@@ -0,0 +1,188 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.nary.mean;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateDouble;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.RealVar;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.solver.variables.events.RealEventType;
+import org.chocosolver.util.ESat;
+
+/**
+ * Bounds consistent propagator for {@code (x_1+...+x_n)/n = m}; the last variable is the mean.
+ * 
+ * The sums of the lower and upper bounds of the observations are backtrackable and are 
+ * adjusted in constant time on each bound event, against the bounds last seen for the observation.
+ * 
+ * @author Roberto Rossi
+ */
+@SuppressWarnings("serial")
+class PropMean extends Propagator<RealVar> {
+	
+	/**
+	 * Relative slack by which the computed bounds are relaxed, so that rounding errors in the 
+	 * sums never remove a valid value.
+	 */
+	private static final double TOLERANCE = 1e-12;
+	
+	private final int n;
+	private final RealVar mean;
+	
+	private final IStateDouble sumLB;
+	private final IStateDouble sumUB;
+	private final IStateDouble[] seenLB;
+	private final IStateDouble[] seenUB;
+	
+	private static RealVar[] mergeArrays(RealVar[] observations, RealVar mean){
+		RealVar[] vars = new RealVar[observations.length + 1];
+		System.arraycopy(observations, 0, vars, 0, observations.length);
+		vars[observations.length] = mean;
+		return vars;
+	}
+	
+    public PropMean(RealVar[] observations, RealVar mean) {
+        super(mergeArrays(observations, mean), PropagatorPriority.LINEAR, true);
+        if(observations.length == 0)
+        	throw new SolverException("The mean of an empty sample is undefined");
+        for(RealVar v : vars){
+        	if(Double.isInfinite(v.getLB()) || Double.isInfinite(v.getUB()))
+        		throw new SolverException("Variable "+v.getName()+" should have finite bounds");
+        }
+        this.n = observations.length;
+        this.mean = mean;
+        IEnvironment environment = mean.getSolver().getEnvironment();
+        this.sumLB = environment.makeFloat(0);
+        this.sumUB = environment.makeFloat(0);
+        this.seenLB = new IStateDouble[n];
+        this.seenUB = new IStateDouble[n];
+        for(int i = 0; i < n; i++){
+        	this.seenLB[i] = environment.makeFloat(0);
+        	this.seenUB[i] = environment.makeFloat(0);
+        }
+    }
+    
+    @Override
+    public int getPropagationConditions(int vIdx) {
+    	return RealEventType.BOUND.getMask();
+    }
+    
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+    	if(PropagatorEventType.isFullPropagation(evtmask)){
+    		double lb = 0;
+    		double ub = 0;
+    		for(int i = 0; i < n; i++){
+    			seenLB[i].set(vars[i].getLB());
+    			seenUB[i].set(vars[i].getUB());
+    			lb += vars[i].getLB();
+    			ub += vars[i].getUB();
+    		}
+    		sumLB.set(lb);
+    		sumUB.set(ub);
+    	}
+    	boolean changed;
+    	do{
+    		changed = false;
+    		mean.updateBounds(sumLB.get()/n - slack(sumLB.get())/n, sumUB.get()/n + slack(sumUB.get())/n, this);
+    		
+    		// x_i >= n*m.lb - (sumUB - ub_i) and x_i <= n*m.ub - (sumLB - lb_i)
+    		for(int i = 0; i < n; i++){
+    			RealVar x = vars[i];
+    			double residualLB = n*mean.getLB() - sumUB.get();
+    			double residualUB = n*mean.getUB() - sumLB.get();
+    			double tolerance = slack(n*mean.getLB()) + slack(n*mean.getUB()) + slack(sumLB.get()) + slack(sumUB.get());
+    			if(x.getUB() - x.getLB() <= Math.min(-residualLB, residualUB) + tolerance){
+    				// not wider than the slack of the equation, no bound can be pruned
+    				continue;
+    			}
+    			x.updateBounds(residualLB + x.getUB() - tolerance, residualUB + x.getLB() + tolerance, this);
+    			// the propagator is not notified of its own bound changes
+    			changed |= update(i);
+    		}
+    	}while(changed);
+    }
+    
+    /**
+     * Absolute slack for a floating point quantity of the magnitude of {@code value}
+     */
+    private double slack(double value){
+    	return TOLERANCE*Math.max(1, Math.abs(value));
+    }
+    
+    /**
+     * Adjusts the sums to the current bounds of observation {@code i}
+     * 
+     * @return true if a bound of the observation changed since it was last seen
+     */
+    private boolean update(int i){
+    	boolean changed = false;
+    	double lb = vars[i].getLB();
+    	double ub = vars[i].getUB();
+    	if(lb != seenLB[i].get()){
+    		sumLB.add(lb - seenLB[i].get());
+    		seenLB[i].set(lb);
+    		changed = true;
+    	}
+    	if(ub != seenUB[i].get()){
+    		sumUB.add(ub - seenUB[i].get());
+    		seenUB[i].set(ub);
+    		changed = true;
+    	}
+    	return changed;
+    }
+    
+    @Override
+    public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+    	if(idxVarInProp == n || update(idxVarInProp))
+    		forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+    }
+    
+    @Override
+    public ESat isEntailed() {
+    	double lb = 0;
+    	double ub = 0;
+    	for(int i = 0; i < n; i++){
+    		lb += vars[i].getLB();
+    		ub += vars[i].getUB();
+    	}
+    	if(ub/n + slack(ub)/n < mean.getLB() || lb/n - slack(lb)/n > mean.getUB())
+    		return ESat.FALSE;
+    	if(isCompletelyInstantiated())
+    		return ESat.TRUE;
+    	return ESat.UNDEFINED;
+    }
+    
+    @Override
+    public String toString() {
+        return "mean(" + vars[0].getName() + ",...) = " + mean.getName();
+    }
+}
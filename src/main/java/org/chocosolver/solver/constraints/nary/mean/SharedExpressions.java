@@ -0,0 +1,163 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.nary.mean;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.SyatConstraintFactory;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.RealVar;
+import org.chocosolver.solver.variables.VF;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.VariableFactory;
+
+/**
+ * Registry of the auxiliary variables derived from observations, such as real views, means and sums, 
+ * shared by all the statistical decompositions posted to a {@link Solver}. 
+ * 
+ * An auxiliary is identified by its kind, its precision and the variables it is derived from, 
+ * in order; the first decomposition that needs it creates it and posts its defining constraints, 
+ * later decompositions reuse it. The registry is attached to the solver as a hook, hence it lives 
+ * as long as the model does.
+ * 
+ * @author Roberto Rossi
+ */
+
+public class SharedExpressions {
+   
+   private static final String HOOK = "syat.SharedExpressions";
+   
+   private final Map<List<Object>, Object> expressions = new HashMap<>();
+   
+   private SharedExpressions(){}
+   
+   /**
+    * Returns the registry of {@code solver}, creating it on first use
+    * 
+    * @param solver solver
+    * @return the registry of the solver
+    */
+   public static SharedExpressions of(Solver solver){
+      SharedExpressions registry = (SharedExpressions) solver.getHook(HOOK);
+      if(registry == null){
+         registry = new SharedExpressions();
+         solver.addHook(HOOK, registry);
+      }
+      return registry;
+   }
+   
+   /**
+    * Returns the auxiliary of a given kind derived from {@code inputs}; if it does not exist yet, it is 
+    * created by {@code builder}, which is expected to post its defining constraints.
+    * 
+    * @param kind kind of auxiliary, e.g. "mean"
+    * @param inputs variables the auxiliary is derived from
+    * @param precision precision of the auxiliary, 0 for integer auxiliaries
+    * @param builder creates the auxiliary and posts its defining constraints
+    * @return the shared auxiliary
+    */
+   @SuppressWarnings("unchecked")
+   public <T> T get(String kind, Variable[] inputs, double precision, Supplier<T> builder){
+      List<Object> key = new ArrayList<>(inputs.length + 2);
+      key.add(kind);
+      key.add(precision);
+      key.addAll(Arrays.asList(inputs));
+      T expression = (T) expressions.get(key);
+      if(expression == null){
+         // builders may register auxiliaries of their own, hence no computeIfAbsent
+         expression = builder.get();
+         expressions.put(key, expression);
+      }
+      return expression;
+   }
+   
+   /**
+    * Shared real view of an integer variable
+    * 
+    * @param var integer variable
+    * @param precision view precision
+    * @return the real view of {@code var}
+    */
+   public static RealVar real(IntVar var, double precision){
+      return of(var.getSolver()).get("real", new Variable[]{var}, precision, () -> VF.real(var, precision));
+   }
+   
+   /**
+    * Shared real views of integer variables
+    * 
+    * @param vars integer variables
+    * @param precision view precision
+    * @return the real views of {@code vars}
+    */
+   public static RealVar[] real(IntVar[] vars, double precision){
+      RealVar[] views = new RealVar[vars.length];
+      for(int i = 0; i < vars.length; i++)
+         views[i] = real(vars[i], precision);
+      return views;
+   }
+   
+   /**
+    * Shared mean of integer valued observations, that is the mean of their shared real views, 
+    * see {@link #mean(RealVar[], double)}
+    * 
+    * @param observations observations
+    * @param precision Ibex precision
+    * @return the mean of the observations
+    */
+   public static RealVar mean(IntVar[] observations, double precision){
+      return mean(real(observations, precision), precision);
+   }
+   
+   /**
+    * Shared mean of real valued observations, constrained by the {@code MEAN} constraint; 
+    * observations with infinite bounds are decomposed, see 
+    * {@link Mean#decompose(String, RealVar[], RealVar, double)}
+    * 
+    * @param observations observations
+    * @param precision Ibex precision
+    * @return the mean of the observations
+    */
+   public static RealVar mean(RealVar[] observations, double precision){
+      Solver solver = observations[0].getSolver();
+      return of(solver).get("mean", observations, precision, () -> {
+         double min = Arrays.stream(observations).mapToDouble(o -> o.getLB()).min().getAsDouble();
+         double max = Arrays.stream(observations).mapToDouble(o -> o.getUB()).max().getAsDouble();
+         RealVar mean = VariableFactory.real("Mean_"+observations[0].getName(), min, max, precision, solver);
+         if(Double.isInfinite(min) || Double.isInfinite(max))
+            Mean.decompose("MeanConstraint_"+observations[0].getName(), observations, mean, precision);
+         else
+            solver.post(SyatConstraintFactory.mean(observations, mean));
+         return mean;
+      });
+   }
+}
@@ -29,11 +29,11 @@ package org.chocosolver.solver.constraints.statistical.chisquare;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.SyatConstraintFactory;
 import org.chocosolver.solver.constraints.nary.bincounts.BincountsDecompositionType;
+import org.chocosolver.solver.constraints.nary.mean.SharedExpressions;
 import org.chocosolver.solver.constraints.real.Ibex;
 import org.chocosolver.solver.constraints.real.RealConstraint;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.RealVar;
-import org.chocosolver.solver.variables.VF;
 
 /**
  * Chi square goodness-of-fit statistical constraint decomposition. 
@@ -78,8 +78,8 @@ public class ChiSquareFitEmpirical {
                                                    allowOutOfBinObservations ? BincountsDecompositionType.Agkun2016_2_LE :
                                                                                BincountsDecompositionType.Agkun2016_1);
 
-      RealVar[] realBinCounts = VF.real(binCounts, precision);
-      RealVar[] realTargetFrequencies = VF.real(targetFrequencies, precision);
+      RealVar[] realBinCounts = SharedExpressions.real(binCounts, precision);
+      RealVar[] realTargetFrequencies = SharedExpressions.real(targetFrequencies, precision);
 
       String chiSqExp = "";
       for(int i = 0; i < binCounts.length; i++)
@@ -126,8 +126,8 @@ public class ChiSquareFitEmpirical {
                                                    allowOutOfBinObservations ? BincountsDecompositionType.Agkun2016_2_LE :
                                                                                BincountsDecompositionType.Agkun2016_1);
 
-      RealVar[] realBinCounts = VF.real(binCounts, precision);
-      RealVar[] realTargetFrequencies = VF.real(targetFrequencies, precision);
+      RealVar[] realBinCounts = SharedExpressions.real(binCounts, precision);
+      RealVar[] realTargetFrequencies = SharedExpressions.real(targetFrequencies, precision);
 
       String chiSqExp = "";
       for(int i = 0; i < binCounts.length; i++)
@@ -31,11 +31,11 @@ import java.math.BigDecimal;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.SyatConstraintFactory;
 import org.chocosolver.solver.constraints.nary.bincounts.BincountsDecompositionType;
+import org.chocosolver.solver.constraints.nary.mean.SharedExpressions;
 import org.chocosolver.solver.constraints.real.Ibex;
 import org.chocosolver.solver.constraints.real.RealConstraint;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.RealVar;
-import org.chocosolver.solver.variables.VF;
 
 /**
  * Chi square goodness-of-fit statistical constraint decomposition. 
@@ -83,7 +83,7 @@ public class ChiSquareFitNormal {
                                                     allowOutOfBinObservations ? BincountsDecompositionType.Agkun2016_2_LE :
                                                                                 BincountsDecompositionType.Agkun2016_2_EQ);
 
-      RealVar[] realBinCounts = VF.real(binCounts, precision);
+      RealVar[] realBinCounts = SharedExpressions.real(binCounts, precision);
 
       String[] targetFrequencies = new String[binCounts.length];
       for(int b = 0; b < binBounds.length-1; b++){
@@ -29,11 +29,11 @@ package org.chocosolver.solver.constraints.statistical.chisquare;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.SyatConstraintFactory;
 import org.chocosolver.solver.constraints.nary.contingency.ContingencyDecompositions;
+import org.chocosolver.solver.constraints.nary.mean.SharedExpressions;
 import org.chocosolver.solver.constraints.real.Ibex;
 import org.chocosolver.solver.constraints.real.RealConstraint;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.RealVar;
-import org.chocosolver.solver.variables.VF;
 import org.chocosolver.solver.variables.VariableFactory;
 
 /**
@@ -109,9 +109,9 @@ public class ChiSquareIndependence {
       }
 
       RealVar[] allRealVariables = new RealVar[flattenedBins.length + binVariables.length + binVariables[0].length + 1];
-      System.arraycopy(VF.real(flattenedBins, precision), 0, allRealVariables, 0, flattenedBins.length);
-      System.arraycopy(VF.real(marginalsH, precision), 0, allRealVariables, flattenedBins.length, marginalsH.length);
-      System.arraycopy(VF.real(marginalsV, precision), 0, allRealVariables, flattenedBins.length + marginalsH.length, marginalsV.length);
+      System.arraycopy(SharedExpressions.real(flattenedBins, precision), 0, allRealVariables, 0, flattenedBins.length);
+      System.arraycopy(SharedExpressions.real(marginalsH, precision), 0, allRealVariables, flattenedBins.length, marginalsH.length);
+      System.arraycopy(SharedExpressions.real(marginalsV, precision), 0, allRealVariables, flattenedBins.length + marginalsH.length, marginalsV.length);
       allRealVariables[flattenedBins.length + binVariables.length + binVariables[0].length] = statistic;
 
       solver.post(new RealConstraint(name, chiSqExp, Ibex.HC4_NEWTON, allRealVariables));
@@ -179,9 +179,9 @@ public class ChiSquareIndependence {
          }
       }
 
-      RealVar[] flattenedBinsReal = VariableFactory.real(flattenedBins, precision);
-      RealVar[] marginalsHReal = VariableFactory.real(marginalsH, precision);
-      RealVar[] marginalsVReal = VariableFactory.real(marginalsV, precision);
+      RealVar[] flattenedBinsReal = SharedExpressions.real(flattenedBins, precision);
+      RealVar[] marginalsHReal = SharedExpressions.real(marginalsH, precision);
+      RealVar[] marginalsVReal = SharedExpressions.real(marginalsV, precision);
       
       RealVar[] allRealVariables = new RealVar[flattenedBins.length + binVariables.length + binVariables[0].length + 1];
       System.arraycopy(flattenedBinsReal, 0, allRealVariables, 0, flattenedBins.length);
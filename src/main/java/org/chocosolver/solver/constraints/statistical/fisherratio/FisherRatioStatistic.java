@@ -29,7 +29,8 @@ package org.chocosolver.solver.constraints.statistical.fisherratio;
 import java.util.Arrays;
 
 import org.chocosolver.solver.Solver;
-import org.chocosolver.solver.constraints.nary.deviation.Variance;
+import org.chocosolver.solver.constraints.SyatConstraintFactory;
+import org.chocosolver.solver.constraints.nary.deviation.DeviationType;
 import org.chocosolver.solver.constraints.real.Ibex;
 import org.chocosolver.solver.constraints.real.RealConstraint;
 import org.chocosolver.solver.variables.IntVar;
@@ -56,13 +57,13 @@ public class FisherRatioStatistic {
       int maxA = Arrays.stream(seriesA).mapToInt(o -> o.getUB()).max().getAsInt();
       
       RealVar varianceA = VariableFactory.real(name+"varianceA", 0, Math.pow(maxA-minA,2), precision, solver);
-      Variance.decompose(name+"_varianceA_cons", seriesA, varianceA, precision);
+      solver.post(SyatConstraintFactory.deviation(seriesA, varianceA, DeviationType.VARIANCE));
       
       int minB = Arrays.stream(seriesB).mapToInt(o -> o.getLB()).min().getAsInt();
       int maxB = Arrays.stream(seriesB).mapToInt(o -> o.getUB()).max().getAsInt();
       
       RealVar varianceB = VariableFactory.real(name+"varianceB", 0, Math.pow(maxB-minB,2), precision, solver);
-      Variance.decompose(name+"_varianceB_cons", seriesB, varianceB, precision);
+      solver.post(SyatConstraintFactory.deviation(seriesB, varianceB, DeviationType.VARIANCE));
       
       String exp = "{0}/{1}={2}";
       
@@ -80,13 +81,13 @@ public class FisherRatioStatistic {
       double maxA = Arrays.stream(seriesA).mapToDouble(o -> o.getUB()).max().getAsDouble();
       
       RealVar varianceA = VariableFactory.real(name+"_varianceA", 0, Math.pow(maxA-minA,2), precision, solver);
-      Variance.decompose(name+"_varianceA_cons", seriesA, varianceA, precision);
+      solver.post(SyatConstraintFactory.deviation(seriesA, varianceA, DeviationType.VARIANCE));
       
       double minB = Arrays.stream(seriesB).mapToDouble(o -> o.getLB()).min().getAsDouble();
       double maxB = Arrays.stream(seriesB).mapToDouble(o -> o.getUB()).max().getAsDouble();
       
       RealVar varianceB = VariableFactory.real(name+"_varianceB", 0, Math.pow(maxB-minB,2), precision, solver);
-      Variance.decompose(name+"_varianceB_cons", seriesB, varianceB, precision);
+      solver.post(SyatConstraintFactory.deviation(seriesB, varianceB, DeviationType.VARIANCE));
       
       String exp = "{0}/{1}={2}";
       
@@ -0,0 +1,307 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.statistical.hotelling;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.RealVar;
+import org.chocosolver.util.ESat;
+
+/**
+ * Propagator for {@code t = M*(m-mu)'.S^-1.(m-mu)}, where the sample means {@code m} and the 
+ * variance-covariance matrix {@code S} are known; the last variable is {@code t}.
+ * 
+ * With {@code d = mu-m} and {@code P = S/M = L.L'}, the statistic is {@code |L^-1.d|^2}, which 
+ * is bounded by forward substitution on the bounds of {@code d}. Its upper bound {@code t} 
+ * confines {@code mu} to an ellipsoid, whose box is {@code |d_i| <= sqrt(t*P_ii)}. Each 
+ * {@code d_i} is further bounded given the others: the statistic is 
+ * {@code (d_i - b_i'.d_-i)^2/v_i + r_i(d_-i)}, where {@code b_i} and {@code v_i} are the 
+ * regression coefficients and the residual variance of {@code d_i} on the other entries, and 
+ * {@code r_i} is the statistic restricted to the other entries. All factors are computed once.
+ * 
+ * @author Roberto Rossi
+ * @see <a href="https://en.wikipedia.org/wiki/Hotelling%27s_T-squared_distribution">Hotelling T squared distribution</a>
+ */
+@SuppressWarnings("serial")
+class PropTSquareEllipsoid extends Propagator<RealVar> {
+	
+	/**
+	 * Relative slack by which the computed bounds are relaxed, so that rounding errors 
+	 * never remove a valid value.
+	 */
+	private static final double TOLERANCE = 1e-9;
+	
+	/**
+	 * Smallest relative shrink of a domain that triggers another pass
+	 */
+	private static final double RATIO = 1e-3;
+	
+	private final int n;
+	private final RealVar[] mu;
+	private final RealVar statistic;
+	private final double[] means;
+	
+	/**
+	 * Diagonal and Cholesky factor of {@code P}
+	 */
+	private final double[] variance;
+	private final double[][] cholesky;
+	private final int[] all;
+	
+	/**
+	 * For each entry, indices of the other entries, Cholesky factor of {@code P} restricted 
+	 * to them, regression coefficients and residual variance
+	 */
+	private final int[][] others;
+	private final double[][][] othersCholesky;
+	private final double[][] coefficients;
+	private final double[] residualVariance;
+	
+	private final double[] zLB;
+	private final double[] zUB;
+	
+	/**
+	 * Bounds of the last quadratic form or linear combination
+	 */
+	private double lo;
+	private double hi;
+	
+	private static RealVar[] mergeArrays(RealVar[] mu, RealVar statistic){
+		RealVar[] vars = new RealVar[mu.length + 1];
+		System.arraycopy(mu, 0, vars, 0, mu.length);
+		vars[mu.length] = statistic;
+		return vars;
+	}
+	
+	/**
+	 * @param mu population means
+	 * @param means sample means
+	 * @param sigma variance-covariance matrix
+	 * @param M number of observations
+	 * @param statistic t squared statistic
+	 */
+    public PropTSquareEllipsoid(RealVar[] mu, double[] means, double[][] sigma, int M, RealVar statistic) {
+        super(mergeArrays(mu, statistic), PropagatorPriority.QUADRATIC, false);
+        int n = mu.length;
+        if(means.length != n || sigma.length != n)
+        	throw new SolverException("Means and variance-covariance matrix should match the number of factors");
+        this.n = n;
+        this.mu = mu;
+        this.statistic = statistic;
+        this.means = means;
+        double[][] p = new double[n][n];
+        this.variance = new double[n];
+        this.all = new int[n];
+        for(int i = 0; i < n; i++){
+        	if(sigma[i].length != n)
+        		throw new SolverException("Variance-covariance matrix should be square");
+        	for(int j = 0; j < n; j++)
+        		p[i][j] = sigma[i][j]/M;
+        	this.variance[i] = p[i][i];
+        	this.all[i] = i;
+        }
+        this.cholesky = cholesky(p, all);
+        this.others = new int[n][n - 1];
+        this.othersCholesky = new double[n][][];
+        this.coefficients = new double[n][n - 1];
+        this.residualVariance = new double[n];
+        for(int i = 0; i < n; i++){
+        	for(int j = 0; j < n - 1; j++)
+        		others[i][j] = j < i ? j : j + 1;
+        	othersCholesky[i] = cholesky(p, others[i]);
+        	// b_i solves P_-i,-i.b_i = P_-i,i, and v_i = P_ii - P_i,-i.b_i
+        	double[][] l = othersCholesky[i];
+        	double[] b = coefficients[i];
+        	for(int k = 0; k < n - 1; k++){
+        		double sum = p[others[i][k]][i];
+        		for(int j = 0; j < k; j++)
+        			sum -= l[k][j]*b[j];
+        		b[k] = sum/l[k][k];
+        	}
+        	for(int k = n - 2; k >= 0; k--){
+        		double sum = b[k];
+        		for(int j = k + 1; j < n - 1; j++)
+        			sum -= l[j][k]*b[j];
+        		b[k] = sum/l[k][k];
+        	}
+        	double v = p[i][i];
+        	for(int k = 0; k < n - 1; k++)
+        		v -= p[i][others[i][k]]*b[k];
+        	if(!(v > 0))
+        		throw new SolverException("Variance-covariance matrix should be positive definite");
+        	residualVariance[i] = v;
+        }
+        this.zLB = new double[n];
+        this.zUB = new double[n];
+    }
+    
+    /**
+     * Cholesky factor of {@code p} restricted to rows and columns {@code index}
+     */
+    private static double[][] cholesky(double[][] p, int[] index){
+    	int m = index.length;
+    	double[][] l = new double[m][m];
+    	for(int k = 0; k < m; k++){
+    		for(int j = 0; j <= k; j++){
+    			double sum = p[index[k]][index[j]];
+    			for(int h = 0; h < j; h++)
+    				sum -= l[k][h]*l[j][h];
+    			if(j < k){
+    				l[k][j] = sum/l[j][j];
+    			}else if(sum > 0){
+    				l[k][k] = Math.sqrt(sum);
+    			}else{
+    				throw new SolverException("Variance-covariance matrix should be positive definite");
+    			}
+    		}
+    	}
+    	return l;
+    }
+    
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+    	boolean changed;
+    	do{
+    		quadraticForm(cholesky, all);
+    		changed = narrow(statistic, lo, hi);
+    		double t = statistic.getUB();
+    		if(Double.isInfinite(t))
+    			return;
+    		for(int i = 0; i < n; i++){
+    			double radius = Math.sqrt(t*variance[i])*(1 + TOLERANCE);
+    			changed |= narrow(mu[i], means[i] - radius, means[i] + radius);
+    			
+    			quadraticForm(othersCholesky[i], others[i]);
+    			if(lo > t)
+    				this.contradiction(mu[i], "mean outside the confidence region");
+    			radius = Math.sqrt((t - lo)*residualVariance[i])*(1 + TOLERANCE);
+    			combination(coefficients[i], others[i]);
+    			changed |= narrow(mu[i], means[i] + lo - radius, means[i] + hi + radius);
+    		}
+    	}while(changed);
+    }
+    
+    /**
+     * Bounds of {@code |L^-1.d|^2}, where {@code d} is restricted to {@code index}
+     */
+    private void quadraticForm(double[][] l, int[] index){
+    	double sumLB = 0;
+    	double sumUB = 0;
+    	for(int k = 0; k < index.length; k++){
+    		double dLB = mu[index[k]].getLB() - means[index[k]];
+    		double dUB = mu[index[k]].getUB() - means[index[k]];
+    		double magnitude = finiteMagnitude(dLB, dUB);
+    		for(int j = 0; j < k; j++){
+    			double c = l[k][j];
+    			dLB -= c >= 0 ? product(c, zUB[j]) : product(c, zLB[j]);
+    			dUB -= c >= 0 ? product(c, zLB[j]) : product(c, zUB[j]);
+    			magnitude += Math.abs(c)*finiteMagnitude(zLB[j], zUB[j]);
+    		}
+    		zLB[k] = (dLB - TOLERANCE*magnitude)/l[k][k];
+    		zUB[k] = (dUB + TOLERANCE*magnitude)/l[k][k];
+    		if(zLB[k] > 0){
+    			sumLB += zLB[k]*zLB[k];
+    		}else if(zUB[k] < 0){
+    			sumLB += zUB[k]*zUB[k];
+    		}
+    		sumUB += Math.max(zLB[k]*zLB[k], zUB[k]*zUB[k]);
+    	}
+    	lo = sumLB*(1 - TOLERANCE);
+    	hi = sumUB*(1 + TOLERANCE);
+    }
+    
+    /**
+     * Bounds of {@code b'.d}, where {@code d} is restricted to {@code index}
+     */
+    private void combination(double[] b, int[] index){
+    	double sumLB = 0;
+    	double sumUB = 0;
+    	double magnitude = 0;
+    	for(int k = 0; k < index.length; k++){
+    		double dLB = mu[index[k]].getLB() - means[index[k]];
+    		double dUB = mu[index[k]].getUB() - means[index[k]];
+    		sumLB += b[k] >= 0 ? product(b[k], dLB) : product(b[k], dUB);
+    		sumUB += b[k] >= 0 ? product(b[k], dUB) : product(b[k], dLB);
+    		magnitude += Math.abs(b[k])*finiteMagnitude(dLB, dUB);
+    	}
+    	lo = sumLB - TOLERANCE*magnitude;
+    	hi = sumUB + TOLERANCE*magnitude;
+    }
+    
+    /**
+     * Intersects the bounds of {@code var} with {@code [l, u]}, relaxed by the relative tolerance
+     * 
+     * @return whether a bound moved enough to trigger another pass
+     */
+    private boolean narrow(RealVar var, double l, double u) throws ContradictionException {
+    	l -= TOLERANCE*Math.abs(l);
+    	u += TOLERANCE*Math.abs(u);
+    	double lb = var.getLB();
+    	double ub = var.getUB();
+    	if(l > ub || u < lb)
+    		this.contradiction(var, "mean outside the confidence region");
+    	boolean changed = false;
+    	if(l > lb)
+    		changed |= progress(l - lb, ub - lb, var);
+    	if(u < ub)
+    		changed |= progress(ub - u, ub - lb, var);
+    	var.updateBounds(Math.max(l, lb), Math.min(u, ub), this);
+    	return changed;
+    }
+    
+    /**
+     * A shrink is worth another pass if it exceeds the precision of the variable and a fixed 
+     * ratio of its width
+     */
+    private static boolean progress(double shrink, double width, RealVar var){
+    	return shrink > var.getPrecision() && (Double.isInfinite(shrink) || shrink > RATIO*width);
+    }
+    
+    private static double product(double a, double b){
+    	return a == 0 || b == 0 ? 0 : a*b;
+    }
+    
+    private static double finiteMagnitude(double l, double u){
+    	double m = Math.max(Math.abs(l), Math.abs(u));
+    	return Double.isInfinite(m) ? 0 : m;
+    }
+    
+    @Override
+    public ESat isEntailed() {
+    	quadraticForm(cholesky, all);
+    	if(lo > statistic.getUB() || hi < statistic.getLB())
+    		return ESat.FALSE;
+    	return isCompletelyInstantiated() ? ESat.TRUE : ESat.UNDEFINED;
+    }
+    
+    @Override
+    public String toString() {
+        return "tSquare(" + mu[0].getName() + ",...) = " + statistic.getName();
+    }
+}
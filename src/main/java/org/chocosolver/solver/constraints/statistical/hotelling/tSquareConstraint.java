@@ -0,0 +1,90 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.statistical.hotelling;
+
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.variables.RealVar;
+
+/**
+ * Hotelling t squared statistical constraint for scalar observations, filtered by projecting 
+ * the confidence ellipsoid of the population means on its axes
+ * 
+ * @author Roberto Rossi
+ * @see <a href="https://en.wikipedia.org/wiki/Hotelling%27s_T-squared_distribution">Hotelling T squared distribution</a>
+ */
+
+@SuppressWarnings("serial")
+public class tSquareConstraint extends Constraint {
+   
+   /**
+    * The variance-covariance matrix is known
+    * 
+    * @param mu mean array [nbFactors]
+    * @param sigma variance-covariance matrix [nbFactors][nbFactors]
+    * @param observations observations matrix [nbObservations][nbFactors]
+    * @param statistic t squared statistic
+    */
+   public tSquareConstraint(RealVar[] mu, double[][] sigma, double[][] observations, RealVar statistic){
+      this("tSquare", mu, sigma, observations, statistic);
+   }
+   
+   /**
+    * The variance-covariance matrix is known
+    * 
+    * @param name constraint name
+    * @param mu mean array [nbFactors]
+    * @param sigma variance-covariance matrix [nbFactors][nbFactors]
+    * @param observations observations matrix [nbObservations][nbFactors]
+    * @param statistic t squared statistic
+    */
+   public tSquareConstraint(String name, RealVar[] mu, double[][] sigma, double[][] observations, RealVar statistic){
+      super(name, new PropTSquareEllipsoid(mu, tSquareStatistic.getMeans(observations), sigma, observations.length, statistic));
+   }
+   
+   /**
+    * The variance-covariance matrix is estimated from the observations
+    * 
+    * @param mu mean array [nbFactors]
+    * @param observations observations matrix [nbObservations][nbFactors]
+    * @param statistic t squared statistic
+    */
+   public tSquareConstraint(RealVar[] mu, double[][] observations, RealVar statistic){
+      this("tSquare", mu, observations, statistic);
+   }
+   
+   /**
+    * The variance-covariance matrix is estimated from the observations
+    * 
+    * @param name constraint name
+    * @param mu mean array [nbFactors]
+    * @param observations observations matrix [nbObservations][nbFactors]
+    * @param statistic t squared statistic
+    */
+   public tSquareConstraint(String name, RealVar[] mu, double[][] observations, RealVar statistic){
+      this(name, mu, tSquareStatistic.computeCovarianceMatrix(observations), observations, statistic);
+   }
+}
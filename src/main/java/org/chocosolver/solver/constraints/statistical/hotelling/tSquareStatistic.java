@@ -27,14 +27,14 @@
 package org.chocosolver.solver.constraints.statistical.hotelling;
 
 import org.chocosolver.solver.Solver;
-import org.chocosolver.solver.constraints.nary.matrix.MatrixInversion;
+import org.chocosolver.solver.constraints.SyatConstraintFactory;
+import org.chocosolver.solver.constraints.nary.deviation.Covariance;
+import org.chocosolver.solver.constraints.nary.matrix.DotProduct;
+import org.chocosolver.solver.constraints.nary.mean.SharedExpressions;
 import org.chocosolver.solver.constraints.real.Ibex;
 import org.chocosolver.solver.constraints.real.RealConstraint;
 import org.chocosolver.solver.variables.RealVar;
 import org.chocosolver.solver.variables.VariableFactory;
-import org.la4j.Matrix;
-import org.la4j.inversion.GaussJordanInverter;
-import org.la4j.matrix.dense.Basic2DMatrix;
 
 /**
  * Decompositions of the Hotelling t squared statistical constraint
@@ -52,14 +52,14 @@ public class tSquareStatistic {
    /**
     * This decomposition of the Hotelling t squared statistical constraint 
     * assumes the variance-covariance matrix is known and both this matrix and 
-    * observations are scalar values 
+    * observations are scalar values; it is filtered by {@link tSquareConstraint}
     * 
     * @param name constraint name
     * @param mu mean array [nbFactors]
     * @param sigma variance-covariance matrix [nbFactors][nbFactors]
     * @param observations observations matrix [nbObservations][nbFactors]
     * @param statistic t squared statistic
-    * @param precision Ibex precision
+    * @param precision ignored, bounds are filtered to the precision of each variable
     */
    public static void decompose(String name,
                                 RealVar[] mu, 
@@ -69,39 +69,19 @@ public class tSquareStatistic {
                                 double precision){
       Solver solver = statistic.getSolver();
       
-      double[] means = getMeans(observations);
-      
-      Matrix a = new Basic2DMatrix(sigma);
-      Matrix b = new GaussJordanInverter(a).inverse(); 
-      
-      int M = observations.length;
-      
-      String statisticString = M+"*(";
-      for(int i = 0; i < mu.length; i++){
-         statisticString += "("+means[i]+"-{"+i+"})*(";
-         for(int j = 0; j < mu.length; j++){
-            statisticString += "("+means[j]+"-{"+j+"})*"+b.get(j, i)+(j == mu.length - 1 ? "" : "+");
-         }
-         statisticString += i == mu.length - 1 ? "))={"+mu.length+"}" : ")+";
-      }
-      
-      RealVar[] allVars = new RealVar[mu.length + 1];
-      System.arraycopy(mu, 0, allVars, 0, mu.length);
-      allVars[allVars.length - 1] = statistic;
-      
-      solver.post(new RealConstraint(name, statisticString, Ibex.HC4_NEWTON, allVars));
+      solver.post(new tSquareConstraint(name, mu, sigma, observations, statistic));
    }
    
    /**
     * This decomposition of the Hotelling t squared statistical constraint 
     * assumes observations are scalar and the variance-covariance matrix 
-    * has been estimated from these observations 
+    * has been estimated from these observations; it is filtered by {@link tSquareConstraint}
     * 
     * @param name constraint name
     * @param mu mean array [nbFactors]
     * @param observations observations matrix [nbObservations][nbFactors]
     * @param statistic t squared statistic
-    * @param precision Ibex precision
+    * @param precision ignored, bounds are filtered to the precision of each variable
     */
    public static void decompose(String name,
                                 RealVar[] mu, 
@@ -110,32 +90,10 @@ public class tSquareStatistic {
                                 double precision){
       Solver solver = statistic.getSolver();
       
-      double[][] sigma = computeCovarianceMatrix(observations);
-      
-      double[] totals = getMeans(observations);
-      
-      Matrix a = new Basic2DMatrix(sigma);
-      Matrix b = new GaussJordanInverter(a).inverse(); 
-      
-      int M = observations.length;
-      
-      String statisticString = M+"*(";
-      for(int i = 0; i < mu.length; i++){
-         statisticString += "("+totals[i]+"-{"+i+"})*(";
-         for(int j = 0; j < mu.length; j++){
-            statisticString += "("+totals[j]+"-{"+j+"})*"+b.get(j, i)+(j == mu.length - 1 ? "" : "+");
-         }
-         statisticString += i == mu.length - 1 ? "))={"+mu.length+"}" : ")+";
-      }
-      
-      RealVar[] allVars = new RealVar[mu.length + 1];
-      System.arraycopy(mu, 0, allVars, 0, mu.length);
-      allVars[allVars.length - 1] = statistic;
-      
-      solver.post(new RealConstraint(name, statisticString, Ibex.HC4_NEWTON, allVars));
+      solver.post(new tSquareConstraint(name, mu, observations, statistic));
    }
    
-   private static double[] getMeans(double[][] observations){
+   static double[] getMeans(double[][] observations){
       double[] totals = new double[observations[0].length];
       for(int i = 0; i < observations.length; i++){
          for(int j = 0; j < observations[i].length; j++){
@@ -145,7 +103,7 @@ public class tSquareStatistic {
       return totals;
    }
    
-   private static double[][] computeCovarianceMatrix(double[][] observations){
+   static double[][] computeCovarianceMatrix(double[][] observations){
       double[][] matrix = new double[observations[0].length][observations[0].length];
       for(int i = 0; i < matrix.length; i++){
          for(int j = 0; j < matrix.length; j++){
@@ -201,29 +159,12 @@ public class tSquareStatistic {
 
       RealVar[] means = new RealVar[observations[0].length];
       for(int i = 0; i < means.length; i++){
-         means[i] = VariableFactory.real(name+"_Mean_"+(i+1), -Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, precision, solver);
+         means[i] = SharedExpressions.mean(getArray(i, observations), precision);
       }
 
-      decomposeMeans(observations, means);
-
-      MatrixInversion.decompose(name+"_GaussJordan", matrix, inverseVariable);
+      solver.post(SyatConstraintFactory.matrixInversion(matrix, inverseVariable));
 
-      String statisticString = M+"*(";
-      for(int i = 0; i < mu.length; i++){
-         statisticString += "({"+(i+mu.length)+"}-{"+i+"})*(";
-         for(int j = 0; j < mu.length; j++){
-            statisticString += "({"+(j+mu.length)+"}-{"+j+"})*({"+(mu.length + means.length + j*n+i)+(j == mu.length - 1 ? "})" : "})+");
-         }
-         statisticString += i == mu.length - 1 ? "))={"+(mu.length+means.length+n*n)+"}" : ")+";
-      }
-
-      RealVar[] allVars = new RealVar[mu.length + means.length + n*n + 1];
-      System.arraycopy(mu, 0, allVars, 0, mu.length);
-      System.arraycopy(means, 0, allVars, mu.length, means.length);
-      System.arraycopy(flatten(inverseVariable), 0, allVars, mu.length + means.length, n*n);
-      allVars[allVars.length - 1] = statistic;
-
-      solver.post(new RealConstraint(name+"_chiSq", statisticString, Ibex.HC4_NEWTON, allVars));
+      decomposeQuadraticForm(name+"_chiSq", mu, means, inverseVariable, statistic, M, precision);
    }
    
    /**
@@ -252,46 +193,54 @@ public class tSquareStatistic {
       
       for(int i = 0; i < matrix.length; i++){
          for(int j = 0; j < matrix.length; j++){
-            matrix[i][j] = VariableFactory.real(name+"_Cov_"+(i+1)+"_"+(j+1), -Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, precision, solver);
+            // the covariance matrix is symmetric, the lower triangle aliases the upper one
+            matrix[i][j] = j < i ? matrix[j][i] : VariableFactory.real(name+"_Cov_"+(i+1)+"_"+(j+1), -Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, precision, solver);
             inverseVariable[i][j] = VariableFactory.real(name+"_InverseCov_"+(i+1)+"_"+(j+1), -Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, precision, solver);
          }
       }
       
-      computeCovarianceMatrix(observations, matrix, precision);
+      Covariance.decomposeMatrix(name+"_Cov", observations, matrix, precision);
 
       RealVar[] means = new RealVar[observations[0].length];
       for(int i = 0; i < means.length; i++){
-         means[i] = VariableFactory.real(name+"_Mean_"+(i+1), -Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, precision, solver);
+         means[i] = SharedExpressions.mean(getArray(i, observations), precision);
       }
       
-      decomposeMeans(observations, means);
-
-      MatrixInversion.decompose(name+"_GaussJordan", matrix, inverseVariable);
+      solver.post(SyatConstraintFactory.matrixInversion(matrix, inverseVariable));
 
-      String statisticString = M+"*(";
-      for(int i = 0; i < mu.length; i++){
-         statisticString += "({"+(i+mu.length)+"}-{"+i+"})*(";
-         for(int j = 0; j < mu.length; j++){
-            statisticString += "({"+(j+mu.length)+"}-{"+j+"})*({"+(mu.length + means.length + j*n+i)+(j == mu.length - 1 ? "})" : "})+");
-         }
-         statisticString += i == mu.length - 1 ? "))={"+(mu.length+means.length+n*n)+"}" : ")+";
-      }
-
-      RealVar[] allVars = new RealVar[mu.length + means.length + n*n + 1];
-      System.arraycopy(mu, 0, allVars, 0, mu.length);
-      System.arraycopy(means, 0, allVars, mu.length, means.length);
-      System.arraycopy(flatten(inverseVariable), 0, allVars, mu.length + means.length, n*n);
-      allVars[allVars.length - 1] = statistic;
-
-      solver.post(new RealConstraint(name+"_T2Dist", statisticString, Ibex.HC4_NEWTON, allVars));
+      decomposeQuadraticForm(name+"_T2Dist", mu, means, inverseVariable, statistic, M, precision);
    }
    
-   private static void computeCovarianceMatrix(RealVar[][] observations, RealVar[][] matrix, double precision){
-      for(int i = 0; i < matrix.length; i++){
-         for(int j = 0; j < matrix.length; j++){
-            org.chocosolver.solver.constraints.nary.deviation.Covariance.decompose("Covariance_"+i+"_"+j, getArray(i, observations), getArray(j, observations), matrix[i][j], precision);
-         }
+   /**
+    * statistic = M*(means-mu)'.inverse.(means-mu); the quadratic form is propagated 
+    * as two bilinear products by {@link DotProduct}
+    */
+   private static void decomposeQuadraticForm(String name,
+                                              RealVar[] mu,
+                                              RealVar[] means,
+                                              RealVar[][] inverse,
+                                              RealVar statistic,
+                                              int M,
+                                              double precision){
+      Solver solver = statistic.getSolver();
+      
+      int n = mu.length;
+      
+      RealVar[][] deviations = new RealVar[1][n];
+      RealVar[][] weighted = new RealVar[1][n];
+      RealVar[][] deviationsColumn = new RealVar[n][1];
+      for(int i = 0; i < n; i++){
+         deviations[0][i] = VariableFactory.real(name+"_Dev_"+(i+1), -Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, precision, solver);
+         weighted[0][i] = VariableFactory.real(name+"_WeightedDev_"+(i+1), -Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, precision, solver);
+         deviationsColumn[i][0] = deviations[0][i];
+         solver.post(new RealConstraint(name+"_Dev", "{0}-{1}={2}", Ibex.HC4_NEWTON, new RealVar[]{means[i], mu[i], deviations[0][i]}));
       }
+      RealVar[][] quadraticForm = new RealVar[][]{{VariableFactory.real(name+"_QuadraticForm", -Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, precision, solver)}};
+      
+      DotProduct.decompose(name, deviations, inverse, weighted);
+      DotProduct.decompose(name, weighted, deviationsColumn, quadraticForm);
+      
+      solver.post(new RealConstraint(name, M+"*{0}={1}", Ibex.HC4_NEWTON, new RealVar[]{quadraticForm[0][0], statistic}));
    }
    
    private static RealVar[] getArray(int j, RealVar[][] observations){
@@ -301,31 +250,4 @@ public class tSquareStatistic {
       }
       return result;
    }
-   
-   private static void decomposeMeans(RealVar[][] observations, RealVar[] means){
-      Solver solver = observations[0][0].getSolver();
-      
-      String totalStr = "";
-      for(int i = 0; i < observations.length; i++){
-         totalStr += "{"+i+ (i == observations.length - 1 ? "}="+observations.length+"*{"+observations.length+"}" : "}+");
-      }
-      
-      for(int j = 0; j < observations[0].length; j++){
-         RealVar[] allVars = new RealVar[observations.length+1];
-         System.arraycopy(getArray(j, observations), 0, allVars, 0, observations.length);
-         allVars[observations.length] = means[j];
-         solver.post(new RealConstraint("Mean_"+(j+1), totalStr, Ibex.HC4_NEWTON, allVars));    
-      }
-   }
-   
-   private static RealVar[] flatten(RealVar[][] matrix){
-      int n = matrix.length;
-      RealVar[] array = new RealVar[n*n];
-      for(int i = 0; i < n; i++){
-         for(int j = 0; j < n; j++){
-            array[i*n+j] = matrix[i][j];
-         }
-      }
-      return array;
-   }
 }
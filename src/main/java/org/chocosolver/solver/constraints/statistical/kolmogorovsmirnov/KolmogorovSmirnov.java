@@ -31,6 +31,8 @@ import org.chocosolver.solver.constraints.Operator;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.RealVar;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues;
 
 import umontreal.iro.lecuyer.probdist.Distribution;
 
@@ -49,6 +51,7 @@ public class KolmogorovSmirnov extends Constraint {
     protected final Operator op; // operators.
     protected final int cste;
     protected final boolean isBinary; // to distinguish unary and binary formula
+    private final VerdictCache verdicts;
     
     @SuppressWarnings("unused")
     private static boolean isOperation(Operator operator) {
@@ -56,16 +59,16 @@ public class KolmogorovSmirnov extends Constraint {
     }
     
     @SuppressWarnings("unchecked")
-   private static Propagator<IntVar>[] createProp(IntVar[] observations, DistributionVar dist, Operator op, double confidence) {
+   private static Propagator<IntVar>[] createProp(IntVar[] observations, DistributionVar dist, Operator op, double confidence, VerdictCache verdicts) {
     	switch (op) {
 			case EQ: // X = Y
-				return new Propagator[]{new PropGreaterOrEqualX_DStDist(observations, dist, 1-(1-confidence)/2.0), new PropLessOrEqualX_DStDist(observations, dist, 1-(1-confidence)/2.0)};
+				return new Propagator[]{new PropGreaterOrEqualX_DStDist(observations, dist, 1-(1-confidence)/2.0, verdicts), new PropLessOrEqualX_DStDist(observations, dist, 1-(1-confidence)/2.0, verdicts)};
 			case NQ: // X =/= Y
-				return new Propagator[]{new PropNotEqualX_DStDist(observations, dist, 1-(1-confidence)/2.0)};
+				return new Propagator[]{new PropNotEqualX_DStDist(observations, dist, 1-(1-confidence)/2.0, verdicts)};
 	    	case GE: //  X >= Y
-	    		return new Propagator[]{new PropGreaterOrEqualX_DStDist(observations, dist, confidence)};
+	    		return new Propagator[]{new PropGreaterOrEqualX_DStDist(observations, dist, confidence, verdicts)};
 	    	case LE: //  X <= Y --> Y >= X
-	    		return new Propagator[]{new PropLessOrEqualX_DStDist(observations, dist, confidence)};
+	    		return new Propagator[]{new PropLessOrEqualX_DStDist(observations, dist, confidence, verdicts)};
 	    	default:
 	            throw new SolverException("Incorrect formula; operator should be one of those:{=, !=, >=, >, <=, <}");    
     	}
@@ -81,27 +84,31 @@ public class KolmogorovSmirnov extends Constraint {
      * @param confidence test confidence level
      */
     public KolmogorovSmirnov(IntVar[] observations, DistributionVar distribution, Operator op, double confidence) {
-    	super("KolmogorovSmirnov_DistVar", createProp(observations, distribution, op, confidence));
+    	this(observations, distribution, op, confidence, new VerdictCache(0));
+    }
+    
+    private KolmogorovSmirnov(IntVar[] observations, DistributionVar distribution, Operator op, double confidence, VerdictCache verdicts) {
+    	super("KolmogorovSmirnov_DistVar", createProp(observations, distribution, op, confidence, verdicts));
     	this.op = op;
     	this.isBinary = false;
     	this.cste = 0;
-    	
+    	this.verdicts = verdicts;
     }
     
     @SuppressWarnings("unchecked")
-   private static Propagator<IntVar>[] createProp(IntVar[] observations, Distribution distribution, Operator op, double confidence) {
+   private static Propagator<IntVar>[] createProp(IntVar[] observations, Distribution distribution, Operator op, double confidence, int parallelThreshold, int asymptoticThreshold) {
     	switch (op) {
 	        case EQ: // X = Y
-	        	return new Propagator[]{new PropGreaterOrEqualXCStDist(observations, distribution, 1-(1-confidence)/2.0), new PropLessOrEqualXCStDist(observations, distribution, 1-(1-confidence)/2.0)};
+	        	return new Propagator[]{new PropEqualXCStDist(observations, distribution, 1-(1-confidence)/2.0, asymptoticThreshold)};
 	        case NQ: // X =/= Y
-	        	return new Propagator[]{new PropNotEqualXCStDist(observations, distribution, 1-(1-confidence)/2.0)};
+	        	return new Propagator[]{new PropNotEqualXCStDist(observations, distribution, 1-(1-confidence)/2.0, asymptoticThreshold)};
 	        case GE: //  X >= Y
-	        	return new Propagator[]{new PropGreaterOrEqualXCStDist(observations, distribution, confidence)};
+	        	return new Propagator[]{new PropGreaterOrEqualXCStDist(observations, distribution, confidence, parallelThreshold, asymptoticThreshold)};
 	        case GT: //  X > Y --> X >= Y + 1
 	        	throw new NullPointerException("Not implemented");
 	            //return new Propagator[]{new PropGreaterOrEqualXCStDist(var1, dist, confidence)};
 	        case LE: //  X <= Y --> Y >= X
-	        	return new Propagator[]{new PropLessOrEqualXCStDist(observations, distribution, confidence)};
+	        	return new Propagator[]{new PropLessOrEqualXCStDist(observations, distribution, confidence, parallelThreshold, asymptoticThreshold)};
 	        case LT: //  X < Y --> Y >= X + 1
 	        	throw new NullPointerException("Not implemented");
 	            //return new Propagator[]{new PropGreaterOrEqualXCStDist(new IntVar[]{var2, var1}, 1)};
@@ -120,10 +127,44 @@ public class KolmogorovSmirnov extends Constraint {
      * @param confidence test confidence level
      */
     public KolmogorovSmirnov(IntVar[] observations, Distribution distribution, Operator op, double confidence) {
-    	super("KolmogorovSmirnov_Dist", createProp(observations, distribution, op, confidence));
+    	this(observations, distribution, op, confidence, ParallelFiltering.DISABLED, KolmogorovSmirnovCriticalValues.EXACT);
+    }
+    
+    /**
+     * One sample Kolmogorov-Smirnov statistical constraint, with parallel filtering of large samples.
+     * 
+     * @param observations list of observations
+     * @param distribution target distribution, whose cdf must be safe for concurrent calls
+     * @param op operator that defines the comparison to be performed between the two distributions {@link org.chocosolver.solver.constraints.Operator
+ }
+     * @param confidence test confidence level
+     * @param parallelThreshold smallest number of observations for which the bounds of operators 
+     * {@code >=} and {@code <=} are computed in parallel
+     */
+    public KolmogorovSmirnov(IntVar[] observations, Distribution distribution, Operator op, double confidence, int parallelThreshold) {
+    	this(observations, distribution, op, confidence, parallelThreshold, KolmogorovSmirnovCriticalValues.EXACT);
+    }
+    
+    /**
+     * One sample Kolmogorov-Smirnov statistical constraint, with parallel filtering and asymptotic 
+     * critical values for large samples.
+     * 
+     * @param observations list of observations
+     * @param distribution target distribution, whose cdf must be safe for concurrent calls
+     * @param op operator that defines the comparison to be performed between the two distributions {@link org.chocosolver.solver.constraints.Operator
+ }
+     * @param confidence test confidence level
+     * @param parallelThreshold smallest number of observations for which the bounds of operators 
+     * {@code >=} and {@code <=} are computed in parallel
+     * @param asymptoticThreshold smallest number of observations for which the critical value is 
+     * computed on the asymptotic distribution {@link org.syat.statistics.KolmogorovSmirnovAsymptoticDist}
+     */
+    public KolmogorovSmirnov(IntVar[] observations, Distribution distribution, Operator op, double confidence, int parallelThreshold, int asymptoticThreshold) {
+    	super("KolmogorovSmirnov_Dist", createProp(observations, distribution, op, confidence, parallelThreshold, asymptoticThreshold));
     	this.op = op;
     	this.isBinary = false;
     	this.cste = 0;
+    	this.verdicts = null;
     }
     
     @SuppressWarnings("unused")
@@ -135,20 +176,20 @@ public class KolmogorovSmirnov extends Constraint {
     }
     
     @SuppressWarnings("unchecked")
-    private static Propagator<IntVar>[] createProp(IntVar[] observations1, IntVar[] observations2, Operator op, double confidence) {
+    private static Propagator<IntVar>[] createProp(IntVar[] observations1, IntVar[] observations2, Operator op, double confidence, VerdictCache verdicts, int parallelThreshold, int asymptoticThreshold) {
        switch (op) {
        case EQ: // X = Y
-          return new Propagator[]{new PropGreaterOrEqualX_YStDist(observations1, observations2, 1-(1-confidence)/2.0),new PropGreaterOrEqualX_YStDist(observations2, observations1, 1-(1-confidence)/2.0)};
+          return new Propagator[]{new PropEqualX_YStDist(observations1, observations2, 1-(1-confidence)/2.0, verdicts, asymptoticThreshold)};
        case NQ: // X =/= Y
-          return new Propagator[]{new PropNotEqualX_YStDist(observations1, observations2, 1-(1-confidence)/2.0)};
+          return new Propagator[]{new PropNotEqualX_YStDist(observations1, observations2, 1-(1-confidence)/2.0, verdicts, asymptoticThreshold)};
        case GE: //  X >= Y
-          return new Propagator[]{new PropGreaterOrEqualX_YStDist(observations1, observations2, confidence)};
+          return new Propagator[]{new PropGreaterOrEqualX_YStDist(observations1, observations2, confidence, verdicts, parallelThreshold, asymptoticThreshold)};
        case GT: //  X > Y --> X >= Y + 1
           throw new NullPointerException("Not implemented");
           //setPropagators(new PropGreaterOrEqualX_YC(vars, 1));
           //break;
        case LE: //  X <= Y --> Y >= X
-          return new Propagator[]{new PropGreaterOrEqualX_YStDist(observations2, observations1, confidence)};
+          return new Propagator[]{new PropGreaterOrEqualX_YStDist(observations2, observations1, confidence, verdicts, parallelThreshold, asymptoticThreshold)};
        case LT: //  X < Y --> Y >= X + 1
           throw new NullPointerException("Not implemented");
           //setPropagators(new PropGreaterOrEqualX_YC(new IntVar[]{var2, var1}, 1));
@@ -168,11 +209,132 @@ public class KolmogorovSmirnov extends Constraint {
      * @param confidence test confidence level
      */
     public KolmogorovSmirnov(IntVar[] observationsA, IntVar[] observationsB, Operator op, double confidence) {
-        super("KolmogorovSmirnov_TwoSample", createProp(observationsA, observationsB, op, confidence));
+        this(observationsA, observationsB, op, confidence, ParallelFiltering.DISABLED, KolmogorovSmirnovCriticalValues.EXACT);
+    }
+    
+    /**
+     * Two-sample Kolmogorov-Smirnov statistical constraint, with parallel filtering of large samples.
+     * 
+     * @param observationsA first list of observations
+     * @param observationsB second list of observations
+     * @param op operator that defines the comparison to be performed between the two distributions {@link org.chocosolver.solver.constraints.Operator
+ }
+     * @param confidence test confidence level
+     * @param parallelThreshold smallest size of a sample for which its bounds under operators 
+     * {@code >=} and {@code <=} are computed in parallel
+     */
+    public KolmogorovSmirnov(IntVar[] observationsA, IntVar[] observationsB, Operator op, double confidence, int parallelThreshold) {
+        this(observationsA, observationsB, op, confidence, parallelThreshold, KolmogorovSmirnovCriticalValues.EXACT);
+    }
+    
+    /**
+     * Two-sample Kolmogorov-Smirnov statistical constraint, with parallel filtering and asymptotic 
+     * critical values for large samples.
+     * 
+     * @param observationsA first list of observations
+     * @param observationsB second list of observations
+     * @param op operator that defines the comparison to be performed between the two distributions {@link org.chocosolver.solver.constraints.Operator
+ }
+     * @param confidence test confidence level
+     * @param parallelThreshold smallest size of a sample for which its bounds under operators 
+     * {@code >=} and {@code <=} are computed in parallel
+     * @param asymptoticThreshold smallest effective sample size nm/(n+m) for which the critical value 
+     * is computed on the asymptotic distribution {@link org.syat.statistics.KolmogorovSmirnovAsymptoticDist}
+     */
+    public KolmogorovSmirnov(IntVar[] observationsA, IntVar[] observationsB, Operator op, double confidence, int parallelThreshold, int asymptoticThreshold) {
+        this(observationsA, observationsB, op, confidence, new VerdictCache(0), parallelThreshold, asymptoticThreshold);
+    }
+    
+    private KolmogorovSmirnov(IntVar[] observationsA, IntVar[] observationsB, Operator op, double confidence, VerdictCache verdicts, int parallelThreshold, int asymptoticThreshold) {
+        super("KolmogorovSmirnov_TwoSample", createProp(observationsA, observationsB, op, confidence, verdicts, parallelThreshold, asymptoticThreshold));
+        this.op = op;
+        this.cste = 0;
+        this.isBinary = true;
+        this.verdicts = verdicts;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Propagator<RealVar>[] createProp(RealVar[] observations, Distribution distribution, Operator op, double confidence) {
+    	switch (op) {
+	        case EQ: // X = Y
+	        	return new Propagator[]{new PropGreaterOrEqualXCStDistReal(observations, distribution, 1-(1-confidence)/2.0), new PropLessOrEqualXCStDistReal(observations, distribution, 1-(1-confidence)/2.0)};
+	        case NQ: // X =/= Y
+	        	return new Propagator[]{new PropNotEqualXCStDistReal(observations, distribution, 1-(1-confidence)/2.0)};
+	        case GE: //  X >= Y
+	        	return new Propagator[]{new PropGreaterOrEqualXCStDistReal(observations, distribution, confidence)};
+	        case LE: //  X <= Y --> Y >= X
+	        	return new Propagator[]{new PropLessOrEqualXCStDistReal(observations, distribution, confidence)};
+	        default:
+	            throw new SolverException("Incorrect formula; operator should be one of those:{=, !=, >=, <=}");
+	    }
+    }
+    
+    /**
+     * One sample Kolmogorov-Smirnov statistical constraint with real valued observations, filtered 
+     * directly on the bounds of the observations.
+     * 
+     * @param observations list of observations
+     * @param distribution target distribution
+     * @param op operator that defines the comparison to be performed between the two distributions {@link org.chocosolver.solver.constraints.Operator
+ }
+     * @param confidence test confidence level
+     */
+    public KolmogorovSmirnov(RealVar[] observations, Distribution distribution, Operator op, double confidence) {
+    	super("KolmogorovSmirnov_RealDist", createProp(observations, distribution, op, confidence));
+    	this.op = op;
+    	this.isBinary = false;
+    	this.cste = 0;
+    	this.verdicts = null;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Propagator<RealVar>[] createProp(RealVar[] observations1, RealVar[] observations2, Operator op, double confidence) {
+       switch (op) {
+       case EQ: // X = Y
+          return new Propagator[]{new PropGreaterOrEqualX_YStDistReal(observations1, observations2, 1-(1-confidence)/2.0), new PropGreaterOrEqualX_YStDistReal(observations2, observations1, 1-(1-confidence)/2.0)};
+       case NQ: // X =/= Y
+          return new Propagator[]{new PropNotEqualX_YStDistReal(observations1, observations2, 1-(1-confidence)/2.0)};
+       case GE: //  X >= Y
+          return new Propagator[]{new PropGreaterOrEqualX_YStDistReal(observations1, observations2, confidence)};
+       case LE: //  X <= Y --> Y >= X
+          return new Propagator[]{new PropGreaterOrEqualX_YStDistReal(observations2, observations1, confidence)};
+       default:
+          throw new SolverException("Incorrect formula; operator should be one of those:{=, !=, >=, <=}");
+       }
+    }
+    
+    /**
+     * Two-sample Kolmogorov-Smirnov statistical constraint with real valued observations, filtered 
+     * directly on the bounds of the observations.
+     * 
+     * @param observationsA first list of observations
+     * @param observationsB second list of observations
+     * @param op operator that defines the comparison to be performed between the two distributions {@link org.chocosolver.solver.constraints.Operator
+ }
+     * @param confidence test confidence level
+     */
+    public KolmogorovSmirnov(RealVar[] observationsA, RealVar[] observationsB, Operator op, double confidence) {
+        super("KolmogorovSmirnov_RealTwoSample", createProp(observationsA, observationsB, op, confidence));
         this.op = op;
         this.cste = 0;
         this.isBinary = true;
-        
+        this.verdicts = null;
+    }
+    
+    /**
+     * Memo of the test verdicts computed by the propagators of this constraint, which reports 
+     * hits and misses and can be resized. Only integer observations against a parameterised 
+     * distribution or a second sample are filtered through it; propagators over a fixed target 
+     * distribution check pivots through precomputed statistics instead, and propagators over real 
+     * observations do not memoise verdicts.
+     * 
+     * The cache is disabled by default, since a miss copies and hashes the samples; it is enabled 
+     * by {@link VerdictCache#setCapacity(int)}.
+     * 
+     * @return the verdict cache of this constraint, or null if its propagators do not use one
+     */
+    public VerdictCache getVerdictCache(){
+    	return verdicts;
     }
 
     /**
@@ -0,0 +1,124 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov;
+
+import java.io.Serializable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork-join computation of the candidate bounds of the pivot observations.
+ * 
+ * When a propagator filters every pivot against the same sorted bounds, the candidate bound of 
+ * each pivot depends on that snapshot only, hence candidates are computed in parallel on the 
+ * common pool, and the propagator then applies them sequentially. Candidates must be computed 
+ * without writing any shared state, and in particular without the {@link VerdictCache}, 
+ * which is not thread-safe. Below the threshold, the propagator keeps its sequential loop.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+@SuppressWarnings("serial")
+abstract class ParallelFiltering implements Serializable {
+	
+	/**
+	 * Threshold that disables parallel filtering
+	 */
+	static final int DISABLED = Integer.MAX_VALUE;
+	
+	/**
+	 * Number of pivots below which a task is not split further
+	 */
+	private static final int GRAIN = 64;
+	
+	private final int threshold;
+	private final int bufferLength;
+	
+	/**
+	 * @param threshold smallest number of pivots for which candidates are computed in parallel
+	 * @param bufferLength length of the scratch buffer handed to each task
+	 */
+	ParallelFiltering(int threshold, int bufferLength){
+		this.threshold = threshold;
+		this.bufferLength = bufferLength;
+	}
+	
+	/**
+	 * Checks whether candidates of {@code n} pivots should be computed in parallel.
+	 * 
+	 * @param n number of pivots
+	 * @return true if {@code n} reaches the threshold
+	 */
+	boolean isEnabled(int n){
+		return n >= threshold;
+	}
+	
+	/**
+	 * Candidate bound of pivot {@code i}; it may be called concurrently for different pivots, 
+	 * and it must only read the snapshot and the domains.
+	 * 
+	 * @param i pivot index
+	 * @param buffer scratch buffer owned by the calling task
+	 * @return the candidate bound
+	 */
+	abstract long candidate(int i, double[] buffer);
+	
+	/**
+	 * Computes the candidate bounds of pivots {@code [0, candidates.length)}.
+	 * 
+	 * @param candidates receives the candidate bound of each pivot
+	 */
+	void computeCandidates(long[] candidates){
+		ForkJoinPool.commonPool().invoke(new Task(0, candidates.length, candidates));
+	}
+	
+	private final class Task extends RecursiveAction {
+		
+		private final int from;
+		private final int to;
+		private final long[] candidates;
+		
+		Task(int from, int to, long[] candidates){
+			this.from = from;
+			this.to = to;
+			this.candidates = candidates;
+		}
+		
+		@Override
+		protected void compute(){
+			if(to - from <= GRAIN){
+				double[] buffer = new double[bufferLength];
+				for(int i = from; i < to; i++){
+					candidates[i] = candidate(i, buffer);
+				}
+			}else{
+				int mid = (from + to) >>> 1;
+				invokeAll(new Task(from, mid, candidates), new Task(mid, to, candidates));
+			}
+		}
+	}
+}
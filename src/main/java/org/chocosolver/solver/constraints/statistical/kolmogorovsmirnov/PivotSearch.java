@@ -0,0 +1,152 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov;
+
+import java.io.Serializable;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+
+/**
+ * Search for the tightest bound of a pivot observation. 
+ * 
+ * The one-sided statistics are monotone in the value of a single observation, hence the values 
+ * that pass the test form an interval of the pivot domain. Its end point is located by galloping 
+ * from the current bound and then bisecting the last bracket, which requires a logarithmic number 
+ * of tests in the distance between the current bound and the new one. Distances and results are 
+ * computed in long, so that domains close to the int range neither overflow the gallop nor 
+ * wrap the bound that signals that no value passes.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+@SuppressWarnings("serial")
+abstract class PivotSearch implements Serializable {
+	
+	/**
+	 * Checks whether the test is passed when the pivot observation takes {@code value}.
+	 * 
+	 * @param value candidate value for the pivot observation
+	 * @return true if the test is passed
+	 */
+	abstract boolean passes(int value);
+	
+	/**
+	 * Smallest passing value, when the values that pass the test form an upper interval of {@code [lb, ub]}.
+	 * 
+	 * @param lb a value that does not pass the test
+	 * @param ub pivot upper bound
+	 * @return the smallest value in {@code (lb, ub]} that passes the test, {@code ub+1} if there is none
+	 */
+	long smallestPassingValue(int lb, int ub){
+		long failing = lb;
+		long passing = ub + 1L;
+		for(long step = 1; step <= ub - failing; step <<= 1){
+			if(passes((int)(failing + step))){
+				passing = failing + step;
+				break;
+			}
+			failing += step;
+		}
+		if(passing > ub){
+			if(failing < ub && passes(ub))
+				passing = ub;
+			else
+				return ub + 1L;
+		}
+		while(passing - failing > 1){
+			long mid = failing + (passing - failing)/2;
+			if(passes((int)mid))
+				passing = mid;
+			else
+				failing = mid;
+		}
+		return passing;
+	}
+	
+	/**
+	 * Largest passing value, when the values that pass the test form a lower interval of {@code [lb, ub]}.
+	 * 
+	 * @param lb pivot lower bound
+	 * @param ub a value that does not pass the test
+	 * @return the largest value in {@code [lb, ub)} that passes the test, {@code lb-1} if there is none
+	 */
+	long largestPassingValue(int lb, int ub){
+		long failing = ub;
+		long passing = lb - 1L;
+		for(long step = 1; step <= failing - lb; step <<= 1){
+			if(passes((int)(failing - step))){
+				passing = failing - step;
+				break;
+			}
+			failing -= step;
+		}
+		if(passing < lb){
+			if(failing > lb && passes(lb))
+				passing = lb;
+			else
+				return lb - 1L;
+		}
+		while(failing - passing > 1){
+			long mid = passing + (failing - passing)/2;
+			if(passes((int)mid))
+				passing = mid;
+			else
+				failing = mid;
+		}
+		return passing;
+	}
+	
+	/**
+	 * Raises the lower bound of {@code var} to a smallest passing value.
+	 * 
+	 * @param var pivot variable
+	 * @param bound the smallest passing value, above the upper bound of {@code var} if there is none
+	 * @param propagator the filtering propagator
+	 * @throws ContradictionException if no value passes
+	 */
+	static void updateLowerBound(IntVar var, long bound, Propagator<IntVar> propagator) throws ContradictionException {
+		if(bound > var.getUB())
+			propagator.contradiction(var, "no passing value");
+		var.updateLowerBound((int)bound, propagator);
+	}
+	
+	/**
+	 * Lowers the upper bound of {@code var} to a largest passing value.
+	 * 
+	 * @param var pivot variable
+	 * @param bound the largest passing value, below the lower bound of {@code var} if there is none
+	 * @param propagator the filtering propagator
+	 * @throws ContradictionException if no value passes
+	 */
+	static void updateUpperBound(IntVar var, long bound, Propagator<IntVar> propagator) throws ContradictionException {
+		if(bound < var.getLB())
+			propagator.contradiction(var, "no passing value");
+		var.updateUpperBound((int)bound, propagator);
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov;
+
+import java.io.Serializable;
+
+import umontreal.iro.lecuyer.probdist.Distribution;
+
+/**
+ * One-sided Kolmogorov-Smirnov statistic of a sorted sample in which a single observation,
+ * the pivot, is replaced by a probe value.
+ *
+ * The discrepancy of the observation of rank k is (k+1)/n - F(x) for the statistic E1GeqD1,
+ * and F(x) - k/n for the statistic D1GeqE1. Replacing the pivot shifts by one the rank of the
+ * observations between its old and its new position, hence the discrepancies at ranks k-1, k
+ * and k+1 are stored in sparse tables, and each probe costs a binary search and a constant number
+ * of range maximum queries. The result is identical to a sweep over the modified sample.
+ *
+ * @author Roberto Rossi
+ *
+ */
+@SuppressWarnings("serial")
+final class PivotStatistics implements Serializable {
+
+	private final boolean e1GeqD1;
+	private final int n;
+
+	/**
+	 * Sparse tables of the discrepancies at rank shifts -1, 0 and +1
+	 */
+	private final double[][][] tables;
+
+	private double[] sample;
+	private Distribution dist;
+	private double opposite;
+
+	/**
+	 * @param n number of observations
+	 * @param e1GeqD1 true for the statistic E1GeqD1, false for the statistic D1GeqE1
+	 */
+	PivotStatistics(int n, boolean e1GeqD1){
+		this.n = n;
+		this.e1GeqD1 = e1GeqD1;
+		this.tables = new double[3][32 - Integer.numberOfLeadingZeros(n)][n];
+	}
+
+	/**
+	 * Precomputes the discrepancies of {@code sortedSample}; the array is referenced, and it must
+	 * not change until the next call.
+	 *
+	 * @param sortedSample observations sorted in increasing order
+	 * @param dist theoretical distribution
+	 */
+	void build(double[] sortedSample, Distribution dist){
+		this.sample = sortedSample;
+		this.dist = dist;
+		this.opposite = 0;
+		double cdf = 0;
+		for(int k = 0; k < n; k++){
+			// tied observations share their cdf
+			if(k == 0 || sortedSample[k] != sortedSample[k-1])
+				cdf = dist.cdf(sortedSample[k]);
+			for(int shift = 0; shift < 3; shift++){
+				tables[shift][0][k] = discrepancy(k + shift - 1, cdf);
+			}
+			double discrepancy = e1GeqD1 ? cdf - (double)k/n : (double)(k + 1)/n - cdf;
+			if(discrepancy > opposite)
+				opposite = discrepancy;
+		}
+		for(int shift = 0; shift < 3; shift++){
+			double[][] table = tables[shift];
+			for(int j = 1; j < table.length; j++){
+				int width = 1 << (j - 1);
+				for(int k = 0; k + 2*width <= n; k++){
+					table[j][k] = Math.max(table[j-1][k], table[j-1][k + width]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Statistic of the sample.
+	 *
+	 * @return the one-sided statistic
+	 */
+	double statistic(){
+		return Math.max(0, max(1, 0, n - 1));
+	}
+
+	/**
+	 * The other one-sided statistic of the sample, D1GeqE1 for E1GeqD1 and conversely, computed 
+	 * in the same sweep.
+	 *
+	 * @return the opposite one-sided statistic
+	 */
+	double oppositeStatistic(){
+		return opposite;
+	}
+
+	/**
+	 * Statistic of the sample in which the observation at {@code pivot} is replaced by {@code value}.
+	 *
+	 * @param pivot position of the replaced observation
+	 * @param value probe value
+	 * @return the one-sided statistic of the modified sample
+	 */
+	double statistic(int pivot, double value){
+		int rank = lowerIndex(value);
+		if(sample[pivot] < value)
+			rank--;
+		double sup = Math.max(0, discrepancy(rank, dist.cdf(value)));
+		if(rank <= pivot){
+			sup = Math.max(sup, max(1, 0, rank - 1));
+			sup = Math.max(sup, max(2, rank, pivot - 1));
+			sup = Math.max(sup, max(1, pivot + 1, n - 1));
+		}else{
+			sup = Math.max(sup, max(1, 0, pivot - 1));
+			sup = Math.max(sup, max(0, pivot + 1, rank));
+			sup = Math.max(sup, max(1, rank + 1, n - 1));
+		}
+		return sup;
+	}
+
+	private double discrepancy(int rank, double cdf){
+		return e1GeqD1 ? (double)(rank + 1)/n - cdf : cdf - (double)rank/n;
+	}
+
+	/**
+	 * Number of observations strictly less than {@code value}
+	 */
+	private int lowerIndex(double value){
+		int low = 0;
+		int high = n;
+		while(low < high){
+			int mid = (low + high) >>> 1;
+			if(sample[mid] < value)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
+	/**
+	 * Maximum discrepancy over ranks {@code [from, to]}, negative infinity if the range is empty
+	 */
+	private double max(int shift, int from, int to){
+		if(from > to)
+			return Double.NEGATIVE_INFINITY;
+		double[][] table = tables[shift];
+		int j = 31 - Integer.numberOfLeadingZeros(to - from + 1);
+		return Math.max(table[j][from], table[j][to - (1 << j) + 1]);
+	}
+}
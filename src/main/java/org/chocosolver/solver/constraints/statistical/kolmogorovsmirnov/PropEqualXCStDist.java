@@ -0,0 +1,181 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues.Tail;
+import org.syat.statistics.KolmogorovSmirnovTest;
+
+import umontreal.iro.lecuyer.probdist.ContinuousDistribution;
+import umontreal.iro.lecuyer.probdist.Distribution;
+
+/**
+ * Both one-sided tests of the equality constraint in a single propagator: lower bounds are filtered 
+ * against the sorted upper bounds by E1GeqD1, and upper bounds against the sorted lower bounds by 
+ * D1GeqE1. The two sorted indexes are shared, each pass sees the pruning of the other one, and the 
+ * sweep that prepares the statistics of a pass also yields the worst case of the other test, 
+ * which decides entailment.
+ */
+@SuppressWarnings("serial")
+class PropEqualXCStDist extends Propagator<IntVar> {
+
+    private final Distribution dist;
+    private final double confidence;
+    private final double criticalValue;
+    
+    private final SortedBounds upperBounds;
+    private final SortedBounds lowerBounds;
+    private final double[] sample;
+    private boolean upperChanged;
+    private boolean lowerChanged;
+    private final PivotStatistics upperStatistics;
+    private final PivotStatistics lowerStatistics;
+    private int pivot;
+    
+    private final PivotSearch lowerBoundSearch = new PivotSearch(){
+    	@Override
+    	boolean passes(int value){
+    		return upperStatistics.statistic(pivot, value) < criticalValue;
+    	}
+    };
+    
+    private final PivotSearch upperBoundSearch = new PivotSearch(){
+    	@Override
+    	boolean passes(int value){
+    		return lowerStatistics.statistic(pivot, value) < criticalValue;
+    	}
+    };
+
+    public PropEqualXCStDist(IntVar[] var, Distribution dist, double confidence) {
+        this(var, dist, confidence, KolmogorovSmirnovCriticalValues.EXACT);
+    }
+    
+    /**
+     * @param var observations
+     * @param dist target distribution
+     * @param confidence test confidence level
+     * @param asymptoticThreshold smallest number of observations for which the critical value is computed on the asymptotic distribution
+     */
+    public PropEqualXCStDist(IntVar[] var, Distribution dist, double confidence, int asymptoticThreshold) {
+        super(var, PropagatorPriority.UNARY, true);
+        if(!(dist instanceof ContinuousDistribution)) 
+			throw new SolverException("Theoretical distribution should not be discrete");
+        this.dist = dist;
+        this.confidence = confidence;
+        this.criticalValue = KolmogorovSmirnovCriticalValues.criticalValue(vars.length, this.confidence, Tail.SINGLE_TAILED, asymptoticThreshold);
+        this.upperBounds = new SortedBounds(vars, true);
+        this.lowerBounds = new SortedBounds(vars, false);
+        this.sample = new double[vars.length];
+        this.upperStatistics = new PivotStatistics(vars.length, true);
+        this.lowerStatistics = new PivotStatistics(vars.length, false);
+    }
+    
+    @Override
+    public int getPropagationConditions(int vIdx) {
+    	return IntEventType.INSTANTIATE.getMask() + IntEventType.BOUND.getMask();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if(upperBounds.isStale()){
+        	upperBounds.refresh();
+        	upperChanged = true;
+        }
+        if(lowerBounds.isStale()){
+        	lowerBounds.refresh();
+        	lowerChanged = true;
+        }
+        while(upperChanged || lowerChanged){
+        	if(upperChanged){
+        		upperStatistics.build(upperBounds.values, this.dist);
+        		for(int i = 0; i < vars.length; i++){
+        			IntVar pivotVar = vars[i];
+        			this.pivot = upperBounds.position(i);
+        			int lb = pivotVar.getLB();
+        			if(!lowerBoundSearch.passes(lb)){
+        				PivotSearch.updateLowerBound(pivotVar, lowerBoundSearch.smallestPassingValue(lb, pivotVar.getUB()), this);
+        			}
+        			// the propagator is not notified of its own bound changes
+        			lowerChanged |= lowerBounds.update(i);
+        		}
+        		upperChanged = false;
+        	}
+        	if(lowerChanged){
+        		lowerStatistics.build(lowerBounds.values, this.dist);
+        		for(int i = 0; i < vars.length; i++){
+        			IntVar pivotVar = vars[i];
+        			this.pivot = lowerBounds.position(i);
+        			int ub = pivotVar.getUB();
+        			if(!upperBoundSearch.passes(ub)){
+        				PivotSearch.updateUpperBound(pivotVar, upperBoundSearch.largestPassingValue(pivotVar.getLB(), ub), this);
+        			}
+        			upperChanged |= upperBounds.update(i);
+        		}
+        		lowerChanged = false;
+        	}
+        }
+        // E1GeqD1 is largest on the lower bounds and D1GeqE1 on the upper bounds
+        if(lowerStatistics.oppositeStatistic() < this.criticalValue && upperStatistics.oppositeStatistic() < this.criticalValue)
+        	this.setPassive();
+    }
+
+    @Override
+    public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+        upperChanged |= upperBounds.update(idxVarInProp);
+        lowerChanged |= lowerBounds.update(idxVarInProp);
+        if(upperChanged | lowerChanged)
+        	forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+    }
+
+    @Override
+    public ESat isEntailed() {
+    	SortedBounds.sort(vars, false, sample);
+    	double lowerE1GeqD1 = KolmogorovSmirnovTest.KSstatisticsSingleTailedE1GeqD1(sample, this.dist);
+    	double lowerD1GeqE1 = KolmogorovSmirnovTest.KSstatisticsSingleTailedD1GeqE1(sample, this.dist);
+    	SortedBounds.sort(vars, true, sample);
+    	double upperE1GeqD1 = KolmogorovSmirnovTest.KSstatisticsSingleTailedE1GeqD1(sample, this.dist);
+    	double upperD1GeqE1 = KolmogorovSmirnovTest.KSstatisticsSingleTailedD1GeqE1(sample, this.dist);
+    	if(lowerE1GeqD1 < this.criticalValue && upperD1GeqE1 < this.criticalValue)
+    		return ESat.TRUE;
+    	if(!(upperE1GeqD1 < this.criticalValue) || !(lowerD1GeqE1 < this.criticalValue))
+    		return ESat.FALSE;
+    	return ESat.UNDEFINED;
+    }
+
+    @Override
+    public String toString() {
+        return vars[0].getName() + " = " + dist.toString();
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues.Tail;
+import org.syat.statistics.KolmogorovSmirnovTestTwoSamples;
+
+
+/**
+ * Both one-sided tests of the two-sample equality constraint in a single propagator, which shares 
+ * the four sorted bound indexes between the tests x &gt;= y and y &gt;= x; each pass sees the 
+ * pruning of the other one within the same propagation.
+ */
+@SuppressWarnings("serial")
+class PropEqualX_YStDist extends Propagator<IntVar> {
+
+    final IntVar[] x;
+    final IntVar[] y;
+    final double confidence;
+    private final double criticalValue;
+    private final VerdictCache verdicts;
+    private final int test;
+    
+    private final SortedBounds upperBoundsX;
+    private final SortedBounds lowerBoundsX;
+    private final SortedBounds upperBoundsY;
+    private final SortedBounds lowerBoundsY;
+    private final double[] sampleX;
+    private final double[] sampleY;
+    
+    /**
+     * The indexes filtered by x &gt;= y, respectively y &gt;= x, changed since their last pass
+     */
+    private boolean xGeqYChanged = true;
+    private boolean yGeqXChanged = true;
+
+    private static IntVar[] mergeArrays(IntVar[] var1, IntVar[] var2){
+    	IntVar[] var3 = new IntVar[var1.length+var2.length];
+    	System.arraycopy(var1, 0, var3, 0, var1.length);
+    	System.arraycopy(var2, 0, var3, var1.length, var2.length);
+    	return var3;
+    }
+    
+    public PropEqualX_YStDist(IntVar[] var1, IntVar[] var2, double confidence) {
+        this(var1, var2, confidence, new VerdictCache(0));
+    }
+    
+    public PropEqualX_YStDist(IntVar[] var1, IntVar[] var2, double confidence, VerdictCache verdicts) {
+        this(var1, var2, confidence, verdicts, KolmogorovSmirnovCriticalValues.EXACT);
+    }
+    
+    /**
+     * @param var1 first sample
+     * @param var2 second sample
+     * @param confidence test confidence level
+     * @param verdicts verdict cache
+     * @param asymptoticThreshold smallest effective sample size for which the critical value is computed on the asymptotic distribution
+     */
+    public PropEqualX_YStDist(IntVar[] var1, IntVar[] var2, double confidence, VerdictCache verdicts, int asymptoticThreshold) {
+        super(mergeArrays(var1, var2), PropagatorPriority.BINARY, true);
+        if(var1.length == 1 || var2.length == 1)
+        	throw new SolverException("Cannot propagate statistically on single observations");
+        this.x = var1;
+        this.y = var2;
+        this.confidence = confidence;
+        this.verdicts = verdicts;
+        this.test = verdicts.register();
+        this.criticalValue = KolmogorovSmirnovCriticalValues.criticalValue(var1.length, var2.length, this.confidence, Tail.SINGLE_TAILED, asymptoticThreshold);
+        this.upperBoundsX = new SortedBounds(var1, true);
+        this.lowerBoundsX = new SortedBounds(var1, false);
+        this.upperBoundsY = new SortedBounds(var2, true);
+        this.lowerBoundsY = new SortedBounds(var2, false);
+        this.sampleX = new double[var1.length];
+        this.sampleY = new double[var2.length];
+    }
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+    	return IntEventType.INSTANTIATE.getMask() + IntEventType.BOUND.getMask();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+    	if(upperBoundsX.isStale()){
+    		upperBoundsX.refresh();
+    		xGeqYChanged = true;
+    	}
+    	if(lowerBoundsY.isStale()){
+    		lowerBoundsY.refresh();
+    		xGeqYChanged = true;
+    	}
+    	if(upperBoundsY.isStale()){
+    		upperBoundsY.refresh();
+    		yGeqXChanged = true;
+    	}
+    	if(lowerBoundsX.isStale()){
+    		lowerBoundsX.refresh();
+    		yGeqXChanged = true;
+    	}
+    	while(xGeqYChanged || yGeqXChanged){
+    		if(xGeqYChanged){
+    			yGeqXChanged |= filter(x, y, upperBoundsX, lowerBoundsY, lowerBoundsX, upperBoundsY);
+    			xGeqYChanged = false;
+    		}
+    		if(yGeqXChanged){
+    			xGeqYChanged |= filter(y, x, upperBoundsY, lowerBoundsX, lowerBoundsY, upperBoundsX);
+    			yGeqXChanged = false;
+    		}
+    	}
+    }
+    
+    /**
+     * Filters the lower bounds of {@code a} and the upper bounds of {@code b} for the test a &gt;= b. 
+     * The pivot observation is moved one step at a time, since the passing values of a pivot may 
+     * not form an interval when all observations in {@code b} coincide.
+     * 
+     * @return true if the lower bounds of {@code a} or the upper bounds of {@code b} changed
+     */
+    private boolean filter(IntVar[] a, IntVar[] b, SortedBounds upperBoundsA, SortedBounds lowerBoundsB, 
+    		SortedBounds lowerBoundsA, SortedBounds upperBoundsB) throws ContradictionException {
+    	boolean changed = false;
+    	for(int i = 0; i < a.length; i++){
+        	IntVar pivotVar = a[i];
+        	upperBoundsA.set(i, pivotVar.getLB());
+			while(!passes(upperBoundsA.values, lowerBoundsB.values)){
+				pivotVar.updateLowerBound(pivotVar.getLB()+1, this);
+				upperBoundsA.set(i, pivotVar.getLB());
+			}
+			upperBoundsA.restore(i);
+			// the propagator is not notified of its own bound changes
+			changed |= lowerBoundsA.update(i);
+        }
+    	
+    	for(int i = 0; i < b.length; i++){
+        	IntVar pivotVar = b[i];
+        	lowerBoundsB.set(i, pivotVar.getUB());
+			while(!passes(upperBoundsA.values, lowerBoundsB.values)){
+				pivotVar.updateUpperBound(pivotVar.getUB()-1, this);
+				lowerBoundsB.set(i, pivotVar.getUB());
+			}
+			lowerBoundsB.restore(i);
+			changed |= upperBoundsB.update(i);
+        }
+    	return changed;
+    }
+    
+    private boolean passes(double[] sortedA, double[] sortedB){
+    	Boolean verdict = verdicts.get(test, 0, sortedA, sortedB);
+    	if(verdict == null){
+    		verdict = KolmogorovSmirnovTestTwoSamples.KSstatisticsSingleTailedE1GeqE2(sortedA, sortedB) < this.criticalValue;
+    		verdicts.put(test, 0, sortedA, sortedB, verdict);
+    	}
+    	return verdict;
+    }
+    
+    @Override
+    public void propagate(int varIdx, int mask) throws ContradictionException {
+    	if(varIdx < x.length){
+    		xGeqYChanged |= upperBoundsX.update(varIdx);
+    		yGeqXChanged |= lowerBoundsX.update(varIdx);
+    	}else{
+    		xGeqYChanged |= lowerBoundsY.update(varIdx - x.length);
+    		yGeqXChanged |= upperBoundsY.update(varIdx - x.length);
+    	}
+    	if(xGeqYChanged | yGeqXChanged)
+    		forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+    }
+
+    @Override
+    public ESat isEntailed() {
+    	// the statistic compares left and right limits of the empirical cdfs at tied observations, 
+    	// hence it is not monotone in the bounds
+    	if(!isCompletelyInstantiated())
+    		return ESat.UNDEFINED;
+    	SortedBounds.sort(x, false, sampleX);
+    	SortedBounds.sort(y, false, sampleY);
+    	return ESat.eval(passes(sampleX, sampleY) && passes(sampleY, sampleX));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder bf = new StringBuilder();
+        bf.append("prop(").append(vars[0].getName()).append(".EQ.").append(vars[1].getName()).append(")");
+        return bf.toString();
+    }
+}
@@ -31,74 +31,150 @@ import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues.Tail;
 import org.syat.statistics.KolmogorovSmirnovTest;
 
 import umontreal.iro.lecuyer.probdist.ContinuousDistribution;
 import umontreal.iro.lecuyer.probdist.Distribution;
-import umontreal.iro.lecuyer.probdist.EmpiricalDist;
 
+/**
+ * Pivot i is filtered against the upper bounds of the other observations, hence only upper bound 
+ * events can change the filtering; the sorted upper bounds are updated incrementally, and each 
+ * pivot is checked in logarithmic time by {@link PivotStatistics}. The constraint is entailed 
+ * once the sorted lower bounds, the worst case, pass the test.
+ */
 @SuppressWarnings("serial")
 class PropGreaterOrEqualXCStDist extends Propagator<IntVar> {
 
     private final Distribution dist;
     private final double confidence;
+    private final double criticalValue;
+    
+    private final SortedBounds upperBounds;
+    private final SortedBounds lowerBounds;
+    private final double[] sample;
+    private boolean upperChanged;
+    private final PivotStatistics statistics;
+    private int pivot;
+    private final ParallelFiltering parallel;
+    private final long[] candidates;
+    
+    private final PivotSearch search = new PivotSearch(){
+    	@Override
+    	boolean passes(int value){
+    		return statistics.statistic(pivot, value) < criticalValue;
+    	}
+    };
 
     public PropGreaterOrEqualXCStDist(IntVar[] var, Distribution dist, double confidence) {
+        this(var, dist, confidence, ParallelFiltering.DISABLED);
+    }
+    
+    public PropGreaterOrEqualXCStDist(IntVar[] var, Distribution dist, double confidence, int parallelThreshold) {
+        this(var, dist, confidence, parallelThreshold, KolmogorovSmirnovCriticalValues.EXACT);
+    }
+    
+    /**
+     * @param var observations
+     * @param dist target distribution, whose cdf must be safe for concurrent calls
+     * @param confidence test confidence level
+     * @param parallelThreshold smallest number of observations for which the lower bounds are computed in parallel
+     * @param asymptoticThreshold smallest number of observations for which the critical value is computed on the asymptotic distribution
+     */
+    public PropGreaterOrEqualXCStDist(IntVar[] var, Distribution dist, double confidence, int parallelThreshold, int asymptoticThreshold) {
         super(var, PropagatorPriority.UNARY, true);
         if(!(dist instanceof ContinuousDistribution)) 
 			throw new SolverException("Theoretical distribution should not be discrete");
         this.dist = dist;
         this.confidence = confidence;
+        this.criticalValue = KolmogorovSmirnovCriticalValues.criticalValue(vars.length, this.confidence, Tail.SINGLE_TAILED, asymptoticThreshold);
+        this.upperBounds = new SortedBounds(vars, true);
+        this.lowerBounds = new SortedBounds(vars, false);
+        this.sample = new double[vars.length];
+        this.statistics = new PivotStatistics(vars.length, true);
+        this.candidates = new long[vars.length];
+        this.parallel = new ParallelFiltering(parallelThreshold, 0){
+        	@Override
+        	long candidate(int i, double[] buffer){
+        		return smallestPassingValue(upperBounds.position(i), vars[i].getLB(), vars[i].getUB());
+        	}
+        };
+    }
+    
+    @Override
+    public int getPropagationConditions(int vIdx) {
+    	return IntEventType.INSTANTIATE.getMask() + IntEventType.BOUND.getMask();
     }
 
     @Override
     public void propagate(int evtmask) throws ContradictionException {
-        // with views such as abs(...), the prop can be not entailed after initial propagation
-        /*if (vars[0].updateUpperBound(constant, aCause) || vars[0].getUB() <= constant) {
-            this.setPassive();
-        }*/
-        
-    	//int counter = 0;
-        for(int i = 0; i < vars.length; i++){
-        	double[] samples = new double[vars.length];
-        	IntVar pivotVar = vars[i];
-        	int k = 0;
-        	samples[k++] = pivotVar.getLB();
-        	for(int j = 0; j < vars.length; j++){
-        		if(j==i) 
-        			continue;
-        		else
-        			samples[k++] = vars[j].getUB();
+        if(upperBounds.isStale()){
+        	upperBounds.refresh();
+        	upperChanged = true;
+        }
+        if(lowerBounds.isStale())
+        	lowerBounds.refresh();
+        if(upperChanged && parallel.isEnabled(vars.length)){
+        	statistics.build(upperBounds.values, this.dist);
+        	// lower bound changes do not affect the sorted upper bounds, which are a snapshot
+        	parallel.computeCandidates(candidates);
+        	for(int i = 0; i < vars.length; i++){
+        		if(candidates[i] > vars[i].getLB())
+        			PivotSearch.updateLowerBound(vars[i], candidates[i], this);
+        		lowerBounds.update(i);
         	}
-        	EmpiricalDist emp = new EmpiricalDist(samples);
-			KolmogorovSmirnovTest ksTest = new KolmogorovSmirnovTest(emp, this.dist, this.confidence);
-			while(!ksTest.testE1GeqD1()){
-				pivotVar.updateLowerBound(pivotVar.getLB()+1, this);
-				//counter++;
-				samples[0] = pivotVar.getLB();
-				emp = new EmpiricalDist(samples);
-				ksTest = new KolmogorovSmirnovTest(emp, this.dist, this.confidence);
-			}
+        	upperChanged = false;
         }
-        //if(counter > 0)
-        	//LoggerFactory.getLogger("bench").info("Pruned (GE): "+counter);
+        if(upperChanged){
+        	statistics.build(upperBounds.values, this.dist);
+        	for(int i = 0; i < vars.length; i++){
+        		IntVar pivotVar = vars[i];
+        		this.pivot = upperBounds.position(i);
+        		int lb = pivotVar.getLB();
+        		if(!search.passes(lb)){
+        			PivotSearch.updateLowerBound(pivotVar, search.smallestPassingValue(lb, pivotVar.getUB()), this);
+        		}
+        		// the propagator is not notified of its own bound changes
+        		lowerBounds.update(i);
+        	}
+        	upperChanged = false;
+        }
+        if(KolmogorovSmirnovTest.KSstatisticsSingleTailedE1GeqD1(lowerBounds.values, this.dist) < this.criticalValue)
+        	this.setPassive();
+    }
+
+    /**
+     * Smallest passing value of a pivot, computed with a search of its own so that pivots can 
+     * be processed concurrently.
+     */
+    private long smallestPassingValue(final int pivot, int lb, int ub){
+    	PivotSearch pivotSearch = new PivotSearch(){
+    		@Override
+    		boolean passes(int value){
+    			return statistics.statistic(pivot, value) < criticalValue;
+    		}
+    	};
+    	return pivotSearch.passes(lb) ? lb : pivotSearch.smallestPassingValue(lb, ub);
     }
 
     @Override
     public void propagate(int idxVarInProp, int mask) throws ContradictionException {
-        propagate(0);
+        if(upperBounds.update(idxVarInProp))
+        	upperChanged = true;
+        if(upperChanged | lowerBounds.update(idxVarInProp))
+        	forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
     }
 
     @Override
     public ESat isEntailed() {
-        /*if (vars[0].getUB() <= constant) {
-            return ESat.TRUE;
-        }
-        if (vars[0].getLB() > constant) {
-            return ESat.FALSE;
-        }
-        return ESat.UNDEFINED;*/
+    	if(KolmogorovSmirnovTest.KSstatisticsSingleTailedE1GeqD1(SortedBounds.sort(vars, false, sample), this.dist) < this.criticalValue)
+    		return ESat.TRUE;
+    	if(!(KolmogorovSmirnovTest.KSstatisticsSingleTailedE1GeqD1(SortedBounds.sort(vars, true, sample), this.dist) < this.criticalValue))
+    		return ESat.FALSE;
     	return ESat.UNDEFINED;
     }
 
@@ -107,4 +183,3 @@ class PropGreaterOrEqualXCStDist extends Propagator<IntVar> {
         return vars[0].getName() + " <= " + dist.toString();
     }
 }
-
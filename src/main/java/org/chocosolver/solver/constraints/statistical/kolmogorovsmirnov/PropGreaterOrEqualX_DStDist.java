@@ -29,21 +29,49 @@ package org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov.distributions.DistributionVar;
+import org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov.distributions.DistributionVar.Monotonicity;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues.Tail;
 import org.syat.statistics.KolmogorovSmirnovTest;
 
 import umontreal.iro.lecuyer.probdist.ContinuousDistribution;
-import umontreal.iro.lecuyer.probdist.EmpiricalDist;
 
 @SuppressWarnings("serial")
 class PropGreaterOrEqualX_DStDist extends Propagator<IntVar> {
 
     private final DistributionVar dist;
     private final double confidence;
+    private final double criticalValue;
+    private final VerdictCache verdicts;
+    private final int test;
+    private final IntVar parameterVar;
+    private final int parameterIndex;
+    private final double[] parameter = new double[1];
+    
+    private final SortedBounds upperBounds;
+    private final PivotStatistics statistics;
+    private final double[] sample;
+    private int pivot;
+    
+    private final PivotSearch search = new PivotSearch(){
+    	@Override
+    	boolean passes(int value){
+    		return statistics.statistic(pivot, value) < criticalValue;
+    	}
+    };
+    
+    private final PivotSearch parameterSearch = new PivotSearch(){
+    	@Override
+    	boolean passes(int value){
+    		return parameterPasses(value);
+    	}
+    };
 
     private static IntVar[] mergeArrays(IntVar[] var1, IntVar[] var2){
     	IntVar[] var3 = new IntVar[var1.length+var2.length];
@@ -53,6 +81,10 @@ class PropGreaterOrEqualX_DStDist extends Propagator<IntVar> {
     }
     
     public PropGreaterOrEqualX_DStDist(IntVar[] var, DistributionVar dist, double confidence) {
+        this(var, dist, confidence, new VerdictCache(0));
+    }
+    
+    public PropGreaterOrEqualX_DStDist(IntVar[] var, DistributionVar dist, double confidence, VerdictCache verdicts) {
         super(mergeArrays(var,dist.getVarParatemers()), PropagatorPriority.BINARY, true);
         if(!(dist instanceof ContinuousDistribution)) 
 			throw new SolverException("Theoretical distribution should not be discrete");
@@ -60,14 +92,22 @@ class PropGreaterOrEqualX_DStDist extends Propagator<IntVar> {
         	throw new SolverException("This propagator only supports distribution with a single parameter");
         this.dist = dist;
         this.confidence = confidence;
+        this.verdicts = verdicts;
+        this.test = verdicts.register();
+        this.parameterVar = dist.getVarParatemers()[0];
+        this.parameterIndex = vars.length - 1;
+        this.criticalValue = KolmogorovSmirnovCriticalValues.criticalValue(vars.length, this.confidence, Tail.SINGLE_TAILED);
+        this.upperBounds = new SortedBounds(vars, true);
+        this.statistics = new PivotStatistics(vars.length, true);
+        this.sample = new double[vars.length];
     }
 
     @Override
     public int getPropagationConditions(int vIdx) {
-    	if (vIdx == 0) {
-            return IntEventType.INSTANTIATE.getMask() + IntEventType.DECUPP.getMask();
+    	if (vIdx == parameterIndex) {
+            return IntEventType.INSTANTIATE.getMask() + IntEventType.BOUND.getMask();
         } else {
-            return IntEventType.INSTANTIATE.getMask() + IntEventType.INCLOW.getMask();
+            return IntEventType.INSTANTIATE.getMask() + IntEventType.DECUPP.getMask();
         }
     }
 
@@ -78,58 +118,82 @@ class PropGreaterOrEqualX_DStDist extends Propagator<IntVar> {
             this.setPassive();
         }*/
         
-        for(int i = 0; i < vars.length; i++){
-        	double[] samples = new double[vars.length];
-        	IntVar pivotVar = vars[i];
-        	int k = 0;
-        	samples[k++] = pivotVar.getLB();
-        	for(int j = 0; j < vars.length; j++){
-        		if(j==i) 
-        			continue;
-        		else
-        			samples[k++] = vars[j].getUB();
+        if(upperBounds.isStale())
+        	upperBounds.refresh();
+        int parameterLB;
+        int parameterUB;
+        do{
+        	parameterLB = parameterVar.getLB();
+        	parameterUB = parameterVar.getUB();
+        	// E1GeqD1 is smallest where the cdf is largest
+        	setParameter(dist.getParameterMonotonicity() == Monotonicity.INCREASING ? parameterUB : parameterLB);
+        	statistics.build(upperBounds.values, this.dist);
+        	for(int i = 0; i < vars.length; i++){
+        		IntVar pivotVar = vars[i];
+        		this.pivot = upperBounds.position(i);
+        		int lb = pivotVar.getLB();
+        		if(!search.passes(lb)){
+        			PivotSearch.updateLowerBound(pivotVar, search.smallestPassingValue(lb, pivotVar.getUB()), this);
+        		}
         	}
-        	EmpiricalDist emp = new EmpiricalDist(samples);
-        	this.dist.setParameters(new double[]{this.dist.getVarParatemers()[0].getLB()});
-			KolmogorovSmirnovTest ksTest = new KolmogorovSmirnovTest(emp, this.dist, this.confidence);
-			while(!ksTest.testE1GeqD1()){
-				pivotVar.updateLowerBound(pivotVar.getLB()+1, this);
-				samples[0] = pivotVar.getLB();
-				emp = new EmpiricalDist(samples);
-				ksTest = new KolmogorovSmirnovTest(emp, this.dist, this.confidence);
-			}			
-        }
-        
-        double[] samples = new double[vars.length];
-    	for(int j = 0; j < vars.length; j++){
-    		samples[j] = vars[j].getUB();
+        	
+        	filterParameter();
+        	// the propagator is not notified of its own parameter changes
+        	upperBounds.update(parameterIndex);
+        }while(parameterVar.getLB() != parameterLB || parameterVar.getUB() != parameterUB);
+    }
+    
+    /**
+     * Filters the parameter against the upper bounds of the observations. When the cdf is monotone 
+     * in the parameter so is the statistic, and the new bound is found by bisection.
+     */
+    private void filterParameter() throws ContradictionException {
+    	int lb = parameterVar.getLB();
+    	int ub = parameterVar.getUB();
+    	switch(dist.getParameterMonotonicity()){
+    	case DECREASING:
+    		if(!parameterPasses(ub))
+    			PivotSearch.updateUpperBound(parameterVar, parameterSearch.largestPassingValue(lb, ub), this);
+    		break;
+    	case INCREASING:
+    		if(!parameterPasses(lb))
+    			PivotSearch.updateLowerBound(parameterVar, parameterSearch.smallestPassingValue(lb, ub), this);
+    		break;
+    	default:
+    		while(!parameterPasses(parameterVar.getUB())){
+    			parameterVar.updateUpperBound(parameterVar.getUB()-1, this);
+    		}
     	}
-    	EmpiricalDist emp = new EmpiricalDist(samples);
-    	IntVar pivotVar = dist.getVarParatemers()[0];
-    	this.dist.setParameters(new double[]{this.dist.getVarParatemers()[0].getUB()});
-    	KolmogorovSmirnovTest ksTest = new KolmogorovSmirnovTest(emp, this.dist, this.confidence);
-    	while(!ksTest.testE1GeqD1()){
-    		pivotVar.updateUpperBound(pivotVar.getUB()-1, this);
-    		this.dist.setParameters(new double[]{this.dist.getVarParatemers()[0].getUB()});
-    		ksTest = new KolmogorovSmirnovTest(emp, this.dist, this.confidence);
+    }
+    
+    private boolean parameterPasses(int value){
+    	Boolean verdict = verdicts.get(test, value, upperBounds.values, null);
+    	if(verdict == null){
+    		setParameter(value);
+    		verdict = KolmogorovSmirnovTest.KSstatisticsSingleTailedE1GeqD1(upperBounds.values, this.dist) < this.criticalValue;
+    		verdicts.put(test, value, upperBounds.values, null, verdict);
     	}
+    	return verdict;
+    }
+    
+    private void setParameter(double value){
+    	this.parameter[0] = value;
+    	this.dist.setParameters(this.parameter);
     }
 
     @Override
     public void propagate(int idxVarInProp, int mask) throws ContradictionException {
-        propagate(0);
+        if(upperBounds.update(idxVarInProp) || idxVarInProp == parameterIndex)
+        	forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
     }
 
     @Override
     public ESat isEntailed() {
-        /*if (vars[0].getUB() <= constant) {
-            return ESat.TRUE;
-        }
-        if (vars[0].getLB() > constant) {
-            return ESat.FALSE;
-        }
-        return ESat.UNDEFINED;*/
-    	return ESat.UNDEFINED;
+    	// the parameter is also an observation, hence the test is not monotone in the bounds
+    	if(!isCompletelyInstantiated())
+    		return ESat.UNDEFINED;
+    	setParameter(parameterVar.getValue());
+    	return ESat.eval(KolmogorovSmirnovTest.KSstatisticsSingleTailedE1GeqD1(SortedBounds.sort(vars, true, sample), this.dist) < this.criticalValue);
     }
 
     @Override
@@ -32,17 +32,30 @@ import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues.Tail;
 import org.syat.statistics.KolmogorovSmirnovTestTwoSamples;
 
-import umontreal.iro.lecuyer.probdist.EmpiricalDist;
-
 @SuppressWarnings("serial")
 class PropGreaterOrEqualX_YStDist extends Propagator<IntVar> {
 
     final IntVar[] x;
     final IntVar[] y;
     final double confidence;
+    private final double criticalValue;
+    private final VerdictCache verdicts;
+    private final int test;
+    
+    private final SortedBounds upperBoundsX;
+    private final SortedBounds lowerBoundsY;
+    private final double[] sampleX;
+    private final double[] sampleY;
+    private final ParallelFiltering parallelX;
+    private final ParallelFiltering parallelY;
+    private final long[] candidatesX;
+    private final long[] candidatesY;
 
     private static IntVar[] mergeArrays(IntVar[] var1, IntVar[] var2){
     	IntVar[] var3 = new IntVar[var1.length+var2.length];
@@ -52,17 +65,74 @@ class PropGreaterOrEqualX_YStDist extends Propagator<IntVar> {
     }
     
     public PropGreaterOrEqualX_YStDist(IntVar[] var1, IntVar[] var2, double confidence) {
+        this(var1, var2, confidence, new VerdictCache(0));
+    }
+    
+    public PropGreaterOrEqualX_YStDist(IntVar[] var1, IntVar[] var2, double confidence, VerdictCache verdicts) {
+        this(var1, var2, confidence, verdicts, ParallelFiltering.DISABLED);
+    }
+    
+    public PropGreaterOrEqualX_YStDist(IntVar[] var1, IntVar[] var2, double confidence, VerdictCache verdicts, int parallelThreshold) {
+        this(var1, var2, confidence, verdicts, parallelThreshold, KolmogorovSmirnovCriticalValues.EXACT);
+    }
+    
+    /**
+     * @param var1 first sample
+     * @param var2 second sample
+     * @param confidence test confidence level
+     * @param verdicts verdict cache, used by the sequential filtering only
+     * @param parallelThreshold smallest size of a sample for which its bounds are computed in parallel
+     * @param asymptoticThreshold smallest effective sample size for which the critical value is computed on the asymptotic distribution
+     */
+    public PropGreaterOrEqualX_YStDist(IntVar[] var1, IntVar[] var2, double confidence, VerdictCache verdicts, int parallelThreshold, int asymptoticThreshold) {
         super(mergeArrays(var1, var2), PropagatorPriority.BINARY, true);
         if(var1.length == 1 || var2.length == 1)
         	throw new SolverException("Cannot propagate statistically on single observations");
         this.x = var1;
         this.y = var2;
         this.confidence = confidence;
+        this.verdicts = verdicts;
+        this.test = verdicts.register();
+        this.criticalValue = KolmogorovSmirnovCriticalValues.criticalValue(var1.length, var2.length, this.confidence, Tail.SINGLE_TAILED, asymptoticThreshold);
+        this.upperBoundsX = new SortedBounds(var1, true);
+        this.lowerBoundsY = new SortedBounds(var2, false);
+        this.sampleX = new double[var1.length];
+        this.sampleY = new double[var2.length];
+        this.candidatesX = new long[var1.length];
+        this.candidatesY = new long[var2.length];
+        this.parallelX = new ParallelFiltering(parallelThreshold, var1.length){
+        	@Override
+        	long candidate(int i, double[] buffer){
+        		IntVar pivotVar = x[i];
+        		int position = upperBoundsX.position(i);
+        		int ub = pivotVar.getUB();
+        		for(int value = pivotVar.getLB(); value <= ub; value = pivotVar.nextValue(value)){
+        			SortedBounds.replace(upperBoundsX.values, position, value, buffer);
+        			if(KolmogorovSmirnovTestTwoSamples.KSstatisticsSingleTailedE1GeqE2(buffer, lowerBoundsY.values) < criticalValue)
+        				return value;
+        		}
+        		return ub + 1L;
+        	}
+        };
+        this.parallelY = new ParallelFiltering(parallelThreshold, var2.length){
+        	@Override
+        	long candidate(int i, double[] buffer){
+        		IntVar pivotVar = y[i];
+        		int position = lowerBoundsY.position(i);
+        		int lb = pivotVar.getLB();
+        		for(int value = pivotVar.getUB(); value >= lb; value = pivotVar.previousValue(value)){
+        			SortedBounds.replace(lowerBoundsY.values, position, value, buffer);
+        			if(KolmogorovSmirnovTestTwoSamples.KSstatisticsSingleTailedE1GeqE2(upperBoundsX.values, buffer) < criticalValue)
+        				return value;
+        		}
+        		return lb - 1L;
+        	}
+        };
     }
 
     @Override
     public int getPropagationConditions(int vIdx) {
-    	if (vIdx == 0) {
+    	if (vIdx < x.length) {
             return IntEventType.INSTANTIATE.getMask() + IntEventType.DECUPP.getMask();
         } else {
             return IntEventType.INSTANTIATE.getMask() + IntEventType.INCLOW.getMask();
@@ -74,72 +144,80 @@ class PropGreaterOrEqualX_YStDist extends Propagator<IntVar> {
     	propagateTwoSampleKSTestDist(0);
     }
     
+    /**
+     * The pivot observation is moved within the sorted bounds, one step at a time: 
+     * when all observations in y coincide the test is trivially passed, hence the passing values 
+     * of a pivot may not form an interval.
+     */
     private void propagateTwoSampleKSTestDist(int evtmask) throws ContradictionException {
-    	for(int i = 0; i < this.x.length; i++){
-        	double[] samplesX = new double[this.x.length];
-        	IntVar pivotVar = this.x[i];
-        	int k = 0;
-        	samplesX[k++] = pivotVar.getLB();
-        	for(int j = 0; j < this.x.length; j++){
-        		if(j==i) 
-        			continue;
-        		else
-        			samplesX[k++] = this.x[j].getUB();
-        	}
-        	EmpiricalDist empX = new EmpiricalDist(samplesX);
-        	
-        	double[] samplesY = new double[this.y.length];
-        	for(int j = 0; j < this.y.length; j++){
-        		samplesY[j] = this.y[j].getLB();
-        	}
-        	EmpiricalDist empY = new EmpiricalDist(samplesY);
-        	
-			KolmogorovSmirnovTestTwoSamples ksTest = new KolmogorovSmirnovTestTwoSamples(empX, empY, this.confidence);
-			while(!ksTest.testE1GeqE2()){
-				pivotVar.updateLowerBound(pivotVar.getLB()+1, this);
-				samplesX[0] = pivotVar.getLB();
-				empX = new EmpiricalDist(samplesX);
-				ksTest = new KolmogorovSmirnovTestTwoSamples(empX, empY, this.confidence);
-			}
-        }
+    	if(upperBoundsX.isStale())
+    		upperBoundsX.refresh();
+    	if(lowerBoundsY.isStale())
+    		lowerBoundsY.refresh();
+    	// each pivot moves within bounds that its own filtering does not change, hence 
+    	// the candidates of a sample are all computed against the same snapshot
+    	if(parallelX.isEnabled(x.length)){
+    		parallelX.computeCandidates(candidatesX);
+    		for(int i = 0; i < this.x.length; i++){
+    			PivotSearch.updateLowerBound(x[i], candidatesX[i], this);
+    		}
+    	}else{
+    		for(int i = 0; i < this.x.length; i++){
+    			IntVar pivotVar = this.x[i];
+    			upperBoundsX.set(i, pivotVar.getLB());
+    			while(!passes()){
+    				pivotVar.updateLowerBound(pivotVar.getLB()+1, this);
+    				upperBoundsX.set(i, pivotVar.getLB());
+    			}
+    			upperBoundsX.restore(i);
+    		}
+    	}
     	
-    	for(int i = 0; i < this.y.length; i++){
-        	double[] samplesY = new double[this.y.length];
-        	IntVar pivotVar = this.y[i];
-        	int k = 0;
-        	samplesY[k++] = pivotVar.getUB();
-        	for(int j = 0; j < this.y.length; j++){
-        		if(j==i) 
-        			continue;
-        		else
-        			samplesY[k++] = this.y[j].getLB();
-        	}
-        	EmpiricalDist empY = new EmpiricalDist(samplesY);
-        	
-        	double[] samplesX = new double[this.x.length];
-        	for(int j = 0; j < this.x.length; j++){
-        		samplesX[j] = this.x[j].getUB();
-        	}
-        	EmpiricalDist empX = new EmpiricalDist(samplesX);
-        	
-        	KolmogorovSmirnovTestTwoSamples ksTest = new KolmogorovSmirnovTestTwoSamples(empX, empY, this.confidence);
-			while(!ksTest.testE1GeqE2()){
-				pivotVar.updateUpperBound(pivotVar.getUB()-1, this);
-				samplesY[0] = pivotVar.getUB();
-				empY = new EmpiricalDist(samplesY);
-				ksTest = new KolmogorovSmirnovTestTwoSamples(empX, empY, this.confidence);
-			}
-        }
+    	if(parallelY.isEnabled(y.length)){
+    		parallelY.computeCandidates(candidatesY);
+    		for(int i = 0; i < this.y.length; i++){
+    			PivotSearch.updateUpperBound(y[i], candidatesY[i], this);
+    		}
+    	}else{
+    		for(int i = 0; i < this.y.length; i++){
+    			IntVar pivotVar = this.y[i];
+    			lowerBoundsY.set(i, pivotVar.getUB());
+    			while(!passes()){
+    				pivotVar.updateUpperBound(pivotVar.getUB()-1, this);
+    				lowerBoundsY.set(i, pivotVar.getUB());
+    			}
+    			lowerBoundsY.restore(i);
+    		}
+    	}
+    	// the statistic is not monotone in the bounds (see isEntailed), hence the only 
+    	// sound worst case is the assignment itself
+    	if(isCompletelyInstantiated())
+    		this.setPassive();
+    }
+    
+    private boolean passes(){
+    	Boolean verdict = verdicts.get(test, 0, upperBoundsX.values, lowerBoundsY.values);
+    	if(verdict == null){
+    		verdict = KolmogorovSmirnovTestTwoSamples.KSstatisticsSingleTailedE1GeqE2(upperBoundsX.values, lowerBoundsY.values) < this.criticalValue;
+    		verdicts.put(test, 0, upperBoundsX.values, lowerBoundsY.values, verdict);
+    	}
+    	return verdict;
     }
     
     @Override
     public void propagate(int varIdx, int mask) throws ContradictionException {
-        propagate(0);
+    	boolean changed = varIdx < x.length ? upperBoundsX.update(varIdx) : lowerBoundsY.update(varIdx - x.length);
+    	if(changed)
+    		forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
     }
 
     @Override
     public ESat isEntailed() {
-        return ESat.UNDEFINED;
+    	// the statistic compares left and right limits of the empirical cdfs at tied observations, 
+    	// hence it is not monotone in the bounds
+    	if(!isCompletelyInstantiated())
+    		return ESat.UNDEFINED;
+    	return ESat.eval(KolmogorovSmirnovTestTwoSamples.KSstatisticsSingleTailedE1GeqE2(SortedBounds.sort(x, false, sampleX), SortedBounds.sort(y, false, sampleY)) < this.criticalValue);
     }
 
 
@@ -0,0 +1,263 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.RealVar;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.solver.variables.events.RealEventType;
+import org.chocosolver.util.ESat;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues.Tail;
+import org.syat.statistics.KolmogorovSmirnovTestTwoSamples;
+
+/**
+ * Real counterpart of {@link PropGreaterOrEqualX_YStDist}. 
+ * 
+ * The statistic only depends on how the pivot is ordered with respect to the other observations, 
+ * hence it is constant between two consecutive bounds of the other observations. Instead of 
+ * stepping through integer values, the pivot is moved from one such breakpoint to the next, and 
+ * the statistic is evaluated at the breakpoint and once within the open interval that follows it.
+ */
+@SuppressWarnings("serial")
+class PropGreaterOrEqualX_YStDistReal extends Propagator<RealVar> {
+
+    final RealVar[] x;
+    final RealVar[] y;
+    final double confidence;
+    private final double criticalValue;
+    
+    private final SortedBounds upperBoundsX;
+    private final SortedBounds lowerBoundsY;
+    private final double[] sampleX;
+    private final double[] sampleY;
+
+    private static RealVar[] mergeArrays(RealVar[] var1, RealVar[] var2){
+    	RealVar[] var3 = new RealVar[var1.length+var2.length];
+    	System.arraycopy(var1, 0, var3, 0, var1.length);
+    	System.arraycopy(var2, 0, var3, var1.length, var2.length);
+    	return var3;
+    }
+    
+    public PropGreaterOrEqualX_YStDistReal(RealVar[] var1, RealVar[] var2, double confidence) {
+        super(mergeArrays(var1, var2), PropagatorPriority.BINARY, true);
+        if(var1.length == 1 || var2.length == 1)
+        	throw new SolverException("Cannot propagate statistically on single observations");
+        this.x = var1;
+        this.y = var2;
+        this.confidence = confidence;
+        this.criticalValue = KolmogorovSmirnovCriticalValues.criticalValue(var1.length, var2.length, this.confidence, Tail.SINGLE_TAILED);
+        this.upperBoundsX = new SortedBounds(var1, true);
+        this.lowerBoundsY = new SortedBounds(var2, false);
+        this.sampleX = new double[var1.length];
+        this.sampleY = new double[var2.length];
+    }
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+    	if (vIdx < x.length) {
+            return RealEventType.DECUPP.getMask();
+        } else {
+            return RealEventType.INCLOW.getMask();
+        }
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+    	if(upperBoundsX.isStale())
+    		upperBoundsX.refresh();
+    	if(lowerBoundsY.isStale())
+    		lowerBoundsY.refresh();
+    	// an infinite bound does not fail on its own when the pivot is unbounded
+    	for(int i = 0; i < this.x.length; i++){
+    		double lb = smallestPassingValue(i);
+    		if(lb == Double.POSITIVE_INFINITY)
+    			this.contradiction(this.x[i], "no passing value");
+    		this.x[i].updateLowerBound(lb, this);
+        }
+    	for(int i = 0; i < this.y.length; i++){
+    		double ub = largestPassingValue(i);
+    		if(ub == Double.NEGATIVE_INFINITY)
+    			this.contradiction(this.y[i], "no passing value");
+    		this.y[i].updateUpperBound(ub, this);
+        }
+    }
+    
+    /**
+     * Smallest value, or infimum, of pivot x[i] for which the test is passed; positive infinity if there is none
+     */
+    private double smallestPassingValue(int i){
+    	int position = upperBoundsX.position(i);
+    	double value = x[i].getLB();
+    	double ub = x[i].getUB();
+    	while(true){
+    		if(passesX(position, value))
+    			return value;
+    		double next = nextBreakpoint(value, upperBoundsX.values, position, lowerBoundsY.values);
+    		double probe = next > ub ? ub : inside(value, next);
+    		if(probe > value && probe < next && passesX(position, probe))
+    			return value;
+    		// past the last breakpoint the statistic does not change any more
+    		if(next > ub || next == Double.POSITIVE_INFINITY)
+    			return Double.POSITIVE_INFINITY;
+    		value = next;
+    	}
+    }
+    
+    /**
+     * Largest value, or supremum, of pivot y[i] for which the test is passed; negative infinity if there is none
+     */
+    private double largestPassingValue(int i){
+    	int position = lowerBoundsY.position(i);
+    	double value = y[i].getUB();
+    	double lb = y[i].getLB();
+    	while(true){
+    		if(passesY(position, value))
+    			return value;
+    		double previous = previousBreakpoint(value, lowerBoundsY.values, position, upperBoundsX.values);
+    		double probe = previous < lb ? lb : inside(previous, value);
+    		if(probe < value && probe > previous && passesY(position, probe))
+    			return value;
+    		// before the first breakpoint the statistic does not change any more
+    		if(previous < lb || previous == Double.NEGATIVE_INFINITY)
+    			return Double.NEGATIVE_INFINITY;
+    		value = previous;
+    	}
+    }
+    
+    private boolean passesX(int position, double value){
+    	SortedBounds.replace(upperBoundsX.values, position, value, sampleX);
+    	return KolmogorovSmirnovTestTwoSamples.KSstatisticsSingleTailedE1GeqE2(sampleX, lowerBoundsY.values) < this.criticalValue;
+    }
+    
+    private boolean passesY(int position, double value){
+    	SortedBounds.replace(lowerBoundsY.values, position, value, sampleY);
+    	return KolmogorovSmirnovTestTwoSamples.KSstatisticsSingleTailedE1GeqE2(upperBoundsX.values, sampleY) < this.criticalValue;
+    }
+    
+    /**
+     * A finite value strictly between {@code low} and {@code high} whenever there is one, also when 
+     * either end is infinite
+     */
+    private static double inside(double low, double high){
+    	if(low == Double.NEGATIVE_INFINITY)
+    		return high == Double.POSITIVE_INFINITY ? 0 : Math.nextDown(high);
+    	if(high == Double.POSITIVE_INFINITY)
+    		return Math.nextUp(low);
+    	return low/2 + high/2;
+    }
+    
+    /**
+     * Smallest observation above {@code value}, the pivot at {@code position} in {@code own} excluded
+     */
+    private static double nextBreakpoint(double value, double[] own, int position, double[] other){
+    	double next = Double.POSITIVE_INFINITY;
+    	int k = firstAbove(own, value);
+    	if(k == position)
+    		k++;
+    	if(k < own.length)
+    		next = own[k];
+    	int j = firstAbove(other, value);
+    	if(j < other.length)
+    		next = Math.min(next, other[j]);
+    	return next;
+    }
+    
+    /**
+     * Largest observation below {@code value}, the pivot at {@code position} in {@code own} excluded
+     */
+    private static double previousBreakpoint(double value, double[] own, int position, double[] other){
+    	double previous = Double.NEGATIVE_INFINITY;
+    	int k = firstNotBelow(own, value) - 1;
+    	if(k == position)
+    		k--;
+    	if(k >= 0)
+    		previous = own[k];
+    	int j = firstNotBelow(other, value) - 1;
+    	if(j >= 0)
+    		previous = Math.max(previous, other[j]);
+    	return previous;
+    }
+    
+    /**
+     * Number of values not above {@code value}
+     */
+    private static int firstAbove(double[] sorted, double value){
+    	int low = 0;
+    	int high = sorted.length;
+    	while(low < high){
+    		int mid = (low + high) >>> 1;
+    		if(sorted[mid] <= value)
+    			low = mid + 1;
+    		else
+    			high = mid;
+    	}
+    	return low;
+    }
+    
+    /**
+     * Number of values below {@code value}
+     */
+    private static int firstNotBelow(double[] sorted, double value){
+    	int low = 0;
+    	int high = sorted.length;
+    	while(low < high){
+    		int mid = (low + high) >>> 1;
+    		if(sorted[mid] < value)
+    			low = mid + 1;
+    		else
+    			high = mid;
+    	}
+    	return low;
+    }
+    
+    @Override
+    public void propagate(int varIdx, int mask) throws ContradictionException {
+    	boolean changed = varIdx < x.length ? upperBoundsX.update(varIdx) : lowerBoundsY.update(varIdx - x.length);
+    	if(changed)
+    		forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+    }
+
+    @Override
+    public ESat isEntailed() {
+    	// the statistic compares left and right limits of the empirical cdfs at tied observations, 
+    	// hence it is not monotone in the bounds
+    	if(!isCompletelyInstantiated())
+    		return ESat.UNDEFINED;
+    	return ESat.eval(KolmogorovSmirnovTestTwoSamples.KSstatisticsSingleTailedE1GeqE2(SortedBounds.sort(x, false, sampleX), SortedBounds.sort(y, false, sampleY)) < this.criticalValue);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder bf = new StringBuilder();
+        bf.append("prop(").append(vars[0].getName()).append(".GEQ.").append(vars[1].getName()).append(")");
+        return bf.toString();
+    }
+}
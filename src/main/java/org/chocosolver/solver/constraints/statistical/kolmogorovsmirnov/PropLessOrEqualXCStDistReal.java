@@ -0,0 +1,138 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.RealVar;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.solver.variables.events.RealEventType;
+import org.chocosolver.util.ESat;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues.Tail;
+import org.syat.statistics.KolmogorovSmirnovTest;
+
+import umontreal.iro.lecuyer.probdist.ContinuousDistribution;
+import umontreal.iro.lecuyer.probdist.Distribution;
+
+/**
+ * Real counterpart of {@link PropLessOrEqualXCStDist}: the upper bound of each pivot is bisected 
+ * against the sorted lower bounds of the other observations, down to the precision of the pivot.
+ */
+@SuppressWarnings("serial")
+class PropLessOrEqualXCStDistReal extends Propagator<RealVar> {
+
+	private final Distribution dist;
+    private final double confidence;
+    private final double criticalValue;
+    
+    private final SortedBounds lowerBounds;
+    private final SortedBounds upperBounds;
+    private final double[] sample;
+    private boolean lowerChanged;
+    private final PivotStatistics statistics;
+    private int pivot;
+    
+    private final RealPivotSearch search = new RealPivotSearch(){
+    	@Override
+    	boolean passes(double value){
+    		return statistics.statistic(pivot, value) < criticalValue;
+    	}
+    };
+
+    public PropLessOrEqualXCStDistReal(RealVar[] var, Distribution dist, double confidence) {
+        super(var, PropagatorPriority.UNARY, true);
+        if(!(dist instanceof ContinuousDistribution)) 
+			throw new SolverException("Theoretical distribution should not be discrete");
+        this.dist = dist;
+        this.confidence = confidence;
+        this.criticalValue = KolmogorovSmirnovCriticalValues.criticalValue(vars.length, this.confidence, Tail.SINGLE_TAILED);
+        this.lowerBounds = new SortedBounds(vars, false);
+        this.upperBounds = new SortedBounds(vars, true);
+        this.sample = new double[vars.length];
+        this.statistics = new PivotStatistics(vars.length, false);
+    }
+    
+    @Override
+    public int getPropagationConditions(int vIdx) {
+    	return RealEventType.BOUND.getMask();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if(lowerBounds.isStale()){
+        	lowerBounds.refresh();
+        	lowerChanged = true;
+        }
+        if(upperBounds.isStale())
+        	upperBounds.refresh();
+        if(lowerChanged){
+        	statistics.build(lowerBounds.values, this.dist);
+        	for(int i = 0; i < vars.length; i++){
+        		RealVar pivotVar = vars[i];
+        		this.pivot = lowerBounds.position(i);
+        		double ub = pivotVar.getUB();
+        		if(!search.passes(ub)){
+        			double bound = search.largestPassingValue(pivotVar.getLB(), ub, pivotVar.getPrecision());
+        			// an infinite bound does not fail on its own when the pivot is unbounded
+        			if(bound == Double.NEGATIVE_INFINITY)
+        				this.contradiction(pivotVar, "no passing value");
+        			pivotVar.updateUpperBound(bound, this);
+        		}
+        		// the propagator is not notified of its own bound changes
+        		upperBounds.update(i);
+        	}
+        	lowerChanged = false;
+        }
+        if(KolmogorovSmirnovTest.KSstatisticsSingleTailedD1GeqE1(upperBounds.values, this.dist) < this.criticalValue)
+        	this.setPassive();
+    }
+
+    @Override
+    public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+        if(lowerBounds.update(idxVarInProp))
+        	lowerChanged = true;
+        if(lowerChanged | upperBounds.update(idxVarInProp))
+        	forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+    }
+
+    @Override
+    public ESat isEntailed() {
+    	if(KolmogorovSmirnovTest.KSstatisticsSingleTailedD1GeqE1(SortedBounds.sort(vars, true, sample), this.dist) < this.criticalValue)
+    		return ESat.TRUE;
+    	if(!(KolmogorovSmirnovTest.KSstatisticsSingleTailedD1GeqE1(SortedBounds.sort(vars, false, sample), this.dist) < this.criticalValue))
+    		return ESat.FALSE;
+    	return ESat.UNDEFINED;
+    }
+
+    @Override
+    public String toString() {
+        return vars[0].getName() + " >= " + dist.toString();
+    }
+}
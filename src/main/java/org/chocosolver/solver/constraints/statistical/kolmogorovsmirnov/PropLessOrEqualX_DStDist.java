@@ -29,21 +29,49 @@ package org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov.distributions.DistributionVar;
+import org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov.distributions.DistributionVar.Monotonicity;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues.Tail;
 import org.syat.statistics.KolmogorovSmirnovTest;
 
 import umontreal.iro.lecuyer.probdist.ContinuousDistribution;
-import umontreal.iro.lecuyer.probdist.EmpiricalDist;
 
 @SuppressWarnings("serial")
 class PropLessOrEqualX_DStDist extends Propagator<IntVar> {
 
     private final DistributionVar dist;
     private final double confidence;
+    private final double criticalValue;
+    private final VerdictCache verdicts;
+    private final int test;
+    private final IntVar parameterVar;
+    private final int parameterIndex;
+    private final double[] parameter = new double[1];
+    
+    private final SortedBounds lowerBounds;
+    private final PivotStatistics statistics;
+    private final double[] sample;
+    private int pivot;
+    
+    private final PivotSearch search = new PivotSearch(){
+    	@Override
+    	boolean passes(int value){
+    		return statistics.statistic(pivot, value) < criticalValue;
+    	}
+    };
+    
+    private final PivotSearch parameterSearch = new PivotSearch(){
+    	@Override
+    	boolean passes(int value){
+    		return parameterPasses(value);
+    	}
+    };
 
     private static IntVar[] mergeArrays(IntVar[] var1, IntVar[] var2){
     	IntVar[] var3 = new IntVar[var1.length+var2.length];
@@ -53,6 +81,10 @@ class PropLessOrEqualX_DStDist extends Propagator<IntVar> {
     }
     
     public PropLessOrEqualX_DStDist(IntVar[] var, DistributionVar dist, double confidence) {
+        this(var, dist, confidence, new VerdictCache(0));
+    }
+    
+    public PropLessOrEqualX_DStDist(IntVar[] var, DistributionVar dist, double confidence, VerdictCache verdicts) {
         super(mergeArrays(var,dist.getVarParatemers()), PropagatorPriority.BINARY, true);
         if(!(dist instanceof ContinuousDistribution)) 
 			throw new SolverException("Theoretical distribution should not be discrete");
@@ -60,11 +92,23 @@ class PropLessOrEqualX_DStDist extends Propagator<IntVar> {
         	throw new SolverException("This propagator only supports distribution with a single parameter");
         this.dist = dist;
         this.confidence = confidence;
+        this.verdicts = verdicts;
+        this.test = verdicts.register();
+        this.parameterVar = dist.getVarParatemers()[0];
+        this.parameterIndex = vars.length - 1;
+        this.criticalValue = KolmogorovSmirnovCriticalValues.criticalValue(vars.length, this.confidence, Tail.SINGLE_TAILED);
+        this.lowerBounds = new SortedBounds(vars, false);
+        this.statistics = new PivotStatistics(vars.length, false);
+        this.sample = new double[vars.length];
     }
 
     @Override
     public int getPropagationConditions(int vIdx) {
-        return IntEventType.INSTANTIATE.getMask() + IntEventType.BOUND.getMask();
+    	if (vIdx == parameterIndex) {
+            return IntEventType.INSTANTIATE.getMask() + IntEventType.BOUND.getMask();
+        } else {
+            return IntEventType.INSTANTIATE.getMask() + IntEventType.INCLOW.getMask();
+        }
     }
 
     @Override
@@ -74,58 +118,82 @@ class PropLessOrEqualX_DStDist extends Propagator<IntVar> {
             this.setPassive();
         }*/
         
-        for(int i = 0; i < vars.length; i++){
-        	double[] samples = new double[vars.length];
-        	IntVar pivotVar = vars[i];
-        	int k = 0;
-        	samples[k++] = pivotVar.getUB();
-        	for(int j = 0; j < vars.length; j++){
-        		if(j==i) 
-        			continue;
-        		else
-        			samples[k++] = vars[j].getLB();
+        if(lowerBounds.isStale())
+        	lowerBounds.refresh();
+        int parameterLB;
+        int parameterUB;
+        do{
+        	parameterLB = parameterVar.getLB();
+        	parameterUB = parameterVar.getUB();
+        	// D1GeqE1 is smallest where the cdf is smallest
+        	setParameter(dist.getParameterMonotonicity() == Monotonicity.INCREASING ? parameterLB : parameterUB);
+        	statistics.build(lowerBounds.values, this.dist);
+        	for(int i = 0; i < vars.length; i++){
+        		IntVar pivotVar = vars[i];
+        		this.pivot = lowerBounds.position(i);
+        		int ub = pivotVar.getUB();
+        		if(!search.passes(ub)){
+        			PivotSearch.updateUpperBound(pivotVar, search.largestPassingValue(pivotVar.getLB(), ub), this);
+        		}
         	}
-        	EmpiricalDist emp = new EmpiricalDist(samples);
-        	this.dist.setParameters(new double[]{this.dist.getVarParatemers()[0].getUB()});
-			KolmogorovSmirnovTest ksTest = new KolmogorovSmirnovTest(emp, this.dist, this.confidence);
-			while(!ksTest.testD1GeqE1()){
-				pivotVar.updateUpperBound(pivotVar.getUB()-1, this);
-				samples[0] = pivotVar.getUB();
-				emp = new EmpiricalDist(samples);
-				ksTest = new KolmogorovSmirnovTest(emp, this.dist, this.confidence);
-			}
-        }
-        
-        double[] samples = new double[vars.length];
-    	for(int j = 0; j < vars.length; j++){
-    		samples[j] = vars[j].getLB();
+        	
+        	filterParameter();
+        	// the propagator is not notified of its own parameter changes
+        	lowerBounds.update(parameterIndex);
+        }while(parameterVar.getLB() != parameterLB || parameterVar.getUB() != parameterUB);
+    }
+    
+    /**
+     * Filters the parameter against the lower bounds of the observations. When the cdf is monotone 
+     * in the parameter so is the statistic, and the new bound is found by bisection.
+     */
+    private void filterParameter() throws ContradictionException {
+    	int lb = parameterVar.getLB();
+    	int ub = parameterVar.getUB();
+    	switch(dist.getParameterMonotonicity()){
+    	case DECREASING:
+    		if(!parameterPasses(lb))
+    			PivotSearch.updateLowerBound(parameterVar, parameterSearch.smallestPassingValue(lb, ub), this);
+    		break;
+    	case INCREASING:
+    		if(!parameterPasses(ub))
+    			PivotSearch.updateUpperBound(parameterVar, parameterSearch.largestPassingValue(lb, ub), this);
+    		break;
+    	default:
+    		while(!parameterPasses(parameterVar.getLB())){
+    			parameterVar.updateLowerBound(parameterVar.getLB()+1, this);
+    		}
     	}
-    	EmpiricalDist emp = new EmpiricalDist(samples);
-    	IntVar pivotVar = dist.getVarParatemers()[0];
-    	this.dist.setParameters(new double[]{this.dist.getVarParatemers()[0].getLB()});
-    	KolmogorovSmirnovTest ksTest = new KolmogorovSmirnovTest(emp, this.dist, this.confidence);
-    	while(!ksTest.testD1GeqE1()){
-    		pivotVar.updateLowerBound(pivotVar.getLB()+1, this);
-    		this.dist.setParameters(new double[]{this.dist.getVarParatemers()[0].getLB()});
-    		ksTest = new KolmogorovSmirnovTest(emp, this.dist, this.confidence);
+    }
+    
+    private boolean parameterPasses(int value){
+    	Boolean verdict = verdicts.get(test, value, lowerBounds.values, null);
+    	if(verdict == null){
+    		setParameter(value);
+    		verdict = KolmogorovSmirnovTest.KSstatisticsSingleTailedD1GeqE1(lowerBounds.values, this.dist) < this.criticalValue;
+    		verdicts.put(test, value, lowerBounds.values, null, verdict);
     	}
+    	return verdict;
+    }
+    
+    private void setParameter(double value){
+    	this.parameter[0] = value;
+    	this.dist.setParameters(this.parameter);
     }
 
     @Override
     public void propagate(int idxVarInProp, int mask) throws ContradictionException {
-        propagate(0);
+        if(lowerBounds.update(idxVarInProp) || idxVarInProp == parameterIndex)
+        	forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
     }
 
     @Override
     public ESat isEntailed() {
-        /*if (vars[0].getUB() <= constant) {
-            return ESat.TRUE;
-        }
-        if (vars[0].getLB() > constant) {
-            return ESat.FALSE;
-        }
-        return ESat.UNDEFINED;*/
-    	return ESat.UNDEFINED;
+    	// the parameter is also an observation, hence the test is not monotone in the bounds
+    	if(!isCompletelyInstantiated())
+    		return ESat.UNDEFINED;
+    	setParameter(parameterVar.getValue());
+    	return ESat.eval(KolmogorovSmirnovTest.KSstatisticsSingleTailedD1GeqE1(SortedBounds.sort(vars, false, sample), this.dist) < this.criticalValue);
     }
 
     @Override
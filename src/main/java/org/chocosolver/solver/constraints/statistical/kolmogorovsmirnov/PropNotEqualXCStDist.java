@@ -31,13 +31,15 @@ import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
 
 import umontreal.iro.lecuyer.probdist.ContinuousDistribution;
 import umontreal.iro.lecuyer.probdist.Distribution;
-import umontreal.iro.lecuyer.probdist.EmpiricalDist;
 
-import org.chocosolver.util.iterators.DisposableValueIterator;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues.Tail;
 import org.syat.statistics.KolmogorovSmirnovTest;
 
 @SuppressWarnings("serial")
@@ -45,71 +47,99 @@ class PropNotEqualXCStDist extends Propagator<IntVar> {
 
 	private final Distribution dist;
     private final double confidence;
+    private final double criticalValue;
+    
+    private final SortedBounds lowerBounds;
+    private final SortedBounds upperBounds;
+    private final PivotStatistics lowerStatistics;
+    private final PivotStatistics upperStatistics;
+    private final double[] sample;
+    private final ValidSupports supports;
 
     public PropNotEqualXCStDist(IntVar[] var, Distribution dist, double confidence) {
+        this(var, dist, confidence, KolmogorovSmirnovCriticalValues.EXACT);
+    }
+    
+    /**
+     * @param var observations
+     * @param dist target distribution
+     * @param confidence test confidence level
+     * @param asymptoticThreshold smallest number of observations for which the critical value is computed on the asymptotic distribution
+     */
+    public PropNotEqualXCStDist(IntVar[] var, Distribution dist, double confidence, int asymptoticThreshold) {
         super(var, PropagatorPriority.UNARY, true);
         if(!(dist instanceof ContinuousDistribution)) 
 			throw new SolverException("Theoretical distribution should not be discrete");
         this.dist = dist;
         this.confidence = confidence;
+        this.criticalValue = KolmogorovSmirnovCriticalValues.criticalValue(vars.length, this.confidence, Tail.SINGLE_TAILED, asymptoticThreshold);
+        this.lowerBounds = new SortedBounds(vars, false);
+        this.upperBounds = new SortedBounds(vars, true);
+        this.lowerStatistics = new PivotStatistics(vars.length, false);
+        this.upperStatistics = new PivotStatistics(vars.length, true);
+        this.sample = new double[vars.length];
+        this.supports = new ValidSupports(vars);
+    }
+    
+    @Override
+    public int getPropagationConditions(int vIdx) {
+    	return IntEventType.INSTANTIATE.getMask() + IntEventType.BOUND.getMask();
     }
 
     @Override
     public void propagate(int evtmask) throws ContradictionException {
-        // with views such as abs(...), the prop can be not entailed after initial propagation
-        /*if (vars[0].updateUpperBound(constant, aCause) || vars[0].getUB() <= constant) {
-            this.setPassive();
-        }*/
-        
+        if(lowerBounds.isStale())
+        	lowerBounds.refresh();
+        if(upperBounds.isStale())
+        	upperBounds.refresh();
+        // D1GeqE1 is smallest on lower bounds and E1GeqD1 on upper bounds: if either test fails 
+        // there, it fails for every assignment, and no value can be removed
+        if(!(KolmogorovSmirnovTest.KSstatisticsSingleTailedD1GeqE1(lowerBounds.values, this.dist) < this.criticalValue) || 
+           !(KolmogorovSmirnovTest.KSstatisticsSingleTailedE1GeqD1(upperBounds.values, this.dist) < this.criticalValue)){
+        	this.setPassive();
+        	return;
+        }
+        boolean changed = true;
         for(int i = 0; i < vars.length; i++){
-        	double[] samplesLB = new double[vars.length];
-        	int k = 1;
-        	for(int j = 0; j < vars.length; j++){
-        		if(j==i) 
-        			continue;
-        		else
-        			samplesLB[k++] = vars[j].getLB();
+        	if(changed){
+        		lowerStatistics.build(lowerBounds.values, this.dist);
+        		upperStatistics.build(upperBounds.values, this.dist);
         	}
-        	double[] samplesUB = new double[vars.length];
-        	k = 1;
-        	for(int j = 0; j < vars.length; j++){
-        		if(j==i) 
-        			continue;
-        		else
-        			samplesUB[k++] = vars[j].getUB();
-        	}
-        	
         	IntVar pivotVar = vars[i];
-        	DisposableValueIterator iterator = pivotVar.getValueIterator(true);
-        	while(iterator.hasNext()){
-        		int value = iterator.next();
-        		samplesLB[0] = samplesUB[0] = value;
-        		EmpiricalDist empLB = new EmpiricalDist(samplesLB);
-        		KolmogorovSmirnovTest ksTestLB = new KolmogorovSmirnovTest(empLB, this.dist, this.confidence);
-    			EmpiricalDist empUB = new EmpiricalDist(samplesUB);
-    			KolmogorovSmirnovTest ksTestUB = new KolmogorovSmirnovTest(empUB, this.dist, this.confidence);
-    			
-    			if(ksTestLB.testD1GeqE1() && ksTestUB.testE1GeqD1()){
+        	int lowerPivot = lowerBounds.position(i);
+        	int upperPivot = upperBounds.position(i);
+        	int ub = pivotVar.getUB();
+        	for(int value = pivotVar.getLB(); value <= ub; value = pivotVar.nextValue(value)){
+        		int key = supports.key(i, value);
+        		if(supports.isValid(key))
+        			continue;
+        		if(lowerStatistics.statistic(lowerPivot, value) < this.criticalValue && 
+        		   upperStatistics.statistic(upperPivot, value) < this.criticalValue){
     				pivotVar.removeValue(value, this);
+    			}else{
+    				// a failing test on the current bounds keeps failing in the subtree
+    				supports.validate(key);
     			}
         	}
+        	// the propagator is not notified of its own bound changes
+        	changed = lowerBounds.update(i) | upperBounds.update(i);
         }
     }
 
     @Override
     public void propagate(int idxVarInProp, int mask) throws ContradictionException {
-        propagate(0);
+        if(lowerBounds.update(idxVarInProp) | upperBounds.update(idxVarInProp))
+        	forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
     }
 
     @Override
     public ESat isEntailed() {
-        /*if (vars[0].getUB() <= constant) {
-            return ESat.TRUE;
-        }
-        if (vars[0].getLB() > constant) {
-            return ESat.FALSE;
-        }
-        return ESat.UNDEFINED;*/
+    	if(!(KolmogorovSmirnovTest.KSstatisticsSingleTailedD1GeqE1(SortedBounds.sort(vars, false, sample), this.dist) < this.criticalValue) || 
+    	   !(KolmogorovSmirnovTest.KSstatisticsSingleTailedE1GeqD1(SortedBounds.sort(vars, true, sample), this.dist) < this.criticalValue))
+    		return ESat.TRUE;
+    	if(KolmogorovSmirnovTest.KSstatisticsSingleTailedD1GeqE1(SortedBounds.sort(vars, true, sample), this.dist) < this.criticalValue && 
+    	   KolmogorovSmirnovTest.KSstatisticsSingleTailedE1GeqD1(SortedBounds.sort(vars, false, sample), this.dist) < this.criticalValue)
+    		return ESat.FALSE;
     	return ESat.UNDEFINED;
     }
 
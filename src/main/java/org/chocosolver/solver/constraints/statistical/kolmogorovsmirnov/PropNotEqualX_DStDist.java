@@ -26,6 +26,8 @@
 
 package org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov;
 
+import java.util.Arrays;
+
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov.distributions.DistributionVar;
@@ -33,18 +35,40 @@ import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
-import org.chocosolver.util.iterators.DisposableValueIterator;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues.Tail;
 import org.syat.statistics.KolmogorovSmirnovTest;
 
 import umontreal.iro.lecuyer.probdist.ContinuousDistribution;
-import umontreal.iro.lecuyer.probdist.EmpiricalDist;
 
 @SuppressWarnings("serial")
 class PropNotEqualX_DStDist extends Propagator<IntVar> {
 
     private final DistributionVar dist;
     private final double confidence;
+    private final double criticalValue;
+    private final VerdictCache verdicts;
+    private final int test;
+    private final IntVar parameterVar;
+    private final int parameterIndex;
+    private final double[] parameter = new double[1];
+    
+    private final SortedBounds lowerBounds;
+    private final SortedBounds upperBounds;
+    private final double[] sample;
+    
+    /**
+     * Supports of the observation values, and of the parameter values in row {@code vars.length}
+     */
+    private final ValidSupports supports;
+    
+    /**
+     * Last parameter value that supported each observation value, shared by all of them when the 
+     * supports are not tracked
+     */
+    private final int[] residues;
 
     private static IntVar[] mergeArrays(IntVar[] var1, IntVar[] var2){
     	IntVar[] var3 = new IntVar[var1.length+var2.length];
@@ -54,6 +78,10 @@ class PropNotEqualX_DStDist extends Propagator<IntVar> {
     }
     
     public PropNotEqualX_DStDist(IntVar[] var, DistributionVar dist, double confidence) {
+        this(var, dist, confidence, new VerdictCache(0));
+    }
+    
+    public PropNotEqualX_DStDist(IntVar[] var, DistributionVar dist, double confidence, VerdictCache verdicts) {
         super(mergeArrays(var, dist.getVarParatemers()), PropagatorPriority.BINARY, true);
         if(!(dist instanceof ContinuousDistribution)) 
 			throw new SolverException("Theoretical distribution should not be discrete");
@@ -61,11 +89,26 @@ class PropNotEqualX_DStDist extends Propagator<IntVar> {
         	throw new SolverException("This propagator only supports distribution with a single parameter");
         this.dist = dist;
         this.confidence = confidence;
+        this.verdicts = verdicts;
+        this.test = verdicts.register();
+        this.parameterVar = dist.getVarParatemers()[0];
+        this.parameterIndex = vars.length - 1;
+        this.criticalValue = KolmogorovSmirnovCriticalValues.criticalValue(vars.length, this.confidence, Tail.SINGLE_TAILED);
+        this.lowerBounds = new SortedBounds(vars, false);
+        this.upperBounds = new SortedBounds(vars, true);
+        this.sample = new double[vars.length];
+        this.supports = new ValidSupports(mergeArrays(vars, new IntVar[]{parameterVar}));
+        this.residues = new int[supports.size()];
+        Arrays.fill(this.residues, parameterVar.getLB());
     }
 
     @Override
     public int getPropagationConditions(int vIdx) {
-    	return IntEventType.INSTANTIATE.getMask() + IntEventType.BOUND.getMask();
+    	if (vIdx == parameterIndex) {
+    		return IntEventType.INSTANTIATE.getMask() + IntEventType.BOUND.getMask() + IntEventType.REMOVE.getMask();
+    	} else {
+    		return IntEventType.INSTANTIATE.getMask() + IntEventType.BOUND.getMask();
+    	}
     }
 
     /**
@@ -80,95 +123,102 @@ class PropNotEqualX_DStDist extends Propagator<IntVar> {
             this.setPassive();
         }*/
         
+        if(lowerBounds.isStale())
+        	lowerBounds.refresh();
+        if(upperBounds.isStale())
+        	upperBounds.refresh();
         for(int i = 0; i < vars.length; i++){
-        	double[] samplesLB = new double[vars.length];
-        	int k = 1;
-        	for(int j = 0; j < vars.length; j++){
-        		if(j==i) 
-        			continue;
-        		else
-        			samplesLB[k++] = vars[j].getLB();
-        	}
-        	
-        	double[] samplesUB = new double[vars.length];
-        	k = 1;
-        	for(int j = 0; j < vars.length; j++){
-        		if(j==i) 
+        	IntVar pivotVar = vars[i];
+        	int ub = pivotVar.getUB();
+        	for(int value = pivotVar.getLB(); value <= ub; value = pivotVar.nextValue(value)){
+        		int key = supports.key(i, value);
+        		if(supports.isValid(key) && parameterVar.contains(residues[key]))
         			continue;
+        		lowerBounds.set(i, value);
+        		upperBounds.set(i, value);
+        		if(isSupport(residues[key]) || findSupport(key))
+        			supports.validate(key);
         		else
-        			samplesUB[k++] = vars[j].getUB();
-        	}
-        	
-        	IntVar pivotVar = vars[i];
-        	DisposableValueIterator iterator = pivotVar.getValueIterator(true);
-        	while(iterator.hasNext()){
-        		int value = iterator.next();
-        		samplesLB[0] = samplesUB[0] = value;
-        		
-        		DisposableValueIterator iteratorVar = this.dist.getVarParatemers()[0].getValueIterator(true);
-        		boolean support = false;
-        		while(iteratorVar.hasNext()){
-        			int valueVar = iteratorVar.next();
-        			this.dist.setParameters(new double[]{valueVar});
-	        		EmpiricalDist empLB = new EmpiricalDist(samplesLB);
-	        		KolmogorovSmirnovTest ksTestLBUB = new KolmogorovSmirnovTest(empLB, this.dist, this.confidence);
-	    			EmpiricalDist empUB = new EmpiricalDist(samplesUB);
-	    			KolmogorovSmirnovTest ksTestUBLB = new KolmogorovSmirnovTest(empUB, this.dist, this.confidence);
-	    			
-	    			if(!(ksTestLBUB.testD1GeqE1() && ksTestUBLB.testE1GeqD1())){
-	    				support = true;
-	    				break;
-	    			}
-        		}
-        		if(!support) pivotVar.removeValue(value, this);
+        			pivotVar.removeValue(value, this);
         	}
+        	lowerBounds.restore(i);
+        	upperBounds.restore(i);
         }
         
-        double[] samplesLB = new double[vars.length];
-    	for(int j = 0; j < vars.length; j++){
-    		samplesLB[j] = vars[j].getLB();
+        int ub = parameterVar.getUB();
+    	for(int value = parameterVar.getLB(); value <= ub; value = parameterVar.nextValue(value)){
+    		int key = supports.key(vars.length, value);
+    		if(supports.isValid(key))
+    			continue;
+    		if(passes(value)){
+    			parameterVar.removeValue(value, this);
+			}else{
+				supports.validate(key);
+			}
     	}
-    	
-    	double[] samplesUB = new double[vars.length];
-    	for(int j = 0; j < vars.length; j++){
-    		samplesUB[j] = vars[j].getUB();
+    	// the propagator is not notified of its own parameter changes
+    	lowerBounds.update(parameterIndex);
+    	upperBounds.update(parameterIndex);
+    }
+    
+    /**
+     * Checks whether a parameter value in the current domain supports the pivot value set in the bounds
+     */
+    private boolean isSupport(int value){
+    	if(!parameterVar.contains(value))
+    		return false;
+    	return !passes(value);
+    }
+    
+    /**
+     * Scans the parameter domain for a support of the pivot value set in the bounds, and records it as residue
+     */
+    private boolean findSupport(int key){
+    	int ub = parameterVar.getUB();
+    	for(int value = parameterVar.getLB(); value <= ub; value = parameterVar.nextValue(value)){
+    		if(value != residues[key] && isSupport(value)){
+    			residues[key] = value;
+    			return true;
+    		}
     	}
-    	
-    	IntVar pivotVar = this.dist.getVarParatemers()[0];
-    	DisposableValueIterator iterator = pivotVar.getValueIterator(true);
-    	while(iterator.hasNext()){
-    		int value = iterator.next();
-    		this.dist.setParameters(new double[]{value});
-    		
-    		EmpiricalDist empLB = new EmpiricalDist(samplesLB);
-    		KolmogorovSmirnovTest ksTestLBUB = new KolmogorovSmirnovTest(empLB, this.dist, this.confidence);
-    		boolean lbub = ksTestLBUB.testD1GeqE1();
-    		
-    		EmpiricalDist empUB = new EmpiricalDist(samplesUB);
-    		KolmogorovSmirnovTest ksTestUBLB = new KolmogorovSmirnovTest(empUB, this.dist, this.confidence);
-    		boolean ublb = ksTestUBLB.testE1GeqD1();
-    		
-    		if(lbub && ublb){
-				pivotVar.removeValue(value, this);
-			}
+    	return false;
+    }
+    
+    /**
+     * Checks whether both one-sided tests are passed by the sorted lower and upper bounds 
+     * for a distribution parameter.
+     */
+    private boolean passes(int value){
+    	Boolean verdict = verdicts.get(test, value, lowerBounds.values, upperBounds.values);
+    	if(verdict == null){
+    		setParameter(value);
+    		verdict = KolmogorovSmirnovTest.KSstatisticsSingleTailedD1GeqE1(lowerBounds.values, this.dist) < this.criticalValue && 
+    				  KolmogorovSmirnovTest.KSstatisticsSingleTailedE1GeqD1(upperBounds.values, this.dist) < this.criticalValue;
+    		verdicts.put(test, value, lowerBounds.values, upperBounds.values, verdict);
     	}
+    	return verdict;
+    }
+    
+    private void setParameter(double value){
+    	this.parameter[0] = value;
+    	this.dist.setParameters(this.parameter);
     }
 
     @Override
     public void propagate(int idxVarInProp, int mask) throws ContradictionException {
-        propagate(0);
+        if((lowerBounds.update(idxVarInProp) | upperBounds.update(idxVarInProp)) || idxVarInProp == parameterIndex)
+        	forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
     }
 
     @Override
     public ESat isEntailed() {
-        /*if (vars[0].getUB() <= constant) {
-            return ESat.TRUE;
-        }
-        if (vars[0].getLB() > constant) {
-            return ESat.FALSE;
-        }
-        return ESat.UNDEFINED;*/
-    	return ESat.UNDEFINED;
+    	// the parameter is also an observation, hence the tests are not monotone in the bounds
+    	if(!isCompletelyInstantiated())
+    		return ESat.UNDEFINED;
+    	setParameter(parameterVar.getValue());
+    	SortedBounds.sort(vars, true, sample);
+    	return ESat.eval(!(KolmogorovSmirnovTest.KSstatisticsSingleTailedD1GeqE1(sample, this.dist) < this.criticalValue && 
+    			           KolmogorovSmirnovTest.KSstatisticsSingleTailedE1GeqD1(sample, this.dist) < this.criticalValue));
     }
 
     @Override
@@ -32,11 +32,11 @@ import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues.Tail;
 import org.syat.statistics.KolmogorovSmirnovTestTwoSamples;
-import org.chocosolver.util.iterators.DisposableValueIterator;
-
-import umontreal.iro.lecuyer.probdist.EmpiricalDist;
 
 @SuppressWarnings("serial")
 class PropNotEqualX_YStDist extends Propagator<IntVar> {
@@ -44,6 +44,17 @@ class PropNotEqualX_YStDist extends Propagator<IntVar> {
     final IntVar[] x;
     final IntVar[] y;
     final double confidence;
+    private final double criticalValue;
+    private final VerdictCache verdicts;
+    private final int testXY;
+    private final int testYX;
+    
+    private final SortedBounds lowerBoundsX;
+    private final SortedBounds upperBoundsX;
+    private final SortedBounds lowerBoundsY;
+    private final SortedBounds upperBoundsY;
+    private final double[] sampleX;
+    private final double[] sampleY;
 
     private static IntVar[] mergeArrays(IntVar[] var1, IntVar[] var2){
     	IntVar[] var3 = new IntVar[var1.length+var2.length];
@@ -53,12 +64,37 @@ class PropNotEqualX_YStDist extends Propagator<IntVar> {
     }
     
     public PropNotEqualX_YStDist(IntVar[] var1, IntVar[] var2, double confidence) {
+        this(var1, var2, confidence, new VerdictCache(0));
+    }
+    
+    public PropNotEqualX_YStDist(IntVar[] var1, IntVar[] var2, double confidence, VerdictCache verdicts) {
+        this(var1, var2, confidence, verdicts, KolmogorovSmirnovCriticalValues.EXACT);
+    }
+    
+    /**
+     * @param var1 first sample
+     * @param var2 second sample
+     * @param confidence test confidence level
+     * @param verdicts verdict cache
+     * @param asymptoticThreshold smallest effective sample size for which the critical value is computed on the asymptotic distribution
+     */
+    public PropNotEqualX_YStDist(IntVar[] var1, IntVar[] var2, double confidence, VerdictCache verdicts, int asymptoticThreshold) {
         super(mergeArrays(var1, var2), PropagatorPriority.BINARY, true);
         if(var1.length == 1 || var2.length == 1)
         	throw new SolverException("Cannot propagate statistically on single observations");
         this.x = var1;
         this.y = var2;
         this.confidence = confidence;
+        this.verdicts = verdicts;
+        this.testXY = verdicts.register();
+        this.testYX = verdicts.register();
+        this.criticalValue = KolmogorovSmirnovCriticalValues.criticalValue(var1.length, var2.length, this.confidence, Tail.SINGLE_TAILED, asymptoticThreshold);
+        this.lowerBoundsX = new SortedBounds(var1, false);
+        this.upperBoundsX = new SortedBounds(var1, true);
+        this.lowerBoundsY = new SortedBounds(var2, false);
+        this.upperBoundsY = new SortedBounds(var2, true);
+        this.sampleX = new double[var1.length];
+        this.sampleY = new double[var2.length];
     }
 
     @Override
@@ -77,103 +113,67 @@ class PropNotEqualX_YStDist extends Propagator<IntVar> {
      * @throws ContradictionException
      */
     private void propagateTwoSampleKSTestDist(int evtmask) throws ContradictionException {
+    	if(lowerBoundsX.isStale())
+    		lowerBoundsX.refresh();
+    	if(upperBoundsX.isStale())
+    		upperBoundsX.refresh();
+    	if(lowerBoundsY.isStale())
+    		lowerBoundsY.refresh();
+    	if(upperBoundsY.isStale())
+    		upperBoundsY.refresh();
     	for(int i = 0; i < this.x.length; i++){
-    		double[] samplesXLB = new double[x.length];
-        	int k = 1;
-        	for(int j = 0; j < x.length; j++){
-        		if(j==i) 
-        			continue;
-        		else
-        			samplesXLB[k++] = x[j].getLB();
-        	}
-        	double[] samplesXUB = new double[x.length];
-        	k = 1;
-        	for(int j = 0; j < x.length; j++){
-        		if(j==i) 
-        			continue;
-        		else
-        			samplesXUB[k++] = x[j].getUB();
-        	}
-        	double[] samplesYLB = new double[y.length];
-        	for(int j = 0; j < y.length; j++){
-        		samplesYLB[j] = y[j].getLB();
-        	}
-        	double[] samplesYUB = new double[y.length];
-        	for(int j = 0; j < y.length; j++){
-        		samplesYUB[j] = y[j].getUB();
-        	}
-        	
-        	IntVar pivotVar = x[i];
-        	DisposableValueIterator iterator = pivotVar.getValueIterator(true);
-        	while(iterator.hasNext()){
-        		int value = iterator.next();
-        		samplesXLB[0] = samplesXUB[0] = value;
-        		EmpiricalDist empXLB = new EmpiricalDist(samplesXLB);
-        		EmpiricalDist empYUB = new EmpiricalDist(samplesYUB);
-        		KolmogorovSmirnovTestTwoSamples ksTestXLBYUB = new KolmogorovSmirnovTestTwoSamples(empXLB, empYUB, this.confidence);
-    			EmpiricalDist empXUB = new EmpiricalDist(samplesXUB);
-    			EmpiricalDist empYLB = new EmpiricalDist(samplesYLB);
-    			KolmogorovSmirnovTestTwoSamples ksTestXUBYLB = new KolmogorovSmirnovTestTwoSamples(empYLB, empXUB, this.confidence);
-    			
-    			if(ksTestXLBYUB.testE2GeqE1() && ksTestXUBYLB.testE2GeqE1()){
-    				pivotVar.removeValue(value, this);
-    			}	
-        	}
+    		filterPivot(x[i], i, lowerBoundsX, upperBoundsX);
         }
-    	
     	for(int i = 0; i < this.y.length; i++){
-    		double[] samplesYLB = new double[y.length];
-        	int k = 1;
-        	for(int j = 0; j < y.length; j++){
-        		if(j==i) 
-        			continue;
-        		else
-        			samplesYLB[k++] = y[j].getLB();
-        	}
-        	double[] samplesYUB = new double[y.length];
-        	k = 1;
-        	for(int j = 0; j < y.length; j++){
-        		if(j==i) 
-        			continue;
-        		else
-        			samplesYUB[k++] = y[j].getUB();
-        	}
-        	double[] samplesXLB = new double[x.length];
-        	for(int j = 0; j < x.length; j++){
-        		samplesYLB[j] = x[j].getLB();
-        	}
-        	double[] samplesXUB = new double[x.length];
-        	for(int j = 0; j < x.length; j++){
-        		samplesYUB[j] = x[j].getUB();
-        	}
-        	
-        	IntVar pivotVar = y[i];
-        	DisposableValueIterator iterator = pivotVar.getValueIterator(true);
-        	while(iterator.hasNext()){
-        		int value = iterator.next();
-        		samplesYLB[0] = samplesYUB[0] = value;
-        		EmpiricalDist empXLB = new EmpiricalDist(samplesXLB);
-        		EmpiricalDist empYUB = new EmpiricalDist(samplesYUB);
-        		KolmogorovSmirnovTestTwoSamples ksTestXLBYUB = new KolmogorovSmirnovTestTwoSamples(empXLB, empYUB, this.confidence);
-    			EmpiricalDist empXUB = new EmpiricalDist(samplesXUB);
-    			EmpiricalDist empYLB = new EmpiricalDist(samplesYLB);
-    			KolmogorovSmirnovTestTwoSamples ksTestXUBYLB = new KolmogorovSmirnovTestTwoSamples(empYLB, empXUB, this.confidence);
-    			
-    			if(ksTestXLBYUB.testE2GeqE1() && ksTestXUBYLB.testE2GeqE1()){
-    				pivotVar.removeValue(value, this);
-    			}	
-        	}
+    		filterPivot(y[i], i, lowerBoundsY, upperBoundsY);
         }
     }
     
+    /**
+     * Removes the values of {@code pivotVar} for which both tests are passed; the pivot 
+     * observation is moved within the sorted bounds of its own sample.
+     */
+    private void filterPivot(IntVar pivotVar, int i, SortedBounds lowerBounds, SortedBounds upperBounds) throws ContradictionException {
+    	int ub = pivotVar.getUB();
+    	for(int value = pivotVar.getLB(); value <= ub; value = pivotVar.nextValue(value)){
+    		lowerBounds.set(i, value);
+    		upperBounds.set(i, value);
+    		
+    		if(passes(testXY, lowerBoundsX.values, upperBoundsY.values) && passes(testYX, lowerBoundsY.values, upperBoundsX.values)){
+				pivotVar.removeValue(value, this);
+			}
+    	}
+    	lowerBounds.restore(i);
+    	upperBounds.restore(i);
+    }
+    
+    private boolean passes(int test, double[] sortedA, double[] sortedB){
+    	Boolean verdict = verdicts.get(test, 0, sortedA, sortedB);
+    	if(verdict == null){
+    		verdict = KolmogorovSmirnovTestTwoSamples.KSstatisticsSingleTailedE2GeqE1(sortedA, sortedB) < this.criticalValue;
+    		verdicts.put(test, 0, sortedA, sortedB, verdict);
+    	}
+    	return verdict;
+    }
+    
     @Override
     public void propagate(int varIdx, int mask) throws ContradictionException {
-        propagate(0);
+    	boolean changed = varIdx < x.length ? 
+    			lowerBoundsX.update(varIdx) | upperBoundsX.update(varIdx) : 
+    			lowerBoundsY.update(varIdx - x.length) | upperBoundsY.update(varIdx - x.length);
+    	if(changed)
+    		forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
     }
 
     @Override
     public ESat isEntailed() {
-        return ESat.UNDEFINED;
+    	// observations that coincide pass the test trivially, hence the test is not monotone in the bounds
+    	if(!isCompletelyInstantiated())
+    		return ESat.UNDEFINED;
+    	double[] sortedX = SortedBounds.sort(x, false, sampleX);
+    	double[] sortedY = SortedBounds.sort(y, false, sampleY);
+    	return ESat.eval(!(KolmogorovSmirnovTestTwoSamples.KSstatisticsSingleTailedE2GeqE1(sortedX, sortedY) < this.criticalValue && 
+    	                   KolmogorovSmirnovTestTwoSamples.KSstatisticsSingleTailedE2GeqE1(sortedY, sortedX) < this.criticalValue));
     }
 
 
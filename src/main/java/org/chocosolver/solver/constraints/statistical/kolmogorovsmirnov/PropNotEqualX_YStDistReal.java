@@ -0,0 +1,102 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.RealVar;
+import org.chocosolver.solver.variables.events.RealEventType;
+import org.chocosolver.util.ESat;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues.Tail;
+import org.syat.statistics.KolmogorovSmirnovTestTwoSamples;
+
+/**
+ * Real counterpart of {@link PropNotEqualX_YStDist}. The two-sample statistics are not monotone 
+ * in the bounds, and removing passing values would split the intervals of real variables, hence 
+ * the propagator only checks instantiated samples.
+ */
+@SuppressWarnings("serial")
+class PropNotEqualX_YStDistReal extends Propagator<RealVar> {
+
+    final RealVar[] x;
+    final RealVar[] y;
+    final double confidence;
+    private final double criticalValue;
+    
+    private final double[] sampleX;
+    private final double[] sampleY;
+
+    private static RealVar[] mergeArrays(RealVar[] var1, RealVar[] var2){
+    	RealVar[] var3 = new RealVar[var1.length+var2.length];
+    	System.arraycopy(var1, 0, var3, 0, var1.length);
+    	System.arraycopy(var2, 0, var3, var1.length, var2.length);
+    	return var3;
+    }
+    
+    public PropNotEqualX_YStDistReal(RealVar[] var1, RealVar[] var2, double confidence) {
+        super(mergeArrays(var1, var2), PropagatorPriority.BINARY, false);
+        if(var1.length == 1 || var2.length == 1)
+        	throw new SolverException("Cannot propagate statistically on single observations");
+        this.x = var1;
+        this.y = var2;
+        this.confidence = confidence;
+        this.criticalValue = KolmogorovSmirnovCriticalValues.criticalValue(var1.length, var2.length, this.confidence, Tail.SINGLE_TAILED);
+        this.sampleX = new double[var1.length];
+        this.sampleY = new double[var2.length];
+    }
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+    	return RealEventType.BOUND.getMask();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+    	if(isEntailed() == ESat.FALSE)
+    		this.contradiction(null, "both tests are passed");
+    }
+
+    @Override
+    public ESat isEntailed() {
+    	if(!isCompletelyInstantiated())
+    		return ESat.UNDEFINED;
+    	double[] sortedX = SortedBounds.sort(x, false, sampleX);
+    	double[] sortedY = SortedBounds.sort(y, false, sampleY);
+    	return ESat.eval(!(KolmogorovSmirnovTestTwoSamples.KSstatisticsSingleTailedE2GeqE1(sortedX, sortedY) < this.criticalValue && 
+    	                   KolmogorovSmirnovTestTwoSamples.KSstatisticsSingleTailedE2GeqE1(sortedY, sortedX) < this.criticalValue));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder bf = new StringBuilder();
+        bf.append("prop(").append(vars[0].getName()).append(".NEQ.").append(vars[1].getName()).append(")");
+        return bf.toString();
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov;
+
+import java.io.Serializable;
+
+/**
+ * Search for the tightest bound of a real pivot observation. 
+ * 
+ * As in {@link PivotSearch}, the values that pass a one-sided test form an interval of the pivot 
+ * domain; its end point is located by bisection down to the precision of the variable. The bound 
+ * returned is the failing end of the last bracket, so that no passing value is ever removed. An 
+ * infinite end of the domain is first bracketed by doubling the distance from a finite value.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+@SuppressWarnings("serial")
+abstract class RealPivotSearch implements Serializable {
+	
+	/**
+	 * Checks whether the test is passed when the pivot observation takes {@code value}.
+	 * 
+	 * @param value candidate value for the pivot observation
+	 * @return true if the test is passed
+	 */
+	abstract boolean passes(double value);
+	
+	/**
+	 * Lower bound of the passing values, when they form an upper interval of {@code [lb, ub]}.
+	 * 
+	 * @param lb a value that does not pass the test
+	 * @param ub pivot upper bound
+	 * @param precision width of the last bracket
+	 * @return a value within {@code precision} of the smallest passing value and not above it, 
+	 * positive infinity if no value passes
+	 */
+	double smallestPassingValue(double lb, double ub, double precision){
+		if(!passes(ub))
+			return Double.POSITIVE_INFINITY;
+		double failing = lb;
+		double passing = ub;
+		double start = Double.isInfinite(failing) ? 0 : failing;
+		for(double step = 1; passing == Double.POSITIVE_INFINITY && start + step < passing; step *= 2){
+			if(passes(start + step))
+				passing = start + step;
+			else
+				failing = start + step;
+		}
+		for(double step = 1; failing == Double.NEGATIVE_INFINITY && passing - step > failing; step *= 2){
+			if(passes(passing - step))
+				passing -= step;
+			else
+				failing = passing - step;
+		}
+		while(passing - failing > precision){
+			double mid = failing/2 + passing/2;
+			if(mid <= failing || mid >= passing) break;
+			if(passes(mid))
+				passing = mid;
+			else
+				failing = mid;
+		}
+		return failing;
+	}
+	
+	/**
+	 * Upper bound of the passing values, when they form a lower interval of {@code [lb, ub]}.
+	 * 
+	 * @param lb pivot lower bound
+	 * @param ub a value that does not pass the test
+	 * @param precision width of the last bracket
+	 * @return a value within {@code precision} of the largest passing value and not below it, 
+	 * negative infinity if no value passes
+	 */
+	double largestPassingValue(double lb, double ub, double precision){
+		if(!passes(lb))
+			return Double.NEGATIVE_INFINITY;
+		double passing = lb;
+		double failing = ub;
+		double start = Double.isInfinite(passing) ? 0 : passing;
+		for(double step = 1; failing == Double.POSITIVE_INFINITY && start + step < failing; step *= 2){
+			if(passes(start + step))
+				passing = start + step;
+			else
+				failing = start + step;
+		}
+		for(double step = 1; passing == Double.NEGATIVE_INFINITY && failing - step > passing; step *= 2){
+			if(passes(failing - step))
+				passing = failing - step;
+			else
+				failing -= step;
+		}
+		while(failing - passing > precision){
+			double mid = passing/2 + failing/2;
+			if(mid <= passing || mid >= failing) break;
+			if(passes(mid))
+				passing = mid;
+			else
+				failing = mid;
+		}
+		return failing;
+	}
+}
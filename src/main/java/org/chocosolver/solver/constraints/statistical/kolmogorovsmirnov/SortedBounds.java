@@ -0,0 +1,327 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.RealVar;
+
+/**
+ * Lower or upper bounds of a list of variables, sorted in a preallocated array.
+ * 
+ * The index is maintained incrementally: a bound event moves a single entry to its new position. 
+ * A backtrackable stamp records the last synchronisation; when a backtrack restores an older stamp, 
+ * bounds are reloaded in the order in which they were last sorted, so that an insertion sort 
+ * restores the ordering in close to linear time, and without allocating. When the initial domains 
+ * span a small range of integers, bounds are instead reloaded by a counting sort over a histogram 
+ * of that range, in linear time regardless of how much the ordering changed. The index applies 
+ * to integer or to real variables.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+@SuppressWarnings("serial")
+final class SortedBounds implements Serializable {
+	
+	private final IntVar[] vars;
+	private final RealVar[] realVars;
+	private final boolean upper;
+	private final int[] order;
+	private final int[] position;
+	
+	private final IStateInt stamp;
+	private int counter;
+	
+	/**
+	 * Histogram of the bounds over {@code [offset, offset + counts.length)}, null if the range is too wide
+	 */
+	private final int[] counts;
+	private final int offset;
+	
+	/**
+	 * Widest range, relative to the number of variables, for which bounds are reloaded by counting sort
+	 */
+	private static final int COUNTING_SORT_RANGE_FACTOR = 8;
+	
+	/**
+	 * Sorted bounds
+	 */
+	final double[] values;
+	
+	/**
+	 * @param vars the variables
+	 * @param upper true to sort upper bounds, false to sort lower bounds
+	 */
+	SortedBounds(IntVar[] vars, boolean upper){
+		this(vars, null, vars.length, upper);
+	}
+	
+	/**
+	 * @param vars the real variables
+	 * @param upper true to sort upper bounds, false to sort lower bounds
+	 */
+	SortedBounds(RealVar[] vars, boolean upper){
+		this(null, vars, vars.length, upper);
+	}
+	
+	private SortedBounds(IntVar[] vars, RealVar[] realVars, int n, boolean upper){
+		this.vars = vars;
+		this.realVars = realVars;
+		this.upper = upper;
+		this.order = new int[n];
+		this.position = new int[n];
+		this.values = new double[n];
+		for(int i = 0; i < n; i++){
+			this.order[i] = i;
+			this.position[i] = i;
+		}
+		this.stamp = (vars != null ? vars[0] : realVars[0]).getSolver().getEnvironment().makeInt(-1);
+		if(vars == null){
+			this.offset = 0;
+			this.counts = null;
+			return;
+		}
+		int min = Integer.MAX_VALUE;
+		int max = Integer.MIN_VALUE;
+		for(IntVar var : vars){
+			min = Math.min(min, var.getLB());
+			max = Math.max(max, var.getUB());
+		}
+		this.offset = min;
+		this.counts = (long) max - min < (long) COUNTING_SORT_RANGE_FACTOR * vars.length ? new int[max - min + 1] : null;
+	}
+	
+	/**
+	 * Current bound of variable {@code i}
+	 * 
+	 * @param i variable index
+	 * @return the lower or upper bound of variable {@code i}
+	 */
+	double bound(int i){
+		if(realVars != null)
+			return upper ? realVars[i].getUB() : realVars[i].getLB();
+		return upper ? vars[i].getUB() : vars[i].getLB();
+	}
+	
+	/**
+	 * Position of the observation of variable {@code i} in the sorted values
+	 * 
+	 * @param i variable index
+	 * @return the position of variable {@code i}
+	 */
+	int position(int i){
+		return position[i];
+	}
+	
+	/**
+	 * Checks whether the sorted values may differ from the current bounds, either because they 
+	 * have never been loaded, or because a backtrack or an interrupted probe occurred since the 
+	 * last synchronisation.
+	 * 
+	 * @return true if the sorted values must be reloaded
+	 */
+	boolean isStale(){
+		return stamp.get() != counter;
+	}
+	
+	/**
+	 * Reloads the current bounds of the variables and sorts them.
+	 */
+	void refresh(){
+		if(counts != null){
+			countingSort();
+			synchronise();
+			return;
+		}
+		for(int k = 0; k < order.length; k++){
+			int i = order[k];
+			double value = bound(i);
+			int j = k;
+			while(j > 0 && values[j-1] > value){
+				values[j] = values[j-1];
+				order[j] = order[j-1];
+				position[order[j]] = j;
+				j--;
+			}
+			values[j] = value;
+			order[j] = i;
+			position[i] = j;
+		}
+		synchronise();
+	}
+	
+	/**
+	 * Brings the bound of variable {@code i} up to date, reloading all bounds if the sorted 
+	 * values are stale.
+	 * 
+	 * @param i variable index
+	 * @return true if the sorted values changed
+	 */
+	boolean update(int i){
+		if(isStale()){
+			refresh();
+			return true;
+		}
+		double value = bound(i);
+		if(values[position[i]] == value)
+			return false;
+		move(i, value);
+		synchronise();
+		return true;
+	}
+	
+	/**
+	 * Temporarily sets the observation of variable {@code i} to {@code value}, keeping the values 
+	 * sorted; the observation must then be reset by {@link #restore(int)}. 
+	 * 
+	 * @param i variable index
+	 * @param value probe value
+	 */
+	void set(int i, double value){
+		counter++;
+		move(i, value);
+	}
+	
+	/**
+	 * Resets the observation of variable {@code i} to its current bound after a probe.
+	 * 
+	 * @param i variable index
+	 */
+	void restore(int i){
+		move(i, bound(i));
+		synchronise();
+	}
+	
+	/**
+	 * Copies the current bounds of {@code vars} into {@code buffer} and sorts them, independently 
+	 * of any index.
+	 * 
+	 * @param vars the variables
+	 * @param upper true to sort upper bounds, false to sort lower bounds
+	 * @param buffer array of the same length as {@code vars}
+	 * @return {@code buffer}
+	 */
+	static double[] sort(IntVar[] vars, boolean upper, double[] buffer){
+		for(int i = 0; i < vars.length; i++){
+			buffer[i] = upper ? vars[i].getUB() : vars[i].getLB();
+		}
+		Arrays.sort(buffer);
+		return buffer;
+	}
+	
+	/**
+	 * Copies the current bounds of real {@code vars} into {@code buffer} and sorts them.
+	 * 
+	 * @param vars the real variables
+	 * @param upper true to sort upper bounds, false to sort lower bounds
+	 * @param buffer array of the same length as {@code vars}
+	 * @return {@code buffer}
+	 */
+	static double[] sort(RealVar[] vars, boolean upper, double[] buffer){
+		for(int i = 0; i < vars.length; i++){
+			buffer[i] = upper ? vars[i].getUB() : vars[i].getLB();
+		}
+		Arrays.sort(buffer);
+		return buffer;
+	}
+	
+	/**
+	 * Copies {@code sorted} into {@code buffer}, replacing the value at {@code position} by 
+	 * {@code value} and keeping the copy sorted; {@code sorted} is not modified.
+	 * 
+	 * @param sorted values sorted in increasing order
+	 * @param position position of the replaced value
+	 * @param value replacing value
+	 * @param buffer array of the same length as {@code sorted}
+	 * @return {@code buffer}
+	 */
+	static double[] replace(double[] sorted, int position, double value, double[] buffer){
+		int k = 0;
+		boolean placed = false;
+		for(int j = 0; j < sorted.length; j++){
+			if(j == position)
+				continue;
+			if(!placed && sorted[j] > value){
+				buffer[k++] = value;
+				placed = true;
+			}
+			buffer[k++] = sorted[j];
+		}
+		if(!placed)
+			buffer[k] = value;
+		return buffer;
+	}
+	
+	/**
+	 * Counts the bounds, turns the counts into the first position of each value, and places 
+	 * each variable at the next free position of its bound.
+	 */
+	private void countingSort(){
+		Arrays.fill(counts, 0);
+		for(int i = 0; i < vars.length; i++){
+			counts[(int) bound(i) - offset]++;
+		}
+		for(int v = 0, first = 0; v < counts.length; v++){
+			int count = counts[v];
+			counts[v] = first;
+			first += count;
+		}
+		for(int i = 0; i < vars.length; i++){
+			int value = (int) bound(i);
+			int k = counts[value - offset]++;
+			values[k] = value;
+			order[k] = i;
+			position[i] = k;
+		}
+	}
+	
+	private void synchronise(){
+		stamp.set(++counter);
+	}
+	
+	private void move(int i, double value){
+		int k = position[i];
+		while(k + 1 < values.length && values[k+1] < value){
+			values[k] = values[k+1];
+			order[k] = order[k+1];
+			position[order[k]] = k;
+			k++;
+		}
+		while(k > 0 && values[k-1] > value){
+			values[k] = values[k-1];
+			order[k] = order[k-1];
+			position[order[k]] = k;
+			k--;
+		}
+		values[k] = value;
+		order[k] = i;
+		position[i] = k;
+	}
+}
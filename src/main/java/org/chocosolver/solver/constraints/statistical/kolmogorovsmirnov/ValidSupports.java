@@ -0,0 +1,135 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.variables.IntVar;
+
+/**
+ * Values of a list of variables whose support is known to hold in the current subtree.
+ * 
+ * A support for the one-sided statistics is a failing test on the current bounds, and bounds only 
+ * tighten in a subtree, hence a support that is found once remains valid until a backtrack. 
+ * Validated values are pushed on a stack whose size is backtrackable, so that a backtrack forgets 
+ * the values validated below the restored world, without any trailing per value.
+ * 
+ * When the initial domains hold more than {@link #MAX_SIZE} values in total, no pair is tracked: 
+ * every pair maps to the same identifier and is never valid, so that supports are checked again 
+ * on every propagation.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+@SuppressWarnings("serial")
+final class ValidSupports implements Serializable {
+	
+	/**
+	 * Largest number of (variable, value) pairs that are tracked
+	 */
+	static final int MAX_SIZE = 1 << 22;
+	
+	private final boolean tracked;
+	private final int[] offsets;
+	private final int[] starts;
+	private final int[] positions;
+	private int[] stack;
+	private final IStateInt size;
+	
+	/**
+	 * @param vars the variables; values are limited to their initial domains
+	 */
+	ValidSupports(IntVar[] vars){
+		long pairs = 0;
+		for(IntVar var : vars)
+			pairs += (long)var.getUB() - var.getLB() + 1;
+		this.tracked = pairs <= MAX_SIZE;
+		this.offsets = new int[vars.length];
+		this.starts = new int[vars.length + 1];
+		if(tracked){
+			for(int i = 0; i < vars.length; i++){
+				this.offsets[i] = vars[i].getLB();
+				this.starts[i + 1] = this.starts[i] + vars[i].getUB() - vars[i].getLB() + 1;
+			}
+		}
+		this.positions = new int[tracked ? (int)pairs : 1];
+		this.stack = new int[tracked ? (int)pairs : 1];
+		this.size = vars[0].getSolver().getEnvironment().makeInt(0);
+	}
+	
+	/**
+	 * Number of pair identifiers, one per (variable, value) pair unless the pairs are not tracked
+	 * 
+	 * @return the number of pair identifiers
+	 */
+	int size(){
+		return positions.length;
+	}
+	
+	/**
+	 * Identifier of a (variable, value) pair, within {@code [0, size())}
+	 * 
+	 * @param i variable index
+	 * @param value a value in the initial domain of variable {@code i}
+	 * @return the pair identifier
+	 */
+	int key(int i, int value){
+		return tracked ? starts[i] + value - offsets[i] : 0;
+	}
+	
+	/**
+	 * Checks whether the support of a pair was validated in the current world or in one of its ancestors
+	 * 
+	 * @param key pair identifier
+	 * @return true if the support is still valid
+	 */
+	boolean isValid(int key){
+		if(!tracked)
+			return false;
+		int position = positions[key];
+		return position < size.get() && stack[position] == key;
+	}
+	
+	/**
+	 * Records that the support of a pair holds in the current subtree; a pair may be validated 
+	 * again, when its previous support is lost.
+	 * 
+	 * @param key pair identifier
+	 */
+	void validate(int key){
+		if(!tracked)
+			return;
+		int position = size.get();
+		if(position == stack.length)
+			stack = Arrays.copyOf(stack, 2*stack.length);
+		stack[position] = key;
+		positions[key] = position;
+		size.set(position + 1);
+	}
+}
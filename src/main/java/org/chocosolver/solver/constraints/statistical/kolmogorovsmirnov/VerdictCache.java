@@ -0,0 +1,218 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded least-recently-used memo of Kolmogorov-Smirnov test verdicts.
+ * 
+ * Observations are exchangeable, hence a verdict only depends on the sorted sample, on the second 
+ * sample or on the distribution parameter, and on the test; the same sorted bounds recur across 
+ * propagations, pivots and search nodes. Samples are copied when a verdict is stored and compared 
+ * in full on lookup, so that hash collisions cannot produce a wrong verdict. A cache is shared by 
+ * the propagators of a constraint, which tell their tests apart by the identifier returned by 
+ * {@link #register()}.
+ * 
+ * Each miss allocates a key and copies the samples, which only pays off when sorted bounds 
+ * actually recur; constraints therefore create their cache with capacity 0, and lookups on a 
+ * disabled cache return immediately.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+@SuppressWarnings("serial")
+public final class VerdictCache implements Serializable {
+	
+	/**
+	 * Default number of verdicts retained
+	 */
+	public static final int DEFAULT_CAPACITY = 4096;
+	
+	private int capacity;
+	private int tests;
+	private long hits;
+	private long misses;
+	
+	private final LinkedHashMap<Key, Boolean> verdicts = new LinkedHashMap<Key, Boolean>(16, 0.75f, true){
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Boolean> eldest){
+			return size() > capacity;
+		}
+	};
+	
+	private final Key probe = new Key();
+	
+	/**
+	 * Cache with the default capacity
+	 */
+	public VerdictCache(){
+		this(DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * @param capacity number of verdicts retained; 0 disables the cache
+	 */
+	public VerdictCache(int capacity){
+		setCapacity(capacity);
+	}
+	
+	/**
+	 * Sets the number of verdicts retained; exceeding verdicts are evicted on the next insertion.
+	 * 
+	 * @param capacity number of verdicts retained; 0 disables the cache
+	 */
+	public void setCapacity(int capacity){
+		if(capacity < 0)
+			throw new IllegalArgumentException("Negative capacity");
+		this.capacity = capacity;
+	}
+	
+	/**
+	 * @return the number of verdicts retained
+	 */
+	public int getCapacity(){
+		return capacity;
+	}
+	
+	/**
+	 * @return the number of verdicts currently stored
+	 */
+	public int size(){
+		return verdicts.size();
+	}
+	
+	/**
+	 * @return the number of lookups that found a verdict
+	 */
+	public long getHits(){
+		return hits;
+	}
+	
+	/**
+	 * @return the number of lookups that did not find a verdict
+	 */
+	public long getMisses(){
+		return misses;
+	}
+	
+	/**
+	 * Discards all verdicts and resets the counters.
+	 */
+	public void clear(){
+		verdicts.clear();
+		hits = 0;
+		misses = 0;
+	}
+	
+	@Override
+	public String toString(){
+		return "VerdictCache(size "+verdicts.size()+"/"+capacity+", hits "+hits+", misses "+misses+")";
+	}
+	
+	/**
+	 * Reserves an identifier for a test whose verdicts are stored in this cache.
+	 * 
+	 * @return the test identifier
+	 */
+	int register(){
+		return tests++;
+	}
+	
+	/**
+	 * Looks up a verdict.
+	 * 
+	 * @param test test identifier
+	 * @param parameter distribution parameter, 0 if not applicable
+	 * @param sample1 first sorted sample
+	 * @param sample2 second sorted sample, null if not applicable
+	 * @return the verdict, null if it is not stored
+	 */
+	Boolean get(int test, double parameter, double[] sample1, double[] sample2){
+		if(capacity == 0)
+			return null;
+		probe.set(test, parameter, sample1, sample2);
+		Boolean verdict = verdicts.get(probe);
+		probe.set(0, 0, null, null);
+		if(verdict == null)
+			misses++;
+		else
+			hits++;
+		return verdict;
+	}
+	
+	/**
+	 * Stores a verdict; the samples are copied.
+	 * 
+	 * @param test test identifier
+	 * @param parameter distribution parameter, 0 if not applicable
+	 * @param sample1 first sorted sample
+	 * @param sample2 second sorted sample, null if not applicable
+	 * @param verdict true if the test is passed
+	 */
+	void put(int test, double parameter, double[] sample1, double[] sample2, boolean verdict){
+		if(capacity == 0)
+			return;
+		Key key = new Key();
+		key.set(test, parameter, sample1.clone(), sample2 == null ? null : sample2.clone());
+		verdicts.put(key, verdict);
+	}
+	
+	private static final class Key implements Serializable {
+		
+		private int test;
+		private double parameter;
+		private double[] sample1;
+		private double[] sample2;
+		private int hash;
+		
+		void set(int test, double parameter, double[] sample1, double[] sample2){
+			this.test = test;
+			this.parameter = parameter;
+			this.sample1 = sample1;
+			this.sample2 = sample2;
+			this.hash = 31*(31*(31*test + Double.hashCode(parameter)) + Arrays.hashCode(sample1)) + Arrays.hashCode(sample2);
+		}
+		
+		@Override
+		public int hashCode(){
+			return hash;
+		}
+		
+		@Override
+		public boolean equals(Object other){
+			if(!(other instanceof Key))
+				return false;
+			Key key = (Key) other;
+			return hash == key.hash && test == key.test && Double.compare(parameter, key.parameter) == 0 && 
+				   Arrays.equals(sample1, key.sample1) && Arrays.equals(sample2, key.sample2);
+		}
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov.distributions;
+
+import java.io.Serializable;
+
+import umontreal.iro.lecuyer.probdist.Distribution;
+
+/**
+ * Memoised cdf of a distribution with a single integer parameter, at the integer points of a support range.
+ * 
+ * Rows are filled lazily, the first time a parameter value is set, and they are kept for the whole search.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+@SuppressWarnings("serial")
+final class CdfTable implements Serializable {
+	
+	private final int parameterLB;
+	private final int supportLB;
+	private final int supportUB;
+	private final double[][] rows;
+	
+	/**
+	 * @param parameterLB smallest parameter value
+	 * @param parameterUB largest parameter value
+	 * @param supportLB smallest cached point
+	 * @param supportUB largest cached point
+	 */
+	CdfTable(int parameterLB, int parameterUB, int supportLB, int supportUB){
+		this.parameterLB = parameterLB;
+		this.supportLB = supportLB;
+		this.supportUB = supportUB;
+		this.rows = new double[parameterUB - parameterLB + 1][];
+	}
+	
+	/**
+	 * Cdf values of {@code dist} at the cached points, for a given parameter value.
+	 * 
+	 * @param parameter the parameter value currently set in {@code dist}
+	 * @param dist the distribution, which must evaluate its cdf directly while the row is computed
+	 * @return the cached cdf values, null if {@code parameter} is not an integer within the parameter range
+	 */
+	double[] row(double parameter, Distribution dist){
+		int k = index(parameter, parameterLB, parameterLB + rows.length - 1);
+		if(k < 0)
+			return null;
+		if(rows[k] == null){
+			double[] row = new double[supportUB - supportLB + 1];
+			for(int i = 0; i < row.length; i++){
+				row[i] = dist.cdf(supportLB + i);
+			}
+			rows[k] = row;
+		}
+		return rows[k];
+	}
+	
+	/**
+	 * Position of {@code x} in a row.
+	 * 
+	 * @param x the point
+	 * @return the position of {@code x}, -1 if {@code x} is not an integer within the support range
+	 */
+	int index(double x){
+		return index(x, supportLB, supportUB);
+	}
+	
+	private static int index(double x, int lb, int ub){
+		int k = (int) x;
+		return (k == x && k >= lb && k <= ub) ? k - lb : -1;
+	}
+}
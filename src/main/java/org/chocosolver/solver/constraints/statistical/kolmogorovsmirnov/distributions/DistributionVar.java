@@ -37,6 +37,24 @@ import umontreal.iro.lecuyer.probdist.Distribution;
  */
 public interface DistributionVar extends Distribution {
 	
+	/**
+	 * How the cdf varies with the distribution parameter, at every point of the support
+	 */
+	public enum Monotonicity {
+		/**
+		 * The cdf is non-decreasing in the parameter
+		 */
+		INCREASING,
+		/**
+		 * The cdf is non-increasing in the parameter
+		 */
+		DECREASING,
+		/**
+		 * No monotonicity is known
+		 */
+		NONE
+	}
+	
    /**
     * Number of distribution parameters
     * 
@@ -57,4 +75,14 @@ public interface DistributionVar extends Distribution {
 	 * @param parameters the distribution parameters
 	 */
 	public void setParameters(double[] parameters);
+	
+	/**
+	 * Monotonicity of the cdf in the distribution parameter; when it is known, propagators 
+	 * locate the parameter bounds by bisection rather than by enumeration.
+	 * 
+	 * @return the monotonicity of the cdf in the parameter
+	 */
+	public default Monotonicity getParameterMonotonicity(){
+		return Monotonicity.NONE;
+	}
 }
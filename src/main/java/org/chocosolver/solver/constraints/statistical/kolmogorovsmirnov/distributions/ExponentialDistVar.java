@@ -28,7 +28,6 @@ package org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov.distrib
 
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.variables.IntVar;
-import umontreal.iro.lecuyer.probdist.ExponentialDist;
 import umontreal.iro.lecuyer.probdist.ContinuousDistribution;
 
 /**
@@ -42,6 +41,8 @@ public class ExponentialDistVar extends ContinuousDistribution implements Distri
 	IntVar mean;
 	double curLambbda;
 	
+	private CdfTable table;
+	private double[] row;
 	
 	/**
 	 * Constructor for an Exponential distribution parameterised by {@code mean}
@@ -51,20 +52,49 @@ public class ExponentialDistVar extends ContinuousDistribution implements Distri
 	public ExponentialDistVar (IntVar mean) {
 	      this.mean = mean;
 	  }
+	
+	/**
+	 * Memoises the cdf at the integer points in {@code [supportLB..supportUB]}, for every value 
+	 * in the initial domain of the mean; this is worthwhile when the observations are integer 
+	 * and the same mean values are set repeatedly.
+	 * 
+	 * @param supportLB smallest cached point
+	 * @param supportUB largest cached point
+	 */
+	public void cacheCdf(int supportLB, int supportUB){
+		this.table = new CdfTable(mean.getLB(), mean.getUB(), supportLB, supportUB);
+		this.row = null;
+	}
 
 	public void setParameters(double[] params){
 		if(params.length > 1)
 			throw new SolverException("Exponential distribution has a single parameter");
+		if(params[0] < 0)
+			throw new IllegalArgumentException("lambda <= 0");
 		this.curLambbda = 1.0/params[0];
+		this.row = null;
+		if(this.table != null)
+			this.row = this.table.row(params[0], this);
 	}
 	
 	public double density(double x){
-		return (new ExponentialDist(this.curLambbda)).density(x);
+		return x < 0 ? 0 : this.curLambbda*Math.exp(-this.curLambbda*x);
 	}
 	
 	public double cdf(double x) {
-		// TODO Auto-generated method stub
-		return (new ExponentialDist(this.curLambbda)).cdf(x);
+		if(this.row != null){
+			int i = this.table.index(x);
+			if(i >= 0)
+				return this.row[i];
+		}
+		return x <= 0 ? 0 : -Math.expm1(-this.curLambbda*x);
+	}
+	
+	/**
+	 * The cdf decreases as the mean increases
+	 */
+	public Monotonicity getParameterMonotonicity(){
+		return Monotonicity.DECREASING;
 	}
 	
 	public int getNumberOfVarParameters() {
@@ -29,7 +29,6 @@ package org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov.distrib
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.variables.IntVar;
 import umontreal.iro.lecuyer.probdist.ContinuousDistribution;
-import umontreal.iro.lecuyer.probdist.UniformDist;;
 
 /**
  * An Exponential distribution on {@code [0..M]}, parameterised by {@code M}
@@ -42,6 +41,9 @@ public class UniformDistVar extends ContinuousDistribution implements Distributi
 	IntVar M;
 	double curM;
 	
+	private CdfTable table;
+	private double[] row;
+	
 	/**
 	 * Constructor for an Exponential distribution on {@code [0..M]}, parameterised by {@code M}
 	 * 
@@ -50,20 +52,50 @@ public class UniformDistVar extends ContinuousDistribution implements Distributi
 	public UniformDistVar (IntVar M) {
 	      this.M = M;
 	  }
+	
+	/**
+	 * Memoises the cdf at the integer points in {@code [supportLB..supportUB]}, for every value 
+	 * in the initial domain of {@code M}.
+	 * 
+	 * @param supportLB smallest cached point
+	 * @param supportUB largest cached point
+	 */
+	public void cacheCdf(int supportLB, int supportUB){
+		this.table = new CdfTable(M.getLB(), M.getUB(), supportLB, supportUB);
+		this.row = null;
+	}
 
 	public void setParameters(double[] params){
 		if(params.length > 1)
 			throw new SolverException("Uniform distribution has a single parameter");
+		if(params[0] <= 0)
+			throw new IllegalArgumentException("b <= a");
 		this.curM = params[0];
+		this.row = null;
+		if(this.table != null)
+			this.row = this.table.row(params[0], this);
 	}
 	
 	public double density(double x){
-		return (new UniformDist(0,this.curM)).density(x);
+		return (x < 0 || x > this.curM) ? 0 : 1.0/this.curM;
 	}
 	
 	public double cdf(double x) {
-		// TODO Auto-generated method stub
-		return (new UniformDist(0,this.curM)).cdf(x);
+		if(this.row != null){
+			int i = this.table.index(x);
+			if(i >= 0)
+				return this.row[i];
+		}
+		if(x <= 0)
+			return 0;
+		return x >= this.curM ? 1 : x/this.curM;
+	}
+	
+	/**
+	 * The cdf decreases as {@code M} increases
+	 */
+	public Monotonicity getParameterMonotonicity(){
+		return Monotonicity.DECREASING;
 	}
 	
 	public int getNumberOfVarParameters() {
@@ -29,9 +29,10 @@ package org.chocosolver.solver.constraints.statistical.t;
 import java.util.Arrays;
 
 import org.chocosolver.solver.Solver;
-import org.chocosolver.solver.constraints.nary.deviation.PooledVariance;
-import org.chocosolver.solver.constraints.nary.deviation.StandardError;
-import org.chocosolver.solver.constraints.nary.mean.Mean;
+import org.chocosolver.solver.constraints.SyatConstraintFactory;
+import org.chocosolver.solver.constraints.nary.deviation.DeviationType;
+import org.chocosolver.solver.constraints.nary.mean.IntegerMoments;
+import org.chocosolver.solver.constraints.nary.mean.SharedExpressions;
 import org.chocosolver.solver.constraints.real.RealConstraint;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.RealVar;
@@ -61,10 +62,9 @@ public class tStatistic {
       int min = Arrays.stream(observations).mapToInt(o -> o.getLB()).min().getAsInt();
       int max = Arrays.stream(observations).mapToInt(o -> o.getUB()).max().getAsInt();
 
-      RealVar sampleMean = VariableFactory.real("SampleMean", min, max, precision, solver);
-      Mean.decompose("SampleMeanDecomposition", observations, sampleMean, precision);
+      RealVar sampleMean = SharedExpressions.mean(observations, precision);
       RealVar standardError = VariableFactory.real("StandardError", 0, max-min, precision, solver);
-      StandardError.decompose("StandardErrorDecomposition", observations, standardError, precision);
+      solver.post(SyatConstraintFactory.deviation(observations, standardError, DeviationType.STANDARD_ERROR));
       
       String exp = "{0}=({1}-{2})/{3}";
 
@@ -93,10 +93,9 @@ public class tStatistic {
       double min = Arrays.stream(observations).mapToDouble(o -> o.getLB()).min().getAsDouble();
       double max = Arrays.stream(observations).mapToDouble(o -> o.getUB()).max().getAsDouble();
 
-      RealVar sampleMean = VariableFactory.real("Mean", min, max, precision, solver);
-      Mean.decompose("Mean", observations, sampleMean, precision);
+      RealVar sampleMean = SharedExpressions.mean(observations, precision);
       RealVar standardError = VariableFactory.real("StandardError", 0, (1/Math.sqrt(observations.length))*Math.sqrt(Math.pow(max-min,2)), precision, solver);
-      StandardError.decompose("StandardError", observations, standardError, precision);
+      solver.post(SyatConstraintFactory.deviation(observations, standardError, DeviationType.STANDARD_ERROR));
 
       String exp = "{0}=({1}-{2})/{3}";
 
@@ -129,17 +128,15 @@ public class tStatistic {
       int minA = Arrays.stream(observationsA).mapToInt(o -> o.getLB()).min().getAsInt();
       int maxA = Arrays.stream(observationsA).mapToInt(o -> o.getUB()).max().getAsInt();
 
-      RealVar sampleMeanA = VariableFactory.real("SampleMeanA", minA, maxA, precision, solver);
-      Mean.decompose("SampleMeanConstraintA", observationsA, sampleMeanA, precision);
+      RealVar sampleMeanA = SharedExpressions.mean(observationsA, precision);
       
       int minB = Arrays.stream(observationsB).mapToInt(o -> o.getLB()).min().getAsInt();
       int maxB = Arrays.stream(observationsB).mapToInt(o -> o.getUB()).max().getAsInt();
       
-      RealVar sampleMeanB = VariableFactory.real("SampleMeanB", minB, maxB, precision, solver);
-      Mean.decompose("SampleMeanConstraintB", observationsB, sampleMeanB, precision);
+      RealVar sampleMeanB = SharedExpressions.mean(observationsB, precision);
       
       RealVar pooledVariance = VariableFactory.real("PooledVariance", 0, Math.pow(Math.max(maxA, maxB) - Math.min(minA, minB),2), precision, solver);
-      PooledVariance.decompose("PooledVarianceDecomposition", observationsA, observationsB, pooledVariance, precision);
+      solver.post(SyatConstraintFactory.deviation(observationsA, observationsB, pooledVariance, DeviationType.POOLED_VARIANCE));
 
       String exp = "{0}=({1}-{2})/sqrt({3}*(1/"+observationsA.length+"+1/"+observationsB.length+"))";
 
@@ -172,20 +169,87 @@ public class tStatistic {
       double minA = Arrays.stream(observationsA).mapToDouble(o -> o.getLB()).min().getAsDouble();
       double maxA = Arrays.stream(observationsA).mapToDouble(o -> o.getUB()).max().getAsDouble();
 
-      RealVar sampleMeanA = VariableFactory.real("SampleMeanA", minA, maxA, precision, solver);
-      Mean.decompose("SampleMeanConstraintA", observationsA, sampleMeanA, precision);
+      RealVar sampleMeanA = SharedExpressions.mean(observationsA, precision);
       
       double minB = Arrays.stream(observationsB).mapToDouble(o -> o.getLB()).min().getAsDouble();
       double maxB = Arrays.stream(observationsB).mapToDouble(o -> o.getUB()).max().getAsDouble();
       
-      RealVar sampleMeanB = VariableFactory.real("SampleMeanB", minB, maxB, precision, solver);
-      Mean.decompose("SampleMeanConstraintB", observationsB, sampleMeanB, precision);
+      RealVar sampleMeanB = SharedExpressions.mean(observationsB, precision);
       
       RealVar pooledVariance = VariableFactory.real("PooledVariance", 0, Math.pow(Math.max(maxA, maxB) - Math.min(minA, minB),2), precision, solver);
-      PooledVariance.decompose("PooledVarianceDecomposition", observationsA, observationsB, pooledVariance, precision);
+      solver.post(SyatConstraintFactory.deviation(observationsA, observationsB, pooledVariance, DeviationType.POOLED_VARIANCE));
 
       String exp = "{0}=({1}-{2})/sqrt({3}*(1/"+observationsA.length+"+1/"+observationsB.length+"))";
 
       solver.post(new RealConstraint(name+"_t", exp, new RealVar[]{t,sampleMeanA, sampleMeanB, pooledVariance}));
    }
+   
+   /**
+    * Integer decomposition of the one-sample t-test statistical constraint for integer valued 
+    * observations: the sum of the observations and {@code n*(n-1)} times their variance are 
+    * propagated by the integer engine, and channelled to the t statistic by a single real constraint.
+    * 
+    * @param name constraint name
+    * @param observations observations
+    * @param mean mean
+    * @param t t statistic
+    * @param precision Ibex precision
+    */
+   
+   public static void decomposeInteger(String name,
+                                       IntVar[] observations,
+                                       RealVar mean,
+                                       RealVar t,
+                                       double precision){
+
+      Solver solver = t.getSolver();
+      int n = observations.length;
+      
+      IntVar sum = IntegerMoments.sum(name, observations);
+      IntVar scaledVariance = IntegerMoments.scaledVariance(name, observations, sum);
+      
+      // the standard error is sqrt(scaledVariance/(n*n*(n-1)))
+      String exp = "{0}=({1}/"+n+"-{2})/sqrt({3}/"+((long)n*n*(n-1))+")";
+
+      solver.post(new RealConstraint(name+"_t", exp, new RealVar[]{t, SharedExpressions.real(sum, precision), mean, SharedExpressions.real(scaledVariance, precision)}));
+   }
+   
+   /**
+    * Integer decomposition of the independent samples t-test statistical constraint for integer 
+    * valued observations: the sums of the observations and {@code n*(n-1)} times their variances 
+    * are propagated by the integer engine, and channelled to the t statistic by a single real constraint.
+    * 
+    * This test is used only when it can be assumed that the two distributions have the same variance. 
+    * 
+    * @param name constraint name
+    * @param observationsA population A observations
+    * @param observationsB population B observations
+    * @param t t statistic
+    * @param precision Ibex precision
+    */
+   
+   public static void decomposeInteger(String name,
+                                       IntVar[] observationsA,
+                                       IntVar[] observationsB,
+                                       RealVar t,
+                                       double precision){
+      
+      Solver solver = t.getSolver();
+      int nA = observationsA.length;
+      int nB = observationsB.length;
+      
+      IntVar sumA = IntegerMoments.sum(name+"_A", observationsA);
+      IntVar scaledVarianceA = IntegerMoments.scaledVariance(name+"_A", observationsA, sumA);
+      IntVar sumB = IntegerMoments.sum(name+"_B", observationsB);
+      IntVar scaledVarianceB = IntegerMoments.scaledVariance(name+"_B", observationsB, sumB);
+      
+      // the sum of squared deviations of a sample is scaledVariance/n
+      String exp = "{0}=({1}/"+nA+"-{2}/"+nB+")/sqrt(({3}/"+nA+"+{4}/"+nB+")/"+(nA+nB-2)+"*(1/"+nA+"+1/"+nB+"))";
+
+      solver.post(new RealConstraint(name+"_t", exp, new RealVar[]{t, 
+                                                                  SharedExpressions.real(sumA, precision), 
+                                                                  SharedExpressions.real(sumB, precision), 
+                                                                  SharedExpressions.real(scaledVarianceA, precision), 
+                                                                  SharedExpressions.real(scaledVarianceB, precision)}));
+   }
 }
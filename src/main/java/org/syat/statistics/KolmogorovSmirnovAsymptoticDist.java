@@ -0,0 +1,126 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.syat.statistics;
+
+/**
+ * Asymptotic distribution of the two-sided Kolmogorov-Smirnov statistic.
+ * 
+ * As n grows, sqrt(n) D converges in distribution to the Kolmogorov distribution 
+ * K(x) = 1 - 2 sum_{k>=1} (-1)^(k-1) exp(-2 k^2 x^2). Stephens' correction evaluates K at 
+ * (sqrt(n) + 0.12 + 0.11/sqrt(n)) D instead, which makes the approximation usable for moderate 
+ * samples; its cost does not depend on n, while the exact distribution becomes expensive 
+ * for large samples.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public final class KolmogorovSmirnovAsymptoticDist {
+	
+	/**
+	 * Below this point the alternating series converges slowly, and the equivalent 
+	 * Jacobi theta series is used instead
+	 */
+	private static final double THETA_SERIES_LIMIT = 1.18;
+	
+	private static final int MAX_TERMS = 100;
+	
+	private KolmogorovSmirnovAsymptoticDist(){}
+	
+	/**
+	 * Kolmogorov limiting distribution.
+	 * 
+	 * @param x point at which the cdf is evaluated
+	 * @return K(x)
+	 */
+	public static double kolmogorovCdf(double x){
+		if(x <= 0)
+			return 0;
+		double sum = 0;
+		if(x < THETA_SERIES_LIMIT){
+			double y = -Math.PI*Math.PI/(8*x*x);
+			for(int k = 1; k <= MAX_TERMS; k++){
+				double term = Math.exp((2*k-1)*(2*k-1)*y);
+				sum += term;
+				if(term <= sum*1e-17) break;
+			}
+			return Math.min(1, Math.sqrt(2*Math.PI)/x*sum);
+		}else{
+			for(int k = 1; k <= MAX_TERMS; k++){
+				double term = Math.exp(-2.0*k*k*x*x);
+				sum += (k % 2 == 1) ? term : -term;
+				if(term <= 1e-17) break;
+			}
+			return Math.max(0, 1 - 2*sum);
+		}
+	}
+	
+	/**
+	 * Approximate cdf of the statistic for a sample of size {@code n}, with Stephens' correction.
+	 * 
+	 * @param n sample size
+	 * @param d statistic value
+	 * @return the approximate probability that the statistic does not exceed {@code d}
+	 */
+	public static double cdf(int n, double d){
+		if(d >= 1)
+			return 1;
+		double sqrtN = Math.sqrt(n);
+		return kolmogorovCdf((sqrtN + 0.12 + 0.11/sqrtN)*d);
+	}
+	
+	/**
+	 * Complementary distribution function.
+	 * 
+	 * @param n sample size
+	 * @param d statistic value
+	 * @return the approximate probability that the statistic exceeds {@code d}
+	 */
+	public static double barF(int n, double d){
+		return 1 - cdf(n, d);
+	}
+	
+	/**
+	 * Inverse of the approximate cdf, located by bisection.
+	 * 
+	 * @param n sample size
+	 * @param u probability
+	 * @return the smallest statistic value whose approximate cdf reaches {@code u}
+	 */
+	public static double inverseF(int n, double u){
+		double below = 0;
+		double above = 1;
+		while(Math.nextUp(below) < above){
+			double mid = below + (above - below)/2;
+			if(mid <= below || mid >= above) break;
+			if(cdf(n, mid) < u)
+				below = mid;
+			else
+				above = mid;
+		}
+		return above;
+	}
+}
@@ -0,0 +1,234 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.syat.statistics;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import umontreal.iro.lecuyer.probdist.KolmogorovSmirnovDist;
+
+/**
+ * Critical values of the Kolmogorov-Smirnov statistic. 
+ * 
+ * A test at a given confidence is passed if and only if the p-value of the statistic 
+ * exceeds the significance level, that is if and only if the statistic is strictly below 
+ * the critical value returned by this class. Since sample sizes and confidence levels do 
+ * not change during search, critical values are computed once and stored in a cache that 
+ * is shared by all threads.
+ * 
+ * From a given sample size, critical values can be computed on the asymptotic distribution 
+ * {@link KolmogorovSmirnovAsymptoticDist} rather than on the exact one; 
+ * {@link #accuracyReport(int[], double[], Tail)} compares the two. For samples of size 10 or 
+ * more and confidence levels from 0.9 to 0.99, asymptotic critical values are within 0.4% of the 
+ * exact ones; the error grows at lower confidence levels, and reaches about 0.8% for single-tailed 
+ * tests at confidence 0.8.
+ * 
+ * @author Roberto Rossi
+ *
+ */
+public final class KolmogorovSmirnovCriticalValues {
+	
+	/**
+	 * Tail of the test
+	 */
+	public enum Tail {
+		TWO_TAILED,
+		SINGLE_TAILED
+	}
+	
+	/**
+	 * Asymptotic threshold that keeps the exact distribution for every sample size
+	 */
+	public static final int EXACT = Integer.MAX_VALUE;
+	
+	private static final ConcurrentHashMap<Key, Double> cache = new ConcurrentHashMap<Key, Double>();
+	
+	private KolmogorovSmirnovCriticalValues(){}
+	
+	/**
+	 * Critical value of the one-sample statistic.
+	 * 
+	 * @param n sample size
+	 * @param confidence test confidence level
+	 * @param tail test tail
+	 * @return the critical value
+	 */
+	public static double criticalValue(int n, double confidence, Tail tail){
+		return criticalValue(n, confidence, tail, EXACT);
+	}
+	
+	/**
+	 * Critical value of the one-sample statistic, on the asymptotic distribution for large samples.
+	 * 
+	 * @param n sample size
+	 * @param confidence test confidence level
+	 * @param tail test tail
+	 * @param asymptoticThreshold smallest sample size for which the asymptotic distribution is used
+	 * @return the critical value
+	 */
+	public static double criticalValue(int n, double confidence, Tail tail, int asymptoticThreshold){
+		return criticalValueForLevel(n, level(confidence, tail), n >= asymptoticThreshold);
+	}
+	
+	/**
+	 * Critical value of the two-sample statistic.
+	 * 
+	 * @param n first sample size
+	 * @param m second sample size
+	 * @param confidence test confidence level
+	 * @param tail test tail
+	 * @return the critical value
+	 */
+	public static double criticalValue(int n, int m, double confidence, Tail tail){
+		return criticalValue(n, m, confidence, tail, EXACT);
+	}
+	
+	/**
+	 * Critical value of the two-sample statistic, on the asymptotic distribution for large samples.
+	 * 
+	 * @param n first sample size
+	 * @param m second sample size
+	 * @param confidence test confidence level
+	 * @param tail test tail
+	 * @param asymptoticThreshold smallest effective sample size nm/(n+m) for which the asymptotic distribution is used
+	 * @return the critical value
+	 */
+	public static double criticalValue(int n, int m, double confidence, Tail tail, int asymptoticThreshold){
+		return criticalValue((int)((long)n*m/(n+m)), confidence, tail, asymptoticThreshold);
+	}
+	
+	/**
+	 * Relative error of the asymptotic critical value of the one-sample statistic.
+	 * 
+	 * @param n sample size
+	 * @param confidence test confidence level
+	 * @param tail test tail
+	 * @return |asymptotic - exact| / exact
+	 */
+	public static double asymptoticRelativeError(int n, double confidence, Tail tail){
+		double exact = criticalValue(n, confidence, tail, EXACT);
+		double asymptotic = criticalValue(n, confidence, tail, 0);
+		return Math.abs(asymptotic - exact)/exact;
+	}
+	
+	/**
+	 * Compares exact and asymptotic critical values, one line per sample size and confidence level.
+	 * 
+	 * @param sizes sample sizes
+	 * @param confidences test confidence levels
+	 * @param tail test tail
+	 * @return the accuracy report
+	 */
+	public static String accuracyReport(int[] sizes, double[] confidences, Tail tail){
+		StringBuilder report = new StringBuilder();
+		for(int n : sizes){
+			for(double confidence : confidences){
+				report.append(String.format("n=%d confidence=%.4f exact=%.6f asymptotic=%.6f relative error=%.2e%n", 
+						n, confidence, 
+						criticalValue(n, confidence, tail, EXACT), 
+						criticalValue(n, confidence, tail, 0), 
+						asymptoticRelativeError(n, confidence, tail)));
+			}
+		}
+		return report.toString();
+	}
+	
+	/**
+	 * Level of the Kolmogorov-Smirnov distribution quantile that defines the critical value; 
+	 * single-tailed tests are carried out on the two-tailed distribution at twice the significance.
+	 */
+	private static double level(double confidence, Tail tail){
+		switch(tail){
+		case TWO_TAILED:
+			return confidence;
+		case SINGLE_TAILED:
+			return 1.0-(1.0-confidence)*2;
+		default:
+			throw new IllegalArgumentException("Unknown tail");
+		}
+	}
+	
+	private static double criticalValueForLevel(int n, double level, boolean asymptotic){
+		Key key = new Key(n, level, asymptotic);
+		Double criticalValue = cache.get(key);
+		if(criticalValue == null){
+			criticalValue = computeCriticalValue(n, level, asymptotic);
+			Double previous = cache.putIfAbsent(key, criticalValue);
+			if(previous != null) criticalValue = previous;
+		}
+		return criticalValue;
+	}
+	
+	/**
+	 * Smallest statistic value whose cdf reaches {@code level}, located by bisection 
+	 * down to adjacent doubles, so that {@code statistic < criticalValue} is equivalent 
+	 * to {@code cdf(statistic) < level}.
+	 */
+	private static double computeCriticalValue(int n, double level, boolean asymptotic){
+		if(level <= 0) 
+			return 0;
+		if(level > 1) 
+			return Double.POSITIVE_INFINITY;
+		if(asymptotic)
+			return KolmogorovSmirnovAsymptoticDist.inverseF(n, level);
+		KolmogorovSmirnovDist ksDist = new KolmogorovSmirnovDist(n);
+		double below = 0;
+		double above = 1;
+		while(Math.nextUp(below) < above){
+			double mid = below + (above - below)/2;
+			if(mid <= below || mid >= above) break;
+			if(ksDist.cdf(mid) < level)
+				below = mid;
+			else
+				above = mid;
+		}
+		return above;
+	}
+	
+	private static final class Key {
+		private final int n;
+		private final double level;
+		private final boolean asymptotic;
+		
+		Key(int n, double level, boolean asymptotic){
+			this.n = n;
+			this.level = level;
+			this.asymptotic = asymptotic;
+		}
+		
+		@Override
+		public boolean equals(Object o){
+			if(!(o instanceof Key)) return false;
+			Key k = (Key) o;
+			return this.n == k.n && Double.compare(this.level, k.level) == 0 && this.asymptotic == k.asymptotic;
+		}
+		
+		@Override
+		public int hashCode(){
+			return 31*(31*n + Double.hashCode(level)) + (asymptotic ? 1 : 0);
+		}
+	}
+}
@@ -26,6 +26,8 @@
 
 package org.syat.statistics;
 
+import org.syat.statistics.KolmogorovSmirnovCriticalValues.Tail;
+
 import umontreal.iro.lecuyer.probdist.ContinuousDistribution;
 import umontreal.iro.lecuyer.probdist.Distribution;
 import umontreal.iro.lecuyer.probdist.EmpiricalDist;
@@ -36,6 +38,7 @@ public class KolmogorovSmirnovTest {
 	Distribution dist;
 	double confidence;
 	KolmogorovSmirnovDist ksDist;
+	int asymptoticThreshold = KolmogorovSmirnovCriticalValues.EXACT;
 	
 	/*
 	 * http://www.math.nsysu.edu.tw/~lomn/homepage/class/92/kstest/kolmogorov.pdf
@@ -50,85 +53,160 @@ public class KolmogorovSmirnovTest {
 		this.emp = emp;
 		this.dist = dist;
 		this.confidence = confidence;
-		this.ksDist = new KolmogorovSmirnovDist(emp.getN());
+	}
+	
+	/**
+	 * Test whose critical values and p-values are computed on the asymptotic distribution 
+	 * {@link KolmogorovSmirnovAsymptoticDist} for large samples.
+	 * 
+	 * @param emp empirical distribution
+	 * @param dist theoretical distribution
+	 * @param confidence test confidence level
+	 * @param asymptoticThreshold smallest sample size for which the asymptotic distribution is used
+	 */
+	public KolmogorovSmirnovTest(EmpiricalDist emp, Distribution dist, double confidence, int asymptoticThreshold) throws NullPointerException{
+		this(emp, dist, confidence);
+		this.asymptoticThreshold = asymptoticThreshold;
+	}
+	
+	private KolmogorovSmirnovDist getKSDist(){
+		if(this.ksDist == null)
+			this.ksDist = new KolmogorovSmirnovDist(emp.getN());
+		return this.ksDist;
+	}
+	
+	private int effectiveSize(){
+		return emp.getN();
+	}
+	
+	private boolean isAsymptotic(){
+		return effectiveSize() >= asymptoticThreshold;
+	}
+	
+	/*
+	 * Cdf of the two-tailed statistic
+	 */
+	private double ksCdf(double x){
+		return isAsymptotic() ? KolmogorovSmirnovAsymptoticDist.cdf(effectiveSize(), x) : this.getKSDist().cdf(x);
 	}
 	
 	public double getKSQuantile(){
-		return this.ksDist.inverseF(this.confidence);
+		return isAsymptotic() ? KolmogorovSmirnovAsymptoticDist.inverseF(effectiveSize(), this.confidence) : this.getKSDist().inverseF(this.confidence);
 	}
 	
 	public boolean testE1NeqD1(){
-		return 1.0-confidence >= this.pValueE1NeqD1() ? false : true;
+		return this.KSstatisticsTwoTailed() < KolmogorovSmirnovCriticalValues.criticalValue(emp.getN(), confidence, Tail.TWO_TAILED, asymptoticThreshold);
 	}
 	
 	public boolean testE1GeqD1(){
-		return (1.0-confidence)*2 >= this.pValueE1GeqD1() ? false : true;
+		return this.KSstatisticsSingleTailedE1GeqD1() < KolmogorovSmirnovCriticalValues.criticalValue(emp.getN(), confidence, Tail.SINGLE_TAILED, asymptoticThreshold);
 	}
 	
 	public boolean testD1GeqE1(){
-		return (1.0-confidence)*2 >= this.pValueD1GeqE1() ? false : true;
+		return this.KSstatisticsSingleTailedD1GeqE1() < KolmogorovSmirnovCriticalValues.criticalValue(emp.getN(), confidence, Tail.SINGLE_TAILED, asymptoticThreshold);
 	}
 	
 	public double KSstatisticsTwoTailed(){
+		return KSstatisticsTwoTailed(emp.getParams(), dist);
+	}
+	
+	public double KSstatisticsSingleTailedE1GeqD1(){
+		return KSstatisticsSingleTailedE1GeqD1(emp.getParams(), dist);
+	}
+	
+	public double KSstatisticsSingleTailedD1GeqE1(){
+		return KSstatisticsSingleTailedD1GeqE1(emp.getParams(), dist);
+	}
+	
+	/**
+	 * Two-tailed statistic computed in a single sweep over the sorted observations.
+	 * 
+	 * @param sortedSamples observations sorted in increasing order
+	 * @param dist theoretical distribution
+	 * @return the two-tailed Kolmogorov-Smirnov statistic
+	 */
+	public static double KSstatisticsTwoTailed(double[] sortedSamples, Distribution dist){
+		int n = sortedSamples.length;
 		double supDiscrepancy = 0;
-		for(int i = 0; i < emp.getN(); i++){
-			double observation = emp.getObs(i);
-			double discrepancy = 
-					Math.max(
-					Math.abs(emp.cdf(observation)-dist.cdf(observation)),
-					i == 0 ? Math.abs(0-dist.cdf(observation)) : Math.abs(emp.cdf(emp.getObs(i-1))-dist.cdf(observation))
-					);
+		for(int i = 0; i < n;){
+			int count = tiedCount(sortedSamples, i);
+			double cdf = dist.cdf(sortedSamples[i]);
+			double discrepancy = Math.max((double)count/n - cdf, cdf - (double)i/n);
 			if(discrepancy>supDiscrepancy){
 				supDiscrepancy = discrepancy;
 			}
+			i = count;
 		}
 		return supDiscrepancy;
 	}
 	
-	public double KSstatisticsSingleTailedE1GeqD1(){
+	/**
+	 * Single-tailed statistic (empirical above theoretical) computed in a single sweep over the sorted observations.
+	 * 
+	 * @param sortedSamples observations sorted in increasing order
+	 * @param dist theoretical distribution
+	 * @return the single-tailed Kolmogorov-Smirnov statistic
+	 */
+	public static double KSstatisticsSingleTailedE1GeqD1(double[] sortedSamples, Distribution dist){
+		int n = sortedSamples.length;
 		double supDiscrepancy = 0;
-		for(int i = 0; i < emp.getN(); i++){
-			double observation = emp.getObs(i);
-			double discrepancy = 
-					Math.max(
-					(emp.cdf(observation)-dist.cdf(observation)),
-					i == 0 ? (0-dist.cdf(observation)) : (emp.cdf(emp.getObs(i-1))-dist.cdf(observation))
-					);
+		for(int i = 0; i < n;){
+			int count = tiedCount(sortedSamples, i);
+			double discrepancy = (double)count/n - dist.cdf(sortedSamples[i]);
 			if(discrepancy>supDiscrepancy){
 				supDiscrepancy = discrepancy;
 			}
+			i = count;
 		}
 		return supDiscrepancy;
 	}
 	
-	public double KSstatisticsSingleTailedD1GeqE1(){
+	/**
+	 * Single-tailed statistic (theoretical above empirical) computed in a single sweep over the sorted observations.
+	 * 
+	 * @param sortedSamples observations sorted in increasing order
+	 * @param dist theoretical distribution
+	 * @return the single-tailed Kolmogorov-Smirnov statistic
+	 */
+	public static double KSstatisticsSingleTailedD1GeqE1(double[] sortedSamples, Distribution dist){
+		int n = sortedSamples.length;
 		double supDiscrepancy = 0;
-		for(int i = 0; i < emp.getN(); i++){
-			double observation = emp.getObs(i);
-			double discrepancy = 
-					Math.max(
-					(dist.cdf(observation)-emp.cdf(observation)),
-					i == 0 ? (dist.cdf(observation)-0) : (dist.cdf(observation)-emp.cdf(emp.getObs(i-1)))
-					);
+		for(int i = 0; i < n;){
+			int count = tiedCount(sortedSamples, i);
+			double discrepancy = dist.cdf(sortedSamples[i]) - (double)i/n;
 			if(discrepancy>supDiscrepancy){
 				supDiscrepancy = discrepancy;
 			}
+			i = count;
 		}
 		return supDiscrepancy;
 	}
 	
+	/*
+	 * Cumulative count of the observations that do not exceed sortedSamples[i], the first of its ties. 
+	 * The discrepancies of tied observations share their cdf and are largest at the first tie (theoretical 
+	 * above empirical) or at the last one (empirical above theoretical), hence the sweeps above 
+	 * evaluate the cdf once per distinct observation, which is typical of integer observations.
+	 */
+	private static int tiedCount(double[] sortedSamples, int i){
+		double observation = sortedSamples[i];
+		int count = i + 1;
+		while(count < sortedSamples.length && sortedSamples[count] == observation) count++;
+		return count;
+	}
+	
 	public double pValueE1NeqD1(){
 		double supDiscrepancy = this.KSstatisticsTwoTailed();
-		return 1.0-this.ksDist.cdf(supDiscrepancy);
+		return 1.0-this.ksCdf(supDiscrepancy);
 	}
 	
 	public double pValueE1GeqD1(){
 		double supDiscrepancy = this.KSstatisticsSingleTailedE1GeqD1();
-		return 1.0-this.ksDist.cdf(supDiscrepancy);
+		return 1.0-this.ksCdf(supDiscrepancy);
 	}
 	
 	public double pValueD1GeqE1(){
 		double supDiscrepancy = this.KSstatisticsSingleTailedD1GeqE1();
-		return 1.0-this.ksDist.cdf(supDiscrepancy);
+		return 1.0-this.ksCdf(supDiscrepancy);
 	}
 }
@@ -26,6 +26,8 @@
 
 package org.syat.statistics;
 
+import org.syat.statistics.KolmogorovSmirnovCriticalValues.Tail;
+
 import umontreal.iro.lecuyer.probdist.EmpiricalDist;
 import umontreal.iro.lecuyer.probdist.KolmogorovSmirnovDist;
 
@@ -34,6 +36,7 @@ public class KolmogorovSmirnovTestTwoSamples {
 	EmpiricalDist emp2;
 	double confidence;
 	KolmogorovSmirnovDist ksDist;
+	int asymptoticThreshold = KolmogorovSmirnovCriticalValues.EXACT;
 	
 	/*
 	 * http://www.math.nsysu.edu.tw/~lomn/homepage/class/92/kstest/kolmogorov.pdf
@@ -44,23 +47,57 @@ public class KolmogorovSmirnovTestTwoSamples {
 		this.emp1 = emp1;
 		this.emp2 = emp2;
 		this.confidence = confidence;
-		this.ksDist = new KolmogorovSmirnovDist((emp1.getN()*emp2.getN())/(emp1.getN()+emp2.getN()));
+	}
+	
+	/**
+	 * Test whose critical values and p-values are computed on the asymptotic distribution 
+	 * {@link KolmogorovSmirnovAsymptoticDist} for large samples.
+	 * 
+	 * @param emp1 first empirical distribution
+	 * @param emp2 second empirical distribution
+	 * @param confidence test confidence level
+	 * @param asymptoticThreshold smallest effective sample size nm/(n+m) for which the asymptotic distribution is used
+	 */
+	public KolmogorovSmirnovTestTwoSamples(EmpiricalDist emp1, EmpiricalDist emp2, double confidence, int asymptoticThreshold){
+		this(emp1, emp2, confidence);
+		this.asymptoticThreshold = asymptoticThreshold;
+	}
+	
+	private KolmogorovSmirnovDist getKSDist(){
+		if(this.ksDist == null)
+			this.ksDist = new KolmogorovSmirnovDist(effectiveSize());
+		return this.ksDist;
+	}
+	
+	private int effectiveSize(){
+		return (emp1.getN()*emp2.getN())/(emp1.getN()+emp2.getN());
+	}
+	
+	private boolean isAsymptotic(){
+		return effectiveSize() >= asymptoticThreshold;
+	}
+	
+	/*
+	 * Cdf of the two-tailed statistic
+	 */
+	private double ksCdf(double x){
+		return isAsymptotic() ? KolmogorovSmirnovAsymptoticDist.cdf(effectiveSize(), x) : this.getKSDist().cdf(x);
 	}
 	
 	public double getKSQuantile(){
-		return this.ksDist.inverseF(this.confidence);
+		return isAsymptotic() ? KolmogorovSmirnovAsymptoticDist.inverseF(effectiveSize(), this.confidence) : this.getKSDist().inverseF(this.confidence);
 	}
 	
 	public boolean testE2NeqE1(){
-		return 1.0-confidence >= this.pValueE2NeqE1() ? false : true;
+		return this.KSstatisticsTwoTailed() < KolmogorovSmirnovCriticalValues.criticalValue(emp1.getN(), emp2.getN(), confidence, Tail.TWO_TAILED, asymptoticThreshold);
 	}
 	
 	public boolean testE1GeqE2(){
-		return (1.0-confidence)*2 >= this.pValueE1GeqE2() ? false : true;
+		return this.KSstatisticsSingleTailedE1GeqE2() < KolmogorovSmirnovCriticalValues.criticalValue(emp1.getN(), emp2.getN(), confidence, Tail.SINGLE_TAILED, asymptoticThreshold);
 	}
 	
 	public boolean testE2GeqE1(){
-		return (1.0-confidence)*2 >= this.pValueE2GeqE1() ? false : true;
+		return this.KSstatisticsSingleTailedE2GeqE1() < KolmogorovSmirnovCriticalValues.criticalValue(emp1.getN(), emp2.getN(), confidence, Tail.SINGLE_TAILED, asymptoticThreshold);
 	}
 	
 	private boolean constantDistributions(){
@@ -71,25 +108,102 @@ public class KolmogorovSmirnovTestTwoSamples {
 	}
 	
 	public double KSstatisticsTwoTailed(){
+		if(constantDistributions()) return 0;
+		double[] sortedSamples1 = emp1.getParams();
+		double[] sortedSamples2 = emp2.getParams();
+		return Math.max(twoTailedSweep(sortedSamples1, sortedSamples2), twoTailedSweep(sortedSamples2, sortedSamples1));
+	}
+	
+	/*
+	 * Emp 1 > Emp 2
+	 */
+	public double KSstatisticsSingleTailedE1GeqE2(){
+		if(constantDistributions()) return 0;
+		double[] sortedSamples1 = emp1.getParams();
+		double[] sortedSamples2 = emp2.getParams();
+		return Math.max(leadingSweepE1GeqE2(sortedSamples1, sortedSamples2), laggingSweepE1GeqE2(sortedSamples2, sortedSamples1));
+	}
+	
+	/*
+	 * Emp 2 > Emp 1
+	 */
+	public double KSstatisticsSingleTailedE2GeqE1(){
+		if(constantDistributions()) return 0;
+		double[] sortedSamples1 = emp1.getParams();
+		double[] sortedSamples2 = emp2.getParams();
+		return Math.max(laggingSweepE2GeqE1(sortedSamples1, sortedSamples2), leadingSweepE2GeqE1(sortedSamples2, sortedSamples1));
+	}
+	
+	/**
+	 * Checks whether the statistics are trivially zero, i.e. the smallest observation in the first 
+	 * sample equals every observation in the second sample.
+	 * 
+	 * @param sortedSamples1 first sample, sorted in increasing order
+	 * @param sortedSamples2 second sample, sorted in increasing order
+	 * @return true if the statistics are zero
+	 */
+	public static boolean constantDistributions(double[] sortedSamples1, double[] sortedSamples2){
+		return sortedSamples1[0] == sortedSamples2[0] && sortedSamples1[0] == sortedSamples2[sortedSamples2.length-1];
+	}
+	
+	/**
+	 * Two-tailed statistic computed in a single merge sweep over the sorted observations.
+	 * 
+	 * @param sortedSamples1 first list of observations sorted in increasing order
+	 * @param sortedSamples2 second list of observations sorted in increasing order
+	 * @return the two-tailed Kolmogorov-Smirnov statistic
+	 */
+	public static double KSstatisticsTwoTailed(double[] sortedSamples1, double[] sortedSamples2){
+		if(constantDistributions(sortedSamples1, sortedSamples2)) return 0;
+		return Math.max(twoTailedSweep(sortedSamples1, sortedSamples2), twoTailedSweep(sortedSamples2, sortedSamples1));
+	}
+	
+	/**
+	 * Single-tailed statistic (Emp 1 &gt; Emp 2) computed in a single merge sweep over the sorted observations.
+	 * 
+	 * @param sortedSamples1 first list of observations sorted in increasing order
+	 * @param sortedSamples2 second list of observations sorted in increasing order
+	 * @return the single-tailed Kolmogorov-Smirnov statistic
+	 */
+	public static double KSstatisticsSingleTailedE1GeqE2(double[] sortedSamples1, double[] sortedSamples2){
+		if(constantDistributions(sortedSamples1, sortedSamples2)) return 0;
+		return Math.max(leadingSweepE1GeqE2(sortedSamples1, sortedSamples2), laggingSweepE1GeqE2(sortedSamples2, sortedSamples1));
+	}
+	
+	/**
+	 * Single-tailed statistic (Emp 2 &gt; Emp 1) computed in a single merge sweep over the sorted observations.
+	 * 
+	 * @param sortedSamples1 first list of observations sorted in increasing order
+	 * @param sortedSamples2 second list of observations sorted in increasing order
+	 * @return the single-tailed Kolmogorov-Smirnov statistic
+	 */
+	public static double KSstatisticsSingleTailedE2GeqE1(double[] sortedSamples1, double[] sortedSamples2){
+		if(constantDistributions(sortedSamples1, sortedSamples2)) return 0;
+		return Math.max(laggingSweepE2GeqE1(sortedSamples1, sortedSamples2), leadingSweepE2GeqE1(sortedSamples2, sortedSamples1));
+	}
+	
+	/*
+	 * The sweeps below visit the observations in "own" in increasing order, while a second cursor 
+	 * tracks how many observations in "other" do not exceed the current one. Both empirical cdfs 
+	 * are therefore obtained in amortised constant time, at the observation and at the previous one.
+	 */
+	
+	private static double previousCdf(double[] own, int i, double ownCdf){
+		return i == 0 ? 0 : (own[i-1] == own[i] ? ownCdf : (double)i/own.length);
+	}
+	
+	private static double twoTailedSweep(double[] own, double[] other){
 		double supDiscrepancy = 0;
-		if(constantDistributions()) return supDiscrepancy;
-		for(int i = 0; i < emp1.getN(); i++){
-			double observation = emp1.getObs(i);
-			double discrepancy = 
-			Math.max(
-					Math.abs(emp1.cdf(observation)-emp2.cdf(observation)),
-					i == 0 ? Math.abs(0-emp2.cdf(observation)) : Math.abs(emp1.cdf(emp1.getObs(i-1))-emp2.cdf(observation))
-					);
-			if(discrepancy>supDiscrepancy){
-				supDiscrepancy = discrepancy;
-			}
-		}
-		for(int i = 0; i < emp2.getN(); i++){
-			double observation = emp2.getObs(i);
+		for(int i = 0, ownCount = 0, otherCount = 0; i < own.length; i++){
+			double observation = own[i];
+			while(ownCount < own.length && own[ownCount] <= observation) ownCount++;
+			while(otherCount < other.length && other[otherCount] <= observation) otherCount++;
+			double ownCdf = (double)ownCount/own.length;
+			double otherCdf = (double)otherCount/other.length;
 			double discrepancy = 
 			Math.max(
-					Math.abs(emp2.cdf(observation)-emp1.cdf(observation)),
-					i == 0 ? Math.abs(0-emp1.cdf(observation)) : Math.abs(emp2.cdf(emp2.getObs(i-1))-emp1.cdf(observation))
+					Math.abs(ownCdf-otherCdf),
+					Math.abs(previousCdf(own, i, ownCdf)-otherCdf)
 					);
 			if(discrepancy>supDiscrepancy){
 				supDiscrepancy = discrepancy;
@@ -99,28 +213,43 @@ public class KolmogorovSmirnovTestTwoSamples {
 	}
 	
 	/*
-	 * Emp 1 > Emp 2
+	 * Own cdf above other cdf, observations of the leading sample (Emp 1 > Emp 2)
 	 */
-	public double KSstatisticsSingleTailedE1GeqE2(){
+	private static double leadingSweepE1GeqE2(double[] own, double[] other){
 		double supDiscrepancy = 0;
-		if(constantDistributions()) return supDiscrepancy;
-		for(int i = 0; i < emp1.getN(); i++){
-			double observation = emp1.getObs(i);
+		for(int i = 0, ownCount = 0, otherCount = 0; i < own.length; i++){
+			double observation = own[i];
+			while(ownCount < own.length && own[ownCount] <= observation) ownCount++;
+			while(otherCount < other.length && other[otherCount] <= observation) otherCount++;
+			double ownCdf = (double)ownCount/own.length;
+			double otherCdf = (double)otherCount/other.length;
 			double discrepancy = 
 			Math.max(
-					(emp1.cdf(observation)-emp2.cdf(observation)),
-					i == 0 ? (0-emp2.cdf(observation)) : (emp1.cdf(emp1.getObs(i-1))-emp2.cdf(observation))
+					(ownCdf-otherCdf),
+					(previousCdf(own, i, ownCdf)-otherCdf)
 					);
 			if(discrepancy>supDiscrepancy){
 				supDiscrepancy = discrepancy;
 			}
 		}
-		for(int i = 0; i < emp2.getN(); i++){
-			double observation = emp2.getObs(i);
+		return supDiscrepancy;
+	}
+	
+	/*
+	 * Other cdf above own cdf, observations of the lagging sample (Emp 1 > Emp 2)
+	 */
+	private static double laggingSweepE1GeqE2(double[] own, double[] other){
+		double supDiscrepancy = 0;
+		for(int i = 0, ownCount = 0, otherCount = 0; i < own.length; i++){
+			double observation = own[i];
+			while(ownCount < own.length && own[ownCount] <= observation) ownCount++;
+			while(otherCount < other.length && other[otherCount] <= observation) otherCount++;
+			double ownCdf = (double)ownCount/own.length;
+			double otherCdf = (double)otherCount/other.length;
 			double discrepancy = 
 			Math.max(
-					(emp1.cdf(observation)-emp2.cdf(observation)),
-					i == 0 ? (0-emp2.cdf(observation)) : (emp1.cdf(observation)-emp2.cdf(emp2.getObs(i-1)))
+					(otherCdf-ownCdf),
+					i == 0 ? (0-ownCdf) : (otherCdf-previousCdf(own, i, ownCdf))
 					);
 			if(discrepancy>supDiscrepancy){
 				supDiscrepancy = discrepancy;
@@ -130,28 +259,43 @@ public class KolmogorovSmirnovTestTwoSamples {
 	}
 	
 	/*
-	 * Emp 2 > Emp 1
+	 * Other cdf above own cdf, observations of the lagging sample (Emp 2 > Emp 1)
 	 */
-	public double KSstatisticsSingleTailedE2GeqE1(){
+	private static double laggingSweepE2GeqE1(double[] own, double[] other){
 		double supDiscrepancy = 0;
-		if(constantDistributions()) return supDiscrepancy;
-		for(int i = 0; i < emp1.getN(); i++){
-			double observation = emp1.getObs(i);
+		for(int i = 0, ownCount = 0, otherCount = 0; i < own.length; i++){
+			double observation = own[i];
+			while(ownCount < own.length && own[ownCount] <= observation) ownCount++;
+			while(otherCount < other.length && other[otherCount] <= observation) otherCount++;
+			double ownCdf = (double)ownCount/own.length;
+			double otherCdf = (double)otherCount/other.length;
 			double discrepancy = 
 			Math.max(
-					(emp2.cdf(observation)-emp1.cdf(observation)),
-					i == 0 ? (emp2.cdf(observation)-0) : (emp2.cdf(observation)-emp1.cdf(emp1.getObs(i-1)))
+					(otherCdf-ownCdf),
+					(otherCdf-previousCdf(own, i, ownCdf))
 					);
 			if(discrepancy>supDiscrepancy){
 				supDiscrepancy = discrepancy;
 			}
 		}
-		for(int i = 0; i < emp2.getN(); i++){
-			double observation = emp2.getObs(i);
+		return supDiscrepancy;
+	}
+	
+	/*
+	 * Own cdf above other cdf, observations of the leading sample (Emp 2 > Emp 1)
+	 */
+	private static double leadingSweepE2GeqE1(double[] own, double[] other){
+		double supDiscrepancy = 0;
+		for(int i = 0, ownCount = 0, otherCount = 0; i < own.length; i++){
+			double observation = own[i];
+			while(ownCount < own.length && own[ownCount] <= observation) ownCount++;
+			while(otherCount < other.length && other[otherCount] <= observation) otherCount++;
+			double ownCdf = (double)ownCount/own.length;
+			double otherCdf = (double)otherCount/other.length;
 			double discrepancy = 
 			Math.max(
-					(emp2.cdf(observation)-emp1.cdf(observation)),
-					i == 0 ? (emp2.cdf(observation)-0) : (emp2.cdf(emp2.getObs(i-1))-emp1.cdf(observation))
+					(ownCdf-otherCdf),
+					i == 0 ? (ownCdf-0) : (previousCdf(own, i, ownCdf)-otherCdf)
 					);
 			if(discrepancy>supDiscrepancy){
 				supDiscrepancy = discrepancy;
@@ -162,16 +306,16 @@ public class KolmogorovSmirnovTestTwoSamples {
 	
 	public double pValueE2NeqE1(){
 		double supDiscrepancy = this.KSstatisticsTwoTailed();
-		return 1.0-this.ksDist.cdf(supDiscrepancy);
+		return 1.0-this.ksCdf(supDiscrepancy);
 	}
 	
 	public double pValueE1GeqE2(){
 		double supDiscrepancy = this.KSstatisticsSingleTailedE1GeqE2();
-		return 1.0-this.ksDist.cdf(supDiscrepancy);
+		return 1.0-this.ksCdf(supDiscrepancy);
 	}
 	
 	public double pValueE2GeqE1(){
 		double supDiscrepancy = this.KSstatisticsSingleTailedE2GeqE1();
-		return 1.0-this.ksDist.cdf(supDiscrepancy);
+		return 1.0-this.ksCdf(supDiscrepancy);
 	}
 }
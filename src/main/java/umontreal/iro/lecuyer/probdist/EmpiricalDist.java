@@ -135,11 +135,7 @@ public class EmpiricalDist extends DiscreteDistribution {
          return 0;
       if (x >= sortedVal[n-1])
          return 1;
-      for (int i = 0; i < (n-1); i++) {
-         if (x >= sortedVal[i] && x < sortedVal[i+1])
-            return (double)(i + 1)/n;
-      }
-      throw new IllegalStateException();
+      return (double)upperIndex (sortedVal, x)/n;
    }
 
    public double barF (double x) {
@@ -147,11 +143,47 @@ public class EmpiricalDist extends DiscreteDistribution {
          return 1;
       if (x > sortedVal[n-1])
          return 0;
-      for (int i = 0; i < (n-1); i++) {
-         if (x > sortedVal[i] && x <= sortedVal[i+1])
-            return ((double)n-1-i)/n;
+      return ((double)n - lowerIndex (sortedVal, x))/n;
+   }
+
+   /**
+    * Returns the index of the first element of <TT>sorted</TT> strictly greater than <TT>x</TT>,
+    *    that is the number of elements not exceeding <TT>x</TT>; binary search, <SPAN CLASS="MATH"><I>O</I>(log <I>n</I>)</SPAN>.
+    * 
+    * @param sorted values sorted in increasing numerical order
+    * @param x the search key
+    * @return the number of elements not exceeding <TT>x</TT>
+    */
+   static int upperIndex (double[] sorted, double x) {
+      int low = 0, high = sorted.length;
+      while (low < high) {
+         int mid = (low + high) >>> 1;
+         if (sorted[mid] <= x)
+            low = mid + 1;
+         else
+            high = mid;
       }
-      throw new IllegalStateException();
+      return low;
+   }
+
+   /**
+    * Returns the index of the first element of <TT>sorted</TT> greater than or equal to <TT>x</TT>,
+    *    that is the number of elements strictly smaller than <TT>x</TT>; binary search, <SPAN CLASS="MATH"><I>O</I>(log <I>n</I>)</SPAN>.
+    * 
+    * @param sorted values sorted in increasing numerical order
+    * @param x the search key
+    * @return the number of elements strictly smaller than <TT>x</TT>
+    */
+   static int lowerIndex (double[] sorted, double x) {
+      int low = 0, high = sorted.length;
+      while (low < high) {
+         int mid = (low + high) >>> 1;
+         if (sorted[mid] < x)
+            low = mid + 1;
+         else
+            high = mid;
+      }
+      return low;
    }
 
    public double inverseF (double u) {
@@ -170,6 +202,13 @@ public class EmpiricalDist extends DiscreteDistribution {
       Arrays.sort (sortedVal);
       
       /*******************************/
+      computeSampleStatistics();
+   }
+
+   /**
+    * Recomputes the sample statistics and the support from the sorted observations.
+    */
+   void computeSampleStatistics() {
       double sum = 0.0;
       for (int i = 0; i < sortedVal.length; i++) {
          sum += sortedVal[i];
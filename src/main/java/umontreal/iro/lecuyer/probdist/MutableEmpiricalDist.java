@@ -0,0 +1,105 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package umontreal.iro.lecuyer.probdist;
+
+import java.util.Arrays;
+
+
+/**
+ * A reusable {@link EmpiricalDist} whose observations can be changed in place. 
+ * Replacing a single observation locates it by binary search and shifts the 
+ * observations in between, so that the internal array remains sorted without 
+ * being reallocated or sorted again.
+ * 
+ * @author Roberto Rossi
+ */
+public class MutableEmpiricalDist extends EmpiricalDist {
+
+   /**
+    * Constructs a new mutable empirical distribution using
+    *   all the observations stored in <TT>obs</TT>. These observations are copied into an internal array.
+    * 
+    * @param obs the observations
+    */
+   public MutableEmpiricalDist (double[] obs) {
+      super (obs);
+   }
+
+
+   /**
+    * Replaces one occurrence of the observation <TT>oldObs</TT> with <TT>newObs</TT>.
+    * 
+    * @param oldObs the observation to be replaced
+    * @param newObs the new observation
+    */
+   public void replaceObs (double oldObs, double newObs) {
+      replaceSorted (sortedVal, oldObs, newObs);
+      computeSampleStatistics();
+   }
+
+
+   /**
+    * Replaces all the observations with those stored in <TT>obs</TT>, 
+    *   which must contain exactly <TT>getN()</TT> values. These observations are copied into the internal array.
+    * 
+    * @param obs the new observations
+    */
+   public void setObs (double[] obs) {
+      if (obs.length != getN())
+         throw new IllegalArgumentException
+            ("Expected " + getN() + " observations");
+      System.arraycopy (obs, 0, sortedVal, 0, obs.length);
+      Arrays.sort (sortedVal);
+      computeSampleStatistics();
+   }
+
+
+   /**
+    * Replaces one occurrence of <TT>oldValue</TT> with <TT>newValue</TT> in the sorted array <TT>sorted</TT>,
+    *    which remains sorted; <SPAN CLASS="MATH"><I>O</I>(log <I>n</I>)</SPAN> search and <SPAN CLASS="MATH"><I>O</I>(<I>n</I>)</SPAN> shift.
+    * 
+    * @param sorted values sorted in increasing numerical order
+    * @param oldValue the value to be replaced
+    * @param newValue the new value
+    */
+   public static void replaceSorted (double[] sorted, double oldValue, double newValue) {
+      int from = Arrays.binarySearch (sorted, oldValue);
+      if (from < 0)
+         throw new IllegalArgumentException
+            ("Value " + oldValue + " not found");
+      if (newValue > oldValue) {
+         int to = lowerIndex (sorted, newValue) - 1;
+         System.arraycopy (sorted, from + 1, sorted, from, to - from);
+         sorted[to] = newValue;
+      }
+      else if (newValue < oldValue) {
+         int to = upperIndex (sorted, newValue);
+         System.arraycopy (sorted, to, sorted, to + 1, from - to);
+         sorted[to] = newValue;
+      }
+   }
+}
@@ -30,6 +30,7 @@ import static org.junit.Assert.*;
 
 import org.chocosolver.samples.AbstractProblem;
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.strategy.IntStrategyFactory;
 import org.chocosolver.solver.search.strategy.selectors.values.RealDomainMiddle;
 import org.chocosolver.solver.search.strategy.selectors.variables.Cyclic;
@@ -66,6 +67,112 @@ public class CovarianceTest {
       covariance.getSolver().getIbex().release();
    }
    
+   @Test
+   public void testSufficientStatistics() throws ContradictionException {
+      int[] valuesA = {1,2,3,4,5,6,7,8,9};
+      int[] valuesB = {9,8,7,6,5,4,3,2,1};
+      
+      double[] sufficient = propagate(valuesA, valuesB, true);
+      double[] decomposed = propagate(valuesA, valuesB, false);
+      
+      // the two samples are perfectly anti-correlated, their covariance is -60/8
+      assertEquals(-7.5, sufficient[0], 1.e-3);
+      assertEquals(-7.5, sufficient[1], 1.e-3);
+      assertEquals(decomposed[0], sufficient[0], 1.e-3);
+      assertEquals(decomposed[1], sufficient[1], 1.e-3);
+   }
+   
+   @Test
+   public void testUnboundedSufficientStatistics() throws ContradictionException {
+      double[] valuesA = {1,2,3,4,5,6,7,8,9};
+      double[] valuesB = {4,3,2,1,0,-1,-2,-3,-4};
+      
+      Solver solver = new Solver("UnboundedCovariance");
+      RealVar[] valueVariablesA = new RealVar[valuesA.length];
+      RealVar[] valueVariablesB = new RealVar[valuesB.length];
+      for(int i = 0; i < valuesA.length; i++){
+         valueVariablesA[i] = VariableFactory.real("Value A"+(i+1), valuesA[i], valuesA[i], 1.e-4, solver);
+         valueVariablesB[i] = VariableFactory.real("Value B"+(i+1), valuesB[i], valuesB[i], 1.e-4, solver);
+      }
+      // the unbounded observation is paired with 0, hence its products are 0*inf
+      valueVariablesA[4] = VariableFactory.real("Value A5", Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 1.e-4, solver);
+      RealVar covarianceVariable = VariableFactory.real("Covariance", -100, 100, 1.e-4, solver);
+      
+      Covariance.decomposeSufficient("CovarianceConstraint", valueVariablesA, valueVariablesB, covarianceVariable, 1.e-4);
+      RealVar sumOfProducts = SufficientStatistics.sumOfProducts("CovarianceConstraint", valueVariablesA, valueVariablesB, 1.e-4);
+      assertEquals(-60, sumOfProducts.getLB(), 0);
+      assertEquals(-60, sumOfProducts.getUB(), 0);
+      solver.propagate();
+      assertFalse(Double.isNaN(covarianceVariable.getLB()) || Double.isNaN(covarianceVariable.getUB()));
+      
+      valueVariablesA[4].updateBounds(5, 5, null);
+      solver.propagate();
+      assertEquals(-7.5, covarianceVariable.getLB(), 1.e-3);
+      assertEquals(-7.5, covarianceVariable.getUB(), 1.e-3);
+      solver.getIbex().release();
+   }
+   
+   private static double[] propagate(int[] valuesA, int[] valuesB, boolean sufficientStatistics) throws ContradictionException {
+      Solver solver = new Solver("Covariance");
+      IntVar[] valueVariablesA = new IntVar[valuesA.length];
+      IntVar[] valueVariablesB = new IntVar[valuesB.length];
+      for(int i = 0; i < valuesA.length; i++){
+         valueVariablesA[i] = VariableFactory.bounded("Value A"+(i+1), valuesA[i], valuesA[i], solver);
+         valueVariablesB[i] = VariableFactory.bounded("Value B"+(i+1), valuesB[i], valuesB[i], solver);
+      }
+      RealVar covarianceVariable = VariableFactory.real("Covariance", -100, 100, 1.e-4, solver);
+      
+      if(sufficientStatistics)
+         Covariance.decomposeSufficient("CovarianceConstraint", valueVariablesA, valueVariablesB, covarianceVariable, 1.e-4);
+      else
+         Covariance.decompose("CovarianceConstraint", valueVariablesA, valueVariablesB, covarianceVariable, 1.e-4);
+      solver.propagate();
+      
+      double[] bounds = {covarianceVariable.getLB(), covarianceVariable.getUB()};
+      solver.getIbex().release();
+      return bounds;
+   }
+   
+   @Test
+   public void testMatrix() throws ContradictionException {
+      double[][] values = {{1,2,0},{2,1,1},{3,4,1},{4,3,2},{5,5,1}};
+      double[][] expected = {
+         {2.5,  2.0,  0.75},
+         {2.0,  2.5,  0.25},
+         {0.75, 0.25, 0.5 }
+      };
+
+      Solver solver = new Solver("CovarianceMatrix");
+      RealVar[][] observations = new RealVar[values.length][values[0].length];
+      for(int i = 0; i < values.length; i++){
+         for(int j = 0; j < values[i].length; j++)
+            observations[i][j] = VariableFactory.real("Obs_"+(i+1)+"_"+(j+1), values[i][j], values[i][j], 1.e-4, solver);
+      }
+
+      // cell (2,1) aliases its transpose, cells (3,1) and (3,2) are distinct variables
+      RealVar[][] matrix = new RealVar[3][3];
+      for(int i = 0; i < 3; i++){
+         for(int j = i; j < 3; j++)
+            matrix[i][j] = VariableFactory.real("Cov_"+(i+1)+"_"+(j+1), -100, 100, 1.e-4, solver);
+      }
+      matrix[1][0] = matrix[0][1];
+      matrix[2][0] = VariableFactory.real("Cov_3_1", -100, 100, 1.e-4, solver);
+      matrix[2][1] = VariableFactory.real("Cov_3_2", -100, 100, 1.e-4, solver);
+
+      Covariance.decomposeMatrix("CovarianceMatrix", observations, matrix, 1.e-4);
+      solver.propagate();
+
+      for(int i = 0; i < 3; i++){
+         for(int j = 0; j < 3; j++){
+            assertEquals(expected[i][j], matrix[i][j].getLB(), 1.e-3);
+            assertEquals(expected[i][j], matrix[i][j].getUB(), 1.e-3);
+            assertEquals(matrix[j][i].getLB(), matrix[i][j].getLB(), 1.e-3);
+            assertEquals(matrix[j][i].getUB(), matrix[i][j].getUB(), 1.e-3);
+         }
+      }
+      solver.getIbex().release();
+   }
+
    @Test
    public void testReal() {
       String[] str={"-log","SOLUTION"};
@@ -30,6 +30,7 @@ import static org.junit.Assert.*;
 
 import org.chocosolver.samples.AbstractProblem;
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.strategy.IntStrategyFactory;
 import org.chocosolver.solver.search.strategy.selectors.values.RealDomainMiddle;
 import org.chocosolver.solver.search.strategy.selectors.variables.Cyclic;
@@ -78,6 +79,42 @@ public class PooledStandardDeviationTest {
       standardDeviation.getSolver().getIbex().release();
    }
 
+   @Test
+   public void testSufficientStatistics() throws ContradictionException {
+      int[] valuesA = {1,2,3,4,5,6,7,8,9};
+      int[] valuesB = {5,4,6,5,4,6,5,4,6};
+      
+      double[] sufficient = propagate(valuesA, valuesB, true);
+      double[] decomposed = propagate(valuesA, valuesB, false);
+      
+      // the squared deviations sum to 60 in sample A and to 6 in sample B
+      assertEquals(Math.sqrt(66.0/16), sufficient[0], 1.e-3);
+      assertEquals(Math.sqrt(66.0/16), sufficient[1], 1.e-3);
+      assertEquals(decomposed[0], sufficient[0], 1.e-3);
+      assertEquals(decomposed[1], sufficient[1], 1.e-3);
+   }
+   
+   private static double[] propagate(int[] valuesA, int[] valuesB, boolean sufficientStatistics) throws ContradictionException {
+      Solver solver = new Solver("PooledStandardDeviation");
+      IntVar[] valueVariablesA = new IntVar[valuesA.length];
+      for(int i = 0; i < valuesA.length; i++)
+         valueVariablesA[i] = VariableFactory.bounded("ValueA"+(i+1), valuesA[i], valuesA[i], solver);
+      IntVar[] valueVariablesB = new IntVar[valuesB.length];
+      for(int i = 0; i < valuesB.length; i++)
+         valueVariablesB[i] = VariableFactory.bounded("ValueB"+(i+1), valuesB[i], valuesB[i], solver);
+      RealVar standardDeviationVariable = VariableFactory.real("PooledStandardDeviation", 0, 100, 1.e-4, solver);
+      
+      if(sufficientStatistics)
+         PooledStandardDeviation.decomposeSufficient("PooledStandardDeviationConstraint", valueVariablesA, valueVariablesB, standardDeviationVariable, 1.e-4);
+      else
+         PooledStandardDeviation.decompose("PooledStandardDeviationConstraint", valueVariablesA, valueVariablesB, standardDeviationVariable, 1.e-4);
+      solver.propagate();
+      
+      double[] bounds = {standardDeviationVariable.getLB(), standardDeviationVariable.getUB()};
+      solver.getIbex().release();
+      return bounds;
+   }
+
    class IntegerPooledStandardDeviation extends AbstractProblem {
       public IntVar[] valueVariablesA;
       public IntVar[] valueVariablesB;
@@ -0,0 +1,87 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.chocosolver.solver.constraints.nary.deviation;
+
+import static org.junit.Assert.*;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.RealVar;
+import org.chocosolver.solver.variables.VariableFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PooledVarianceTest {
+
+   @Before
+   public void setUp() throws Exception {
+   }
+
+   @After
+   public void tearDown() throws Exception {
+      System.gc();
+      Thread.sleep(3000);
+   }
+
+   @Test
+   public void testSufficientStatistics() throws ContradictionException {
+      int[] valuesA = {1,2,3,4,5,6,7,8,9};
+      int[] valuesB = {5,4,6,5,4,6,5,4,6};
+      
+      double[] sufficient = propagate(valuesA, valuesB, true);
+      double[] decomposed = propagate(valuesA, valuesB, false);
+      
+      // the squared deviations sum to 60 in sample A and to 6 in sample B
+      assertEquals(66.0/16, sufficient[0], 1.e-3);
+      assertEquals(66.0/16, sufficient[1], 1.e-3);
+      assertEquals(decomposed[0], sufficient[0], 1.e-3);
+      assertEquals(decomposed[1], sufficient[1], 1.e-3);
+   }
+   
+   private static double[] propagate(int[] valuesA, int[] valuesB, boolean sufficientStatistics) throws ContradictionException {
+      Solver solver = new Solver("PooledVariance");
+      IntVar[] valueVariablesA = new IntVar[valuesA.length];
+      for(int i = 0; i < valuesA.length; i++)
+         valueVariablesA[i] = VariableFactory.bounded("ValueA"+(i+1), valuesA[i], valuesA[i], solver);
+      IntVar[] valueVariablesB = new IntVar[valuesB.length];
+      for(int i = 0; i < valuesB.length; i++)
+         valueVariablesB[i] = VariableFactory.bounded("ValueB"+(i+1), valuesB[i], valuesB[i], solver);
+      RealVar varianceVariable = VariableFactory.real("PooledVariance", 0, 100, 1.e-4, solver);
+      
+      if(sufficientStatistics)
+         PooledVariance.decomposeSufficient("PooledVarianceConstraint", valueVariablesA, valueVariablesB, varianceVariable, 1.e-4);
+      else
+         PooledVariance.decompose("PooledVarianceConstraint", valueVariablesA, valueVariablesB, varianceVariable, 1.e-4);
+      solver.propagate();
+      
+      double[] bounds = {varianceVariable.getLB(), varianceVariable.getUB()};
+      solver.getIbex().release();
+      return bounds;
+   }
+}
@@ -30,6 +30,7 @@ import static org.junit.Assert.*;
 
 import org.chocosolver.samples.AbstractProblem;
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.strategy.IntStrategyFactory;
 import org.chocosolver.solver.search.strategy.selectors.values.RealDomainMiddle;
 import org.chocosolver.solver.search.strategy.selectors.variables.Cyclic;
@@ -65,6 +66,61 @@ public class VarianceTest {
       variance.getSolver().getIbex().release();
    }
    
+   @Test
+   public void testPropagator() throws ContradictionException {
+      Solver solver = new Solver("VariancePropagator");
+      RealVar[] valueVariables = new RealVar[9];
+      for(int i = 0; i < 8; i++)
+         valueVariables[i] = VariableFactory.real("Value "+(i+1), i+1, i+1, 1.e-4, solver);
+      valueVariables[8] = VariableFactory.real("Value 9", -100, 100, 1.e-4, solver);
+      RealVar varianceVariable = VariableFactory.real("Variance", 0, 7.5, 1.e-4, solver);
+      RealVar deviationVariable = VariableFactory.real("StandardDeviation", 0, 100, 1.e-4, solver);
+      
+      solver.post(new DeviationConstraint(valueVariables, varianceVariable, DeviationType.VARIANCE));
+      solver.post(new DeviationConstraint(valueVariables, deviationVariable, DeviationType.STANDARD_DEVIATION));
+      solver.propagate();
+      
+      // 1,...,8 together with either 0 or 9 have variance 7.5
+      assertEquals(0, valueVariables[8].getLB(), 1.e-3);
+      assertEquals(9, valueVariables[8].getUB(), 1.e-3);
+      // the smallest variance sets value 9 at the mean 4.5 of the others
+      assertEquals(5.25, varianceVariable.getLB(), 1.e-3);
+      assertEquals(Math.sqrt(5.25), deviationVariable.getLB(), 1.e-3);
+      // the largest variance is only bounded from above
+      assertTrue(deviationVariable.getUB() >= Math.sqrt(7.5) && deviationVariable.getUB() < 3);
+   }
+   
+   @Test
+   public void testUnboundedPropagator() throws ContradictionException {
+      Solver solver = new Solver("UnboundedVariance");
+      RealVar[] valueVariables = new RealVar[9];
+      for(int i = 0; i < 8; i++)
+         valueVariables[i] = VariableFactory.real("Value "+(i+1), i+1, i+1, 1.e-4, solver);
+      valueVariables[8] = VariableFactory.real("Value 9", Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 1.e-4, solver);
+      RealVar varianceVariable = VariableFactory.real("Variance", 0, Double.POSITIVE_INFINITY, 1.e-4, solver);
+
+      // the unbounded observation is filtered by the Ibex expression of the variance
+      solver.post(new DeviationConstraint(valueVariables, varianceVariable, DeviationType.VARIANCE));
+      solver.propagate();
+
+      valueVariables[8].updateBounds(9, 9, null);
+      solver.propagate();
+      assertEquals(7.5, varianceVariable.getLB(), 1.e-3);
+      assertEquals(7.5, varianceVariable.getUB(), 1.e-3);
+      solver.getIbex().release();
+   }
+
+   @Test
+   public void testIntegerDecomposition() {
+      String[] str={"-log","SOLUTION"};
+      
+      int[][] values = {{1},{2},{3},{4},{5},{6},{7},{8},{9}}; 
+      
+      IntegerVariance variance = new IntegerVariance(values, new double[]{0,100}, true);
+      variance.execute(str);
+      variance.getSolver().getIbex().release();
+   }
+   
    @Test
    public void testReal() {
       String[] str={"-log","SOLUTION"};
@@ -85,9 +141,16 @@ public class VarianceTest {
       
       double precision = 1.e-4;
       
+      boolean integerDecomposition;
+      
       public IntegerVariance(int[][] values, double[] variance){
+         this(values, variance, false);
+      }
+      
+      public IntegerVariance(int[][] values, double[] variance, boolean integerDecomposition){
          this.values = values;
          this.variance = variance;
+         this.integerDecomposition = integerDecomposition;
       }
       
       @Override
@@ -103,7 +166,10 @@ public class VarianceTest {
          
          varianceVariable = VariableFactory.real("Variance", variance[0], variance[1], precision, solver);
          
-         Variance.decompose("VarianceConstraint", valueVariables, varianceVariable, precision);
+         if(integerDecomposition)
+            Variance.decomposeInteger("VarianceConstraint", valueVariables, varianceVariable, precision);
+         else
+            Variance.decompose("VarianceConstraint", valueVariables, varianceVariable, precision);
       }
       
       public void configureSearch() {
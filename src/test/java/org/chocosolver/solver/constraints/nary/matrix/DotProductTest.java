@@ -4,6 +4,7 @@ import static org.junit.Assert.*;
 
 import org.chocosolver.samples.AbstractProblem;
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.strategy.selectors.values.RealDomainMiddle;
 import org.chocosolver.solver.search.strategy.selectors.variables.Cyclic;
 import org.chocosolver.solver.search.strategy.strategy.RealStrategy;
@@ -45,6 +46,53 @@ public class DotProductTest {
       dotProductTest.execute(str);
    }
    
+   @Test
+   public void testPropagator() throws ContradictionException {
+      double[][] A = {
+            {1, 0.5, 0.6},
+            {0.5, 1, 0.2},
+            {0.6, 0.2, 1}
+            };
+      double[][] B = {
+            {2, 0.1, 0.5},
+            {0.1, 3, 0.2},
+            {0.5, 0.2, 2}
+            };
+      
+      Solver solver = new Solver("DotProductPropagator");
+      RealVar[][] matrixA = new RealVar[3][3];
+      RealVar[][] matrixB = new RealVar[3][3];
+      RealVar[][] matrixC = new RealVar[3][3];
+      for(int i = 0; i < 3; i++){
+         for(int j = 0; j < 3; j++){
+            matrixA[i][j] = VariableFactory.real("MatrixA_"+(i+1)+"_"+(j+1), A[i][j], A[i][j], 1.e-6, solver);
+            // the first entry of B is unknown, and is recovered from the first entry of C
+            matrixB[i][j] = i + j == 0 ? 
+                  VariableFactory.real("MatrixB_"+(i+1)+"_"+(j+1), -100, 100, 1.e-6, solver) : 
+                  VariableFactory.real("MatrixB_"+(i+1)+"_"+(j+1), B[i][j], B[i][j], 1.e-6, solver);
+            matrixC[i][j] = i + j == 0 ? 
+                  VariableFactory.real("MatrixC_"+(i+1)+"_"+(j+1), 2.35, 2.35, 1.e-6, solver) : 
+                  VariableFactory.real("MatrixC_"+(i+1)+"_"+(j+1), -100, 100, 1.e-6, solver);
+         }
+      }
+      
+      solver.post(new DotProductConstraint(matrixA, matrixB, matrixC));
+      solver.propagate();
+      
+      assertEquals(B[0][0], matrixB[0][0].getLB(), 1.e-4);
+      assertEquals(B[0][0], matrixB[0][0].getUB(), 1.e-4);
+      for(int i = 0; i < 3; i++){
+         for(int j = 0; j < 3; j++){
+            double product = 0;
+            for(int k = 0; k < 3; k++){
+               product += A[i][k]*B[k][j];
+            }
+            assertEquals(product, matrixC[i][j].getLB(), 1.e-4);
+            assertEquals(product, matrixC[i][j].getUB(), 1.e-4);
+         }
+      }
+   }
+   
    class DotProductReal extends AbstractProblem {
       public RealVar[][] matrixA;
       public RealVar[][] matrixB;
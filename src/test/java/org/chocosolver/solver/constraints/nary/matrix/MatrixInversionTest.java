@@ -26,8 +26,11 @@
 
 package org.chocosolver.solver.constraints.nary.matrix;
 
+import static org.junit.Assert.*;
+
 import org.chocosolver.samples.AbstractProblem;
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.strategy.selectors.values.RealDomainMiddle;
 import org.chocosolver.solver.search.strategy.selectors.variables.Cyclic;
 import org.chocosolver.solver.search.strategy.strategy.RealStrategy;
@@ -70,6 +73,55 @@ public class MatrixInversionTest {
       matrixInversionReal.execute(str);
    }
 
+   @Test
+   public void testPropagator() throws ContradictionException {
+      double[][] matrix = new double[][]{
+         { 1.0, 0.1, 0.2 },
+         { 0.1, 1.0, 0.1 },
+         { 0.2, 0.1, 1.0 }
+      };
+      checkPropagator(matrix);
+   }
+   
+   @Test
+   public void testPropagatorLarge() throws ContradictionException {
+      int n = 12;
+      double[][] matrix = new double[n][n];
+      for(int i = 0; i < n; i++){
+         for(int j = 0; j < n; j++){
+            matrix[i][j] = i == j ? 2 : 1.0/(1 + i + j);
+         }
+      }
+      checkPropagator(matrix);
+   }
+   
+   private void checkPropagator(double[][] matrix) throws ContradictionException {
+      Solver solver = new Solver("MatrixInversionPropagator");
+      int n = matrix.length;
+      RealVar[][] matrixVariable = new RealVar[n][n];
+      RealVar[][] inverseVariable = new RealVar[n][n];
+      for(int i = 0; i < n; i++){
+         for(int j = 0; j < n; j++){
+            matrixVariable[i][j] = VariableFactory.real("Matrix_"+(i+1)+"_"+(j+1), matrix[i][j], matrix[i][j], 1.e-6, solver);
+            inverseVariable[i][j] = VariableFactory.real("InverseMatrix_"+(i+1)+"_"+(j+1), -100, 100, 1.e-6, solver);
+         }
+      }
+      
+      solver.post(new MatrixInversionConstraint(matrixVariable, inverseVariable));
+      solver.propagate();
+      
+      for(int i = 0; i < n; i++){
+         for(int k = 0; k < n; k++){
+            double product = 0;
+            for(int j = 0; j < n; j++){
+               assertTrue(inverseVariable[j][k].getUB() - inverseVariable[j][k].getLB() < 1.e-4);
+               product += matrix[i][j]*(inverseVariable[j][k].getLB() + inverseVariable[j][k].getUB())/2;
+            }
+            assertEquals(i == k ? 1 : 0, product, 1.e-4);
+         }
+      }
+   }
+
    class MatrixInversionReal extends AbstractProblem {
       public RealVar[][] matrixVariable;
       public RealVar[][] inverseVariable;
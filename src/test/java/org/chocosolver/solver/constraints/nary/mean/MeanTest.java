@@ -30,6 +30,7 @@ import static org.junit.Assert.*;
 
 import org.chocosolver.samples.AbstractProblem;
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.strategy.IntStrategyFactory;
 import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
 import org.chocosolver.solver.variables.IntVar;
@@ -62,6 +63,62 @@ public class MeanTest {
       mean.getSolver().getIbex().release();
    }
 
+   @Test
+   public void testPropagator() throws ContradictionException {
+      Solver solver = new Solver("MeanPropagator");
+      IntVar[] valueVariables = new IntVar[9];
+      for(int i = 0; i < 8; i++)
+         valueVariables[i] = VariableFactory.fixed(i+1, solver);
+      valueVariables[8] = VariableFactory.bounded("Value 9", 0, 100, solver);
+      RealVar meanVariable = VariableFactory.real("Mean", 4, 5, 1.e-4, solver);
+      
+      solver.post(new MeanConstraint(valueVariables, meanVariable));
+      solver.propagate();
+      
+      // 36 + x = 9 * mean, with mean in [4, 5]
+      assertEquals(0, valueVariables[8].getLB());
+      assertEquals(9, valueVariables[8].getUB());
+      assertEquals(4, meanVariable.getLB(), 1.e-9);
+      assertEquals(5, meanVariable.getUB(), 1.e-9);
+      
+      valueVariables[8].updateLowerBound(6, null);
+      solver.propagate();
+      assertEquals(42.0/9, meanVariable.getLB(), 1.e-9);
+   }
+   
+   @Test
+   public void testUnboundedPropagator() throws ContradictionException {
+      Solver solver = new Solver("UnboundedMean");
+      RealVar[] valueVariables = new RealVar[3];
+      for(int i = 0; i < 3; i++)
+         valueVariables[i] = VariableFactory.real("Value "+(i+1), i+1, i+1, 1.e-4, solver);
+      RealVar meanVariable = VariableFactory.real("Mean", Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 1.e-4, solver);
+
+      solver.post(new MeanConstraint(valueVariables, meanVariable));
+      solver.propagate();
+
+      assertEquals(2, meanVariable.getLB(), 1.e-4);
+      assertEquals(2, meanVariable.getUB(), 1.e-4);
+      solver.getIbex().release();
+   }
+
+   @Test
+   public void testSharedMean() throws ContradictionException {
+      Solver solver = new Solver("SharedMean");
+      IntVar[] valueVariables = VariableFactory.boundedArray("Value", 9, 0, 100, solver);
+      
+      RealVar mean = SharedExpressions.mean(valueVariables, 1.e-4);
+      assertSame(mean, SharedExpressions.mean(valueVariables, 1.e-4));
+      assertSame(mean, SharedExpressions.mean(SharedExpressions.real(valueVariables, 1.e-4), 1.e-4));
+      assertNotSame(mean, SharedExpressions.mean(new IntVar[]{valueVariables[0], valueVariables[1]}, 1.e-4));
+      assertEquals(1, solver.getNbCstrs());
+      
+      for(int i = 0; i < 9; i++)
+         valueVariables[i].updateUpperBound(i+1, null);
+      solver.propagate();
+      assertEquals(5, mean.getUB(), 1.e-9);
+   }
+   
    class IntegerMean extends AbstractProblem {
       public IntVar[] valueVariables;
       public RealVar meanVariable;
@@ -28,13 +28,18 @@ package org.chocosolver.solver.constraints.statistical.hotelling;
 
 import static org.junit.Assert.*;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.chocosolver.samples.AbstractProblem;
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.strategy.selectors.values.RealDomainMiddle;
 import org.chocosolver.solver.search.strategy.selectors.variables.Cyclic;
 import org.chocosolver.solver.search.strategy.strategy.RealStrategy;
 import org.chocosolver.solver.variables.RealVar;
 import org.chocosolver.solver.variables.VF;
+import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.solver.variables.VariableFactory;
 import org.junit.After;
 import org.junit.Before;
@@ -104,6 +109,45 @@ public class tSquareStatisticTest {
       scoreReal.getSolver().getIbex().release();
    }
    
+   @Test
+   public void testPropagator() throws ContradictionException {
+      double[] mu = {1, 1, 1};
+      double[][] sigma = new double[][]{
+         { 1.0, 0.1, 0.2 },
+         { 0.1, 1.0, 0.1 },
+         { 0.2, 0.1, 1.0 }
+      };
+      
+      int M = 50;
+      
+      MRG32k3a rng = new MRG32k3a();
+      rng.setSeed(new long[]{1,2,3,4,5,6});
+      double[][] observations = generateObservations(rng, mu, sigma, M);
+      
+      double[] means = new double[mu.length];
+      for(int i = 0; i < M; i++){
+         for(int j = 0; j < mu.length; j++){
+            means[j] += observations[i][j]/M;
+         }
+      }
+      
+      Solver solver = new Solver("tSquarePropagator");
+      RealVar[] muVariable = new RealVar[mu.length];
+      for(int i = 0; i < mu.length; i++)
+         muVariable[i] = VariableFactory.real("Mu "+(i+1), -100, 100, 1.e-6, solver);
+      RealVar statisticVariable = VF.real("score", 0, 7.81, 1.e-6, solver);
+      
+      solver.post(new tSquareConstraint(muVariable, sigma, observations, statisticVariable));
+      solver.propagate();
+      
+      // the box of the confidence ellipsoid
+      for(int i = 0; i < mu.length; i++){
+         double radius = Math.sqrt(7.81*sigma[i][i]/M);
+         assertEquals(means[i] - radius, muVariable[i].getLB(), 1.e-6);
+         assertEquals(means[i] + radius, muVariable[i].getUB(), 1.e-6);
+      }
+   }
+   
    @Test
    public void testKnownSigmaVariableObservations() {
       String[] str={"-log","SOLUTION"};
@@ -152,6 +196,49 @@ public class tSquareStatisticTest {
       scoreReal.getSolver().getIbex().release();
    }
    
+   @Test
+   public void testUnknownSigmaSymmetricMatrix() throws ContradictionException {
+      double[] mu = {1, 1, 1};
+      double[][] sigma = new double[][]{
+         { 1.0, 0.1, 0.2 },
+         { 0.1, 1.0, 0.1 },
+         { 0.2, 0.1, 1.0 }
+      };
+
+      int M = 50;
+
+      MRG32k3a rng = new MRG32k3a();
+      rng.setSeed(new long[]{1,2,3,4,5,6});
+      double[][] observations = generateObservations(rng, mu, sigma, M);
+
+      Solver solver = new Solver("tSquareSymmetricMatrix");
+      RealVar[] muVariable = new RealVar[mu.length];
+      for(int i = 0; i < mu.length; i++)
+         muVariable[i] = VariableFactory.real("Mu "+(i+1), mu[i], mu[i], 1.e-4, solver);
+      RealVar[][] observationVariable = new RealVar[M][mu.length];
+      for(int i = 0; i < M; i++){
+         for(int j = 0; j < mu.length; j++)
+            observationVariable[i][j] = VariableFactory.real("Obs_"+(i+1)+"_"+(j+1), observations[i][j], observations[i][j], 1.e-4, solver);
+      }
+      RealVar statisticVariable = VF.real("score", -1000, 1000, 1.e-4, solver);
+
+      tSquareStatistic.decompose("scoreConstraint", muVariable, observationVariable, statisticVariable, 1.e-4);
+      solver.propagate();
+
+      // only the upper triangle of the covariance matrix is a variable, the lower triangle aliases it
+      Set<String> names = new HashSet<String>();
+      for(Variable v : solver.getVars())
+         names.add(v.getName());
+      for(int i = 1; i <= mu.length; i++){
+         for(int j = 1; j <= mu.length; j++)
+            assertEquals(j >= i, names.contains("scoreConstraint_Cov_"+i+"_"+j));
+      }
+
+      assertTrue(statisticVariable.getLB() <= 2.71 && statisticVariable.getLB() >= 2.70);
+      assertTrue(statisticVariable.getUB() <= 2.71 && statisticVariable.getUB() >= 2.70);
+      solver.getIbex().release();
+   }
+
    private static double[][] generateObservations(MRG32k3a rng, double[] mu, double[][] sigma, int nbObservations){
       NormalGen gen = new NormalGen(rng);
       MultinormalCholeskyGen dist = new MultinormalCholeskyGen(gen, mu, sigma);
@@ -28,17 +28,31 @@ package org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
 import org.chocosolver.samples.AbstractProblem;
+import org.chocosolver.solver.Cause;
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.SyatConstraintFactory;
 import org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov.distributions.ExponentialDistVar;
+import org.chocosolver.solver.constraints.statistical.kolmogorovsmirnov.distributions.UniformDistVar;
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.strategy.IntStrategyFactory;
 import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.RealVar;
 import org.chocosolver.solver.variables.VariableFactory;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues.Tail;
+import org.syat.statistics.KolmogorovSmirnovTestTwoSamples;
 
 import umontreal.iro.lecuyer.probdist.Distribution;
 import umontreal.iro.lecuyer.probdist.NormalDist;
@@ -83,6 +97,654 @@ public class KolmogorovSmirnovTest {
       ks.execute(str);
    }
    
+   @Test
+   public void testCachedCdf() {
+      Solver solver = new Solver("CachedCdfTest");
+      IntVar parameter = VariableFactory.bounded("parameter", 1, 40, solver);
+      ExponentialDistVar exponential = new ExponentialDistVar(parameter);
+      ExponentialDistVar cachedExponential = new ExponentialDistVar(parameter);
+      cachedExponential.cacheCdf(0, 50);
+      UniformDistVar uniform = new UniformDistVar(parameter);
+      UniformDistVar cachedUniform = new UniformDistVar(parameter);
+      cachedUniform.cacheCdf(0, 50);
+      for(int p = 1; p <= 45; p++){
+         double[] parameters = {p};
+         exponential.setParameters(parameters);
+         cachedExponential.setParameters(parameters);
+         uniform.setParameters(parameters);
+         cachedUniform.setParameters(parameters);
+         assertEquals(1 - Math.exp(-10.0/p), exponential.cdf(10), 1e-12);
+         assertEquals(Math.min(1, 10.0/p), uniform.cdf(10), 0);
+         for(double x = -5; x <= 60; x += 0.5){
+            assertEquals(exponential.cdf(x), cachedExponential.cdf(x), 0);
+            assertEquals(uniform.cdf(x), cachedUniform.cdf(x), 0);
+         }
+      }
+   }
+   
+   @Test
+   public void testRealObservations() throws ContradictionException {
+      int[] data = {8, 14, 6, 12, 12, 9, 10, 9, 10};
+      Solver intSolver = new Solver("IntObservations");
+      Solver realSolver = new Solver("RealObservations");
+      IntVar[] intObservations = new IntVar[data.length + 1];
+      RealVar[] realObservations = new RealVar[data.length + 1];
+      for(int i = 0; i < data.length; i++){
+         intObservations[i] = VariableFactory.fixed(data[i], intSolver);
+         realObservations[i] = VariableFactory.real("x"+i, data[i], data[i], 0.001, realSolver);
+      }
+      intObservations[data.length] = VariableFactory.bounded("pivot", 0, 100, intSolver);
+      realObservations[data.length] = VariableFactory.real("pivot", 0, 100, 0.001, realSolver);
+      
+      Distribution dist = new NormalDist(10, 3);
+      intSolver.post(SyatConstraintFactory.kolmogorov_smirnov(intObservations, dist, "=", 0.95));
+      realSolver.post(SyatConstraintFactory.kolmogorov_smirnov(realObservations, dist, "=", 0.95));
+      intSolver.propagate();
+      realSolver.propagate();
+      
+      // the real bounds enclose the integer ones, and are at most one unit looser
+      RealVar pivot = realObservations[data.length];
+      assertTrue(pivot.getLB() <= intObservations[data.length].getLB());
+      assertTrue(pivot.getLB() > intObservations[data.length].getLB() - 1);
+      assertTrue(pivot.getUB() >= intObservations[data.length].getUB());
+      assertTrue(pivot.getUB() < intObservations[data.length].getUB() + 1);
+      assertTrue(pivot.getLB() > 0 && pivot.getUB() < 100);
+   }
+   
+   @Test
+   public void testRealObservationsUnbounded() throws ContradictionException {
+      int[] data = {8, 14, 6, 12, 12, 9, 10, 9, 10};
+      Distribution dist = new NormalDist(10, 3);
+      String[] operators = {"=", ">=", "<="};
+      for(String op : operators){
+         Solver boundedSolver = new Solver("BoundedPivot");
+         Solver unboundedSolver = new Solver("UnboundedPivot");
+         RealVar[] boundedObservations = new RealVar[data.length + 1];
+         RealVar[] unboundedObservations = new RealVar[data.length + 1];
+         for(int i = 0; i < data.length; i++){
+            boundedObservations[i] = VariableFactory.real("x"+i, data[i], data[i], 0.001, boundedSolver);
+            unboundedObservations[i] = VariableFactory.real("x"+i, data[i], data[i], 0.001, unboundedSolver);
+         }
+         boundedObservations[data.length] = VariableFactory.real("pivot", 0, 100, 0.001, boundedSolver);
+         unboundedObservations[data.length] = VariableFactory.real("pivot", Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0.001, unboundedSolver);
+         boundedSolver.post(SyatConstraintFactory.kolmogorov_smirnov(boundedObservations, dist, op, 0.95));
+         unboundedSolver.post(SyatConstraintFactory.kolmogorov_smirnov(unboundedObservations, dist, op, 0.95));
+         boundedSolver.propagate();
+         unboundedSolver.propagate();
+         
+         // the infinite ends are bracketed before the bisection, hence both searches end within the 
+         // precision of the same passing values; the bounds that are not filtered stay infinite
+         RealVar bounded = boundedObservations[data.length];
+         RealVar unbounded = unboundedObservations[data.length];
+         if(op.equals("<="))
+            assertEquals(Double.NEGATIVE_INFINITY, unbounded.getLB(), 0);
+         else
+            assertEquals(bounded.getLB(), unbounded.getLB(), 0.001);
+         if(op.equals(">="))
+            assertEquals(Double.POSITIVE_INFINITY, unbounded.getUB(), 0);
+         else
+            assertEquals(bounded.getUB(), unbounded.getUB(), 0.001);
+      }
+   }
+   
+   @Test
+   public void testRealTwoSample() throws ContradictionException {
+      Random random = new Random(17);
+      double confidence = 0.8;
+      String[] operators = {">=", "<="};
+      for(int t = 0; t < 200; t++){
+         String op = operators[t % 2];
+         int n = 6 + random.nextInt(6);
+         int m = 6 + random.nextInt(6);
+         int shift = random.nextInt(5);
+         // integer observations, and a single free pivot in [0, 20] in either sample
+         int pivot = random.nextInt(n + m);
+         double[] data = new double[n + m];
+         Solver solver = new Solver("RealTwoSample");
+         RealVar[] vars = new RealVar[n + m];
+         for(int i = 0; i < n + m; i++){
+            data[i] = random.nextInt(10) + (i < n ? shift : 0);
+            vars[i] = i == pivot ? 
+                  VariableFactory.real("pivot", 0, 20, 0.001, solver) : 
+                  VariableFactory.real("x"+i, data[i], data[i], 0.001, solver);
+         }
+         solver.post(SyatConstraintFactory.kolmogorov_smirnov(Arrays.copyOf(vars, n), Arrays.copyOfRange(vars, n, n + m), op, confidence));
+         
+         // the statistic is constant between consecutive observations, hence the pivot values that pass 
+         // the test are found by checking integers, and half-integers for the open intervals between them
+         double lb = Double.POSITIVE_INFINITY;
+         double ub = Double.NEGATIVE_INFINITY;
+         for(int k = 0; k <= 40; k++){
+            data[pivot] = k/2.0;
+            if(passesTwoSample(data, n, op, confidence)){
+               lb = Math.min(lb, Math.floor(k/2.0));
+               ub = Math.max(ub, Math.ceil(k/2.0));
+            }
+         }
+         // the fixed observations are checked against the pivot at its bound, and ties between the 
+         // samples make the statistic not monotone, hence the propagation may fail although the pivot 
+         // has a passing value
+         boolean consistent = propagate(solver);
+         if(lb > ub)
+            assertFalse(consistent);
+         if(consistent){
+            // >= filters lower bounds in the first sample and upper bounds in the second, <= the converse
+            if((pivot < n) == op.equals(">=")){
+               assertEquals(lb, vars[pivot].getLB(), 0);
+               assertEquals(20, vars[pivot].getUB(), 0);
+            }else{
+               assertEquals(0, vars[pivot].getLB(), 0);
+               assertEquals(ub, vars[pivot].getUB(), 0);
+            }
+         }
+      }
+   }
+   
+   @Test
+   public void testRealTwoSampleUnbounded() {
+      Random random = new Random(23);
+      double confidence = 0.8;
+      String[] operators = {">=", "<="};
+      // two well separated samples, for which one of the operators has no passing pivot value
+      for(int t = 0; t < 4; t++){
+         double[] data = {0, 0, 0, 0, 0, 10, 10, 10, 10, 10, 10, 10};
+         checkRealTwoSampleUnbounded(data, 5, t < 2 ? 0 : 11, operators[t % 2], confidence);
+      }
+      for(int t = 0; t < 200; t++){
+         int n = 6 + random.nextInt(6);
+         int m = 6 + random.nextInt(6);
+         int shift = random.nextInt(5);
+         double[] data = new double[n + m];
+         for(int i = 0; i < n + m; i++)
+            data[i] = random.nextInt(10) + (i < n ? shift : 0);
+         checkRealTwoSampleUnbounded(data, n, random.nextInt(n + m), operators[t % 2], confidence);
+      }
+   }
+   
+   /**
+    * Posts the two-sample test on {@code data} with an unbounded pivot, and checks the pivot bound 
+    * against the values in [-2, 20] that pass; the values beyond them are ordered as the ends are.
+    */
+   private static void checkRealTwoSampleUnbounded(double[] data, int n, int pivot, String op, double confidence){
+      Solver solver = new Solver("RealTwoSampleUnbounded");
+      RealVar[] vars = new RealVar[data.length];
+      for(int i = 0; i < data.length; i++){
+         vars[i] = i == pivot ? 
+               VariableFactory.real("pivot", Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0.001, solver) : 
+               VariableFactory.real("x"+i, data[i], data[i], 0.001, solver);
+      }
+      solver.post(SyatConstraintFactory.kolmogorov_smirnov(Arrays.copyOf(vars, n), Arrays.copyOfRange(vars, n, data.length), op, confidence));
+      
+      double lb = Double.POSITIVE_INFINITY;
+      double ub = Double.NEGATIVE_INFINITY;
+      for(int k = -4; k <= 40; k++){
+         data[pivot] = k/2.0;
+         if(passesTwoSample(data, n, op, confidence)){
+            lb = Math.min(lb, k == -4 ? Double.NEGATIVE_INFINITY : Math.floor(k/2.0));
+            ub = Math.max(ub, k == 40 ? Double.POSITIVE_INFINITY : Math.ceil(k/2.0));
+         }
+      }
+      boolean consistent = propagate(solver);
+      if(lb > ub)
+         assertFalse(consistent);
+      if(consistent){
+         if((pivot < n) == op.equals(">=")){
+            assertEquals(lb, vars[pivot].getLB(), 0);
+            assertEquals(Double.POSITIVE_INFINITY, vars[pivot].getUB(), 0);
+         }else{
+            assertEquals(Double.NEGATIVE_INFINITY, vars[pivot].getLB(), 0);
+            assertEquals(ub, vars[pivot].getUB(), 0);
+         }
+      }
+   }
+   
+   private static boolean passesTwoSample(double[] data, int n, String op, double confidence){
+      double[] x = Arrays.copyOf(data, n);
+      double[] y = Arrays.copyOfRange(data, n, data.length);
+      Arrays.sort(x);
+      Arrays.sort(y);
+      double criticalValue = KolmogorovSmirnovCriticalValues.criticalValue(x.length, y.length, confidence, Tail.SINGLE_TAILED);
+      if(op.equals(">="))
+         return KolmogorovSmirnovTestTwoSamples.KSstatisticsSingleTailedE1GeqE2(x, y) < criticalValue;
+      else
+         return KolmogorovSmirnovTestTwoSamples.KSstatisticsSingleTailedE1GeqE2(y, x) < criticalValue;
+   }
+   
+   @Test
+   public void testIncrementalSortedBounds() throws ContradictionException {
+      Random random = new Random(7);
+      Solver solver = new Solver("IncrementalSortedBounds");
+      // the narrow sample is reloaded by counting sort, the wide one by insertion sort
+      IntVar[][] samples = {
+            VariableFactory.boundedArray("narrow", 12, -5, 5, solver),
+            VariableFactory.boundedArray("wide", 12, -500, 500, solver)
+      };
+      SortedBounds[][] indexes = new SortedBounds[2][2];
+      for(int s = 0; s < 2; s++){
+         indexes[s][0] = new SortedBounds(samples[s], false);
+         indexes[s][1] = new SortedBounds(samples[s], true);
+      }
+      PivotStatistics e1GeqD1 = new PivotStatistics(12, true);
+      PivotStatistics d1GeqE1 = new PivotStatistics(12, false);
+      Distribution dist = new NormalDist(0, 3);
+      double[] expected = new double[12];
+      double[] probed = new double[12];
+      int depth = 0;
+      for(int step = 0; step < 2000; step++){
+         if(depth > 0 && random.nextBoolean()){
+            solver.getEnvironment().worldPop();
+            depth--;
+         }else{
+            solver.getEnvironment().worldPush();
+            depth++;
+            int s = random.nextInt(2);
+            int i = random.nextInt(12);
+            IntVar var = samples[s][i];
+            int value = var.getLB() + random.nextInt(var.getUB() - var.getLB() + 1);
+            if(random.nextBoolean())
+               var.updateLowerBound(value, Cause.Null);
+            else
+               var.updateUpperBound(value, Cause.Null);
+            // as in the propagators, only the index of the modified variable is notified
+            indexes[s][0].update(i);
+            indexes[s][1].update(i);
+         }
+         for(int s = 0; s < 2; s++){
+            for(int b = 0; b < 2; b++){
+               SortedBounds index = indexes[s][b];
+               if(index.isStale())
+                  index.refresh();
+               SortedBounds.sort(samples[s], b == 1, expected);
+               assertArrayEquals(expected, index.values, 0);
+               
+               int i = random.nextInt(12);
+               int pivot = index.position(i);
+               double value = index.values[0] - 2 + random.nextInt((int)(index.values[11] - index.values[0]) + 5);
+               SortedBounds.replace(expected, pivot, value, probed);
+               e1GeqD1.build(index.values, dist);
+               d1GeqE1.build(index.values, dist);
+               assertEquals(org.syat.statistics.KolmogorovSmirnovTest.KSstatisticsSingleTailedE1GeqD1(expected, dist), e1GeqD1.statistic(), 1e-12);
+               assertEquals(org.syat.statistics.KolmogorovSmirnovTest.KSstatisticsSingleTailedD1GeqE1(expected, dist), d1GeqE1.statistic(), 1e-12);
+               assertEquals(org.syat.statistics.KolmogorovSmirnovTest.KSstatisticsSingleTailedE1GeqD1(probed, dist), e1GeqD1.statistic(pivot, value), 1e-12);
+               assertEquals(org.syat.statistics.KolmogorovSmirnovTest.KSstatisticsSingleTailedD1GeqE1(probed, dist), d1GeqE1.statistic(pivot, value), 1e-12);
+               
+               // a probe keeps the values sorted, and is undone by restore
+               index.set(i, value);
+               assertArrayEquals(probed, index.values, 0);
+               index.restore(i);
+               assertArrayEquals(expected, index.values, 0);
+            }
+         }
+      }
+   }
+   
+   @Test
+   public void testCountingSort() throws ContradictionException {
+      Random random = new Random(3);
+      for(int t = 0; t < 200; t++){
+         Solver solver = new Solver("CountingSort");
+         int n = 2 + random.nextInt(30);
+         // a range narrower than eight values per variable is sorted by counting, with many ties
+         int lb = -random.nextInt(2*n);
+         int ub = lb + random.nextInt(4*n);
+         IntVar[] vars = VariableFactory.boundedArray("x", n, lb, ub, solver);
+         for(IntVar var : vars){
+            int value = lb + random.nextInt(ub - lb + 1);
+            if(random.nextBoolean())
+               var.updateLowerBound(value, Cause.Null);
+            else
+               var.updateUpperBound(value, Cause.Null);
+         }
+         for(boolean upper : new boolean[]{false, true}){
+            SortedBounds index = new SortedBounds(vars, upper);
+            index.refresh();
+            double[] expected = new double[n];
+            for(int i = 0; i < n; i++){
+               expected[i] = upper ? vars[i].getUB() : vars[i].getLB();
+            }
+            Arrays.sort(expected);
+            assertArrayEquals(expected, index.values, 0);
+            for(int i = 0; i < n; i++){
+               assertEquals(index.bound(i), index.values[index.position(i)], 0);
+            }
+         }
+      }
+   }
+   
+   @Test
+   public void testFusedEquality() throws ContradictionException {
+      Random random = new Random(5);
+      Distribution dist = new NormalDist(5, 3);
+      double confidence = 0.5;
+      double twoTailed = 1-(1-confidence)/2.0;
+      for(int t = 0; t < 60; t++){
+         boolean twoSample = t % 2 == 1;
+         int n = 10 + random.nextInt(10);
+         int m = twoSample ? 10 + random.nextInt(10) : 0;
+         Solver fused = new Solver("Fused");
+         Solver pair = new Solver("Pair");
+         IntVar[] fusedVars = VariableFactory.boundedArray("x", n + m, 0, 20, fused);
+         IntVar[] pairVars = VariableFactory.boundedArray("x", n + m, 0, 20, pair);
+         if(twoSample){
+            IntVar[] x = Arrays.copyOf(pairVars, n);
+            IntVar[] y = Arrays.copyOfRange(pairVars, n, n + m);
+            fused.post(SyatConstraintFactory.kolmogorov_smirnov(Arrays.copyOf(fusedVars, n), Arrays.copyOfRange(fusedVars, n, n + m), "=", confidence));
+            pair.post(new Constraint("Pair", new PropGreaterOrEqualX_YStDist(x, y, twoTailed), new PropGreaterOrEqualX_YStDist(y, x, twoTailed)));
+         }else{
+            fused.post(SyatConstraintFactory.kolmogorov_smirnov(fusedVars, dist, "=", confidence));
+            pair.post(new Constraint("Pair", new PropGreaterOrEqualXCStDist(pairVars, dist, twoTailed), new PropLessOrEqualXCStDist(pairVars, dist, twoTailed)));
+         }
+         if(!propagateAndCompare(fused, fusedVars, pair, pairVars))
+            continue;
+         int depth = 0;
+         for(int step = 0; step < 200; step++){
+            if(depth > 0 && random.nextInt(4) == 0){
+               fused.getEnvironment().worldPop();
+               pair.getEnvironment().worldPop();
+               depth--;
+               continue;
+            }
+            fused.getEnvironment().worldPush();
+            pair.getEnvironment().worldPush();
+            depth++;
+            int i = random.nextInt(n + m);
+            int value = fusedVars[i].getLB() + random.nextInt(fusedVars[i].getUB() - fusedVars[i].getLB() + 1);
+            if(random.nextBoolean()){
+               fusedVars[i].updateLowerBound(value, Cause.Null);
+               pairVars[i].updateLowerBound(value, Cause.Null);
+            }
+            if(random.nextBoolean()){
+               fusedVars[i].updateUpperBound(value, Cause.Null);
+               pairVars[i].updateUpperBound(value, Cause.Null);
+            }
+            if(!propagateAndCompare(fused, fusedVars, pair, pairVars)){
+               fused.getEnvironment().worldPop();
+               pair.getEnvironment().worldPop();
+               depth--;
+            }
+         }
+      }
+   }
+   
+   /**
+    * Propagates both solvers, and checks that they fail together or reach the same bounds.
+    * 
+    * @return true if neither solver failed
+    */
+   private static boolean propagateAndCompare(Solver solver1, IntVar[] vars1, Solver solver2, IntVar[] vars2){
+      boolean consistent1 = propagate(solver1);
+      boolean consistent2 = propagate(solver2);
+      assertEquals(consistent2, consistent1);
+      if(consistent1){
+         for(int i = 0; i < vars1.length; i++){
+            assertEquals(vars2[i].getLB(), vars1[i].getLB());
+            assertEquals(vars2[i].getUB(), vars1[i].getUB());
+         }
+      }
+      return consistent1;
+   }
+   
+   private static boolean propagate(Solver solver){
+      try{
+         solver.propagate();
+         return true;
+      }catch(ContradictionException e){
+         solver.getEngine().flush();
+         return false;
+      }
+   }
+   
+   @Test
+   public void testValidSupports() throws ContradictionException {
+      Random random = new Random(9);
+      for(int t = 0; t < 40; t++){
+         boolean parameterised = t % 2 == 1;
+         int n = 4 + random.nextInt(6);
+         // narrow domains around the target, so that some values are removed and some are supported
+         int[] lbs = new int[n];
+         int[] ubs = new int[n];
+         for(int i = 0; i < n; i++){
+            lbs[i] = Math.max(0, (int) Math.round(10 + 4*random.nextGaussian()) - random.nextInt(4));
+            ubs[i] = lbs[i] + random.nextInt(8);
+         }
+         Solver solver = new Solver("Supports");
+         IntVar[] vars = postNotEqual(solver, parameterised, lbs, ubs);
+         if(!propagate(solver))
+            continue;
+         List<int[]> branch = new ArrayList<int[]>();
+         for(int step = 0; step < 300; step++){
+            if(!branch.isEmpty() && random.nextInt(3) == 0){
+               solver.getEnvironment().worldPop();
+               branch.remove(branch.size() - 1);
+               continue;
+            }
+            int i = random.nextInt(vars.length);
+            IntVar var = vars[i];
+            if(var.isInstantiated())
+               continue;
+            int[] decision = {random.nextInt(4), i, var.nextValue(var.getLB() - 1 + random.nextInt(var.getUB() - var.getLB() + 1))};
+            solver.getEnvironment().worldPush();
+            branch.add(decision);
+            apply(vars, decision);
+            boolean consistent = propagate(solver);
+            
+            // the same branch, replayed in a new solver that never explored the abandoned ones
+            Solver replay = new Solver("Replay");
+            IntVar[] replayVars = postNotEqual(replay, parameterised, lbs, ubs);
+            boolean replayConsistent = propagate(replay);
+            for(int d = 0; d < branch.size() && replayConsistent; d++){
+               apply(replayVars, branch.get(d));
+               replayConsistent = propagate(replay);
+            }
+            assertEquals(replayConsistent, consistent);
+            if(consistent){
+               for(int k = 0; k < vars.length; k++){
+                  assertSameDomain(replayVars[k], vars[k]);
+               }
+            }else{
+               solver.getEnvironment().worldPop();
+               branch.remove(branch.size() - 1);
+            }
+         }
+      }
+   }
+   
+   /**
+    * Posts a one-sample != constraint, against a fixed normal distribution or against an exponential 
+    * distribution of variable mean.
+    * 
+    * @return the observations, followed by the mean if any
+    */
+   private static IntVar[] postNotEqual(Solver solver, boolean parameterised, int[] lbs, int[] ubs){
+      int n = lbs.length;
+      IntVar[] vars = new IntVar[parameterised ? n + 1 : n];
+      for(int i = 0; i < n; i++){
+         vars[i] = VariableFactory.enumerated("x"+i, lbs[i], ubs[i], solver);
+      }
+      IntVar[] observations = Arrays.copyOf(vars, n);
+      if(parameterised){
+         vars[n] = VariableFactory.enumerated("mean", 5, 15, solver);
+         solver.post(SyatConstraintFactory.kolmogorov_smirnov(observations, new ExponentialDistVar(vars[n]), "!=", 0.9));
+      }else{
+         solver.post(SyatConstraintFactory.kolmogorov_smirnov(observations, new NormalDist(10, 4), "!=", 0.9));
+      }
+      return vars;
+   }
+   
+   private static void apply(IntVar[] vars, int[] decision) throws ContradictionException {
+      IntVar var = vars[decision[1]];
+      switch(decision[0]){
+      case 0:
+         var.removeValue(decision[2], Cause.Null);
+         break;
+      case 1:
+         var.updateLowerBound(decision[2], Cause.Null);
+         break;
+      case 2:
+         var.updateUpperBound(decision[2], Cause.Null);
+         break;
+      default:
+         var.instantiateTo(decision[2], Cause.Null);
+      }
+   }
+   
+   private static void assertSameDomain(IntVar expected, IntVar actual){
+      assertEquals(expected.getDomainSize(), actual.getDomainSize());
+      for(int value = expected.getLB(); value <= expected.getUB(); value = expected.nextValue(value)){
+         assertTrue(actual.contains(value));
+      }
+   }
+   
+   @Test
+   public void testValidSupportsWideDomains() {
+      Solver solver = new Solver("WideSupports");
+      ValidSupports narrow = new ValidSupports(VariableFactory.boundedArray("narrow", 3, -5, 4, solver));
+      assertEquals(30, narrow.size());
+      assertEquals(29, narrow.key(2, 4));
+      narrow.validate(29);
+      assertTrue(narrow.isValid(29));
+      assertFalse(narrow.isValid(0));
+      
+      // the pairs of [0, 10^8] and [-10^8, 10^8] do not fit: none is tracked, and every check is repeated
+      IntVar[] wide = {VariableFactory.bounded("wide", 0, 100000000, solver), VariableFactory.bounded("wider", -100000000, 100000000, solver)};
+      ValidSupports untracked = new ValidSupports(wide);
+      assertEquals(1, untracked.size());
+      assertEquals(0, untracked.key(1, -100000000));
+      untracked.validate(0);
+      assertFalse(untracked.isValid(0));
+   }
+   
+   @Test
+   public void testVerdictCache() throws ContradictionException {
+      VerdictCache cache = new VerdictCache(2);
+      int test = cache.register();
+      double[] sample1 = {1, 2, 3};
+      double[] sample2 = {2, 3, 4};
+      assertNull(cache.get(test, 0, sample1, sample2));
+      cache.put(test, 0, sample1, sample2, true);
+      // the stored samples are copies
+      sample1[0] = 0;
+      assertNull(cache.get(test, 0, sample1, sample2));
+      assertEquals(Boolean.TRUE, cache.get(test, 0, new double[]{1, 2, 3}, sample2));
+      assertNull(cache.get(cache.register(), 0, new double[]{1, 2, 3}, sample2));
+      assertEquals(1, cache.getHits());
+      assertEquals(3, cache.getMisses());
+      
+      // a disabled cache neither stores verdicts nor counts lookups
+      cache = new VerdictCache(0);
+      test = cache.register();
+      cache.put(test, 0, sample1, sample2, true);
+      assertNull(cache.get(test, 0, sample1, sample2));
+      assertEquals(0, cache.size());
+      assertEquals(0, cache.getHits() + cache.getMisses());
+      
+      // constraints create a disabled cache, which may be enabled before propagation
+      Solver solver = new Solver("VerdictCache");
+      IntVar[] x = VariableFactory.boundedArray("x", 5, 0, 10, solver);
+      IntVar[] y = VariableFactory.boundedArray("y", 5, 0, 10, solver);
+      KolmogorovSmirnov constraint = SyatConstraintFactory.kolmogorov_smirnov(x, y, ">=", 0.9);
+      cache = constraint.getVerdictCache();
+      assertEquals(0, cache.getCapacity());
+      cache.setCapacity(VerdictCache.DEFAULT_CAPACITY);
+      solver.post(constraint);
+      solver.propagate();
+      assertTrue(cache.getMisses() > 0);
+      long[] hits = new long[2];
+      long[] misses = new long[2];
+      for(int k = 0; k < 2; k++){
+         hits[k] = cache.getHits();
+         misses[k] = cache.getMisses();
+         solver.getEnvironment().worldPush();
+         y[0].updateLowerBound(8, Cause.Null);
+         solver.propagate();
+         solver.getEnvironment().worldPop();
+         hits[k] = cache.getHits() - hits[k];
+         misses[k] = cache.getMisses() - misses[k];
+      }
+      // the second visit of the same node finds all the verdicts of the first one
+      assertTrue(misses[0] > 0);
+      assertEquals(0, misses[1]);
+      assertEquals(hits[0] + misses[0], hits[1]);
+   }
+   
+   @Test
+   public void testPivotSearchIntRange() {
+      final int[] thresholds = {Integer.MIN_VALUE + 1, -5, 0, Integer.MAX_VALUE - 1, Integer.MAX_VALUE};
+      for(final int t : thresholds){
+         PivotSearch upper = new PivotSearch(){
+            @Override
+            boolean passes(int value){
+               return value >= t;
+            }
+         };
+         PivotSearch lower = new PivotSearch(){
+            @Override
+            boolean passes(int value){
+               return value < t;
+            }
+         };
+         assertEquals(t, upper.smallestPassingValue(Integer.MIN_VALUE, Integer.MAX_VALUE));
+         assertEquals(t - 1L, lower.largestPassingValue(Integer.MIN_VALUE, Integer.MAX_VALUE));
+      }
+      PivotSearch none = new PivotSearch(){
+         @Override
+         boolean passes(int value){
+            return false;
+         }
+      };
+      // no passing value lies just outside the int range
+      assertEquals(Integer.MAX_VALUE + 1L, none.smallestPassingValue(Integer.MIN_VALUE, Integer.MAX_VALUE));
+      assertEquals(Integer.MIN_VALUE - 1L, none.largestPassingValue(Integer.MIN_VALUE, Integer.MAX_VALUE));
+   }
+
+   @Test
+   public void testParallelFiltering() throws ContradictionException {
+      Random random = new Random(13);
+      Distribution dist = new NormalDist(20, 4);
+      String[] operators = {">=", "<="};
+      for(int t = 0; t < 8; t++){
+         boolean twoSample = t % 2 == 1;
+         String op = operators[(t / 2) % 2];
+         // larger than the grain of the fork-join tasks, so that candidates are computed by several tasks
+         int n = 70 + random.nextInt(60);
+         int m = twoSample ? 70 + random.nextInt(60) : 0;
+         Solver sequential = new Solver("Sequential");
+         Solver parallel = new Solver("Parallel");
+         IntVar[] sequentialVars = VariableFactory.boundedArray("x", n + m, 0, 40, sequential);
+         IntVar[] parallelVars = VariableFactory.boundedArray("x", n + m, 0, 40, parallel);
+         if(twoSample){
+            sequential.post(SyatConstraintFactory.kolmogorov_smirnov(Arrays.copyOf(sequentialVars, n), Arrays.copyOfRange(sequentialVars, n, n + m), op, 0.9));
+            parallel.post(SyatConstraintFactory.kolmogorov_smirnov(Arrays.copyOf(parallelVars, n), Arrays.copyOfRange(parallelVars, n, n + m), op, 0.9, 2));
+         }else{
+            sequential.post(SyatConstraintFactory.kolmogorov_smirnov(sequentialVars, dist, op, 0.9));
+            parallel.post(SyatConstraintFactory.kolmogorov_smirnov(parallelVars, dist, op, 0.9, 2));
+         }
+         for(int dive = 0; dive < 4; dive++){
+            sequential.getEnvironment().worldPush();
+            parallel.getEnvironment().worldPush();
+            // fix the observations a few at a time to draws of the distribution, shifted in the 
+            // first sample, until the test fails, so that the filtering is compared close to the failure
+            int shift = random.nextInt(9) - 4;
+            List<Integer> order = new ArrayList<Integer>();
+            for(int i = 0; i < n + m; i++)
+               order.add(i);
+            Collections.shuffle(order, random);
+            for(int k = 0; k < n + m; k += 4){
+               for(int i : order.subList(k, Math.min(k + 4, n + m))){
+                  int value = (int)Math.round(dist.inverseF(random.nextDouble())) + (i < n ? shift : 0);
+                  value = Math.max(sequentialVars[i].getLB(), Math.min(sequentialVars[i].getUB(), value));
+                  sequentialVars[i].instantiateTo(value, Cause.Null);
+                  parallelVars[i].instantiateTo(value, Cause.Null);
+               }
+               if(!propagateAndCompare(parallel, parallelVars, sequential, sequentialVars))
+                  break;
+            }
+            sequential.getEnvironment().worldPop();
+            parallel.getEnvironment().worldPop();
+         }
+      }
+   }
+   
    class OneSampleKolmogorovSmirnovTest extends AbstractProblem {
 
       // input data
@@ -0,0 +1,156 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.syad.statistics.test;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues;
+import org.syat.statistics.KolmogorovSmirnovCriticalValues.Tail;
+import org.syat.statistics.KolmogorovSmirnovTest;
+import org.syat.statistics.KolmogorovSmirnovTestTwoSamples;
+
+import umontreal.iro.lecuyer.probdist.EmpiricalDist;
+import umontreal.iro.lecuyer.probdist.KolmogorovSmirnovDist;
+import umontreal.iro.lecuyer.probdist.UniformDist;
+import umontreal.iro.lecuyer.randvar.UniformGen;
+import umontreal.iro.lecuyer.rng.MRG31k3p;
+
+public class KolmogorovSmirnovCriticalValuesTest {
+
+	@Before
+	public void setUp() throws Exception {
+	}
+
+	@After
+	public void tearDown() throws Exception {
+	}
+
+	@Test
+	public void criticalValue() {
+		double criticalValue = KolmogorovSmirnovCriticalValues.criticalValue(10, 0.95, Tail.TWO_TAILED);
+		assertEquals("K-S critical value: "+criticalValue, 0.409, criticalValue, 0.001);
+		assertEquals(new KolmogorovSmirnovDist(10).inverseF(0.95), criticalValue, 1e-8);
+		assertEquals(new KolmogorovSmirnovDist(10).inverseF(0.9), KolmogorovSmirnovCriticalValues.criticalValue(10, 0.95, Tail.SINGLE_TAILED), 1e-8);
+		assertEquals(KolmogorovSmirnovCriticalValues.criticalValue(20, 0.95, Tail.TWO_TAILED), KolmogorovSmirnovCriticalValues.criticalValue(40, 40, 0.95, Tail.TWO_TAILED), 0);
+	}
+	
+	@Test
+	public void consistentWithPValues() throws Exception {
+		MRG31k3p lfsr = new MRG31k3p();
+		int[] seed = {1,2,3,4,5,6};
+		lfsr.setSeed(seed);
+		UniformGen rngUnif = new UniformGen(lfsr, 0, 1);
+		int samples = 30;
+		int replications = 1000;
+		double confidence = 0.9;
+		for(int i = 0; i < replications; i++){
+			double[] randomSample1 = new double[samples];
+			rngUnif.nextArrayOfDouble(randomSample1, 0, samples);
+			EmpiricalDist emp1 = new EmpiricalDist(randomSample1);
+			double[] randomSample2 = new double[samples];
+			rngUnif.nextArrayOfDouble(randomSample2, 0, samples);
+			EmpiricalDist emp2 = new EmpiricalDist(randomSample2);
+			
+			KolmogorovSmirnovTest kst = new KolmogorovSmirnovTest(emp1, new UniformDist(0,1), confidence);
+			assertEquals(1.0-confidence < kst.pValueE1NeqD1(), kst.testE1NeqD1());
+			assertEquals((1.0-confidence)*2 < kst.pValueE1GeqD1(), kst.testE1GeqD1());
+			assertEquals((1.0-confidence)*2 < kst.pValueD1GeqE1(), kst.testD1GeqE1());
+			
+			KolmogorovSmirnovTestTwoSamples kst2 = new KolmogorovSmirnovTestTwoSamples(emp1, emp2, confidence);
+			assertEquals(1.0-confidence < kst2.pValueE2NeqE1(), kst2.testE2NeqE1());
+			assertEquals((1.0-confidence)*2 < kst2.pValueE1GeqE2(), kst2.testE1GeqE2());
+			assertEquals((1.0-confidence)*2 < kst2.pValueE2GeqE1(), kst2.testE2GeqE1());
+		}
+	}
+	
+	@Test
+	public void asymptoticCriticalValue() {
+		int[] sizes = {35, 100, 400};
+		double[] confidences = {0.9, 0.95, 0.99};
+		for(int n : sizes){
+			for(double confidence : confidences){
+				assertEquals(0, KolmogorovSmirnovCriticalValues.asymptoticRelativeError(n, confidence, Tail.TWO_TAILED), 5e-3);
+				assertEquals(0, KolmogorovSmirnovCriticalValues.asymptoticRelativeError(n, confidence, Tail.SINGLE_TAILED), 5e-3);
+			}
+		}
+		assertEquals(KolmogorovSmirnovCriticalValues.criticalValue(100, 0.95, Tail.TWO_TAILED), 
+				KolmogorovSmirnovCriticalValues.criticalValue(100, 0.95, Tail.TWO_TAILED, 101), 0);
+		String report = KolmogorovSmirnovCriticalValues.accuracyReport(sizes, confidences, Tail.TWO_TAILED);
+		assertEquals(sizes.length*confidences.length, report.split("\\R").length);
+	}
+	
+	@Test
+	public void asymptoticCriticalValueLargeSamples() {
+		// n*m overflows an int, while the effective sample size nm/(n+m) = 25000 does not
+		double criticalValue = KolmogorovSmirnovCriticalValues.criticalValue(50000, 50000, 0.95, Tail.TWO_TAILED, 100);
+		assertEquals(KolmogorovSmirnovCriticalValues.criticalValue(25000, 0.95, Tail.TWO_TAILED, 100), criticalValue, 0);
+		assertEquals(1.358/Math.sqrt(25000), criticalValue, 1e-4);
+	}
+	
+	@Test
+	public void asymptoticCriticalValueSmallSamples() {
+		double[] confidences = {0.9, 0.95, 0.99};
+		for(int n = 10; n < 35; n++){
+			for(double confidence : confidences){
+				assertEquals(0, KolmogorovSmirnovCriticalValues.asymptoticRelativeError(n, confidence, Tail.TWO_TAILED), 4e-3);
+				assertEquals(0, KolmogorovSmirnovCriticalValues.asymptoticRelativeError(n, confidence, Tail.SINGLE_TAILED), 4e-3);
+			}
+		}
+	}
+	
+	@Test
+	public void asymptoticConsistentWithPValues() throws Exception {
+		MRG31k3p lfsr = new MRG31k3p();
+		int[] seed = {1,2,3,4,5,6};
+		lfsr.setSeed(seed);
+		UniformGen rngUnif = new UniformGen(lfsr, 0, 1);
+		int samples = 100;
+		int replications = 1000;
+		double confidence = 0.9;
+		for(int i = 0; i < replications; i++){
+			double[] randomSample1 = new double[samples];
+			rngUnif.nextArrayOfDouble(randomSample1, 0, samples);
+			EmpiricalDist emp1 = new EmpiricalDist(randomSample1);
+			double[] randomSample2 = new double[samples];
+			rngUnif.nextArrayOfDouble(randomSample2, 0, samples);
+			EmpiricalDist emp2 = new EmpiricalDist(randomSample2);
+			
+			KolmogorovSmirnovTest kst = new KolmogorovSmirnovTest(emp1, new UniformDist(0,1), confidence, 50);
+			assertEquals(1.0-confidence < kst.pValueE1NeqD1(), kst.testE1NeqD1());
+			assertEquals((1.0-confidence)*2 < kst.pValueE1GeqD1(), kst.testE1GeqD1());
+			assertEquals((1.0-confidence)*2 < kst.pValueD1GeqE1(), kst.testD1GeqE1());
+			
+			KolmogorovSmirnovTestTwoSamples kst2 = new KolmogorovSmirnovTestTwoSamples(emp1, emp2, confidence, 50);
+			assertEquals(1.0-confidence < kst2.pValueE2NeqE1(), kst2.testE2NeqE1());
+			assertEquals((1.0-confidence)*2 < kst2.pValueE1GeqE2(), kst2.testE1GeqE2());
+			assertEquals((1.0-confidence)*2 < kst2.pValueE2GeqE1(), kst2.testE2GeqE1());
+		}
+	}
+}
@@ -92,6 +92,16 @@ public class KolmogorovSmirnovTestTest {
 		assertEquals("K-S statistics: "+stats[2],0.290, stats[2],0.001);
 	}
 	
+	@Test
+	public void sortedSamplesStatistics(){
+		double[] sortedSamples = new double[this.randomSample.length];
+		System.arraycopy(this.randomSample, 0, sortedSamples, 0, this.randomSample.length);
+		Arrays.sort(sortedSamples);
+		assertEquals(kst.KSstatisticsTwoTailed(), KolmogorovSmirnovTest.KSstatisticsTwoTailed(sortedSamples, this.unif01), 0);
+		assertEquals(kst.KSstatisticsSingleTailedE1GeqD1(), KolmogorovSmirnovTest.KSstatisticsSingleTailedE1GeqD1(sortedSamples, this.unif01), 0);
+		assertEquals(kst.KSstatisticsSingleTailedD1GeqE1(), KolmogorovSmirnovTest.KSstatisticsSingleTailedD1GeqE1(sortedSamples, this.unif01), 0);
+	}
+	
 	@Test
 	public void frequencyE1NeqD1() throws Exception {
 		MRG31k3p lfsr = new MRG31k3p();
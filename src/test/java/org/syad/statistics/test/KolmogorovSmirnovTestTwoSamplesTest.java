@@ -47,6 +47,16 @@ public class KolmogorovSmirnovTestTwoSamplesTest {
 	public void tearDown() throws Exception {
 	}
 
+	@Test
+	public void sortedSamplesStatistics(){
+		double[] sortedSamples1 = {1, 2, 2, 3, 5, 5, 5, 8};
+		double[] sortedSamples2 = {0, 2, 3, 3, 4, 6, 9};
+		KolmogorovSmirnovTestTwoSamples kst = new KolmogorovSmirnovTestTwoSamples(new EmpiricalDist(sortedSamples1), new EmpiricalDist(sortedSamples2), 0.95);
+		assertEquals(kst.KSstatisticsTwoTailed(), KolmogorovSmirnovTestTwoSamples.KSstatisticsTwoTailed(sortedSamples1, sortedSamples2), 0);
+		assertEquals(kst.KSstatisticsSingleTailedE1GeqE2(), KolmogorovSmirnovTestTwoSamples.KSstatisticsSingleTailedE1GeqE2(sortedSamples1, sortedSamples2), 0);
+		assertEquals(kst.KSstatisticsSingleTailedE2GeqE1(), KolmogorovSmirnovTestTwoSamples.KSstatisticsSingleTailedE2GeqE1(sortedSamples1, sortedSamples2), 0);
+	}
+	
 	@Test
 	public void frequencyE1GeqE2() throws Exception {
 		MRG31k3p lfsr = new MRG31k3p();
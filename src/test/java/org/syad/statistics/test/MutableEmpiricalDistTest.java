@@ -0,0 +1,137 @@
+/*
+ * syat-choco: a Choco extension for Declarative Statistics.
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2016 Roberto Rossi
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy 
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.syad.statistics.test;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import umontreal.iro.lecuyer.probdist.EmpiricalDist;
+import umontreal.iro.lecuyer.probdist.MutableEmpiricalDist;
+
+public class MutableEmpiricalDistTest {
+
+	@Before
+	public void setUp() throws Exception {
+	}
+
+	@After
+	public void tearDown() throws Exception {
+	}
+
+	@Test
+	public void cdfAndBarF() {
+		EmpiricalDist dist = new EmpiricalDist(new double[]{3, 2, 1, 2});
+		double[] points = {0, 1, 1.5, 2, 2.5, 3, 4};
+		// cdf(x) = P[X <= x] and barF(x) = P[X >= x], both jump at the tied observations
+		double[] cdf = {0, 0.25, 0.25, 0.75, 0.75, 1, 1};
+		double[] barF = {1, 1, 0.75, 0.75, 0.25, 0.25, 0};
+		for(int i = 0; i < points.length; i++){
+			assertEquals("cdf("+points[i]+")", cdf[i], dist.cdf(points[i]), 0);
+			assertEquals("barF("+points[i]+")", barF[i], dist.barF(points[i]), 0);
+		}
+	}
+	
+	@Test
+	public void replaceObs() {
+		Random random = new Random(3);
+		for(int t = 0; t < 100; t++){
+			// few distinct values, so that the replaced and the new observations are often tied
+			double[] obs = new double[2 + random.nextInt(8)];
+			for(int i = 0; i < obs.length; i++)
+				obs[i] = random.nextInt(5);
+			MutableEmpiricalDist dist = new MutableEmpiricalDist(obs);
+			for(int step = 0; step < 20; step++){
+				int i = random.nextInt(obs.length);
+				double newObs = random.nextInt(9) - 2;
+				dist.replaceObs(obs[i], newObs);
+				obs[i] = newObs;
+				assertSameDistribution(new EmpiricalDist(obs), dist);
+			}
+		}
+	}
+	
+	@Test
+	public void setObs() {
+		Random random = new Random(5);
+		MutableEmpiricalDist dist = new MutableEmpiricalDist(new double[]{0, 0, 0, 0, 0, 0});
+		for(int t = 0; t < 100; t++){
+			double[] obs = new double[6];
+			for(int i = 0; i < obs.length; i++)
+				obs[i] = random.nextInt(5);
+			dist.setObs(obs);
+			assertSameDistribution(new EmpiricalDist(obs), dist);
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void setObsWrongSize() {
+		new MutableEmpiricalDist(new double[]{1, 2, 3}).setObs(new double[]{1, 2});
+	}
+	
+	@Test
+	public void replaceSorted() {
+		Random random = new Random(7);
+		for(int t = 0; t < 1000; t++){
+			double[] sorted = new double[1 + random.nextInt(10)];
+			for(int i = 0; i < sorted.length; i++)
+				sorted[i] = random.nextInt(5);
+			Arrays.sort(sorted);
+			double oldValue = sorted[random.nextInt(sorted.length)];
+			double newValue = random.nextInt(9) - 2;
+			
+			double[] expected = sorted.clone();
+			expected[Arrays.binarySearch(expected, oldValue)] = newValue;
+			Arrays.sort(expected);
+			MutableEmpiricalDist.replaceSorted(sorted, oldValue, newValue);
+			assertArrayEquals(expected, sorted, 0);
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void replaceMissingObs() {
+		new MutableEmpiricalDist(new double[]{1, 2, 3}).replaceObs(4, 0);
+	}
+	
+	private static void assertSameDistribution(EmpiricalDist expected, EmpiricalDist actual){
+		assertArrayEquals(expected.getParams(), actual.getParams(), 0);
+		assertEquals(expected.getSampleMean(), actual.getSampleMean(), 0);
+		assertEquals(expected.getSampleVariance(), actual.getSampleVariance(), 0);
+		assertEquals(expected.getMedian(), actual.getMedian(), 0);
+		assertEquals(expected.getXinf(), actual.getXinf(), 0);
+		assertEquals(expected.getXsup(), actual.getXsup(), 0);
+		for(int k = -6; k <= 14; k++){
+			assertEquals(expected.cdf(k/2.0), actual.cdf(k/2.0), 0);
+			assertEquals(expected.barF(k/2.0), actual.barF(k/2.0), 0);
+		}
+	}
+}